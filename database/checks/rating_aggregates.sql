@@ -0,0 +1,22 @@
+-- ============================================
+-- Consistency check: restaurant rating aggregates
+-- Lists restaurants whose review_count / rating_sum disagree with the
+-- reviews table. An empty result means the aggregates are consistent.
+-- Repair with ReviewDAO.rebuildRatingAggregates() or by re-running the
+-- backfill statements of migrations/002_rating_aggregates.sql.
+-- ============================================
+
+USE food_ordering_system;
+
+SELECT r.restaurant_id,
+       r.name,
+       r.review_count,
+       COUNT(v.review_id) AS actual_review_count,
+       r.rating_sum,
+       COALESCE(SUM(v.rating), 0) AS actual_rating_sum
+FROM restaurants r
+LEFT JOIN reviews v ON v.restaurant_id = r.restaurant_id
+GROUP BY r.restaurant_id, r.name, r.review_count, r.rating_sum
+HAVING r.review_count <> COUNT(v.review_id)
+    OR r.rating_sum <> COALESCE(SUM(v.rating), 0)
+ORDER BY r.restaurant_id;
@@ -0,0 +1,10 @@
+-- ============================================
+-- Migration 001: order history keyset index
+-- Lets the paginated order-history query seek straight to a customer's
+-- orders in (created_at, order_id) order instead of scanning idx_created_at.
+-- ============================================
+
+USE food_ordering_system;
+
+ALTER TABLE orders
+    ADD INDEX idx_customer_created (customer_id, created_at, order_id);
@@ -0,0 +1,31 @@
+-- ============================================
+-- Migration 002: incremental rating aggregates
+-- Replaces the AVG-recomputing rating triggers with review_count and
+-- rating_sum columns that ReviewDAO adjusts in O(1) on every review write.
+-- Run while the application is stopped so no review writes are missed.
+-- ============================================
+
+USE food_ordering_system;
+
+DROP TRIGGER IF EXISTS update_restaurant_rating_after_insert;
+DROP TRIGGER IF EXISTS update_restaurant_rating_after_update;
+DROP TRIGGER IF EXISTS update_restaurant_rating_after_delete;
+
+ALTER TABLE restaurants
+    ADD COLUMN review_count INT NOT NULL DEFAULT 0 CHECK (review_count >= 0) AFTER rating,
+    ADD COLUMN rating_sum INT NOT NULL DEFAULT 0 CHECK (rating_sum >= 0) AFTER review_count;
+
+-- Backfill from existing reviews
+UPDATE restaurants r
+LEFT JOIN (
+    SELECT restaurant_id, COUNT(*) AS review_count, SUM(rating) AS rating_sum
+    FROM reviews
+    GROUP BY restaurant_id
+) agg ON agg.restaurant_id = r.restaurant_id
+SET r.review_count = COALESCE(agg.review_count, 0),
+    r.rating_sum = COALESCE(agg.rating_sum, 0);
+
+UPDATE restaurants
+SET rating = CASE WHEN review_count > 0
+                  THEN ROUND(CAST(rating_sum AS DECIMAL(12,2)) / review_count, 2)
+                  ELSE 0 END;
@@ -0,0 +1,10 @@
+-- ============================================
+-- Migration 003: review feed keyset index
+-- Lets the paginated review feed seek straight to a restaurant's reviews
+-- in (created_at, review_id) order instead of sorting all of them.
+-- ============================================
+
+USE food_ordering_system;
+
+ALTER TABLE reviews
+    ADD INDEX idx_restaurant_created (restaurant_id, created_at, review_id);
@@ -0,0 +1,32 @@
+-- ============================================
+-- Migration 004: saved carts
+-- Adds the carts and cart_items tables that CartStore writes carts to,
+-- so a user's cart survives an application restart or crash.
+-- ============================================
+
+USE food_ordering_system;
+
+CREATE TABLE carts (
+    user_id INT PRIMARY KEY,
+    coupon_code VARCHAR(50) NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    
+    FOREIGN KEY (user_id) REFERENCES users(user_id) 
+        ON DELETE CASCADE 
+        ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
+-- No foreign key on item_id: see database/schema.sql
+CREATE TABLE cart_items (
+    user_id INT NOT NULL,
+    item_id INT NOT NULL,
+    line_no INT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL CHECK (unit_price >= 0),
+    quantity INT NOT NULL CHECK (quantity > 0),
+    
+    PRIMARY KEY (user_id, item_id),
+    FOREIGN KEY (user_id) REFERENCES carts(user_id) 
+        ON DELETE CASCADE 
+        ON UPDATE CASCADE
+) ENGINE=InnoDB;
@@ -57,6 +57,9 @@ CREATE TABLE restaurants (
     address VARCHAR(255),
     phone VARCHAR(20),
     rating DECIMAL(3,2) DEFAULT 0.00 CHECK (rating >= 0 AND rating <= 5),
+    -- Maintained by ReviewDAO on every review write; rating = rating_sum / review_count
+    review_count INT NOT NULL DEFAULT 0 CHECK (review_count >= 0),
+    rating_sum INT NOT NULL DEFAULT 0 CHECK (rating_sum >= 0),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     
     INDEX idx_name (name),
@@ -128,7 +131,8 @@ CREATE TABLE orders (
     INDEX idx_customer_id (customer_id),
     INDEX idx_restaurant_id (restaurant_id),
     INDEX idx_status (status),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_customer_created (customer_id, created_at, order_id)
 ) ENGINE=InnoDB;
 
 -- ============================================
@@ -196,58 +200,46 @@ CREATE TABLE reviews (
     INDEX idx_customer_id (customer_id),
     INDEX idx_rating (rating),
     INDEX idx_created_at (created_at),
+    INDEX idx_restaurant_created (restaurant_id, created_at, review_id),
     
     -- Prevent duplicate reviews from same customer for same restaurant
     UNIQUE KEY unique_customer_restaurant (customer_id, restaurant_id)
 ) ENGINE=InnoDB;
 
 -- ============================================
--- Triggers
+-- Table: carts
+-- Saved shopping carts, one per user, so a cart survives a restart.
+-- Written behind the UI by CartStore; an empty cart has no row.
 -- ============================================
+CREATE TABLE carts (
+    user_id INT PRIMARY KEY,
+    coupon_code VARCHAR(50) NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    
+    FOREIGN KEY (user_id) REFERENCES users(user_id) 
+        ON DELETE CASCADE 
+        ON UPDATE CASCADE
+) ENGINE=InnoDB;
 
--- Trigger: Update restaurant rating after new review
-DELIMITER $$
-
-CREATE TRIGGER update_restaurant_rating_after_insert
-AFTER INSERT ON reviews
-FOR EACH ROW
-BEGIN
-    UPDATE restaurants
-    SET rating = (
-        SELECT AVG(rating)
-        FROM reviews
-        WHERE restaurant_id = NEW.restaurant_id
-    )
-    WHERE restaurant_id = NEW.restaurant_id;
-END$$
-
-CREATE TRIGGER update_restaurant_rating_after_update
-AFTER UPDATE ON reviews
-FOR EACH ROW
-BEGIN
-    UPDATE restaurants
-    SET rating = (
-        SELECT AVG(rating)
-        FROM reviews
-        WHERE restaurant_id = NEW.restaurant_id
-    )
-    WHERE restaurant_id = NEW.restaurant_id;
-END$$
-
-CREATE TRIGGER update_restaurant_rating_after_delete
-AFTER DELETE ON reviews
-FOR EACH ROW
-BEGIN
-    UPDATE restaurants
-    SET rating = COALESCE((
-        SELECT AVG(rating)
-        FROM reviews
-        WHERE restaurant_id = OLD.restaurant_id
-    ), 0.00)
-    WHERE restaurant_id = OLD.restaurant_id;
-END$$
-
-DELIMITER ;
+-- ============================================
+-- Table: cart_items
+-- Lines of a saved cart, with the name and price they were added at.
+-- item_id has no foreign key: a menu item deleted while it sits in a cart
+-- must not block saving the cart; checkout checks items against the menu.
+-- ============================================
+CREATE TABLE cart_items (
+    user_id INT NOT NULL,
+    item_id INT NOT NULL,
+    line_no INT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL CHECK (unit_price >= 0),
+    quantity INT NOT NULL CHECK (quantity > 0),
+    
+    PRIMARY KEY (user_id, item_id),
+    FOREIGN KEY (user_id) REFERENCES carts(user_id) 
+        ON DELETE CASCADE 
+        ON UPDATE CASCADE
+) ENGINE=InnoDB;
 
 -- ============================================
 -- Views (Optional - for easier queries)
@@ -0,0 +1,104 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.models.Cart;
+import com.foodordering.models.CartItem;
+import com.foodordering.models.Coupon;
+import com.foodordering.models.MenuItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart.addItem, Cart.calculateTotal and reading the cart back after an edit
+ * at 10, 100 and 1000 distinct lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CartBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int lines;
+
+    private MenuItem[] menu;
+    private Cart filledCart;
+    private Cart couponCart;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        menu = new MenuItem[lines];
+        filledCart = new Cart();
+        couponCart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            menu[i] = new MenuItem(i + 1, 1, "Item " + i, (100 + random.nextInt(4900)) / 100.0, "", true);
+            filledCart.addItem(menu[i], 1 + random.nextInt(5));
+            couponCart.addItem(menu[i], 1 + random.nextInt(5));
+        }
+        couponCart.applyCoupon(new Coupon("SAVE10", Coupon.Type.PERCENTAGE, 10));
+    }
+
+    /** Fills an empty cart with every line, then adds to the first line again. */
+    @Benchmark
+    public Cart addItems() {
+        Cart cart = new Cart();
+        for (MenuItem item : menu) {
+            cart.addItem(item, 2);
+        }
+        cart.addItem(menu[0], 1);
+        return cart;
+    }
+
+    @Benchmark
+    public double calculateTotal() {
+        return filledCart.calculateTotal();
+    }
+
+    @Benchmark
+    public double calculateTotalWithCoupon() {
+        return couponCart.calculateTotal();
+    }
+
+    /** Changes one quantity, then renders the summary, as the cart screen does. */
+    @Benchmark
+    public long editThenSummary() {
+        couponCart.updateQuantity(menu[0].getItemId(), 3);
+        return couponCart.getSummary().getTotalCents();
+    }
+
+    /** Changes one quantity, then walks the lines through the shared view. */
+    @Benchmark
+    public long editThenItemsView() {
+        filledCart.updateQuantity(menu[0].getItemId(), 3);
+        long units = 0;
+        for (CartItem item : filledCart.getItemsView()) {
+            units += item.getQuantity();
+        }
+        return units;
+    }
+
+    /** Same walk through a copied snapshot, which an edit invalidates. */
+    @Benchmark
+    public long editThenItems() {
+        filledCart.updateQuantity(menu[0].getItemId(), 3);
+        long units = 0;
+        for (CartItem item : filledCart.getItems()) {
+            units += item.getQuantity();
+        }
+        return units;
+    }
+}
@@ -0,0 +1,140 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.models.Cart;
+import com.foodordering.models.CartItem;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One cart shared by all benchmark threads, as in a group order edited from
+ * several clients: the striped {@link Cart} against the previous
+ * LinkedHashMap cart behind a single lock. Run at different thread counts
+ * with {@code -t}, e.g. {@code -t 1}, {@code -t 8}, {@code -t 64}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartContentionBenchmark {
+
+    private static final int MENU_SIZE = 32;
+
+    /** Operations the benchmark needs from either cart. */
+    interface SharedCart {
+        void addItem(MenuItem item, int quantity);
+        void updateQuantity(int itemId, int quantity);
+        List<CartItem> getItems();
+        long calculateSubtotalCents();
+    }
+
+    /** The cart before striping: LinkedHashMap lines, recomputed subtotal, one lock. */
+    static final class SynchronizedCart implements SharedCart {
+        private final Map<Integer, CartItem> items = new LinkedHashMap<>();
+
+        @Override
+        public synchronized void addItem(MenuItem item, int quantity) {
+            CartItem existing = items.get(item.getItemId());
+            if (existing == null) {
+                items.put(item.getItemId(), new CartItem(item.getItemId(), item.getName(), item.getPrice(), quantity));
+            } else {
+                existing.setQuantity(existing.getQuantity() + quantity);
+            }
+        }
+
+        @Override
+        public synchronized void updateQuantity(int itemId, int quantity) {
+            items.get(itemId).setQuantity(quantity);
+        }
+
+        @Override
+        public synchronized List<CartItem> getItems() {
+            return new ArrayList<>(items.values());
+        }
+
+        @Override
+        public synchronized long calculateSubtotalCents() {
+            long subtotal = Money.ZERO;
+            for (CartItem item : items.values()) {
+                subtotal = Money.add(subtotal, item.getSubtotalCents());
+            }
+            return subtotal;
+        }
+    }
+
+    static final class StripedCart implements SharedCart {
+        private final Cart cart = new Cart();
+
+        @Override
+        public void addItem(MenuItem item, int quantity) {
+            cart.addItem(item, quantity);
+        }
+
+        @Override
+        public void updateQuantity(int itemId, int quantity) {
+            cart.updateQuantity(itemId, quantity);
+        }
+
+        @Override
+        public List<CartItem> getItems() {
+            return cart.getItems();
+        }
+
+        @Override
+        public long calculateSubtotalCents() {
+            return cart.calculateSubtotalCents();
+        }
+    }
+
+    @Param({"striped", "synchronized"})
+    private String impl;
+
+    private MenuItem[] menu;
+    private SharedCart cart;
+
+    @Setup
+    public void setUp() {
+        menu = new MenuItem[MENU_SIZE];
+        cart = "striped".equals(impl) ? new StripedCart() : new SynchronizedCart();
+        for (int i = 0; i < MENU_SIZE; i++) {
+            menu[i] = new MenuItem(i + 1, 1, "Item " + i, 1.0 + i, "", true);
+            cart.addItem(menu[i], 1);
+        }
+    }
+
+    /** Every thread adds to random lines. */
+    @Benchmark
+    public void addItem() {
+        cart.addItem(menu[ThreadLocalRandom.current().nextInt(MENU_SIZE)], 1);
+    }
+
+    /** Nine reads of items and subtotal for every write, as when clients re-render the cart. */
+    @Benchmark
+    public long readMostly() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) == 0) {
+            cart.updateQuantity(1 + random.nextInt(MENU_SIZE), 1 + random.nextInt(5));
+            return 0;
+        }
+        return cart.getItems().size() + cart.calculateSubtotalCents();
+    }
+}
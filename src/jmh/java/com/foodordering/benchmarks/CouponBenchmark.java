@@ -0,0 +1,56 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.models.Coupon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coupon.computeDiscount for percentage and fixed coupons.
+ * Every call includes the isValid() date check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CouponBenchmark {
+
+    private Coupon percentage;
+    private Coupon fixed;
+    private double subtotal;
+    private long subtotalCents;
+
+    @Setup
+    public void setUp() {
+        percentage = new Coupon("SAVE15", Coupon.Type.PERCENTAGE, 15);
+        fixed = new Coupon("MINUS5", Coupon.Type.FIXED, 5);
+        subtotal = 87.45;
+        subtotalCents = 8745;
+    }
+
+    @Benchmark
+    public double percentageDiscount() {
+        return percentage.computeDiscount(subtotal);
+    }
+
+    @Benchmark
+    public double fixedDiscount() {
+        return fixed.computeDiscount(subtotal);
+    }
+
+    @Benchmark
+    public long percentageDiscountCents() {
+        return percentage.computeDiscountCents(subtotalCents);
+    }
+}
@@ -0,0 +1,84 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.models.Cart;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart total calculation: the previous double + BigDecimal rounding against
+ * long cents. Run with -prof gc to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    @Param({"10", "100"})
+    private int lines;
+
+    private double[] prices;
+    private int[] quantities;
+    private long[] priceCents;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new double[lines];
+        quantities = new int[lines];
+        priceCents = new long[lines];
+        cart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            prices[i] = (100 + random.nextInt(4900)) / 100.0;
+            quantities[i] = 1 + random.nextInt(5);
+            priceCents[i] = Money.ofDouble(prices[i]);
+            cart.addItem(new MenuItem(i + 1, 1, "Item " + i, prices[i], "", true), quantities[i]);
+        }
+    }
+
+    /** What Cart.calculateTotal did before: double subtotals, BigDecimal rounding of the total. */
+    @Benchmark
+    public double doubleWithBigDecimalRounding() {
+        double subtotal = 0.0;
+        for (int i = 0; i < lines; i++) {
+            subtotal += Math.round(prices[i] * quantities[i] * 100.0) / 100.0;
+        }
+        double discount = subtotal * 0.10;
+        return new BigDecimal(Math.max(0.0, subtotal - discount)).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    @Benchmark
+    public long longCents() {
+        long subtotal = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            subtotal = Money.add(subtotal, Money.multiply(priceCents[i], quantities[i]));
+        }
+        long discount = Money.percentOf(subtotal, 10);
+        return Money.clampNonNegative(Money.subtract(subtotal, discount));
+    }
+
+    /** Current Cart implementation end to end (no coupon). */
+    @Benchmark
+    public long cartTotalCents() {
+        return cart.calculateTotalCents();
+    }
+}
@@ -0,0 +1,49 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.models.Order;
+import com.foodordering.models.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order.calculateTotal at 10, 100 and 1000 order items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        order = new Order(1, 1, 1, 0, "pending", null);
+        for (int i = 0; i < items; i++) {
+            order.addItem(new OrderItem(i + 1, 1, i + 1, 1 + random.nextInt(5), (100 + random.nextInt(4900)) / 100.0));
+        }
+    }
+
+    @Benchmark
+    public double calculateTotal() {
+        return order.calculateTotal();
+    }
+}
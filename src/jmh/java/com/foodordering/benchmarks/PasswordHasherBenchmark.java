@@ -0,0 +1,86 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.security.BCryptPasswordHasher;
+import com.foodordering.security.PasswordHashing;
+import com.foodordering.security.Sha256PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hash formats: the legacy SHA-256 hex encoding (original
+ * String.format loop vs. the lookup table) and BCrypt, called directly and
+ * through the {@link PasswordHashing} executor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "CorrectHorse42";
+
+    private final Sha256PasswordHasher sha256 = new Sha256PasswordHasher();
+    private final BCryptPasswordHasher bcrypt = new BCryptPasswordHasher();
+    private PasswordHashing hashing;
+    private String bcryptHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hashing = new PasswordHashing(bcrypt, List.of(sha256), 1, PasswordHashing.DEFAULT_QUEUE_CAPACITY);
+        bcryptHash = bcrypt.hash(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hashing.close();
+    }
+
+    @Benchmark
+    public String sha256FormatLoop() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hashedBytes = digest.digest(PASSWORD.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hashedBytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String sha256HexTable() {
+        return sha256.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public String bcryptHash() {
+        return bcrypt.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcryptVerify() {
+        return bcrypt.matches(PASSWORD, bcryptHash);
+    }
+
+    @Benchmark
+    public boolean bcryptVerifyOffloaded() {
+        return hashing.matches(PASSWORD, bcryptHash);
+    }
+}
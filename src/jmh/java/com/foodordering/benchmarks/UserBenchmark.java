@@ -0,0 +1,65 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing cost in the User model: construction (validation only),
+ * hashing a new user's password as registration does, loading a stored user
+ * and password verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserBenchmark {
+
+    private User user;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        user = new User(1, "bench_user", "bench@example.com", "CorrectHorse42");
+        storedHash = user.getPasswordHash();
+    }
+
+    @Benchmark
+    public User createUser() {
+        return new User(1, "bench_user", "bench@example.com", "CorrectHorse42");
+    }
+
+    @Benchmark
+    public String hashNewUser() {
+        User created = new User(1, "bench_user", "bench@example.com", "CorrectHorse42");
+        created.hashPassword();
+        return created.getPasswordHash();
+    }
+
+    @Benchmark
+    public User loadUser() {
+        return User.fromDatabase(1, "bench_user", "bench@example.com", storedHash);
+    }
+
+    @Benchmark
+    public boolean verifyCorrectPassword() {
+        return user.verifyPassword("CorrectHorse42");
+    }
+
+    @Benchmark
+    public boolean verifyWrongPassword() {
+        return user.verifyPassword("WrongHorse42");
+    }
+}
@@ -0,0 +1,68 @@
+package com.foodordering.benchmarks;
+
+import com.foodordering.exceptions.ValidationException;
+import com.foodordering.utils.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationUtils validators on valid input and, for email, on invalid
+ * input where the cost includes building the ValidationException.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    private String email = "jane.doe+orders@example.com";
+    private String badEmail = "jane.doe@example";
+    private String username = "jane_doe_42";
+    private String phone = "(555) 123-4567";
+    private String password = "CorrectHorse42";
+
+    @Benchmark
+    public boolean validEmail() throws ValidationException {
+        ValidationUtils.validateEmail(email);
+        return true;
+    }
+
+    @Benchmark
+    public boolean invalidEmail() {
+        try {
+            ValidationUtils.validateEmail(badEmail);
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean validUsername() throws ValidationException {
+        ValidationUtils.validateUsername(username);
+        return true;
+    }
+
+    @Benchmark
+    public boolean validPhone() throws ValidationException {
+        ValidationUtils.validatePhone(phone);
+        return true;
+    }
+
+    @Benchmark
+    public boolean validPassword() throws ValidationException {
+        ValidationUtils.validatePassword(password);
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+package com.foodordering.api;
+
+import com.foodordering.exceptions.ValidationException;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed HTTP request as seen by an API route: path parameters, query
+ * parameters, the JSON body and the bearer token.
+ */
+public class ApiRequest {
+
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private final Map<String, Object> body;
+    private final String bearerToken;
+
+    public ApiRequest(Map<String, String> pathParams, Map<String, String> queryParams,
+                      Map<String, Object> body, String bearerToken) {
+        this.pathParams = pathParams;
+        this.queryParams = queryParams;
+        this.body = body != null ? body : Collections.emptyMap();
+        this.bearerToken = bearerToken;
+    }
+
+    /** @return token of the {@code Authorization: Bearer} header, or null */
+    public String getBearerToken() {
+        return bearerToken;
+    }
+
+    /** @return the JSON body object, empty if the request had no body */
+    public Map<String, Object> getBody() {
+        return body;
+    }
+
+    /**
+     * @return positive integer path parameter
+     * @throws ValidationException if it is not a positive integer
+     */
+    public int pathInt(String name) throws ValidationException {
+        return toPositiveInt(name, pathParams.get(name));
+    }
+
+    /**
+     * @return query parameter, or null if absent
+     */
+    public String query(String name) {
+        return queryParams.get(name);
+    }
+
+    /**
+     * @return integer query parameter, or {@code defaultValue} if absent
+     * @throws ValidationException if present but not an integer
+     */
+    public int queryInt(String name, int defaultValue) throws ValidationException {
+        String value = queryParams.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException(name + " must be an integer");
+        }
+    }
+
+    /**
+     * @return string body field, or null if absent
+     * @throws ValidationException if present but not a string
+     */
+    public String bodyString(String name) throws ValidationException {
+        return string(body, name);
+    }
+
+    /**
+     * @return integer body field
+     * @throws ValidationException if absent or not an integer
+     */
+    public int bodyInt(String name) throws ValidationException {
+        return integer(body, name);
+    }
+
+    /**
+     * @return array body field, empty if absent
+     * @throws ValidationException if present but not an array
+     */
+    public List<?> bodyList(String name) throws ValidationException {
+        Object value = body.get(name);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (!(value instanceof List)) {
+            throw new ValidationException(name + " must be an array");
+        }
+        return (List<?>) value;
+    }
+
+    /**
+     * @return string field of a JSON object, or null if absent
+     * @throws ValidationException if present but not a string
+     */
+    static String string(Map<?, ?> object, String name) throws ValidationException {
+        Object value = object.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new ValidationException(name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    /**
+     * @return integer field of a JSON object
+     * @throws ValidationException if absent or not an integer
+     */
+    static int integer(Map<?, ?> object, String name) throws ValidationException {
+        Object value = object.get(name);
+        if (!(value instanceof BigDecimal)) {
+            throw new ValidationException(name + " must be a number");
+        }
+        try {
+            return ((BigDecimal) value).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new ValidationException(name + " must be an integer");
+        }
+    }
+
+    private static int toPositiveInt(String name, String value) throws ValidationException {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ValidationException(name + " must be a positive integer");
+    }
+
+    /**
+     * Decodes {@code a=1&b=x%20y} into a map; later duplicates win.
+     */
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,312 @@
+package com.foodordering.api;
+
+import com.foodordering.exceptions.AuthenticationException;
+import com.foodordering.exceptions.BaseApplicationException;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.OrderException;
+import com.foodordering.exceptions.PaymentException;
+import com.foodordering.exceptions.ResourceNotFoundException;
+import com.foodordering.exceptions.UserAlreadyExistsException;
+import com.foodordering.exceptions.ValidationException;
+import com.foodordering.utils.DatabaseConnection;
+import com.foodordering.utils.Json;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless HTTP/JSON front end for the ordering flows, built on the JDK's
+ * {@code com.sun.net.httpserver}.
+ *
+ * Each request runs on its own virtual thread when the JVM supports them
+ * (Java 21+); on older JVMs a fixed pool is used instead. Either way the
+ * number of requests doing database work at once is bounded by a semaphore
+ * sized to the connection pool, so load beyond that waits briefly and is then
+ * answered with 503 instead of piling up on the pool. The permit covers only
+ * the handler, not writing the response, and is not taken by login, which is
+ * bounded by {@link com.foodordering.services.UserService}'s hashing pool.
+ */
+public class ApiServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+    /** How long a request waits for a database permit before getting 503. */
+    public static final long DEFAULT_PERMIT_TIMEOUT_MILLIS = 2000;
+
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    /** Handles one route; the result is written as the JSON response body. */
+    @FunctionalInterface
+    public interface Handler {
+        Object handle(ApiRequest request) throws BaseApplicationException;
+    }
+
+    private static final class Route {
+        private final String method;
+        private final String[] segments;
+        private final int successStatus;
+        private final boolean needsPermit;
+        private final Handler handler;
+
+        private Route(String method, String path, int successStatus, boolean needsPermit, Handler handler) {
+            this.method = method;
+            this.segments = path.substring(1).split("/");
+            this.successStatus = successStatus;
+            this.needsPermit = needsPermit;
+            this.handler = handler;
+        }
+
+        /** @return path parameters if the path matches, else null */
+        private Map<String, String> match(String[] path) {
+            if (path.length != segments.length) {
+                return null;
+            }
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].startsWith("{")) {
+                    params.put(segments[i].substring(1, segments[i].length() - 1), path[i]);
+                } else if (!segments[i].equals(path[i])) {
+                    return null;
+                }
+            }
+            return params;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore databasePermits;
+    private final int maxConcurrentRequests;
+    private final long permitTimeoutMillis;
+    private final List<Route> routes = new ArrayList<>();
+
+    /**
+     * @param port port to listen on, 0 for any free port
+     * @param api endpoint implementations
+     * @param maxConcurrentRequests requests allowed to use the database at once, normally the pool size
+     * @param permitTimeoutMillis how long a request waits for a permit before getting 503
+     */
+    public ApiServer(int port, OrderingApi api, int maxConcurrentRequests, long permitTimeoutMillis) throws IOException {
+        if (maxConcurrentRequests <= 0) throw new IllegalArgumentException("maxConcurrentRequests must be > 0");
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.databasePermits = new Semaphore(maxConcurrentRequests, true);
+        this.permitTimeoutMillis = permitTimeoutMillis;
+        this.executor = newRequestExecutor(maxConcurrentRequests * 4);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/", this::dispatch);
+
+        route("POST", "/api/login", 200, false, api::login);
+        route("GET", "/api/restaurants", 200, true, api::listRestaurants);
+        route("GET", "/api/restaurants/{restaurantId}", 200, true, api::getRestaurant);
+        route("GET", "/api/restaurants/{restaurantId}/menu", 200, true, api::getMenu);
+        route("GET", "/api/restaurants/{restaurantId}/reviews", 200, true, api::listReviews);
+        route("POST", "/api/restaurants/{restaurantId}/reviews", 201, true, api::addReview);
+        route("POST", "/api/cart/price", 200, true, api::priceCart);
+        route("POST", "/api/orders", 201, true, api::checkout);
+    }
+
+    /**
+     * @param needsPermit whether the handler must hold a database permit
+     */
+    private void route(String method, String path, int successStatus, boolean needsPermit, Handler handler) {
+        routes.add(new Route(method, path, successStatus, needsPermit, handler));
+    }
+
+    /**
+     * Runs requests on virtual threads when available ({@code
+     * Executors.newVirtualThreadPerTaskExecutor}, looked up reflectively so
+     * the code still compiles for Java 17), otherwise on a fixed pool.
+     */
+    static ExecutorService newRequestExecutor(int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(fallbackThreads, r -> {
+                Thread t = new Thread(r, "api-worker-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** @return the port the server is bound to */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** @return requests currently holding a database permit */
+    public int getActiveRequests() {
+        return maxConcurrentRequests - databasePermits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+            Route route = null;
+            Map<String, String> pathParams = null;
+            boolean pathMatched = false;
+            for (Route candidate : routes) {
+                Map<String, String> params = candidate.match(path);
+                if (params != null) {
+                    pathMatched = true;
+                    if (candidate.method.equals(exchange.getRequestMethod())) {
+                        route = candidate;
+                        pathParams = params;
+                        break;
+                    }
+                }
+            }
+            if (route == null) {
+                send(exchange, pathMatched ? 405 : 404, error(pathMatched ? "Method not allowed" : "Not found"));
+                return;
+            }
+
+            ApiRequest request;
+            try {
+                request = new ApiRequest(pathParams, ApiRequest.parseQuery(exchange.getRequestURI().getRawQuery()),
+                        readBody(exchange), bearerToken(exchange));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error("Invalid JSON body: " + e.getMessage()));
+                return;
+            }
+
+            if (route.needsPermit && !acquirePermit()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, error("Server busy, try again"));
+                return;
+            }
+            int status;
+            Object body;
+            try {
+                body = route.handler.handle(request);
+                status = route.successStatus;
+            } catch (BaseApplicationException e) {
+                status = statusOf(e);
+                body = error(e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI() + ": " + e);
+                status = 500;
+                body = error("Internal error");
+            } finally {
+                if (route.needsPermit) {
+                    databasePermits.release();
+                }
+            }
+            if (status == 503) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+            }
+            // Written after the permit is released so a slow client does not hold it
+            send(exchange, status, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return databasePermits.tryAcquire(permitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Maps the application exception hierarchy onto HTTP status codes.
+     */
+    static int statusOf(BaseApplicationException e) {
+        if (e instanceof ValidationException) return 400;
+        if (e instanceof AuthenticationException) return 401;
+        if (e instanceof PaymentException) return 402;
+        if (e instanceof ResourceNotFoundException) return 404;
+        if (e instanceof UserAlreadyExistsException || e instanceof OrderException) return 409;
+        if (e instanceof DatabaseException) return 503;
+        return 400;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("body larger than " + MAX_BODY_BYTES + " bytes");
+            }
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            if (text.isBlank()) {
+                return null;
+            }
+            Object body = Json.parse(text);
+            if (!(body instanceof Map)) {
+                throw new IllegalArgumentException("expected an object");
+            }
+            return (Map<String, Object>) body;
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return body;
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Starts the API against the database configured in database.properties
+     * (or {@code -Ddb.*} system properties).
+     * Usage: ApiServer [port]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int poolSize = DatabaseConnection.getInstance().getPool().getMaxSize();
+        ApiServer server = new ApiServer(port, new OrderingApi(), poolSize, DEFAULT_PERMIT_TIMEOUT_MILLIS);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            DatabaseConnection.getInstance().closeConnection();
+        }));
+        System.out.println("✓ API listening on http://localhost:" + server.getPort() + "/api/ ("
+                + poolSize + " concurrent requests)");
+    }
+}
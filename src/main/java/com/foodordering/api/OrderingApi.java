@@ -0,0 +1,497 @@
+package com.foodordering.api;
+
+import com.foodordering.dao.CouponDAO;
+import com.foodordering.dao.CustomerDAO;
+import com.foodordering.dao.MenuCache;
+import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.dao.OrderDAO;
+import com.foodordering.dao.RestaurantCatalog;
+import com.foodordering.dao.ReviewDAO;
+import com.foodordering.exceptions.AuthenticationException;
+import com.foodordering.exceptions.BaseApplicationException;
+import com.foodordering.exceptions.CartChangedException;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.PaymentException;
+import com.foodordering.exceptions.ResourceNotFoundException;
+import com.foodordering.exceptions.ValidationException;
+import com.foodordering.interfaces.Orderable;
+import com.foodordering.models.Cart;
+import com.foodordering.models.CartItem;
+import com.foodordering.models.CartRevalidation;
+import com.foodordering.models.CartSummary;
+import com.foodordering.models.Coupon;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
+import com.foodordering.models.Order;
+import com.foodordering.models.OrderItem;
+import com.foodordering.models.Restaurant;
+import com.foodordering.models.Review;
+import com.foodordering.models.User;
+import com.foodordering.payments.CashPayment;
+import com.foodordering.payments.CreditCardPayment;
+import com.foodordering.payments.DebitCardPayment;
+import com.foodordering.services.PaymentService;
+import com.foodordering.services.UserService;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Endpoint implementations of the HTTP API. Each method takes a parsed
+ * request and returns the object written as the JSON response; failures are
+ * reported with the application exception hierarchy and mapped to status
+ * codes by {@link ApiServer}.
+ *
+ * Login hands out an opaque bearer token; reviewing and ordering require it.
+ * Cart prices are always computed from the menu, never taken from the client,
+ * and are checked against the database before an order is placed.
+ */
+public class OrderingApi {
+
+    /** Tokens unused for this long are no longer accepted. */
+    public static final long DEFAULT_SESSION_TTL_MILLIS = 8 * 60 * 60 * 1000L;
+    /** Most sessions kept at once; past this the oldest logins are dropped. */
+    public static final int MAX_SESSIONS = 10_000;
+    /** How often login sweeps out expired sessions. */
+    private static final long SESSION_SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private static final class ApiSession {
+        private final User user;
+        private volatile long lastUsed;
+
+        private ApiSession(User user, long now) {
+            this.user = user;
+            this.lastUsed = now;
+        }
+    }
+
+    private final RestaurantCatalog restaurantCatalog;
+    private final MenuItemDAO menuItemDAO;
+    private final CouponDAO couponDAO;
+    private final ReviewDAO reviewDAO;
+    private final OrderDAO orderDAO;
+    private final CustomerDAO customerDAO = new CustomerDAO();
+    private final PaymentService paymentService;
+    private final UserService userService;
+    private final long sessionTtlMillis;
+
+    private final Map<String, ApiSession> sessions = new ConcurrentHashMap<>();
+    /** Tokens in login order, for dropping the oldest sessions past {@link #MAX_SESSIONS}. */
+    private final Queue<String> sessionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextSessionSweep = new AtomicLong();
+    private final SecureRandom random = new SecureRandom();
+
+    public OrderingApi() {
+        this(new RestaurantCatalog(), new MenuItemDAO(), new CouponDAO(), new ReviewDAO(), new OrderDAO(),
+                new PaymentService(), new UserService(), DEFAULT_SESSION_TTL_MILLIS);
+    }
+
+    public OrderingApi(RestaurantCatalog restaurantCatalog, MenuItemDAO menuItemDAO, CouponDAO couponDAO,
+                       ReviewDAO reviewDAO, OrderDAO orderDAO, PaymentService paymentService,
+                       UserService userService, long sessionTtlMillis) {
+        this.restaurantCatalog = restaurantCatalog;
+        this.menuItemDAO = menuItemDAO;
+        this.couponDAO = couponDAO;
+        this.reviewDAO = reviewDAO;
+        this.orderDAO = orderDAO;
+        this.paymentService = paymentService;
+        this.userService = userService;
+        this.sessionTtlMillis = sessionTtlMillis;
+    }
+
+    // ---- login ----
+
+    /**
+     * {@code POST /api/login} with {@code {"username", "password"}}.
+     */
+    public Object login(ApiRequest request) throws BaseApplicationException {
+        User user = userService.loginUser(request.bodyString("username"), request.bodyString("password"));
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        addSession(token, new ApiSession(user, System.currentTimeMillis()));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("token", token);
+        body.put("userId", user.getId());
+        body.put("username", user.getUsername());
+        return body;
+    }
+
+    /**
+     * Stores a new session. Expired sessions are swept out at most once per
+     * {@link #SESSION_SWEEP_INTERVAL_MILLIS}, so a login does not scan every
+     * session; if a burst of logins still leaves more than {@link #MAX_SESSIONS},
+     * the oldest are dropped.
+     */
+    private void addSession(String token, ApiSession session) {
+        sessions.put(token, session);
+        sessionOrder.add(token);
+
+        long now = session.lastUsed;
+        long due = nextSessionSweep.get();
+        if (now >= due && nextSessionSweep.compareAndSet(due, now + SESSION_SWEEP_INTERVAL_MILLIS)) {
+            sessions.values().removeIf(s -> now - s.lastUsed > sessionTtlMillis);
+            sessionOrder.removeIf(t -> !sessions.containsKey(t));
+        }
+        while (sessions.size() > MAX_SESSIONS) {
+            String oldest = sessionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            sessions.remove(oldest);
+        }
+    }
+
+    /** @return number of sessions currently stored */
+    int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return user of the request's bearer token
+     * @throws AuthenticationException if the token is missing, unknown or expired
+     */
+    User authenticate(ApiRequest request) throws AuthenticationException {
+        String token = request.getBearerToken();
+        ApiSession session = token != null ? sessions.get(token) : null;
+        long now = System.currentTimeMillis();
+        if (session == null || now - session.lastUsed > sessionTtlMillis) {
+            if (session != null) {
+                sessions.remove(token);
+            }
+            throw new AuthenticationException("Login required");
+        }
+        session.lastUsed = now;
+        return session.user;
+    }
+
+    // ---- restaurants and menus ----
+
+    /**
+     * {@code GET /api/restaurants}
+     */
+    public Object listRestaurants(ApiRequest request) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Restaurant restaurant : restaurantCatalog.getAllRestaurants()) {
+            list.add(restaurantJson(restaurant));
+        }
+        return list;
+    }
+
+    /**
+     * {@code GET /api/restaurants/{restaurantId}}
+     */
+    public Object getRestaurant(ApiRequest request) throws BaseApplicationException {
+        return restaurantJson(requireRestaurant(request.pathInt("restaurantId")));
+    }
+
+    /**
+     * {@code GET /api/restaurants/{restaurantId}/menu}
+     */
+    public Object getMenu(ApiRequest request) throws BaseApplicationException {
+        int restaurantId = request.pathInt("restaurantId");
+        requireRestaurant(restaurantId);
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (MenuItem item : menuItemDAO.getMenu(restaurantId).getItems()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("itemId", item.getItemId());
+            json.put("name", item.getName());
+            json.put("price", Money.toBigDecimal(Money.ofDouble(item.getPrice())));
+            json.put("description", item.getDescription());
+            json.put("available", item.isAvailable());
+            items.add(json);
+        }
+        return items;
+    }
+
+    private Restaurant requireRestaurant(int restaurantId) throws ResourceNotFoundException {
+        Restaurant restaurant = restaurantCatalog.getRestaurantById(restaurantId);
+        if (restaurant == null) {
+            throw new ResourceNotFoundException("Restaurant not found: " + restaurantId);
+        }
+        return restaurant;
+    }
+
+    private static Map<String, Object> restaurantJson(Restaurant restaurant) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("restaurantId", restaurant.getRestaurantId());
+        json.put("name", restaurant.getName());
+        json.put("address", restaurant.getAddress());
+        json.put("phone", restaurant.getPhone());
+        json.put("rating", restaurant.getRating());
+        return json;
+    }
+
+    // ---- reviews ----
+
+    /**
+     * {@code GET /api/restaurants/{restaurantId}/reviews?limit=&afterCreatedAt=&afterId=}.
+     * Pass the {@code createdAt} and {@code reviewId} of the last review to get the next page.
+     */
+    public Object listReviews(ApiRequest request) throws BaseApplicationException {
+        int restaurantId = request.pathInt("restaurantId");
+        int limit = request.queryInt("limit", ReviewDAO.DEFAULT_REVIEW_PAGE_SIZE);
+        if (limit <= 0 || limit > 100) {
+            throw new ValidationException("limit must be between 1 and 100");
+        }
+        List<Review> page;
+        String afterCreatedAt = request.query("afterCreatedAt");
+        if (afterCreatedAt == null) {
+            page = reviewDAO.getReviewsPage(restaurantId, limit);
+        } else {
+            Timestamp after;
+            try {
+                after = Timestamp.valueOf(afterCreatedAt);
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("afterCreatedAt must be yyyy-mm-dd hh:mm:ss[.f...]");
+            }
+            page = reviewDAO.getReviewsPage(restaurantId, after, request.queryInt("afterId", 0), limit);
+        }
+
+        List<Map<String, Object>> reviews = new ArrayList<>();
+        for (Review review : page) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("reviewId", review.getReviewId());
+            json.put("customerId", review.getCustomerId());
+            json.put("rating", review.getRating());
+            json.put("comment", review.getComment());
+            json.put("createdAt", review.getCreatedAt() != null ? review.getCreatedAt().toString() : null);
+            reviews.add(json);
+        }
+        return reviews;
+    }
+
+    /**
+     * {@code POST /api/restaurants/{restaurantId}/reviews} with {@code {"rating", "comment"}}.
+     */
+    public Object addReview(ApiRequest request) throws BaseApplicationException {
+        User user = authenticate(request);
+        int restaurantId = request.pathInt("restaurantId");
+        requireRestaurant(restaurantId);
+
+        int customerId = resolveCustomerId(user);
+        Review review;
+        try {
+            review = new Review(0, restaurantId, customerId, request.bodyInt("rating"), request.bodyString("comment"));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage(), e);
+        }
+        if (!reviewDAO.addReview(review)) {
+            throw new DatabaseException("Review could not be saved");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("reviewId", review.getReviewId());
+        return body;
+    }
+
+    // ---- cart and checkout ----
+
+    /**
+     * {@code POST /api/cart/price} with {@code {"items": [{"itemId", "quantity"}], "couponCode"}}.
+     */
+    public Object priceCart(ApiRequest request) throws BaseApplicationException {
+        return cartJson(buildCart(request), restaurantOf(request));
+    }
+
+    /**
+     * {@code POST /api/orders} with the cart fields plus
+     * {@code "payment": {"method": "cash"|"credit_card"|"debit_card", "cardNumber", "holderName", "expiry", "cvv"}}.
+     *
+     * The cart is first checked against the database, since the cached menu it
+     * was priced from may be stale; changed prices or unavailable items give
+     * {@link CartChangedException} (409) and nothing is saved or charged.
+     * The order is saved as pending before the payment is taken, so a failed
+     * save (503, safe to retry) never follows a charge. A declined payment
+     * cancels the order; an accepted one confirms it. If confirming fails the
+     * charged order is still reported as placed, with its pending status,
+     * rather than as an error the client would retry.
+     */
+    public Object checkout(ApiRequest request) throws BaseApplicationException {
+        User user = authenticate(request);
+        Cart cart = buildCart(request);
+        int restaurantId = restaurantOf(request);
+        Orderable paymentMethod = paymentMethod(request, user);
+        revalidate(cart);
+
+        long totalCents = cart.calculateTotalCents();
+        int customerId = resolveCustomerId(user);
+        Coupon coupon = cart.getAppliedCoupon();
+        Order order = new Order(0, customerId, restaurantId, Money.toDouble(totalCents), "pending",
+                coupon != null ? coupon.getCouponId() : null);
+        for (CartItem item : cart.getItemsView()) {
+            order.addItem(new OrderItem(0, 0, item.getItemId(), item.getQuantity(), item.getUnitPrice()));
+        }
+        if (!orderDAO.createOrder(order)) {
+            throw new DatabaseException("Order could not be saved");
+        }
+
+        if (!paymentService.process(paymentMethod, Money.toDouble(totalCents))) {
+            if (!orderDAO.updateOrderStatus(order.getOrderId(), "cancelled")) {
+                System.err.println("Could not cancel order " + order.getOrderId() + " after a declined payment");
+            }
+            throw new PaymentException("Payment was declined");
+        }
+        if (orderDAO.updateOrderStatus(order.getOrderId(), "confirmed")) {
+            order.setStatus("confirmed");
+        } else {
+            System.err.println("Order " + order.getOrderId() + " was paid but could not be confirmed");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("orderId", order.getOrderId());
+        body.put("status", order.getStatus());
+        body.put("total", Money.toBigDecimal(totalCents));
+        return body;
+    }
+
+    /**
+     * Reads the current price and availability of every line in one query.
+     *
+     * @throws CartChangedException if a price changed or an item can no longer be ordered
+     * @throws DatabaseException if the menu could not be read
+     */
+    private void revalidate(Cart cart) throws BaseApplicationException {
+        List<CartItem> items = cart.getItemsView();
+        List<Integer> itemIds = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            itemIds.add(item.getItemId());
+        }
+        Map<Integer, MenuItem> current = menuItemDAO.getMenuItemsByIds(itemIds);
+        if (current == null) {
+            throw new DatabaseException("Could not check menu prices, please try again");
+        }
+        CartRevalidation revalidation = CartRevalidation.compare(items, current);
+        if (!revalidation.isValid()) {
+            throw new CartChangedException(revalidation);
+        }
+    }
+
+    /**
+     * Builds a cart from the request's item ids and quantities, priced from
+     * the cached menu. All items must be available and from one restaurant.
+     */
+    private Cart buildCart(ApiRequest request) throws BaseApplicationException {
+        List<?> lines = request.bodyList("items");
+        if (lines.isEmpty()) {
+            throw new ValidationException("items must not be empty");
+        }
+        Cart cart = new Cart();
+        int restaurantId = 0;
+        for (Object line : lines) {
+            if (!(line instanceof Map)) {
+                throw new ValidationException("items must be objects with itemId and quantity");
+            }
+            int itemId = ApiRequest.integer((Map<?, ?>) line, "itemId");
+            int quantity = ApiRequest.integer((Map<?, ?>) line, "quantity");
+            MenuItem item = findMenuItem(itemId);
+            if (restaurantId != 0 && item.getRestaurantId() != restaurantId) {
+                throw new ValidationException("All items must come from the same restaurant");
+            }
+            restaurantId = item.getRestaurantId();
+            if (!item.isAvailable()) {
+                throw new ValidationException("Item is not available: " + item.getName());
+            }
+            try {
+                cart.addItem(item, quantity);
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException(e.getMessage(), e);
+            }
+        }
+
+        String couponCode = request.bodyString("couponCode");
+        if (couponCode != null && !couponCode.isBlank()) {
+            Coupon coupon = couponDAO.getCouponByCode(couponCode);
+            if (coupon == null || !coupon.isValid()) {
+                throw new ValidationException("Invalid or expired coupon code");
+            }
+            cart.applyCoupon(coupon);
+        }
+        return cart;
+    }
+
+    /** Restaurant of the first cart item; {@link #buildCart} has checked they all match. */
+    private int restaurantOf(ApiRequest request) throws BaseApplicationException {
+        Map<?, ?> first = (Map<?, ?>) request.bodyList("items").get(0);
+        return findMenuItem(ApiRequest.integer(first, "itemId")).getRestaurantId();
+    }
+
+    private MenuItem findMenuItem(int itemId) throws ResourceNotFoundException {
+        int restaurantId = menuItemDAO.getRestaurantIdForItem(itemId);
+        MenuCache.Menu menu = restaurantId > 0 ? menuItemDAO.getMenu(restaurantId) : null;
+        MenuItem item = menu != null ? menu.getItem(itemId) : null;
+        if (item == null) {
+            throw new ResourceNotFoundException("Menu item not found: " + itemId);
+        }
+        return item;
+    }
+
+    private static Map<String, Object> cartJson(Cart cart, int restaurantId) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (CartItem item : cart.getItemsView()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("itemId", item.getItemId());
+            json.put("name", item.getName());
+            json.put("unitPrice", Money.toBigDecimal(item.getUnitPriceCents()));
+            json.put("quantity", item.getQuantity());
+            json.put("subtotal", Money.toBigDecimal(item.getSubtotalCents()));
+            items.add(json);
+        }
+        CartSummary summary = cart.getSummary();
+        long subtotal = summary.getSubtotalCents();
+        long total = summary.getTotalCents();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("restaurantId", restaurantId);
+        body.put("items", items);
+        body.put("couponCode", cart.getAppliedCoupon() != null ? cart.getAppliedCoupon().getCode() : null);
+        body.put("subtotal", Money.toBigDecimal(subtotal));
+        body.put("discount", Money.toBigDecimal(Money.subtract(subtotal, total)));
+        body.put("total", Money.toBigDecimal(total));
+        return body;
+    }
+
+    private static Orderable paymentMethod(ApiRequest request, User user) throws ValidationException {
+        Object payment = request.getBody().get("payment");
+        if (!(payment instanceof Map)) {
+            throw new ValidationException("payment must be an object with a method");
+        }
+        Map<?, ?> fields = (Map<?, ?>) payment;
+        String method = ApiRequest.string(fields, "method");
+        String holder = ApiRequest.string(fields, "holderName");
+        if (holder == null) {
+            holder = user.getUsername();
+        }
+        if ("credit_card".equals(method)) {
+            return new CreditCardPayment(ApiRequest.string(fields, "cardNumber"), holder,
+                    ApiRequest.string(fields, "expiry"), ApiRequest.string(fields, "cvv"));
+        } else if ("debit_card".equals(method)) {
+            return new DebitCardPayment(ApiRequest.string(fields, "cardNumber"), holder);
+        } else if ("cash".equals(method)) {
+            return new CashPayment(holder);
+        }
+        throw new ValidationException("payment.method must be cash, credit_card or debit_card");
+    }
+
+    /**
+     * Finds the customer record of a user, creating a minimal one on first use.
+     */
+    int resolveCustomerId(User user) throws DatabaseException {
+        int customerId = customerDAO.resolveCustomerId(user.getId());
+        if (customerId <= 0) {
+            throw new DatabaseException("Customer record could not be resolved");
+        }
+        return customerId;
+    }
+}
@@ -0,0 +1,164 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.CartItem;
+import com.foodordering.models.CartSnapshot;
+import com.foodordering.models.Money;
+import com.foodordering.utils.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Data Access Object for saved carts (carts and cart_items tables).
+ * A saved cart is always replaced as a whole, so saving the same snapshot
+ * twice is harmless; the write-behind flusher relies on that when it replays
+ * its journal after a crash.
+ */
+public class CartRepository {
+
+    private static final String LOAD_SQL =
+            "SELECT c.coupon_code, i.item_id, i.name, i.unit_price, i.quantity " +
+            "FROM carts c LEFT JOIN cart_items i ON i.user_id = c.user_id " +
+            "WHERE c.user_id = ? ORDER BY i.line_no";
+
+    private static final String UPSERT_CART_SQL =
+            "INSERT INTO carts (user_id, coupon_code) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE coupon_code = VALUES(coupon_code), updated_at = CURRENT_TIMESTAMP";
+
+    private static final String DELETE_CART_SQL = "DELETE FROM carts WHERE user_id = ?";
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM cart_items WHERE user_id = ?";
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO cart_items (user_id, item_id, line_no, name, unit_price, quantity) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Loads the saved cart of a user.
+     * @param userId user id
+     * @return saved cart, an empty snapshot if the user has none, or null on error
+     */
+    public CartSnapshot load(int userId) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return load(conn, userId);
+        } catch (SQLException e) {
+            System.err.println("Error loading cart: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves several carts in one transaction, with one batch per statement.
+     * Empty snapshots delete the saved cart.
+     * @param snapshots carts to save, at most one per user
+     * @return true if every cart was saved; false leaves all of them unchanged
+     */
+    public boolean saveAll(List<CartSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return true;
+        }
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            saveAll(conn, snapshots);
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            rollback(conn);
+            System.err.println("Error saving carts: " + e.getMessage());
+            return false;
+        } finally {
+            release(conn);
+        }
+    }
+
+    static CartSnapshot load(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(LOAD_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                String couponCode = null;
+                List<CartItem> items = new ArrayList<>();
+                while (rs.next()) {
+                    couponCode = rs.getString("coupon_code");
+                    int itemId = rs.getInt("item_id");
+                    if (!rs.wasNull()) {
+                        items.add(new CartItem(itemId, rs.getString("name"),
+                                Money.toDouble(Money.fromBigDecimal(rs.getBigDecimal("unit_price"))), rs.getInt("quantity")));
+                    }
+                }
+                return new CartSnapshot(userId, 0, couponCode, items);
+            }
+        }
+    }
+
+    /**
+     * Writes the carts on the caller's transaction. Users are written in id
+     * order so that concurrent savers lock rows in the same order.
+     */
+    static void saveAll(Connection conn, List<CartSnapshot> snapshots) throws SQLException {
+        List<CartSnapshot> ordered = new ArrayList<>(snapshots);
+        ordered.sort(Comparator.comparingInt(CartSnapshot::getUserId));
+        try (PreparedStatement deleteCart = conn.prepareStatement(DELETE_CART_SQL);
+             PreparedStatement upsertCart = conn.prepareStatement(UPSERT_CART_SQL);
+             PreparedStatement deleteItems = conn.prepareStatement(DELETE_ITEMS_SQL);
+             PreparedStatement insertItem = conn.prepareStatement(INSERT_ITEM_SQL)) {
+            for (CartSnapshot snapshot : ordered) {
+                int userId = snapshot.getUserId();
+                if (snapshot.isEmpty()) {
+                    deleteCart.setInt(1, userId);
+                    deleteCart.addBatch();
+                    continue;
+                }
+                upsertCart.setInt(1, userId);
+                if (snapshot.getCouponCode() != null) {
+                    upsertCart.setString(2, snapshot.getCouponCode());
+                } else {
+                    upsertCart.setNull(2, Types.VARCHAR);
+                }
+                upsertCart.addBatch();
+                deleteItems.setInt(1, userId);
+                deleteItems.addBatch();
+                int lineNo = 0;
+                for (CartItem item : snapshot.getItems()) {
+                    insertItem.setInt(1, userId);
+                    insertItem.setInt(2, item.getItemId());
+                    insertItem.setInt(3, lineNo++);
+                    insertItem.setString(4, item.getName());
+                    insertItem.setBigDecimal(5, Money.toBigDecimal(item.getUnitPriceCents()));
+                    insertItem.setInt(6, item.getQuantity());
+                    insertItem.addBatch();
+                }
+            }
+            // Cascades remove the items of deleted carts; the parent rows must exist before their items
+            deleteCart.executeBatch();
+            upsertCart.executeBatch();
+            deleteItems.executeBatch();
+            insertItem.executeBatch();
+        }
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                System.err.println("Rollback error: " + ex.getMessage());
+            }
+        }
+    }
+
+    private static void release(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error resetting autocommit: " + e.getMessage());
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error releasing connection: " + e.getMessage());
+            }
+        }
+    }
+}
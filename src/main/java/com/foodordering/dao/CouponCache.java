@@ -0,0 +1,223 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.Coupon;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coupon lookup cache shared by all {@link CouponDAO} instances, keyed by the
+ * normalized (trimmed, upper-case) code. The coupons column uses a
+ * case-insensitive collation, so codes differing only in case are one coupon.
+ *
+ * Known coupons are kept until the positive TTL elapses or the coupon's
+ * {@code valid_until} day ends, whichever comes first. Unknown codes are
+ * remembered for a short negative TTL so repeated mistyped codes do not
+ * reach the database. Writes made through {@link CouponDAO} evict the
+ * affected entries.
+ */
+public class CouponCache {
+
+    /** Default time a known coupon is served before it is re-read. */
+    public static final long DEFAULT_TTL_MILLIS = 300_000;
+    /** Default time an unknown code is remembered. */
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 30_000;
+    /** Default bound on cached codes, including unknown ones. */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final CouponCache INSTANCE = new CouponCache(
+            DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS, DEFAULT_MAX_ENTRIES, Clock.systemDefaultZone());
+
+    /** Reads a coupon from the database; null if the code does not exist. */
+    @FunctionalInterface
+    interface Loader {
+        Coupon load(String code) throws SQLException;
+    }
+
+    /**
+     * Cached lookup result. {@code coupon} is null for an unknown code.
+     */
+    private static final class Entry {
+        private final Coupon coupon;
+        private final long expiresAt;
+
+        private Entry(Coupon coupon, long expiresAt) {
+            this.coupon = coupon;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * Bumped on every write, before the write evicts, so a load racing with a
+     * write is not cached.
+     */
+    private final AtomicLong writes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @return cache shared by every {@link CouponDAO} created with the default constructor
+     */
+    public static CouponCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param ttlMillis longest time a known coupon is cached (> 0)
+     * @param negativeTtlMillis time an unknown code is cached (>= 0, 0 disables negative caching)
+     * @param maxEntries maximum number of cached codes (> 0)
+     * @param clock time source for expiry and for the valid_until bound
+     */
+    CouponCache(long ttlMillis, long negativeTtlMillis, int maxEntries, Clock clock) {
+        if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be > 0");
+        if (negativeTtlMillis < 0) throw new IllegalArgumentException("negativeTtlMillis must be >= 0");
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be > 0");
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * @param code coupon code as typed by the user
+     * @return the code used as cache key, or null if the code is blank
+     */
+    static String normalize(String code) {
+        if (code == null) {
+            return null;
+        }
+        String trimmed = code.trim();
+        return trimmed.isEmpty() ? null : trimmed.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the coupon for a code, loading it on a miss.
+     * Database errors are not cached; the next lookup tries again.
+     *
+     * @param code coupon code in any case, surrounding whitespace is ignored
+     * @param loader reads the coupon for a normalized code
+     * @return a copy of the coupon, or null if the code is unknown or could not be read
+     */
+    Coupon get(String code, Loader loader) {
+        String key = normalize(code);
+        if (key == null) {
+            return null;
+        }
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry != null && now < entry.expiresAt) {
+            hits.increment();
+            return copy(entry.coupon);
+        }
+        misses.increment();
+
+        long writesBefore = writes.get();
+        Coupon coupon;
+        try {
+            coupon = loader.load(key);
+        } catch (SQLException e) {
+            System.err.println("Error loading coupon: " + e.getMessage());
+            return null;
+        }
+        long expiresAt = expiresAt(coupon, now);
+        if (expiresAt > now && writes.get() == writesBefore) {
+            if (entries.size() >= maxEntries) {
+                evictExpired(now);
+            }
+            if (entries.size() < maxEntries) {
+                Entry loaded = new Entry(coupon, expiresAt);
+                entries.put(key, loaded);
+                // A write that slipped in between the check and the put has already
+                // run its eviction, so take the possibly stale entry back out
+                if (writes.get() != writesBefore) {
+                    entries.remove(key, loaded);
+                }
+            }
+        }
+        return copy(coupon);
+    }
+
+    /**
+     * Evicts a code, e.g. after the coupon was added or updated.
+     */
+    public void invalidate(String code) {
+        writes.incrementAndGet();
+        String key = normalize(code);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Evicts the coupon with the given id, e.g. after it was deleted.
+     */
+    public void invalidate(int couponId) {
+        writes.incrementAndGet();
+        entries.values().removeIf(e -> e.coupon != null && e.coupon.getCouponId() == couponId);
+    }
+
+    /**
+     * Drops every cached code.
+     */
+    public void clear() {
+        writes.incrementAndGet();
+        entries.clear();
+    }
+
+    /** @return number of cached codes, known and unknown */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Known coupons expire at the earlier of the TTL and the end of their
+     * valid_until day; unknown codes after the negative TTL.
+     */
+    private long expiresAt(Coupon coupon, long now) {
+        if (coupon == null) {
+            return now + negativeTtlMillis;
+        }
+        ZoneId zone = clock.getZone();
+        LocalDate validUntil = coupon.getExpirationDate();
+        long endOfValidity = validUntil.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long expiresAt = Math.min(now + ttlMillis, endOfValidity);
+        // Coupons that have already expired are cached like unknown codes
+        return expiresAt > now ? expiresAt : now + negativeTtlMillis;
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        if (entries.size() >= maxEntries) {
+            // Still full of live entries: unknown codes are the cheapest to lose
+            entries.values().removeIf(e -> e.coupon == null);
+        }
+    }
+
+    /** Coupons are mutable, so callers get their own instance. */
+    private static Coupon copy(Coupon coupon) {
+        if (coupon == null) {
+            return null;
+        }
+        return new Coupon(coupon.getCouponId(), coupon.getCode(), coupon.getType(), coupon.getValue(),
+                coupon.getExpirationDate(), coupon.isActive());
+    }
+}
@@ -8,9 +8,32 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Data Access Object for coupons.
+ * Lookups by code go through the shared {@link CouponCache}; writes evict the
+ * affected codes from it.
+ */
 public class CouponDAO {
 
+    private final CouponCache couponCache;
+
+    public CouponDAO() {
+        this(CouponCache.getInstance());
+    }
+
+    CouponDAO(CouponCache couponCache) {
+        this.couponCache = couponCache;
+    }
+
+    /**
+     * @param code coupon code in any case, surrounding whitespace is ignored
+     * @return the coupon, or null if the code is unknown
+     */
     public Coupon getCouponByCode(String code) {
+        return couponCache.get(code, this::loadCouponByCode);
+    }
+
+    Coupon loadCouponByCode(String code) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement(
                      "SELECT coupon_id, code, discount_percent, valid_from, valid_until, active FROM coupons WHERE code = ?")) {
@@ -20,8 +43,6 @@ public class CouponDAO {
                     return mapResultSetToCoupon(rs);
                 }
             }
-        } catch (SQLException ex) {
-            System.err.println("Error getting coupon by code: " + ex.getMessage());
         }
         return null;
     }
@@ -46,9 +67,9 @@ public class CouponDAO {
     public List<Coupon> getActiveCoupons() {
         List<Coupon> coupons = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT coupon_id, code, discount_percent, valid_from, valid_until, active FROM coupons WHERE active = TRUE")) {
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT coupon_id, code, discount_percent, valid_from, valid_until, active FROM coupons WHERE active = TRUE");
+             ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 coupons.add(mapResultSetToCoupon(rs));
             }
@@ -71,6 +92,8 @@ public class CouponDAO {
 
             int affectedRows = ps.executeUpdate();
             if (affectedRows > 0) {
+                // Forget a cached "unknown code" result
+                couponCache.invalidate(coupon.getCode());
                 try (ResultSet keys = ps.getGeneratedKeys()) {
                     if (keys.next()) {
                         int couponId = keys.getInt(1);
@@ -92,7 +115,12 @@ public class CouponDAO {
             ps.setBoolean(2, coupon.isActive());
             ps.setInt(3, coupon.getCouponId());
 
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                couponCache.invalidate(coupon.getCode());
+                couponCache.invalidate(coupon.getCouponId());
+            }
+            return updated;
         } catch (SQLException ex) {
             System.err.println("Error updating coupon: " + ex.getMessage());
         }
@@ -103,7 +131,11 @@ public class CouponDAO {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement("DELETE FROM coupons WHERE coupon_id = ?")) {
             ps.setInt(1, couponId);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            if (deleted) {
+                couponCache.invalidate(couponId);
+            }
+            return deleted;
         } catch (SQLException ex) {
             System.err.println("Error deleting coupon: " + ex.getMessage());
         }
@@ -0,0 +1,105 @@
+package com.foodordering.dao;
+
+import com.foodordering.utils.DatabaseConnection;
+
+import java.sql.*;
+
+/**
+ * Data Access Object for the customer record behind each user account.
+ * User to customer id lookups go through the shared {@link CustomerIdCache},
+ * which {@link UserDAO#login} fills, so most of them never reach the database.
+ */
+public class CustomerDAO {
+
+    /**
+     * Creates a minimal customer row, or leaves the existing one untouched.
+     * LAST_INSERT_ID(customer_id) makes MySQL report the existing id as the
+     * generated key, so either way the id comes back in one round trip.
+     */
+    private static final String UPSERT_SQL =
+            "INSERT INTO customers (user_id, address, phone) VALUES (?, 'Unknown', '000-0000') " +
+            "ON DUPLICATE KEY UPDATE customer_id = LAST_INSERT_ID(customer_id)";
+
+    private static final String SELECT_SQL = "SELECT customer_id FROM customers WHERE user_id = ?";
+
+    private final CustomerIdCache customerIdCache;
+
+    public CustomerDAO() {
+        this(CustomerIdCache.getInstance());
+    }
+
+    CustomerDAO(CustomerIdCache customerIdCache) {
+        this.customerIdCache = customerIdCache;
+    }
+
+    /**
+     * Finds the customer record of a user, creating a minimal one on first use.
+     * @param userId user id
+     * @return customer id, or 0 if it could not be resolved
+     */
+    public int resolveCustomerId(int userId) {
+        int cached = customerIdCache.get(userId);
+        if (cached > 0) {
+            return cached;
+        }
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            int customerId = upsertCustomerId(conn, userId);
+            customerIdCache.put(userId, customerId);
+            return customerId;
+        } catch (SQLException e) {
+            System.err.println("Error resolving customer: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Finds the customer record of a user without creating one.
+     * @param userId user id
+     * @return customer id, or 0 if the user has no customer record
+     */
+    public int findCustomerId(int userId) {
+        int cached = customerIdCache.get(userId);
+        if (cached > 0) {
+            return cached;
+        }
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            int customerId = selectCustomerId(conn, userId);
+            customerIdCache.put(userId, customerId);
+            return customerId;
+        } catch (SQLException e) {
+            System.err.println("Error getting customer ID: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Atomic insert-if-missing on the unique customers.user_id.
+     * @return id of the new or existing customer
+     */
+    static int upsertCustomerId(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, userId);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next() && keys.getInt(1) > 0) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        // Drivers that report no key for the duplicate case
+        int customerId = selectCustomerId(conn, userId);
+        if (customerId <= 0) {
+            throw new SQLException("Customer record could not be created for user " + userId);
+        }
+        return customerId;
+    }
+
+    static int selectCustomerId(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.foodordering.dao;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * User id to customer id cache shared by all {@link CustomerDAO} instances
+ * and filled by {@link UserDAO#login}.
+ *
+ * customers.user_id is unique, so a mapping does not change while the
+ * customer row exists and entries do not expire. A customer row deleted
+ * behind the cache's back shows up as a constraint violation when an order
+ * or review is written with the stale id; those DAOs then call
+ * {@link #writeFailed}, which drops the entry so the next lookup goes to the
+ * database. Only existing customers are cached; a user without one is
+ * looked up again next time.
+ */
+public class CustomerIdCache {
+
+    /** Default bound on cached users. */
+    public static final int DEFAULT_MAX_ENTRIES = 50_000;
+
+    private static final CustomerIdCache INSTANCE = new CustomerIdCache(DEFAULT_MAX_ENTRIES);
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<Integer, Integer> customerIds = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @return cache shared by every {@link CustomerDAO} created with the default constructor
+     */
+    public static CustomerIdCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param maxEntries maximum number of cached users (> 0)
+     */
+    CustomerIdCache(int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be > 0");
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return cached customer id, or 0 if the user is not cached
+     */
+    public int get(int userId) {
+        Integer customerId = customerIds.get(userId);
+        if (customerId == null) {
+            misses.increment();
+            return 0;
+        }
+        hits.increment();
+        return customerId;
+    }
+
+    /**
+     * Remembers a user's customer id. Ignores non-positive ids, and new users
+     * once the cache is full.
+     */
+    public void put(int userId, int customerId) {
+        if (userId <= 0 || customerId <= 0) {
+            return;
+        }
+        if (customerIds.size() < maxEntries || customerIds.containsKey(userId)) {
+            customerIds.put(userId, customerId);
+        }
+    }
+
+    /**
+     * Forgets a user, e.g. after their customer row was deleted.
+     */
+    public void invalidate(int userId) {
+        customerIds.remove(userId);
+    }
+
+    /**
+     * Forgets the user mapped to this customer id, if any.
+     */
+    public void invalidateCustomer(int customerId) {
+        customerIds.values().remove(customerId);
+    }
+
+    /**
+     * Called when a write using {@code customerId} failed. An integrity
+     * constraint violation (SQLState class 23) may mean the customer row is
+     * gone, so the id is forgotten; other failures leave the cache alone.
+     */
+    void writeFailed(int customerId, SQLException cause) {
+        String state = cause.getSQLState();
+        if (cause instanceof SQLIntegrityConstraintViolationException
+                || (state != null && state.startsWith("23"))) {
+            invalidateCustomer(customerId);
+        }
+    }
+
+    /**
+     * Drops every cached user.
+     */
+    public void clear() {
+        customerIds.clear();
+    }
+
+    /** @return number of cached users */
+    public int size() {
+        return customerIds.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,57 @@
+package com.foodordering.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Builds {@code IN (?, ?, ...)} lists whose length is rounded up to a power of
+ * two (at least {@link #MIN_SIZE}), so queries over id lists of any length
+ * share a handful of SQL texts in the pool's statement cache instead of
+ * evicting it with one statement per length. The spare placeholders are bound
+ * to the last id, which does not change the result of an IN test.
+ */
+final class InList {
+
+    /** Smallest number of placeholders in a list. */
+    static final int MIN_SIZE = 8;
+
+    private InList() {
+    }
+
+    /**
+     * @param count number of ids to bind (> 0)
+     * @return number of placeholders used for {@code count} ids
+     */
+    static int paddedSize(int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be > 0");
+        return Math.max(MIN_SIZE, Integer.highestOneBit(count - 1) << 1);
+    }
+
+    /**
+     * @return {@code "?, ?, ..."} with {@link #paddedSize(int) paddedSize(count)} placeholders
+     */
+    static String placeholders(int count) {
+        int size = paddedSize(count);
+        StringBuilder sql = new StringBuilder(size * 3);
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Binds the ids to a list built by {@link #placeholders(int)}, filling the
+     * spare placeholders with the last id.
+     *
+     * @param index parameter index of the first placeholder
+     * @return parameter index following the list
+     */
+    static int bind(PreparedStatement stmt, int index, List<Integer> ids) throws SQLException {
+        int size = paddedSize(ids.size());
+        for (int i = 0; i < size; i++) {
+            stmt.setInt(index++, ids.get(Math.min(i, ids.size() - 1)));
+        }
+        return index;
+    }
+}
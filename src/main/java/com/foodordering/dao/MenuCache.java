@@ -0,0 +1,398 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.MenuItem;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-restaurant menu cache shared by all {@link MenuItemDAO} instances.
+ * Each restaurant maps to an immutable {@link Menu} snapshot; writes made through
+ * {@link MenuItemDAO} replace the snapshot with an updated copy (copy-on-write),
+ * so readers never see a half-updated menu.
+ * <p>
+ * Lookups ({@link #getMenu} hits and {@link #findItem}) read a {@link ConcurrentHashMap}
+ * and take no lock; {@link #findItem} finds the menu through an item-id index kept in
+ * step with every snapshot swap. Loads and write-throughs serialize on the cache. The
+ * number of cached restaurants is bounded by approximate LRU eviction: a hit stamps the
+ * menu with a logical clock, and an insert over the limit evicts the oldest stamp.
+ * <p>
+ * A menu is reloaded once its TTL has elapsed since it was loaded, so changes made
+ * outside this process, such as a menu import, show up without a restart.
+ */
+public class MenuCache {
+
+    /** Default number of restaurant menus kept in memory. */
+    public static final int DEFAULT_MAX_RESTAURANTS = 64;
+    /** Default time a loaded menu is served before it is reloaded. */
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+
+    private static final MenuCache INSTANCE = new MenuCache(DEFAULT_MAX_RESTAURANTS);
+
+    /** Orders items the way the menu screens list them. */
+    private static final Comparator<MenuItem> BY_NAME = Comparator
+            .comparing(MenuItem::getName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(MenuItem::getItemId);
+
+    private final int maxRestaurants;
+    private final long ttlMillis;
+    private final Clock ttlClock;
+    private final ConcurrentHashMap<Integer, Entry> menus = new ConcurrentHashMap<>();
+    /** Restaurant of every item in a cached menu; changed only together with {@link #menus}. */
+    private final ConcurrentHashMap<Integer, Integer> itemRestaurants = new ConcurrentHashMap<>();
+    /** Logical clock for LRU stamps. */
+    private final AtomicLong clock = new AtomicLong();
+    /** Bumped on every write so a load racing with a write is not cached. */
+    private final AtomicLong writes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** A cached menu, when it expires and when it was last used. */
+    private static final class Entry {
+        final Menu menu;
+        final long expiresAt;
+        volatile long lastUsed;
+
+        Entry(Menu menu, long expiresAt, long lastUsed) {
+            this.menu = menu;
+            this.expiresAt = expiresAt;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Menu item held by the cache. Its setters throw, so a caller cannot change
+     * what every other reader sees; copy it into a new {@link MenuItem} to edit.
+     */
+    private static final class CachedMenuItem extends MenuItem {
+        CachedMenuItem(MenuItem item) {
+            super(item.getItemId(), item.getRestaurantId(), item.getName(),
+                    item.getPrice(), item.getDescription(), item.isAvailable());
+        }
+
+        @Override public void setItemId(int itemId) { throw readOnly(); }
+        @Override public void setRestaurantId(int restaurantId) { throw readOnly(); }
+        @Override public void setName(String name) { throw readOnly(); }
+        @Override public void setPrice(double price) { throw readOnly(); }
+        @Override public void setDescription(String description) { throw readOnly(); }
+        @Override public void setAvailable(boolean available) { throw readOnly(); }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Cached menu items are read-only; copy the item to change it");
+        }
+    }
+
+    /**
+     * Immutable menu of one restaurant: items sorted by name plus an item-id index.
+     * The items are read-only: their setters throw {@link UnsupportedOperationException}.
+     */
+    public static final class Menu {
+        private final int restaurantId;
+        private final MenuItem[] items;
+        private final MenuItem[] availableItems;
+        private final Map<Integer, MenuItem> byId;
+
+        private Menu(int restaurantId, MenuItem[] sortedItems) {
+            this.restaurantId = restaurantId;
+            this.items = sortedItems;
+            this.availableItems = Arrays.stream(sortedItems).filter(MenuItem::isAvailable).toArray(MenuItem[]::new);
+            Map<Integer, MenuItem> index = new HashMap<>(sortedItems.length * 2);
+            for (MenuItem item : sortedItems) {
+                index.put(item.getItemId(), item);
+            }
+            this.byId = index;
+        }
+
+        private static Menu of(int restaurantId, List<MenuItem> items) {
+            MenuItem[] sorted = items.stream().map(MenuCache::copyOf).toArray(MenuItem[]::new);
+            Arrays.sort(sorted, BY_NAME);
+            return new Menu(restaurantId, sorted);
+        }
+
+        public int getRestaurantId() {
+            return restaurantId;
+        }
+
+        /** @return every item ordered by name (unmodifiable, items read-only) */
+        public List<MenuItem> getItems() {
+            return Collections.unmodifiableList(Arrays.asList(items));
+        }
+
+        /** @return items that can be ordered, ordered by name (unmodifiable, items read-only) */
+        public List<MenuItem> getAvailableItems() {
+            return Collections.unmodifiableList(Arrays.asList(availableItems));
+        }
+
+        /** @return the read-only item with this id, or null if it is not on this menu */
+        public MenuItem getItem(int itemId) {
+            return byId.get(itemId);
+        }
+
+        public int size() {
+            return items.length;
+        }
+
+        private Menu with(MenuItem item) {
+            MenuItem[] base = byId.containsKey(item.getItemId()) ? without(item.getItemId()).items : items;
+            int pos = Arrays.binarySearch(base, item, BY_NAME);
+            int insertAt = pos >= 0 ? pos : -pos - 1;
+            MenuItem[] next = new MenuItem[base.length + 1];
+            System.arraycopy(base, 0, next, 0, insertAt);
+            next[insertAt] = item;
+            System.arraycopy(base, insertAt, next, insertAt + 1, base.length - insertAt);
+            return new Menu(restaurantId, next);
+        }
+
+        private Menu without(int itemId) {
+            MenuItem[] next = new MenuItem[items.length - 1];
+            int i = 0;
+            for (MenuItem item : items) {
+                if (item.getItemId() != itemId) {
+                    next[i++] = item;
+                }
+            }
+            return new Menu(restaurantId, next);
+        }
+    }
+
+    /**
+     * @return the cache used by {@link MenuItemDAO}
+     */
+    public static MenuCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param maxRestaurants maximum number of menus kept (must be > 0)
+     */
+    MenuCache(int maxRestaurants) {
+        this(maxRestaurants, DEFAULT_TTL_MILLIS, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param maxRestaurants maximum number of menus kept (must be > 0)
+     * @param ttlMillis how long a loaded menu is served before reloading (> 0)
+     * @param clock time source for expiry
+     */
+    MenuCache(int maxRestaurants, long ttlMillis, Clock clock) {
+        if (maxRestaurants <= 0) throw new IllegalArgumentException("maxRestaurants must be > 0");
+        if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be > 0");
+        this.maxRestaurants = maxRestaurants;
+        this.ttlMillis = ttlMillis;
+        this.ttlClock = clock;
+    }
+
+    /**
+     * Returns the menu of a restaurant, loading it with {@code menuItemDAO} on a miss
+     * or once the cached menu has expired. If the load fails an empty menu is
+     * returned and nothing is cached.
+     *
+     * @param restaurantId restaurant id
+     * @param menuItemDAO DAO used to load the menu on a miss
+     * @return menu snapshot
+     */
+    public Menu getMenu(int restaurantId, MenuItemDAO menuItemDAO) {
+        Entry entry = menus.get(restaurantId);
+        if (entry != null && !isExpired(entry)) {
+            hits.increment();
+            touch(entry);
+            return entry.menu;
+        }
+        misses.increment();
+        long writesBefore = writes.get();
+
+        Menu loaded;
+        try {
+            loaded = Menu.of(restaurantId, menuItemDAO.loadMenuItemsByRestaurant(restaurantId));
+        } catch (SQLException e) {
+            System.err.println("Error loading menu for restaurant " + restaurantId + ": " + e.getMessage());
+            return Menu.of(restaurantId, Collections.emptyList());
+        }
+
+        synchronized (this) {
+            Entry existing = menus.get(restaurantId);
+            if (existing != null && !isExpired(existing)) {
+                return existing.menu;
+            }
+            // A write during the load may be missing from the result, so serve it uncached
+            if (writes.get() == writesBefore) {
+                put(new Entry(loaded, ttlClock.millis() + ttlMillis, clock.incrementAndGet()));
+                evictOverflow();
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Looks up an item in the cached menus without touching the database.
+     *
+     * @param itemId menu item id
+     * @return read-only cached item, or null if no unexpired cached menu contains it
+     */
+    public MenuItem findItem(int itemId) {
+        Entry entry = entryContaining(itemId);
+        return entry != null && !isExpired(entry) ? entry.menu.getItem(itemId) : null;
+    }
+
+    /**
+     * Drops the cached menu of one restaurant.
+     */
+    public synchronized void invalidate(int restaurantId) {
+        writes.incrementAndGet();
+        remove(restaurantId);
+    }
+
+    /**
+     * Drops every cached menu.
+     */
+    public synchronized void clear() {
+        writes.incrementAndGet();
+        menus.clear();
+        itemRestaurants.clear();
+    }
+
+    /** @return number of cached restaurant menus */
+    public int size() {
+        return menus.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Write-through for a newly inserted item. A copy is cached so later
+     * changes to the caller's object do not leak into the cache.
+     */
+    synchronized void itemAdded(MenuItem item) {
+        writes.incrementAndGet();
+        Entry entry = menus.get(item.getRestaurantId());
+        if (entry != null) {
+            replace(entry, entry.menu.with(copyOf(item)));
+        }
+    }
+
+    /**
+     * Write-through for an updated item. The restaurant of an item cannot be
+     * changed by an update, so a mismatch means the caller's object is stale
+     * and the menu is dropped instead.
+     */
+    synchronized void itemUpdated(MenuItem item) {
+        writes.incrementAndGet();
+        Entry entry = entryContaining(item.getItemId());
+        if (entry == null) {
+            return;
+        }
+        if (entry.menu.getRestaurantId() == item.getRestaurantId()) {
+            replace(entry, entry.menu.with(copyOf(item)));
+        } else {
+            remove(entry.menu.getRestaurantId());
+        }
+    }
+
+    /**
+     * Write-through for a deleted item.
+     */
+    synchronized void itemDeleted(int itemId) {
+        writes.incrementAndGet();
+        Entry entry = entryContaining(itemId);
+        if (entry != null) {
+            replace(entry, entry.menu.without(itemId));
+        }
+    }
+
+    /**
+     * Marks a menu as just used. A menu that is already the most recent one is
+     * not re-stamped, so repeated hits on a popular menu do not write at all.
+     */
+    private void touch(Entry entry) {
+        if (entry.lastUsed != clock.get()) {
+            entry.lastUsed = clock.incrementAndGet();
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlClock.millis() >= entry.expiresAt;
+    }
+
+    /** Swaps in an updated snapshot, keeping its expiry and LRU position. Caller holds the lock. */
+    private void replace(Entry entry, Menu menu) {
+        put(new Entry(menu, entry.expiresAt, entry.lastUsed));
+    }
+
+    /**
+     * Caches a snapshot and updates the item index: items of the new menu are
+     * indexed before those dropped from the old one are removed, so a lock-free
+     * lookup of an item on both never misses it. Caller holds the lock.
+     */
+    private void put(Entry entry) {
+        Menu menu = entry.menu;
+        Entry previous = menus.put(menu.getRestaurantId(), entry);
+        for (MenuItem item : menu.items) {
+            itemRestaurants.put(item.getItemId(), menu.getRestaurantId());
+        }
+        if (previous != null) {
+            for (MenuItem item : previous.menu.items) {
+                if (menu.getItem(item.getItemId()) == null) {
+                    itemRestaurants.remove(item.getItemId(), menu.getRestaurantId());
+                }
+            }
+        }
+    }
+
+    /** Drops a cached menu and its items from the index. Caller holds the lock. */
+    private void remove(int restaurantId) {
+        Entry previous = menus.remove(restaurantId);
+        if (previous != null) {
+            unindex(previous.menu);
+        }
+    }
+
+    private void unindex(Menu menu) {
+        for (MenuItem item : menu.items) {
+            itemRestaurants.remove(item.getItemId(), menu.getRestaurantId());
+        }
+    }
+
+    /** @return the cached entry whose menu contains the item, expired or not, or null */
+    private Entry entryContaining(int itemId) {
+        Integer restaurantId = itemRestaurants.get(itemId);
+        if (restaurantId == null) {
+            return null;
+        }
+        Entry entry = menus.get(restaurantId);
+        return entry != null && entry.menu.getItem(itemId) != null ? entry : null;
+    }
+
+    /** Evicts least recently used menus over the limit. Caller holds the lock. */
+    private void evictOverflow() {
+        while (menus.size() > maxRestaurants) {
+            Map.Entry<Integer, Entry> oldest = null;
+            for (Map.Entry<Integer, Entry> candidate : menus.entrySet()) {
+                if (oldest == null || candidate.getValue().lastUsed < oldest.getValue().lastUsed) {
+                    oldest = candidate;
+                }
+            }
+            if (menus.remove(oldest.getKey(), oldest.getValue())) {
+                unindex(oldest.getValue().menu);
+            }
+        }
+    }
+
+    private static MenuItem copyOf(MenuItem item) {
+        return new CachedMenuItem(item);
+    }
+}
@@ -1,18 +1,47 @@
 package com.foodordering.dao;
 
 import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
 import com.foodordering.utils.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for MenuItem entity.
  * Handles all database operations for menu items.
+ * Writes are applied to the shared {@link MenuCache} as well (write-through).
  */
 public class MenuItemDAO {
 
+    /** Default number of menu items committed per transaction by {@link #addMenuItems(List, int)}. */
+    public static final int DEFAULT_IMPORT_TRANSACTION_SIZE = 5000;
+
+    /** Upper bound on rows per multi-row menu item INSERT, keeping statements well below max_allowed_packet. */
+    static final int MAX_ROWS_PER_INSERT = 500;
+
+    /** Ids looked up per query by {@link #getMenuItemsByIds}; padded lists top out at this size. */
+    static final int MAX_IDS_PER_QUERY = 64;
+
+    private static final String MENU_ITEM_INSERT_PREFIX =
+            "INSERT INTO menu_items (restaurant_id, name, price, description, available) VALUES ";
+    private static final String MENU_ITEM_INSERT_ROW = "(?, ?, ?, ?, ?)";
+
+    private final MenuCache menuCache;
+
+    public MenuItemDAO() {
+        this(MenuCache.getInstance());
+    }
+
+    MenuItemDAO(MenuCache menuCache) {
+        this.menuCache = menuCache;
+    }
+
     /**
      * Adds a new menu item to the database.
      *
@@ -27,7 +56,7 @@ public class MenuItemDAO {
             
             stmt.setInt(1, menuItem.getRestaurantId());
             stmt.setString(2, menuItem.getName());
-            stmt.setDouble(3, menuItem.getPrice());
+            stmt.setBigDecimal(3, Money.toBigDecimal(Money.ofDouble(menuItem.getPrice())));
             stmt.setString(4, menuItem.getDescription());
             stmt.setBoolean(5, menuItem.isAvailable());
             
@@ -39,6 +68,7 @@ public class MenuItemDAO {
                         menuItem.setItemId(generatedKeys.getInt(1));
                     }
                 }
+                menuCache.itemAdded(menuItem);
                 return true;
             }
             
@@ -49,6 +79,121 @@ public class MenuItemDAO {
         return false;
     }
 
+    /**
+     * Inserts many menu items, e.g. a restaurant chain's catalog. Items are
+     * grouped by restaurant and written with multi-row INSERTs of up to
+     * {@link #MAX_ROWS_PER_INSERT} rows, committing every
+     * {@code rowsPerTransaction} items of a restaurant. A failing chunk is
+     * rolled back and the rest of that restaurant's items are skipped; other
+     * restaurants are still imported. Generated ids are not assigned back to
+     * the items, and the cached menus of the affected restaurants are dropped.
+     *
+     * @param items items to insert
+     * @param rowsPerTransaction number of items committed per transaction (must be > 0)
+     * @return number of items committed
+     */
+    public int addMenuItems(List<MenuItem> items, int rowsPerTransaction) {
+        if (rowsPerTransaction <= 0) throw new IllegalArgumentException("rowsPerTransaction must be > 0");
+        if (items == null || items.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<MenuItem>> byRestaurant = new LinkedHashMap<>();
+        for (MenuItem item : items) {
+            byRestaurant.computeIfAbsent(item.getRestaurantId(), id -> new ArrayList<>()).add(item);
+        }
+
+        int committed = 0;
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            for (Map.Entry<Integer, List<MenuItem>> entry : byRestaurant.entrySet()) {
+                int inserted = insertRestaurantItems(conn, entry.getValue(), rowsPerTransaction);
+                if (inserted > 0) {
+                    menuCache.invalidate(entry.getKey());
+                }
+                committed += inserted;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding menu items: " + e.getMessage());
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error resetting autocommit: " + e.getMessage());
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Inserts the items of one restaurant on a connection with auto-commit
+     * off, committing every {@code rowsPerTransaction} items.
+     *
+     * @return number of items committed before the first failing chunk
+     */
+    static int insertRestaurantItems(Connection conn, List<MenuItem> items, int rowsPerTransaction) {
+        int committed = 0;
+        for (int from = 0; from < items.size(); from += rowsPerTransaction) {
+            List<MenuItem> chunk = items.subList(from, Math.min(from + rowsPerTransaction, items.size()));
+            try {
+                insertMenuItemChunk(conn, chunk);
+                conn.commit();
+                committed += chunk.size();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Rollback error: " + ex.getMessage());
+                }
+                System.err.println("Error adding menu items for restaurant " + chunk.get(0).getRestaurantId()
+                        + ": " + e.getMessage());
+                break;
+            }
+        }
+        return committed;
+    }
+
+    private static void insertMenuItemChunk(Connection conn, List<MenuItem> chunk) throws SQLException {
+        for (int from = 0; from < chunk.size(); from += MAX_ROWS_PER_INSERT) {
+            List<MenuItem> rows = chunk.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, chunk.size()));
+            try (PreparedStatement stmt = conn.prepareStatement(multiRowMenuItemInsert(rows.size()))) {
+                int i = 1;
+                for (MenuItem item : rows) {
+                    stmt.setInt(i++, item.getRestaurantId());
+                    stmt.setString(i++, item.getName());
+                    stmt.setBigDecimal(i++, Money.toBigDecimal(Money.ofDouble(item.getPrice())));
+                    stmt.setString(i++, item.getDescription());
+                    stmt.setBoolean(i++, item.isAvailable());
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Builds {@code INSERT INTO menu_items ... VALUES (...), (...), ...} for {@code rows} rows.
+     */
+    static String multiRowMenuItemInsert(int rows) {
+        StringBuilder sql = new StringBuilder(MENU_ITEM_INSERT_PREFIX.length() + rows * (MENU_ITEM_INSERT_ROW.length() + 2));
+        sql.append(MENU_ITEM_INSERT_PREFIX);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(MENU_ITEM_INSERT_ROW);
+        }
+        return sql.toString();
+    }
+
     /**
      * Retrieves a menu item by its ID.
      *
@@ -76,6 +221,50 @@ public class MenuItemDAO {
         return null;
     }
 
+    /**
+     * Retrieves the current state of several menu items, with one query per
+     * {@link #MAX_IDS_PER_QUERY} ids. Reads the database rather than the menu
+     * cache, so checkout sees prices changed by other instances too.
+     *
+     * @param itemIds IDs of the menu items
+     * @return items by ID, without IDs that do not exist; null on a database error
+     */
+    public Map<Integer, MenuItem> getMenuItemsByIds(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return loadMenuItemsByIds(conn, itemIds);
+        } catch (SQLException e) {
+            System.err.println("Error getting menu items by IDs: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Looks the ids up with padded {@link InList}s, so carts of any size share
+     * at most four statements in the statement cache.
+     */
+    static Map<Integer, MenuItem> loadMenuItemsByIds(Connection conn, Collection<Integer> itemIds) throws SQLException {
+        Map<Integer, MenuItem> items = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(itemIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            String sql = "SELECT item_id, restaurant_id, name, price, description, available FROM menu_items "
+                    + "WHERE item_id IN (" + InList.placeholders(chunk.size()) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                InList.bind(stmt, 1, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        MenuItem item = extractMenuItemFromResultSet(rs);
+                        items.put(item.getItemId(), item);
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
     /**
      * Retrieves all menu items for a specific restaurant.
      *
@@ -83,6 +272,62 @@ public class MenuItemDAO {
      * @return List of MenuItem objects
      */
     public List<MenuItem> getMenuItemsByRestaurant(int restaurantId) {
+        try {
+            return loadMenuItemsByRestaurant(restaurantId);
+        } catch (SQLException e) {
+            System.err.println("Error getting menu items by restaurant: " + e.getMessage());
+        }
+        
+        return new ArrayList<>();
+    }
+
+    /**
+     * Retrieves the menu of a restaurant from the menu cache, loading it on a miss.
+     *
+     * @param restaurantId ID of the restaurant
+     * @return immutable menu snapshot
+     */
+    public MenuCache.Menu getMenu(int restaurantId) {
+        return menuCache.getMenu(restaurantId, this);
+    }
+
+    /**
+     * Finds the restaurant a menu item belongs to, checking cached menus first.
+     *
+     * @param itemId ID of the menu item
+     * @return restaurant ID, or 0 if the item does not exist
+     */
+    public int getRestaurantIdForItem(int itemId) {
+        MenuItem cached = menuCache.findItem(itemId);
+        if (cached != null) {
+            return cached.getRestaurantId();
+        }
+
+        String sql = "SELECT restaurant_id FROM menu_items WHERE item_id = ?";
+        
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, itemId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting restaurant for menu item: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+
+    /**
+     * Loads all menu items of a restaurant, propagating database errors.
+     * Used by {@link MenuCache} so that a failed load is not cached as an empty menu.
+     */
+    List<MenuItem> loadMenuItemsByRestaurant(int restaurantId) throws SQLException {
         List<MenuItem> items = new ArrayList<>();
         String sql = "SELECT * FROM menu_items WHERE restaurant_id = ? ORDER BY name";
         
@@ -96,9 +341,6 @@ public class MenuItemDAO {
                     items.add(extractMenuItemFromResultSet(rs));
                 }
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error getting menu items by restaurant: " + e.getMessage());
         }
         
         return items;
@@ -145,13 +387,16 @@ public class MenuItemDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, menuItem.getName());
-            stmt.setDouble(2, menuItem.getPrice());
+            stmt.setBigDecimal(2, Money.toBigDecimal(Money.ofDouble(menuItem.getPrice())));
             stmt.setString(3, menuItem.getDescription());
             stmt.setBoolean(4, menuItem.isAvailable());
             stmt.setInt(5, menuItem.getItemId());
             
             int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                menuCache.itemUpdated(menuItem);
+                return true;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error updating menu item: " + e.getMessage());
@@ -175,7 +420,10 @@ public class MenuItemDAO {
             stmt.setInt(1, itemId);
             
             int affectedRows = stmt.executeUpdate();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                menuCache.itemDeleted(itemId);
+                return true;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error deleting menu item: " + e.getMessage());
@@ -191,12 +439,12 @@ public class MenuItemDAO {
      * @return MenuItem object
      * @throws SQLException if database error occurs
      */
-    private MenuItem extractMenuItemFromResultSet(ResultSet rs) throws SQLException {
+    private static MenuItem extractMenuItemFromResultSet(ResultSet rs) throws SQLException {
         return new MenuItem(
             rs.getInt("item_id"),
             rs.getInt("restaurant_id"),
             rs.getString("name"),
-            rs.getDouble("price"),
+            Money.toDouble(Money.fromBigDecimal(rs.getBigDecimal("price"))),
             rs.getString("description"),
             rs.getBoolean("available")
         );
@@ -1,6 +1,8 @@
 package com.foodordering.dao;
 
+import com.foodordering.models.Money;
 import com.foodordering.models.Order;
+import com.foodordering.models.OrderHistoryEntry;
 import com.foodordering.models.OrderItem;
 import com.foodordering.utils.DatabaseConnection;
 
@@ -13,6 +15,45 @@ import java.util.List;
  */
 public class OrderDAO {
 
+    /** Default number of orders committed per transaction by {@link #createOrders(List)}. */
+    public static final int DEFAULT_ORDER_GROUP_SIZE = 100;
+
+    /** Upper bound on rows per multi-row INSERT, keeping statements well below max_allowed_packet. */
+    static final int MAX_ROWS_PER_INSERT = 500;
+
+    private static final String ORDER_INSERT_PREFIX =
+            "INSERT INTO orders (customer_id, restaurant_id, total_price, status, coupon_id) VALUES ";
+    private static final String ORDER_INSERT_ROW = "(?, ?, ?, ?, ?)";
+    private static final String ORDER_ITEM_INSERT_SQL =
+            "INSERT INTO order_items (order_id, item_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
+
+    /** Default number of rows fetched per order-history page. */
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+
+    private static final String HISTORY_SELECT =
+            "SELECT o.order_id, o.restaurant_id, r.name AS restaurant_name, o.total_price, o.status, o.created_at, " +
+            "COALESCE(SUM(oi.quantity), 0) AS item_count " +
+            "FROM orders o " +
+            "JOIN restaurants r ON r.restaurant_id = o.restaurant_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+            "WHERE o.customer_id = ? ";
+    private static final String HISTORY_GROUP_ORDER =
+            "GROUP BY o.order_id, o.restaurant_id, r.name, o.total_price, o.status, o.created_at " +
+            "ORDER BY o.created_at DESC, o.order_id DESC LIMIT ?";
+    private static final String HISTORY_FIRST_PAGE_SQL = HISTORY_SELECT + HISTORY_GROUP_ORDER;
+    private static final String HISTORY_NEXT_PAGE_SQL = HISTORY_SELECT +
+            "AND (o.created_at < ? OR (o.created_at = ? AND o.order_id < ?)) " + HISTORY_GROUP_ORDER;
+
+    private final CustomerIdCache customerIdCache;
+
+    public OrderDAO() {
+        this(CustomerIdCache.getInstance());
+    }
+
+    OrderDAO(CustomerIdCache customerIdCache) {
+        this.customerIdCache = customerIdCache;
+    }
+
     /**
      * Creates a new order with its items.
      */
@@ -29,7 +70,7 @@ public class OrderDAO {
             try (PreparedStatement orderStmt = conn.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS)) {
                 orderStmt.setInt(1, order.getCustomerId());
                 orderStmt.setInt(2, order.getRestaurantId());
-                orderStmt.setDouble(3, order.getTotalPrice());
+                orderStmt.setBigDecimal(3, Money.toBigDecimal(order.getTotalPriceCents()));
                 orderStmt.setString(4, order.getStatus());
                 if (order.getCouponId() != null) {
                     orderStmt.setInt(5, order.getCouponId());
@@ -54,7 +95,7 @@ public class OrderDAO {
                         itemStmt.setInt(1, order.getOrderId());
                         itemStmt.setInt(2, item.getItemId());
                         itemStmt.setInt(3, item.getQuantity());
-                        itemStmt.setDouble(4, item.getUnitPrice());
+                        itemStmt.setBigDecimal(4, Money.toBigDecimal(item.getUnitPriceCents()));
                         itemStmt.addBatch();
                     }
                     itemStmt.executeBatch();
@@ -73,6 +114,7 @@ public class OrderDAO {
                 }
             }
             System.err.println("Error creating order: " + e.getMessage());
+            customerIdCache.writeFailed(order.getCustomerId(), e);
             return false;
         } finally {
             if (conn != null) {
@@ -81,10 +123,157 @@ public class OrderDAO {
                 } catch (SQLException e) {
                     System.err.println("Error resetting autocommit: " + e.getMessage());
                 }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
             }
         }
     }
 
+    /**
+     * Creates many orders using {@link #DEFAULT_ORDER_GROUP_SIZE} orders per transaction.
+     *
+     * @see #createOrders(List, int)
+     */
+    public int createOrders(List<Order> orders) {
+        return createOrders(orders, DEFAULT_ORDER_GROUP_SIZE);
+    }
+
+    /**
+     * Creates many orders with their items. Orders are written with multi-row
+     * INSERTs, their generated ids are assigned back to each {@link Order}, and
+     * the items of all orders in a group go out as one JDBC batch (rewritten to
+     * multi-row INSERTs by Connector/J when {@code rewriteBatchedStatements=true}).
+     * Each group of {@code groupSize} orders is committed in its own transaction.
+     * Processing stops at the first failing group, which is rolled back and whose
+     * orders keep an id of 0.
+     *
+     * @param orders orders to insert
+     * @param groupSize number of orders committed per transaction (must be > 0)
+     * @return number of orders committed
+     */
+    public int createOrders(List<Order> orders, int groupSize) {
+        if (groupSize <= 0) throw new IllegalArgumentException("groupSize must be > 0");
+        if (orders == null || orders.isEmpty()) {
+            return 0;
+        }
+
+        int committed = 0;
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+
+            for (int from = 0; from < orders.size(); from += groupSize) {
+                List<Order> group = orders.subList(from, Math.min(from + groupSize, orders.size()));
+                try {
+                    insertOrderGroup(conn, group);
+                    conn.commit();
+                    committed += group.size();
+                } catch (SQLException e) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ex) {
+                        System.err.println("Rollback error: " + ex.getMessage());
+                    }
+                    for (Order order : group) {
+                        order.setOrderId(0);
+                    }
+                    System.err.println("Error creating orders: " + e.getMessage());
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating orders: " + e.getMessage());
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error resetting autocommit: " + e.getMessage());
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Inserts one group of orders and their items inside the caller's transaction.
+     */
+    private void insertOrderGroup(Connection conn, List<Order> group) throws SQLException {
+        for (int from = 0; from < group.size(); from += MAX_ROWS_PER_INSERT) {
+            List<Order> chunk = group.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, group.size()));
+            try (PreparedStatement stmt = conn.prepareStatement(multiRowOrderInsert(chunk.size()),
+                    Statement.RETURN_GENERATED_KEYS)) {
+                int i = 1;
+                for (Order order : chunk) {
+                    stmt.setInt(i++, order.getCustomerId());
+                    stmt.setInt(i++, order.getRestaurantId());
+                    stmt.setBigDecimal(i++, Money.toBigDecimal(order.getTotalPriceCents()));
+                    stmt.setString(i++, order.getStatus());
+                    if (order.getCouponId() != null) {
+                        stmt.setInt(i++, order.getCouponId());
+                    } else {
+                        stmt.setNull(i++, Types.INTEGER);
+                    }
+                }
+                stmt.executeUpdate();
+
+                // Keys come back in VALUES order
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (Order order : chunk) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated key for order " + order);
+                        }
+                        order.setOrderId(keys.getInt(1));
+                    }
+                }
+            }
+        }
+
+        boolean hasItems = false;
+        try (PreparedStatement itemStmt = conn.prepareStatement(ORDER_ITEM_INSERT_SQL)) {
+            for (Order order : group) {
+                if (order.getItems() == null) {
+                    continue;
+                }
+                for (OrderItem item : order.getItems()) {
+                    itemStmt.setInt(1, order.getOrderId());
+                    itemStmt.setInt(2, item.getItemId());
+                    itemStmt.setInt(3, item.getQuantity());
+                    itemStmt.setBigDecimal(4, Money.toBigDecimal(item.getUnitPriceCents()));
+                    itemStmt.addBatch();
+                    hasItems = true;
+                }
+            }
+            if (hasItems) {
+                itemStmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Builds {@code INSERT INTO orders ... VALUES (...), (...), ...} for {@code rows} rows.
+     */
+    static String multiRowOrderInsert(int rows) {
+        StringBuilder sql = new StringBuilder(ORDER_INSERT_PREFIX.length() + rows * (ORDER_INSERT_ROW.length() + 2));
+        sql.append(ORDER_INSERT_PREFIX);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(ORDER_INSERT_ROW);
+        }
+        return sql.toString();
+    }
+
     /**
      * Gets order by ID with its items.
      */
@@ -99,14 +288,7 @@ public class OrderDAO {
             orderStmt.setInt(1, orderId);
             try (ResultSet rs = orderStmt.executeQuery()) {
                 if (rs.next()) {
-                    Order order = new Order(
-                            rs.getInt("order_id"),
-                            rs.getInt("customer_id"),
-                            rs.getInt("restaurant_id"),
-                            rs.getDouble("total_price"),
-                            rs.getString("status"),
-                            (Integer) rs.getObject("coupon_id")
-                    );
+                    Order order = extractOrderFromResultSet(rs);
                     
                     // Load items
                     itemsStmt.setInt(1, orderId);
@@ -117,8 +299,9 @@ public class OrderDAO {
                                     itemsRs.getInt("order_id"),
                                     itemsRs.getInt("item_id"),
                                     itemsRs.getInt("quantity"),
-                                    itemsRs.getDouble("unit_price")
+                                    0
                             );
+                            item.setUnitPriceCents(Money.fromBigDecimal(itemsRs.getBigDecimal("unit_price")));
                             order.addItem(item);
                         }
                     }
@@ -145,14 +328,7 @@ public class OrderDAO {
             stmt.setInt(1, customerId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Order order = new Order(
-                            rs.getInt("order_id"),
-                            rs.getInt("customer_id"),
-                            rs.getInt("restaurant_id"),
-                            rs.getDouble("total_price"),
-                            rs.getString("status"),
-                            (Integer) rs.getObject("coupon_id")
-                    );
+                    Order order = extractOrderFromResultSet(rs);
                     orders.add(order);
                 }
             }
@@ -162,6 +338,67 @@ public class OrderDAO {
         return orders;
     }
 
+    /**
+     * Gets the newest page of a customer's order history.
+     *
+     * @param customerId customer ID
+     * @param limit maximum number of rows
+     * @return entries ordered newest first
+     */
+    public List<OrderHistoryEntry> getOrderHistoryPage(int customerId, int limit) {
+        return getOrderHistoryPage(customerId, null, limit);
+    }
+
+    /**
+     * Gets the page of a customer's order history that follows {@code after}.
+     * Uses keyset pagination on (created_at, order_id), so every page costs the
+     * same regardless of how far back the customer scrolls. Restaurant name and
+     * item count come from the same query.
+     *
+     * @param customerId customer ID
+     * @param after last entry of the previous page, or null for the first page
+     * @param limit maximum number of rows
+     * @return entries ordered newest first; fewer than {@code limit} means no more pages
+     */
+    public List<OrderHistoryEntry> getOrderHistoryPage(int customerId, OrderHistoryEntry after, int limit) {
+        List<OrderHistoryEntry> entries = new ArrayList<>();
+        if (limit <= 0) {
+            return entries;
+        }
+        boolean firstPage = after == null || after.getCreatedAt() == null;
+        String sql = firstPage ? HISTORY_FIRST_PAGE_SQL : HISTORY_NEXT_PAGE_SQL;
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            stmt.setInt(i++, customerId);
+            if (!firstPage) {
+                stmt.setTimestamp(i++, after.getCreatedAt());
+                stmt.setTimestamp(i++, after.getCreatedAt());
+                stmt.setInt(i++, after.getOrderId());
+            }
+            stmt.setInt(i, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new OrderHistoryEntry(
+                            rs.getInt("order_id"),
+                            rs.getInt("restaurant_id"),
+                            rs.getString("restaurant_name"),
+                            Money.fromBigDecimal(rs.getBigDecimal("total_price")),
+                            rs.getString("status"),
+                            rs.getTimestamp("created_at"),
+                            rs.getInt("item_count")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting order history: " + e.getMessage());
+        }
+        return entries;
+    }
+
     /**
      * Updates order status.
      */
@@ -177,4 +414,20 @@ public class OrderDAO {
         }
         return false;
     }
+
+    /**
+     * Maps the current row of an orders query. DECIMAL amounts are read exactly.
+     */
+    private Order extractOrderFromResultSet(ResultSet rs) throws SQLException {
+        Order order = new Order(
+                rs.getInt("order_id"),
+                rs.getInt("customer_id"),
+                rs.getInt("restaurant_id"),
+                0,
+                rs.getString("status"),
+                (Integer) rs.getObject("coupon_id")
+        );
+        order.setTotalPriceCents(Money.fromBigDecimal(rs.getBigDecimal("total_price")));
+        return order;
+    }
 }
@@ -0,0 +1,209 @@
+package com.foodordering.dao;
+
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.utils.DatabaseConnection;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Streams orders to CSV in constant memory, one line per order item
+ * (orders without items get one line with empty item columns).
+ *
+ * Rows are read from a forward-only, read-only result set. On MySQL the
+ * driver is asked to stream rows one at a time ({@code fetchSize =
+ * Integer.MIN_VALUE}) instead of buffering the whole result; other drivers
+ * get a bounded fetch size. Each line is built in a reused buffer, so heap use
+ * does not grow with the number of orders exported.
+ *
+ * The summary columns are those of the {@code v_order_summary} view, joined
+ * here directly on {@code orders} so the date range can use {@code idx_created_at}.
+ */
+public class OrderExporter {
+
+    /** Rows per round trip for drivers without row streaming. */
+    static final int FETCH_SIZE = 1000;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    static final String[] COLUMNS = {
+            "order_id", "order_date", "customer_id", "customer_name", "customer_phone",
+            "restaurant_id", "restaurant_name", "total_price", "status", "coupon_id",
+            "payment_method", "payment_status",
+            "order_item_id", "item_id", "item_name", "quantity", "unit_price", "line_total"
+    };
+
+    private static final String EXPORT_SELECT =
+            "SELECT o.order_id, o.created_at AS order_date, o.customer_id, u.username AS customer_name, " +
+            "c.phone AS customer_phone, o.restaurant_id, r.name AS restaurant_name, o.total_price, o.status, " +
+            "o.coupon_id, p.payment_method, p.status AS payment_status, " +
+            "oi.order_item_id, oi.item_id, m.name AS item_name, oi.quantity, oi.unit_price, " +
+            "oi.quantity * oi.unit_price AS line_total " +
+            "FROM orders o " +
+            "JOIN customers c ON c.customer_id = o.customer_id " +
+            "JOIN users u ON u.user_id = c.user_id " +
+            "JOIN restaurants r ON r.restaurant_id = o.restaurant_id " +
+            "LEFT JOIN payments p ON p.order_id = o.order_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+            "LEFT JOIN menu_items m ON m.item_id = oi.item_id ";
+    private static final String EXPORT_ORDER = "ORDER BY o.created_at, o.order_id";
+
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    /**
+     * Exports every order.
+     *
+     * @see #exportCsv(Writer, LocalDateTime, LocalDateTime)
+     */
+    public long exportCsv(Writer out) throws DatabaseException, IOException {
+        return exportCsv(out, null, null);
+    }
+
+    /**
+     * Writes a header line and the orders created in [{@code from}, {@code to})
+     * to {@code out}. The writer is flushed but not closed.
+     *
+     * @param out destination
+     * @param from first creation time included, or null for no lower bound
+     * @param to first creation time excluded, or null for no upper bound
+     * @return number of data lines written
+     * @throws DatabaseException if the orders could not be read
+     * @throws IOException if writing failed
+     */
+    public long exportCsv(Writer out, LocalDateTime from, LocalDateTime to) throws DatabaseException, IOException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return exportCsv(conn, out, from, to);
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to export orders", e);
+        }
+    }
+
+    /**
+     * Same as {@link #exportCsv(Writer, LocalDateTime, LocalDateTime)}, encoding
+     * the CSV as UTF-8. The stream is flushed but not closed.
+     */
+    public long exportCsv(OutputStream out, LocalDateTime from, LocalDateTime to)
+            throws DatabaseException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long rows = exportCsv(writer, from, to);
+        writer.flush();
+        return rows;
+    }
+
+    long exportCsv(Connection conn, Writer out, LocalDateTime from, LocalDateTime to)
+            throws SQLException, IOException {
+        String sql = EXPORT_SELECT
+                + (from != null && to != null ? "WHERE o.created_at >= ? AND o.created_at < ? "
+                : from != null ? "WHERE o.created_at >= ? "
+                : to != null ? "WHERE o.created_at < ? "
+                : "")
+                + EXPORT_ORDER;
+
+        // Not served from the statement cache: only prepareStatement(String[, int]) is cached
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(isMySql(conn) ? Integer.MIN_VALUE : FETCH_SIZE);
+            int i = 1;
+            if (from != null) {
+                stmt.setTimestamp(i++, Timestamp.valueOf(from));
+            }
+            if (to != null) {
+                stmt.setTimestamp(i, Timestamp.valueOf(to));
+            }
+
+            line.setLength(0);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (c > 0) line.append(',');
+                line.append(COLUMNS[c]);
+            }
+            writeLine(out);
+
+            long rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    line.setLength(0);
+                    for (int c = 1; c <= COLUMNS.length; c++) {
+                        if (c > 1) line.append(',');
+                        appendField(rs.getString(c));
+                    }
+                    writeLine(out);
+                    rows++;
+                }
+            }
+            out.flush();
+            return rows;
+        }
+    }
+
+    private static boolean isMySql(Connection conn) throws SQLException {
+        String url = conn.getMetaData().getURL();
+        return url != null && url.startsWith("jdbc:mysql:");
+    }
+
+    /** Appends a CSV field, quoting it if it contains a separator, quote or line break. */
+    private void appendField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') line.append('"');
+            line.append(ch);
+        }
+        line.append('"');
+    }
+
+    /** Writes the line buffer through a reused char array instead of a new String per row. */
+    private void writeLine(Writer out) throws IOException {
+        line.append('\n');
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+
+    /**
+     * Exports orders to a CSV file.
+     * Usage: OrderExporter &lt;file&gt; [fromDate] [toDate] with dates as yyyy-MM-dd, both inclusive.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: OrderExporter <file> [fromDate yyyy-MM-dd] [toDate yyyy-MM-dd]");
+            System.exit(1);
+        }
+        LocalDateTime from = args.length > 1 ? LocalDate.parse(args[1]).atStartOfDay() : null;
+        LocalDateTime to = args.length > 2 ? LocalDate.parse(args[2]).plusDays(1).atStartOfDay() : null;
+
+        long start = System.nanoTime();
+        try (OutputStream out = new FileOutputStream(args[0])) {
+            long rows = new OrderExporter().exportCsv(out, from, to);
+            System.out.printf("Exported %d lines to %s in %.1f s%n", rows, args[0], (System.nanoTime() - start) / 1e9);
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.Restaurant;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the restaurant list in front of {@link RestaurantDAO}.
+ * Holds an immutable name-sorted snapshot plus an id index. Reads of a fresh
+ * snapshot take no locks; the snapshot is reloaded atomically when its TTL
+ * expires or after any {@code RestaurantDAO.addRestaurant/deleteRestaurant}.
+ * If a reload fails the read sees no restaurants and nothing is cached, so the
+ * next read tries again.
+ */
+public class RestaurantCatalog {
+
+    /** Default time a snapshot is served before it is reloaded. */
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+
+    /** Bumped by every restaurant write so all catalogs reload on next read. */
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    /** Served, uncached, when a load fails. */
+    private static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyMap(), -1, 0);
+
+    private final RestaurantDAO restaurantDAO;
+    private final long ttlMillis;
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Immutable view of the restaurants table at one point in time.
+     */
+    private static final class Snapshot {
+        private final List<Restaurant> sorted;
+        private final Map<Integer, Restaurant> byId;
+        private final long version;
+        private final long loadedAt;
+
+        private Snapshot(List<Restaurant> sorted, Map<Integer, Restaurant> byId, long version, long loadedAt) {
+            this.sorted = sorted;
+            this.byId = byId;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public RestaurantCatalog() {
+        this(new RestaurantDAO(), DEFAULT_TTL_MILLIS);
+    }
+
+    public RestaurantCatalog(RestaurantDAO restaurantDAO) {
+        this(restaurantDAO, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param restaurantDAO DAO used to load snapshots and perform writes
+     * @param ttlMillis how long a snapshot is served before reloading (> 0)
+     */
+    public RestaurantCatalog(RestaurantDAO restaurantDAO, long ttlMillis) {
+        if (restaurantDAO == null) throw new IllegalArgumentException("restaurantDAO must not be null");
+        if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be > 0");
+        this.restaurantDAO = restaurantDAO;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Marks every catalog stale. Called by {@link RestaurantDAO} after a write.
+     */
+    static void invalidateAll() {
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * @return all restaurants ordered by name (unmodifiable)
+     */
+    public List<Restaurant> getAllRestaurants() {
+        return current().sorted;
+    }
+
+    /**
+     * @param restaurantId restaurant id
+     * @return the restaurant or null if it does not exist
+     */
+    public Restaurant getRestaurantById(int restaurantId) {
+        return current().byId.get(restaurantId);
+    }
+
+    /**
+     * @param restaurantId restaurant id
+     * @return restaurant name, or "Unknown" if it does not exist
+     */
+    public String getRestaurantName(int restaurantId) {
+        Restaurant restaurant = getRestaurantById(restaurantId);
+        return restaurant != null ? restaurant.getName() : "Unknown";
+    }
+
+    /**
+     * Adds a restaurant through the DAO; the next read sees it.
+     */
+    public boolean addRestaurant(Restaurant restaurant) {
+        return restaurantDAO.addRestaurant(restaurant);
+    }
+
+    /**
+     * Deletes a restaurant through the DAO; the next read no longer sees it.
+     */
+    public boolean deleteRestaurant(int restaurantId) {
+        return restaurantDAO.deleteRestaurant(restaurantId);
+    }
+
+    /**
+     * Drops the current snapshot of this catalog.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (isFresh(s)) {
+            return s;
+        }
+        synchronized (refreshLock) {
+            s = snapshot;
+            if (isFresh(s)) {
+                return s;
+            }
+            s = load();
+            if (s != null) {
+                snapshot = s;
+                return s;
+            }
+            return EMPTY;
+        }
+    }
+
+    private boolean isFresh(Snapshot s) {
+        return s != null
+                && s.version == VERSION.get()
+                && System.currentTimeMillis() - s.loadedAt < ttlMillis;
+    }
+
+    /** @return a new snapshot, or null if the restaurants could not be loaded */
+    private Snapshot load() {
+        // Read the version first so a write racing with the query forces another reload
+        long version = VERSION.get();
+        long loadedAt = System.currentTimeMillis();
+        List<Restaurant> restaurants;
+        try {
+            restaurants = restaurantDAO.loadAllRestaurants();
+        } catch (SQLException e) {
+            System.err.println("Error loading restaurants: " + e.getMessage());
+            return null;
+        }
+        Map<Integer, Restaurant> byId = new HashMap<>(restaurants.size() * 2);
+        for (Restaurant r : restaurants) {
+            byId.put(r.getRestaurantId(), r);
+        }
+        return new Snapshot(
+                Collections.unmodifiableList(restaurants),
+                Collections.unmodifiableMap(byId),
+                version,
+                loadedAt);
+    }
+}
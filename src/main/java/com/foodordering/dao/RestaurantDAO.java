@@ -5,13 +5,20 @@ import com.foodordering.utils.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data Access Object for Restaurant entity.
+ * Writes invalidate every {@link RestaurantCatalog}.
  */
 public class RestaurantDAO {
 
+    /** Ids checked per query by {@link #getExistingRestaurantIds}; padded lists top out at this size. */
+    static final int MAX_IDS_PER_QUERY = 64;
+
     /**
      * Adds a new restaurant to the database.
      */
@@ -30,6 +37,7 @@ public class RestaurantDAO {
                         restaurant.setRestaurantId(keys.getInt(1));
                     }
                 }
+                RestaurantCatalog.invalidateAll();
                 return true;
             }
         } catch (SQLException e) {
@@ -57,10 +65,56 @@ public class RestaurantDAO {
         return null;
     }
 
+    /**
+     * Returns which of the given restaurant ids exist, querying them in
+     * chunks of {@link #MAX_IDS_PER_QUERY} ids per padded {@link InList}.
+     *
+     * @return existing ids, or null if the database could not be read
+     */
+    public Set<Integer> getExistingRestaurantIds(Collection<Integer> ids) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return loadExistingRestaurantIds(conn, ids);
+        } catch (SQLException e) {
+            System.err.println("Error checking restaurant ids: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static Set<Integer> loadExistingRestaurantIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Set<Integer> existing = new HashSet<>();
+        List<Integer> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = remaining.subList(from, Math.min(from + MAX_IDS_PER_QUERY, remaining.size()));
+            String sql = "SELECT restaurant_id FROM restaurants WHERE restaurant_id IN (" + InList.placeholders(chunk.size()) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                InList.bind(stmt, 1, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
     /**
      * Returns all restaurants ordered by name.
      */
     public List<Restaurant> getAllRestaurants() {
+        try {
+            return loadAllRestaurants();
+        } catch (SQLException e) {
+            System.err.println("Error getting all restaurants: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Loads all restaurants ordered by name, reporting failures to the caller
+     * so {@link RestaurantCatalog} can tell an error from an empty table.
+     */
+    List<Restaurant> loadAllRestaurants() throws SQLException {
         List<Restaurant> list = new ArrayList<>();
         String sql = "SELECT * FROM restaurants ORDER BY name";
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -69,8 +123,6 @@ public class RestaurantDAO {
             while (rs.next()) {
                 list.add(mapRow(rs));
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting all restaurants: " + e.getMessage());
         }
         return list;
     }
@@ -83,7 +135,13 @@ public class RestaurantDAO {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                RestaurantCatalog.invalidateAll();
+                // Menu items are removed by ON DELETE CASCADE
+                MenuCache.getInstance().invalidate(id);
+            }
+            return deleted;
         } catch (SQLException e) {
             System.err.println("Error deleting restaurant: " + e.getMessage());
         }
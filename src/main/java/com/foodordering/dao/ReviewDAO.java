@@ -9,13 +9,63 @@ import java.util.List;
 
 /**
  * Data Access Object for Review operations.
- * Handles CRUD operations for restaurant reviews.
+ * Handles CRUD operations for restaurant reviews. Every write also adjusts the
+ * restaurant's review_count and rating_sum aggregates (and the rating derived
+ * from them) in the same transaction, so the average never requires a scan.
  */
 public class ReviewDAO {
 
+    /** Default number of reviews fetched per page of a restaurant's review feed. */
+    public static final int DEFAULT_REVIEW_PAGE_SIZE = 20;
+
+    private static final String REVIEW_PAGE_SELECT =
+            "SELECT review_id, restaurant_id, customer_id, rating, comment, created_at " +
+            "FROM reviews WHERE restaurant_id = ? ";
+    private static final String REVIEW_PAGE_ORDER =
+            "ORDER BY created_at DESC, review_id DESC LIMIT ?";
+    private static final String REVIEW_FIRST_PAGE_SQL = REVIEW_PAGE_SELECT + REVIEW_PAGE_ORDER;
+    private static final String REVIEW_NEXT_PAGE_SQL = REVIEW_PAGE_SELECT +
+            "AND (created_at < ? OR (created_at = ? AND review_id < ?)) " + REVIEW_PAGE_ORDER;
+
+    private static final String APPLY_RATING_DELTA_SQL =
+            "UPDATE restaurants SET " +
+            "rating = CASE WHEN review_count + ? > 0 " +
+            "THEN ROUND(CAST(rating_sum + ? AS DECIMAL(12,2)) / (review_count + ?), 2) ELSE 0 END, " +
+            "rating_sum = rating_sum + ?, review_count = review_count + ? " +
+            "WHERE restaurant_id = ?";
+
+    private static final String INCONSISTENT_AGGREGATES_SQL =
+            "SELECT r.restaurant_id FROM restaurants r " +
+            "LEFT JOIN reviews v ON v.restaurant_id = r.restaurant_id " +
+            "GROUP BY r.restaurant_id, r.review_count, r.rating_sum " +
+            "HAVING r.review_count <> COUNT(v.review_id) OR r.rating_sum <> COALESCE(SUM(v.rating), 0) " +
+            "ORDER BY r.restaurant_id";
+
+    private static final String REBUILD_AGGREGATES_SQL =
+            "UPDATE restaurants SET " +
+            "review_count = (SELECT COUNT(*) FROM reviews WHERE reviews.restaurant_id = restaurants.restaurant_id), " +
+            "rating_sum = (SELECT COALESCE(SUM(rating), 0) FROM reviews WHERE reviews.restaurant_id = restaurants.restaurant_id)";
+
+    private static final String REBUILD_RATING_SQL =
+            "UPDATE restaurants SET rating = CASE WHEN review_count > 0 " +
+            "THEN ROUND(CAST(rating_sum AS DECIMAL(12,2)) / review_count, 2) ELSE 0 END";
+
+    private final CustomerIdCache customerIdCache;
+
+    public ReviewDAO() {
+        this(CustomerIdCache.getInstance());
+    }
+
+    ReviewDAO(CustomerIdCache customerIdCache) {
+        this.customerIdCache = customerIdCache;
+    }
+
     /**
      * Add a new review for a restaurant.
      * Note: Database has UNIQUE constraint (customer_id, restaurant_id).
+     * The restaurant row is updated (and so locked) before the insert: the insert's
+     * foreign key check would otherwise take a shared lock on it first, and two
+     * concurrent reviews would deadlock upgrading it for the aggregate update.
      * 
      * @param review The review to add
      * @return true if successful, false otherwise
@@ -23,30 +73,43 @@ public class ReviewDAO {
     public boolean addReview(Review review) {
         String sql = "INSERT INTO reviews (restaurant_id, customer_id, rating, comment) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setInt(1, review.getRestaurantId());
-            stmt.setInt(2, review.getCustomerId());
-            stmt.setInt(3, review.getRating());
-            stmt.setString(4, review.getComment());
-            
-            int affected = stmt.executeUpdate();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
             
-            if (affected > 0) {
+            if (applyRatingDelta(conn, review.getRestaurantId(), 1, review.getRating()) == 0) {
+                conn.rollback();
+                return false;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, review.getRestaurantId());
+                stmt.setInt(2, review.getCustomerId());
+                stmt.setInt(3, review.getRating());
+                stmt.setString(4, review.getComment());
+                
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
                 try (ResultSet keys = stmt.getGeneratedKeys()) {
                     if (keys.next()) {
                         review.setReviewId(keys.getInt(1));
                     }
                 }
-                return true;
             }
             
+            conn.commit();
+            return true;
+            
         } catch (SQLException e) {
+            rollback(conn);
             System.err.println("Error adding review: " + e.getMessage());
+            customerIdCache.writeFailed(review.getCustomerId(), e);
+            return false;
+        } finally {
+            release(conn);
         }
-        
-        return false;
     }
 
     /**
@@ -85,6 +148,68 @@ public class ReviewDAO {
         return reviews;
     }
 
+    /**
+     * Gets the newest page of a restaurant's reviews.
+     * 
+     * @param restaurantId The restaurant ID
+     * @param limit maximum number of reviews
+     * @return reviews ordered newest first
+     */
+    public List<Review> getReviewsPage(int restaurantId, int limit) {
+        return getReviewsPage(restaurantId, null, 0, limit);
+    }
+
+    /**
+     * Gets the page of a restaurant's reviews that follows the review identified
+     * by ({@code afterCreatedAt}, {@code afterId}). Uses keyset pagination on the
+     * (restaurant_id, created_at, review_id) index, so every page costs the same
+     * however many reviews the restaurant has.
+     * 
+     * @param restaurantId The restaurant ID
+     * @param afterCreatedAt created_at of the last review of the previous page, or null for the first page
+     * @param afterId review_id of the last review of the previous page
+     * @param limit maximum number of reviews
+     * @return reviews ordered newest first; fewer than {@code limit} means no more pages
+     */
+    public List<Review> getReviewsPage(int restaurantId, Timestamp afterCreatedAt, int afterId, int limit) {
+        List<Review> reviews = new ArrayList<>();
+        if (limit <= 0) {
+            return reviews;
+        }
+        boolean firstPage = afterCreatedAt == null;
+        
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(firstPage ? REVIEW_FIRST_PAGE_SQL : REVIEW_NEXT_PAGE_SQL)) {
+            
+            int i = 1;
+            stmt.setInt(i++, restaurantId);
+            if (!firstPage) {
+                stmt.setTimestamp(i++, afterCreatedAt);
+                stmt.setTimestamp(i++, afterCreatedAt);
+                stmt.setInt(i++, afterId);
+            }
+            stmt.setInt(i, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reviews.add(new Review(
+                        rs.getInt("review_id"),
+                        rs.getInt("restaurant_id"),
+                        rs.getInt("customer_id"),
+                        rs.getInt("rating"),
+                        rs.getString("comment"),
+                        rs.getTimestamp("created_at")
+                    ));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting reviews page: " + e.getMessage());
+        }
+        
+        return reviews;
+    }
+
     /**
      * Get a review by ID.
      * 
@@ -120,13 +245,14 @@ public class ReviewDAO {
     }
 
     /**
-     * Calculate average rating for a restaurant from reviews table.
+     * Average rating of a restaurant, read from the review_count and rating_sum
+     * aggregates kept on the restaurants row (no scan of the reviews table).
      * 
      * @param restaurantId The restaurant ID
      * @return Average rating (0.0 if no reviews)
      */
     public double calculateAverageRating(int restaurantId) {
-        String sql = "SELECT AVG(rating) as avg_rating FROM reviews WHERE restaurant_id = ?";
+        String sql = "SELECT review_count, rating_sum FROM restaurants WHERE restaurant_id = ?";
         
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -135,7 +261,8 @@ public class ReviewDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getDouble("avg_rating");
+                    int count = rs.getInt("review_count");
+                    return count > 0 ? (double) rs.getLong("rating_sum") / count : 0.0;
                 }
             }
             
@@ -155,20 +282,34 @@ public class ReviewDAO {
     public boolean updateReview(Review review) {
         String sql = "UPDATE reviews SET rating = ?, comment = ? WHERE review_id = ?";
         
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
             
-            stmt.setInt(1, review.getRating());
-            stmt.setString(2, review.getComment());
-            stmt.setInt(3, review.getReviewId());
+            int[] previous = lockReview(conn, review.getReviewId());
+            if (previous == null) {
+                conn.rollback();
+                return false;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, review.getRating());
+                stmt.setString(2, review.getComment());
+                stmt.setInt(3, review.getReviewId());
+                stmt.executeUpdate();
+            }
+            applyRatingDelta(conn, previous[0], 0, review.getRating() - previous[1]);
             
-            return stmt.executeUpdate() > 0;
+            conn.commit();
+            return true;
             
         } catch (SQLException e) {
+            rollback(conn);
             System.err.println("Error updating review: " + e.getMessage());
+            return false;
+        } finally {
+            release(conn);
         }
-        
-        return false;
     }
 
     /**
@@ -180,17 +321,32 @@ public class ReviewDAO {
     public boolean deleteReview(int reviewId) {
         String sql = "DELETE FROM reviews WHERE review_id = ?";
         
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
             
-            stmt.setInt(1, reviewId);
-            return stmt.executeUpdate() > 0;
+            int[] previous = lockReview(conn, reviewId);
+            if (previous == null) {
+                conn.rollback();
+                return false;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, reviewId);
+                stmt.executeUpdate();
+            }
+            applyRatingDelta(conn, previous[0], -1, -previous[1]);
+            
+            conn.commit();
+            return true;
             
         } catch (SQLException e) {
+            rollback(conn);
             System.err.println("Error deleting review: " + e.getMessage());
+            return false;
+        } finally {
+            release(conn);
         }
-        
-        return false;
     }
 
     /**
@@ -228,4 +384,124 @@ public class ReviewDAO {
         
         return reviews;
     }
+
+    /**
+     * Consistency check of the rating aggregates against the reviews table.
+     * 
+     * @return ids of restaurants whose review_count or rating_sum does not match their reviews
+     */
+    public List<Integer> findInconsistentRatingAggregates() {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return findInconsistentRatingAggregates(conn);
+        } catch (SQLException e) {
+            System.err.println("Error checking rating aggregates: " + e.getMessage());
+        }
+        
+        return new ArrayList<>();
+    }
+
+    static List<Integer> findInconsistentRatingAggregates(Connection conn) throws SQLException {
+        List<Integer> restaurantIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(INCONSISTENT_AGGREGATES_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                restaurantIds.add(rs.getInt("restaurant_id"));
+            }
+        }
+        return restaurantIds;
+    }
+
+    /**
+     * Recomputes review_count, rating_sum and rating of every restaurant from
+     * the reviews table, e.g. after reviews were changed outside this DAO.
+     * 
+     * @return number of restaurants updated, or -1 on error
+     */
+    public int rebuildRatingAggregates() {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            
+            int updated = rebuildRatingAggregates(conn);
+            
+            conn.commit();
+            return updated;
+            
+        } catch (SQLException e) {
+            rollback(conn);
+            System.err.println("Error rebuilding rating aggregates: " + e.getMessage());
+            return -1;
+        } finally {
+            release(conn);
+        }
+    }
+
+    static int rebuildRatingAggregates(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int updated = stmt.executeUpdate(REBUILD_AGGREGATES_SQL);
+            stmt.executeUpdate(REBUILD_RATING_SQL);
+            return updated;
+        }
+    }
+
+    /**
+     * Locks a review row for the rest of the transaction.
+     * 
+     * @return {restaurant_id, rating} of the review, or null if it does not exist
+     */
+    private static int[] lockReview(Connection conn, int reviewId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT restaurant_id, rating FROM reviews WHERE review_id = ? FOR UPDATE")) {
+            stmt.setInt(1, reviewId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new int[] {rs.getInt("restaurant_id"), rs.getInt("rating")} : null;
+            }
+        }
+    }
+
+    /**
+     * Adjusts the rating aggregates of one restaurant in O(1).
+     * rating is assigned first so that it reads the old column values on MySQL,
+     * which evaluates single-table UPDATE assignments left to right.
+     *
+     * @return number of restaurants updated, 0 if the restaurant does not exist
+     */
+    static int applyRatingDelta(Connection conn, int restaurantId, int countDelta, int sumDelta)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(APPLY_RATING_DELTA_SQL)) {
+            stmt.setInt(1, countDelta);
+            stmt.setInt(2, sumDelta);
+            stmt.setInt(3, countDelta);
+            stmt.setInt(4, sumDelta);
+            stmt.setInt(5, countDelta);
+            stmt.setInt(6, restaurantId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                System.err.println("Rollback error: " + ex.getMessage());
+            }
+        }
+    }
+
+    private static void release(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("Error resetting autocommit: " + e.getMessage());
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error releasing connection: " + e.getMessage());
+            }
+        }
+    }
 }
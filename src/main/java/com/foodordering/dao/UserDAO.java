@@ -1,6 +1,7 @@
 package com.foodordering.dao;
 
 import com.foodordering.models.User;
+import com.foodordering.security.PasswordHashing;
 import com.foodordering.utils.DatabaseConnection;
 
 import java.sql.*;
@@ -11,10 +12,14 @@ import java.sql.*;
  */
 public class UserDAO {
 
-    private Connection connection;
+    private final CustomerIdCache customerIdCache;
 
     public UserDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this(CustomerIdCache.getInstance());
+    }
+
+    UserDAO(CustomerIdCache customerIdCache) {
+        this.customerIdCache = customerIdCache;
     }
 
     /**
@@ -24,8 +29,11 @@ public class UserDAO {
      */
     public boolean registerUser(User user) {
         String sql = "INSERT INTO users (username, email, password_hash, user_type) VALUES (?, ?, ?, 'customer')";
+        // Hash before taking a connection so the slow hash does not hold one
+        user.hashPassword();
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getEmail());
             stmt.setString(3, user.getPasswordHash());
@@ -54,28 +62,51 @@ public class UserDAO {
 
     /**
      * Authenticate user with username and password.
+     * A matching password stored in an outdated hash format is rehashed and
+     * saved, so accounts move to the current format as they log in.
      * @param username username
      * @param rawPassword plain password
      * @return User object if login successful, null otherwise
      */
     public User login(String username, String rawPassword) {
-        String sql = "SELECT user_id, username, email, password_hash FROM users WHERE username = ?";
+        User user = findByUsername(username);
+        if (user == null) {
+            return null;
+        }
+
+        // Hash outside the try block so no connection is held while BCrypt runs
+        PasswordHashing.Verification verification =
+                PasswordHashing.getInstance().verify(rawPassword, user.getPasswordHash());
+        if (!verification.matches()) {
+            return null;
+        }
+
+        String upgradedHash = verification.getUpgradedHash();
+        if (upgradedHash != null && updatePasswordHash(user.getId(), upgradedHash)) {
+            user = User.fromDatabase(user.getId(), user.getUsername(), user.getEmail(), upgradedHash);
+        }
+        return user;
+    }
+
+    /**
+     * Reads the user row together with the user's customer id, which goes
+     * into the {@link CustomerIdCache} for the checkout, review and profile
+     * screens that follow the login.
+     */
+    private User findByUsername(String username) {
+        String sql = "SELECT u.user_id, u.username, u.email, u.password_hash, c.customer_id " +
+                "FROM users u LEFT JOIN customers c ON c.user_id = u.user_id WHERE u.username = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                int id = rs.getInt("user_id");
-                String email = rs.getString("email");
-                String storedHash = rs.getString("password_hash");
-                
-                // Create temporary user to verify password
-                User tempUser = new User(id, username, email, rawPassword);
-                
-                if (tempUser.getPasswordHash().equals(storedHash)) {
-                    return tempUser;
-                }
+                User user = mapUser(rs);
+                // Null customer_id reads as 0, which the cache ignores
+                customerIdCache.put(user.getId(), rs.getInt("customer_id"));
+                return user;
             }
             
         } catch (SQLException e) {
@@ -87,24 +118,41 @@ public class UserDAO {
     }
 
     /**
-     * Get user by ID.
+     * Replace a user's stored password hash.
+     * @param userId user id
+     * @param passwordHash new hash, already computed
+     * @return true if updated
+     */
+    public boolean updatePasswordHash(int userId, String passwordHash) {
+        String sql = "UPDATE users SET password_hash = ? WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating password hash: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get user by ID. The stored password hash is carried as is; no hashing
+     * happens unless {@link User#verifyPassword} is called.
      * @param userId user ID
      * @return User object or null
      */
     public User getUserById(int userId) {
         String sql = "SELECT user_id, username, email, password_hash FROM users WHERE user_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                int id = rs.getInt("user_id");
-                String username = rs.getString("username");
-                String email = rs.getString("email");
-                
-                User user = new User(id, username, email, "");
-                return user;
+                return mapUser(rs);
             }
             
         } catch (SQLException e) {
@@ -122,7 +170,8 @@ public class UserDAO {
     public boolean usernameExists(String username) {
         String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             
@@ -146,7 +195,8 @@ public class UserDAO {
     public boolean updateUserEmail(int userId, String newEmail) {
         String sql = "UPDATE users SET email = ? WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, newEmail);
             stmt.setInt(2, userId);
             return stmt.executeUpdate() > 0;
@@ -158,4 +208,9 @@ public class UserDAO {
             return false;
         }
     }
+
+    private static User mapUser(ResultSet rs) throws SQLException {
+        return User.fromDatabase(rs.getInt("user_id"), rs.getString("username"),
+                rs.getString("email"), rs.getString("password_hash"));
+    }
 }
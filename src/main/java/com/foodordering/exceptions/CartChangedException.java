@@ -0,0 +1,22 @@
+package com.foodordering.exceptions;
+
+import com.foodordering.models.CartRevalidation;
+
+/**
+ * Exception thrown at checkout when cart prices no longer match the menu or
+ * items are no longer available. Thrown before any payment is taken.
+ */
+public class CartChangedException extends OrderException {
+
+    private final CartRevalidation revalidation;
+
+    public CartChangedException(CartRevalidation revalidation) {
+        super(revalidation.describe());
+        this.revalidation = revalidation;
+    }
+
+    /** @return the changes found, e.g. to update the cart with */
+    public CartRevalidation getRevalidation() {
+        return revalidation;
+    }
+}
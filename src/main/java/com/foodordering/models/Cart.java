@@ -1,26 +1,174 @@
 package com.foodordering.models;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Shopping cart to manage items prior to creating an order.
  * Supports quantity updates, coupon application, and total calculation.
+ *
+ * The cart is thread-safe, so one cart can be edited from several clients at
+ * once (group orders, multiple devices). Writes to a line lock only that
+ * line's stripe, so adding the same item twice concurrently always merges the
+ * quantities. Lines keep the order in which they were first added, in a
+ * linked map that is appended to in O(1) under a short order lock. Reads do
+ * not lock: subtotal and counts are kept as running totals, {@link #getSummary()}
+ * is O(1), and {@link #getItemsView()} returns a list that is rebuilt only
+ * after lines are added, replaced or removed.
  */
 public class Cart {
-    private final Map<Integer, CartItem> items = new LinkedHashMap<>();
-    private Coupon appliedCoupon;
 
-    /** @return List of all items in cart */
+    /** Number of line locks; a power of two. */
+    private static final int STRIPES = 16;
+
+    /** Running totals, replaced as a whole so subtotal and counts always agree. */
+    private static final class Totals {
+        private static final Totals EMPTY = new Totals(Money.ZERO, 0, 0);
+
+        private final long subtotalCents;
+        private final long itemCount;
+        private final int lineCount;
+
+        private Totals(long subtotalCents, long itemCount, int lineCount) {
+            this.subtotalCents = subtotalCents;
+            this.itemCount = itemCount;
+            this.lineCount = lineCount;
+        }
+
+        private Totals plus(long cents, long units, int lines) {
+            return new Totals(Money.add(subtotalCents, cents), itemCount + units, lineCount + lines);
+        }
+    }
+
+    /** Summary of one combination of totals and coupon. */
+    private static final class CachedSummary {
+        private final Totals totals;
+        private final Coupon coupon;
+        private final CartSummary summary;
+
+        private CachedSummary(Totals totals, Coupon coupon, CartSummary summary) {
+            this.totals = totals;
+            this.coupon = coupon;
+            this.summary = summary;
+        }
+    }
+
+    /** Items as of one version of the cart. */
+    private static final class Snapshot {
+        private final long version;
+        private final List<CartItem> items;
+
+        private Snapshot(long version, List<CartItem> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, CartItem> lines = new ConcurrentHashMap<>();
+    /** Lines in insertion order, guarded by {@link #orderLock}; taken after a stripe lock, never before. */
+    private final LinkedHashMap<Integer, CartItem> ordered = new LinkedHashMap<>();
+    private final ReentrantLock orderLock = new ReentrantLock();
+    /** Bumped under {@link #orderLock} whenever a line is added, replaced or removed. */
+    private volatile long layoutVersion;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.EMPTY);
+    /** Bumped after every line or coupon change; a snapshot is reused while it is unchanged. */
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+    private volatile Snapshot view = new Snapshot(0, List.of());
+    private volatile CachedSummary summary = new CachedSummary(Totals.EMPTY, null, CartSummary.EMPTY);
+    private volatile Coupon appliedCoupon;
+
+    public Cart() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return Unmodifiable list of all items in cart, in the order they were
+     *         added. The items are copies; the list does not change when the
+     *         cart does.
+     */
     public List<CartItem> getItems() {
-        return new ArrayList<>(items.values());
+        long current = version.get();
+        Snapshot cached = snapshot;
+        if (cached.version == current) {
+            return cached.items;
+        }
+        List<CartItem> items = new ArrayList<>();
+        for (CartItem line : getItemsView()) {
+            items.add(line.copy());
+        }
+        List<CartItem> result = Collections.unmodifiableList(items);
+        // Only publish if no write finished while the list was built
+        if (version.get() == current) {
+            snapshot = new Snapshot(current, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return Read-only list of the cart's lines, in the order they were added.
+     *         The list is shared until a line is added, replaced or removed;
+     *         lines added or removed later are not in it, so call again after
+     *         an edit. The lines are the cart's own, so quantity changes show
+     *         through, and they cannot be modified.
+     */
+    public List<CartItem> getItemsView() {
+        Snapshot cached = view;
+        if (cached.version == layoutVersion) {
+            return cached.items;
+        }
+        orderLock.lock();
+        try {
+            cached = new Snapshot(layoutVersion, List.copyOf(ordered.values()));
+            view = cached;
+        } finally {
+            orderLock.unlock();
+        }
+        return cached.items;
+    }
+
+    /**
+     * @return Number that changes whenever a line or the coupon changes; equal
+     *         values mean the cart has not been edited in between
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return Subtotal, discount, total and counts of the cart, in O(1)
+     */
+    public CartSummary getSummary() {
+        Totals current = totals.get();
+        Coupon coupon = appliedCoupon;
+        CachedSummary cached = summary;
+        if (cached.totals == current && cached.coupon == coupon) {
+            return cached.summary;
+        }
+        long discount = coupon == null ? Money.ZERO : coupon.computeDiscountCents(current.subtotalCents);
+        CartSummary computed = new CartSummary(current.subtotalCents, discount, current.itemCount, current.lineCount);
+        summary = new CachedSummary(current, coupon, computed);
+        return computed;
     }
 
     /** Removes all items and coupon from cart */
     public void clearCart() {
-        items.clear();
-        appliedCoupon = null;
+        lockAll();
+        try {
+            lines.clear();
+            withOrder(() -> ordered.clear());
+            totals.set(Totals.EMPTY);
+            appliedCoupon = null;
+            version.incrementAndGet();
+        } finally {
+            unlockAll();
+        }
     }
 
     /**
@@ -35,11 +183,38 @@ public class Cart {
         if (id <= 0) throw new IllegalArgumentException("MenuItem must have a valid id");
         if (item.getPrice() < 0) throw new IllegalArgumentException("MenuItem price must be >= 0");
 
-        CartItem existing = items.get(id);
-        if (existing == null) {
-            items.put(id, new CartItem(id, item.getName(), item.getPrice(), quantity));
-        } else {
-            existing.setQuantity(existing.getQuantity() + quantity);
+        add(id, item.getName(), item.getPrice(), quantity);
+    }
+
+    /**
+     * Puts back a line of a saved cart, as if it had been added with
+     * {@link #addItem}. Used when a cart is restored from storage.
+     */
+    void restoreLine(CartItem saved) {
+        add(saved.getItemId(), saved.getName(), saved.getUnitPrice(), saved.getQuantity());
+    }
+
+    private void add(int id, String name, double unitPrice, int quantity) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            CartItem existing = lines.get(id);
+            if (existing == null) {
+                CartItem line = new CartItem(id, name, unitPrice, quantity).toCartLine();
+                addToTotals(line.getSubtotalCents(), quantity, 1);
+                lines.put(id, line);
+                withOrder(() -> ordered.put(id, line));
+            } else {
+                int current = existing.getQuantity();
+                if (quantity > Integer.MAX_VALUE - current) {
+                    throw new IllegalArgumentException("quantity must be <= " + Integer.MAX_VALUE);
+                }
+                addToTotals(Money.multiply(existing.getUnitPriceCents(), quantity), quantity, 0);
+                existing.changeQuantity(current + quantity);
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -49,7 +224,20 @@ public class Cart {
      * @return true if item was removed
      */
     public boolean removeItem(int itemId) {
-        return items.remove(itemId) != null;
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            CartItem removed = lines.remove(itemId);
+            if (removed == null) {
+                return false;
+            }
+            addToTotals(-removed.getSubtotalCents(), -removed.getQuantity(), -1);
+            withOrder(() -> ordered.remove(itemId));
+            version.incrementAndGet();
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -59,14 +247,52 @@ public class Cart {
      */
     public void updateQuantity(int itemId, int newQuantity) {
         if (newQuantity <= 0) throw new IllegalArgumentException("newQuantity must be > 0");
-        CartItem existing = items.get(itemId);
-        if (existing == null) throw new IllegalArgumentException("Item not in cart");
-        existing.setQuantity(newQuantity);
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            CartItem existing = lines.get(itemId);
+            if (existing == null) throw new IllegalArgumentException("Item not in cart");
+            int delta = newQuantity - existing.getQuantity();
+            addToTotals(Money.multiply(existing.getUnitPriceCents(), delta), delta, 0);
+            existing.changeQuantity(newQuantity);
+            version.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes the unit price of a line, e.g. after the menu price changed.
+     * The line keeps its quantity and position.
+     * @param itemId Item ID
+     * @param unitPrice New price per unit (must be >= 0)
+     * @return true if the item was in the cart
+     */
+    public boolean updateUnitPrice(int itemId, double unitPrice) {
+        if (unitPrice < 0) throw new IllegalArgumentException("unitPrice must be >= 0");
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            CartItem existing = lines.get(itemId);
+            if (existing == null) {
+                return false;
+            }
+            CartItem line = new CartItem(itemId, existing.getName(), unitPrice, existing.getQuantity()).toCartLine();
+            addToTotals(Money.subtract(line.getSubtotalCents(), existing.getSubtotalCents()), 0, 0);
+            lines.put(itemId, line);
+            // Replacing the value of an existing key keeps its position
+            withOrder(() -> ordered.put(itemId, line));
+            version.incrementAndGet();
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /** Applies discount coupon to cart */
     public void applyCoupon(Coupon coupon) {
         this.appliedCoupon = coupon;
+        version.incrementAndGet();
     }
 
     /** @return Currently applied coupon or null */
@@ -79,14 +305,50 @@ public class Cart {
      * @return Total price (rounded to 2 decimals)
      */
     public double calculateTotal() {
-        double subtotal = items.values().stream()
-                .mapToDouble(CartItem::getSubtotal).sum();
-        double discount = appliedCoupon == null ? 0.0 : appliedCoupon.computeDiscount(subtotal);
-        double total = Math.max(0.0, subtotal - discount);
-        return round2(total);
+        return Money.toDouble(calculateTotalCents());
     }
 
-    private double round2(double value) {
-        return new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    /** @return Sum of item subtotals before discount, in cents */
+    public long calculateSubtotalCents() {
+        return totals.get().subtotalCents;
+    }
+
+    /** @return Total price with coupon discount applied, in cents */
+    public long calculateTotalCents() {
+        return getSummary().getTotalCents();
+    }
+
+    private ReentrantLock stripeFor(int itemId) {
+        // Spread consecutive ids, which menus usually have, over all stripes
+        int h = itemId * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /** Called before the line changes, so an overflow leaves the cart untouched. */
+    private void addToTotals(long cents, long units, int lineDelta) {
+        totals.updateAndGet(t -> t.plus(cents, units, lineDelta));
+    }
+
+    /** Runs a change to {@link #ordered} under the order lock. */
+    private void withOrder(Runnable change) {
+        orderLock.lock();
+        try {
+            change.run();
+            layoutVersion++;
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
     }
 }
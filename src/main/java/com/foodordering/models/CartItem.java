@@ -2,12 +2,15 @@ package com.foodordering.models;
 
 /**
  * Represents an item in shopping cart with quantity and pricing.
+ * Items held by a {@link Cart} are read-only; their quantity changes only
+ * through the cart, which keeps its totals in step.
  */
 public class CartItem {
     private final int itemId;
     private final String name;
-    private final double unitPrice;
-    private int quantity;
+    private final long unitPriceCents;
+    private volatile int quantity;
+    private final boolean ownedByCart;
 
     /**
      * Creates cart item.
@@ -23,13 +26,33 @@ public class CartItem {
         if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
         this.itemId = itemId;
         this.name = name;
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = Money.ofDouble(unitPrice);
         this.quantity = quantity;
+        this.ownedByCart = false;
+    }
+
+    private CartItem(CartItem source, boolean ownedByCart) {
+        this.itemId = source.itemId;
+        this.name = source.name;
+        this.unitPriceCents = source.unitPriceCents;
+        this.quantity = source.quantity;
+        this.ownedByCart = ownedByCart;
+    }
+
+    /** @return read-only line for a cart, with this item's values */
+    CartItem toCartLine() {
+        return new CartItem(this, true);
+    }
+
+    /** @return independent, modifiable copy of this item */
+    CartItem copy() {
+        return new CartItem(this, false);
     }
 
     public int getItemId() { return itemId; }
     public String getName() { return name; }
-    public double getUnitPrice() { return unitPrice; }
+    public double getUnitPrice() { return Money.toDouble(unitPriceCents); }
+    public long getUnitPriceCents() { return unitPriceCents; }
     public int getQuantity() { return quantity; }
 
     /**
@@ -37,12 +60,23 @@ public class CartItem {
      * @param quantity New quantity (must be > 0)
      */
     public void setQuantity(int quantity) {
+        if (ownedByCart) throw new UnsupportedOperationException("Use Cart.updateQuantity to change a cart line");
         if (quantity <= 0) throw new IllegalArgumentException("quantity must be > 0");
         this.quantity = quantity;
     }
 
+    /** Quantity change made by the owning cart, under its lock. */
+    void changeQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
     /** @return Total price for this item (unitPrice * quantity) */
     public double getSubtotal() {
-        return Math.round(unitPrice * quantity * 100.0) / 100.0;
+        return Money.toDouble(getSubtotalCents());
+    }
+
+    /** @return Total price for this item in cents */
+    public long getSubtotalCents() {
+        return Money.multiply(unitPriceCents, quantity);
     }
 }
@@ -0,0 +1,105 @@
+package com.foodordering.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of checking cart lines against the live menu before payment: lines
+ * whose price changed since they were added, and lines that can no longer be
+ * ordered.
+ */
+public final class CartRevalidation {
+
+    /** A cart line whose menu price is no longer the price in the cart. */
+    public static final class PriceChange {
+        private final CartItem item;
+        private final long currentPriceCents;
+
+        private PriceChange(CartItem item, long currentPriceCents) {
+            this.item = item;
+            this.currentPriceCents = currentPriceCents;
+        }
+
+        public CartItem getItem() { return item; }
+        public long getCartPriceCents() { return item.getUnitPriceCents(); }
+        public long getCurrentPriceCents() { return currentPriceCents; }
+    }
+
+    private final List<PriceChange> priceChanges;
+    private final List<CartItem> unavailableItems;
+    private final int restaurantId;
+
+    private CartRevalidation(List<PriceChange> priceChanges, List<CartItem> unavailableItems, int restaurantId) {
+        this.priceChanges = Collections.unmodifiableList(priceChanges);
+        this.unavailableItems = Collections.unmodifiableList(unavailableItems);
+        this.restaurantId = restaurantId;
+    }
+
+    /**
+     * Compares cart lines with the current menu items.
+     *
+     * @param items cart lines
+     * @param current menu items by id, as loaded for these lines; a missing id
+     *                means the item was deleted
+     */
+    public static CartRevalidation compare(List<CartItem> items, Map<Integer, MenuItem> current) {
+        List<PriceChange> priceChanges = new ArrayList<>();
+        List<CartItem> unavailable = new ArrayList<>();
+        int restaurantId = 0;
+        for (CartItem item : items) {
+            MenuItem menuItem = current.get(item.getItemId());
+            if (menuItem == null || !menuItem.isAvailable()) {
+                unavailable.add(item);
+                continue;
+            }
+            if (restaurantId == 0) {
+                restaurantId = menuItem.getRestaurantId();
+            }
+            long currentPriceCents = Money.ofDouble(menuItem.getPrice());
+            if (currentPriceCents != item.getUnitPriceCents()) {
+                priceChanges.add(new PriceChange(item, currentPriceCents));
+            }
+        }
+        return new CartRevalidation(priceChanges, unavailable, restaurantId);
+    }
+
+    public List<PriceChange> getPriceChanges() { return priceChanges; }
+    public List<CartItem> getUnavailableItems() { return unavailableItems; }
+
+    /** @return restaurant of the first orderable line, or 0 if there is none */
+    public int getRestaurantId() { return restaurantId; }
+
+    /** @return true if every line can be ordered at the price in the cart */
+    public boolean isValid() {
+        return priceChanges.isEmpty() && unavailableItems.isEmpty();
+    }
+
+    /**
+     * Applies the findings to the cart: changed lines get the current price,
+     * unavailable lines are removed.
+     */
+    public void applyTo(Cart cart) {
+        for (PriceChange change : priceChanges) {
+            cart.updateUnitPrice(change.getItem().getItemId(), Money.toDouble(change.getCurrentPriceCents()));
+        }
+        for (CartItem item : unavailableItems) {
+            cart.removeItem(item.getItemId());
+        }
+    }
+
+    /** @return message listing the changes, for showing to the customer */
+    public String describe() {
+        StringBuilder message = new StringBuilder("Your cart has changed since you added these items.");
+        for (PriceChange change : priceChanges) {
+            message.append("\n").append(change.getItem().getName()).append(": price changed from ")
+                    .append(Money.format(change.getCartPriceCents())).append(" to ")
+                    .append(Money.format(change.getCurrentPriceCents()));
+        }
+        for (CartItem item : unavailableItems) {
+            message.append("\n").append(item.getName()).append(": no longer available");
+        }
+        return message.toString();
+    }
+}
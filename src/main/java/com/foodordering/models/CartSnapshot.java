@@ -0,0 +1,64 @@
+package com.foodordering.models;
+
+import java.util.List;
+
+/**
+ * Saved state of a user's cart: its lines and the code of the applied coupon.
+ * Snapshots are immutable, so they can be queued and written by another
+ * thread while the cart itself keeps changing.
+ */
+public final class CartSnapshot {
+
+    private final int userId;
+    private final long version;
+    private final String couponCode;
+    private final List<CartItem> items;
+
+    /**
+     * @param userId owner of the cart (must be > 0)
+     * @param version {@link Cart#getVersion()} the snapshot was taken at
+     * @param couponCode code of the applied coupon, or null
+     * @param items lines in the order they were added
+     */
+    public CartSnapshot(int userId, long version, String couponCode, List<CartItem> items) {
+        if (userId <= 0) throw new IllegalArgumentException("userId must be positive");
+        if (items == null) throw new IllegalArgumentException("items must not be null");
+        this.userId = userId;
+        this.version = version;
+        this.couponCode = couponCode;
+        this.items = List.copyOf(items);
+    }
+
+    /**
+     * Takes a snapshot of a cart. Edits made while the snapshot is taken
+     * change the cart's version, so they are never mistaken for saved.
+     */
+    public static CartSnapshot of(int userId, Cart cart) {
+        long version = cart.getVersion();
+        Coupon coupon = cart.getAppliedCoupon();
+        return new CartSnapshot(userId, version, coupon == null ? null : coupon.getCode(), cart.getItems());
+    }
+
+    /**
+     * Builds a new cart with the saved lines.
+     * @param coupon coupon to apply, looked up again from {@link #getCouponCode()}, or null
+     */
+    public Cart toCart(Coupon coupon) {
+        Cart cart = new Cart();
+        for (CartItem item : items) {
+            cart.restoreLine(item);
+        }
+        if (coupon != null) {
+            cart.applyCoupon(coupon);
+        }
+        return cart;
+    }
+
+    public int getUserId() { return userId; }
+    public long getVersion() { return version; }
+    public String getCouponCode() { return couponCode; }
+    public List<CartItem> getItems() { return items; }
+
+    /** @return true if there is nothing worth keeping; saving it deletes the stored cart */
+    public boolean isEmpty() { return items.isEmpty(); }
+}
@@ -0,0 +1,40 @@
+package com.foodordering.models;
+
+/**
+ * Totals of a cart at one point in time, as returned by
+ * {@link Cart#getSummary()}. Subtotal, discount and counts always describe
+ * the same state of the cart.
+ */
+public final class CartSummary {
+
+    static final CartSummary EMPTY = new CartSummary(Money.ZERO, Money.ZERO, 0, 0);
+
+    private final long subtotalCents;
+    private final long discountCents;
+    private final long itemCount;
+    private final int lineCount;
+
+    CartSummary(long subtotalCents, long discountCents, long itemCount, int lineCount) {
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.itemCount = itemCount;
+        this.lineCount = lineCount;
+    }
+
+    /** @return Sum of item subtotals before discount, in cents */
+    public long getSubtotalCents() { return subtotalCents; }
+
+    /** @return Coupon discount in cents */
+    public long getDiscountCents() { return discountCents; }
+
+    /** @return Subtotal minus discount, in cents, never negative */
+    public long getTotalCents() { return Money.clampNonNegative(Money.subtract(subtotalCents, discountCents)); }
+
+    /** @return Number of units over all lines */
+    public long getItemCount() { return itemCount; }
+
+    /** @return Number of distinct items */
+    public int getLineCount() { return lineCount; }
+
+    public boolean isEmpty() { return lineCount == 0; }
+}
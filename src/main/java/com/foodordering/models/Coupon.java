@@ -69,14 +69,22 @@ public class Coupon {
      * Calculate discount for a given subtotal.
      */
     public double computeDiscount(double subtotal) {
-        if (subtotal <= 0 || !isValid()) return 0.0;
+        if (subtotal <= 0) return 0.0;
+        return Money.toDouble(computeDiscountCents(Money.ofDouble(subtotal)));
+    }
+
+    /**
+     * Calculate discount in cents for a subtotal in cents, rounded half-up to the cent.
+     */
+    public long computeDiscountCents(long subtotalCents) {
+        if (subtotalCents <= 0 || !isValid()) return Money.ZERO;
         switch (type) {
             case PERCENTAGE:
-                return subtotal * (value / 100.0);
+                return Money.percentOf(subtotalCents, value);
             case FIXED:
-                return Math.min(value, subtotal);
+                return Math.min(Money.ofDouble(value), subtotalCents);
             default:
-                return 0.0;
+                return Money.ZERO;
         }
     }
 
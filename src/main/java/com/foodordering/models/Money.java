@@ -0,0 +1,114 @@
+package com.foodordering.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money arithmetic on {@code long} amounts of cents.
+ * Amounts are plain primitives rather than objects so that totals can be
+ * recalculated without allocating; all arithmetic is exact and overflow
+ * throws {@link ArithmeticException}. Rounding, where needed, is half-up.
+ * {@link BigDecimal} is only used at the JDBC boundary for DECIMAL(10,2) columns.
+ */
+public final class Money {
+
+    public static final long ZERO = 0L;
+
+    private static final long CENTS_PER_UNIT = 100L;
+    /** Percentages are applied in basis points (1/100 of a percent). */
+    private static final long BASIS_POINTS = 10_000L;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to cents, rounding half-up to the nearest cent.
+     *
+     * @param amount amount such as 12.99
+     * @return amount in cents
+     */
+    public static long ofDouble(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Amount must be a finite number");
+        }
+        // Math.round alone is half-up only for positive values
+        long cents = Math.round(Math.abs(amount) * CENTS_PER_UNIT);
+        return amount < 0 ? -cents : cents;
+    }
+
+    /**
+     * @param cents amount in cents
+     * @return the amount as a double, e.g. 1299 -> 12.99
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Reads a DECIMAL column value exactly.
+     *
+     * @param amount value from {@code ResultSet.getBigDecimal}, may be null
+     * @return amount in cents, 0 for null
+     */
+    public static long fromBigDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return ZERO;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param cents amount in cents
+     * @return value with scale 2 for {@code PreparedStatement.setBigDecimal}
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * @param unitCents price of one unit in cents
+     * @param quantity number of units
+     * @return unitCents * quantity
+     */
+    public static long multiply(long unitCents, int quantity) {
+        return Math.multiplyExact(unitCents, (long) quantity);
+    }
+
+    /**
+     * Computes a percentage of an amount, rounded half-up to the cent.
+     * The percentage is taken to two decimal places (e.g. 12.5%).
+     *
+     * @param cents amount in cents (>= 0)
+     * @param percent percentage such as 10 for 10%
+     * @return percent% of cents
+     */
+    public static long percentOf(long cents, double percent) {
+        if (cents < 0) throw new IllegalArgumentException("cents must be >= 0");
+        long basisPoints = Math.round(percent * 100.0);
+        return Math.addExact(Math.multiplyExact(cents, basisPoints), BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    /**
+     * @return cents, or 0 if cents is negative
+     */
+    public static long clampNonNegative(long cents) {
+        return Math.max(ZERO, cents);
+    }
+
+    /**
+     * Formats an amount as dollars with two decimals, e.g. 1299 -> "$12.99".
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % CENTS_PER_UNIT;
+        return (cents < 0 ? "-$" : "$") + (abs / CENTS_PER_UNIT) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
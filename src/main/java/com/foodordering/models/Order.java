@@ -10,7 +10,7 @@ public class Order {
     private int orderId;
     private int customerId;
     private int restaurantId;
-    private double totalPrice;
+    private long totalPriceCents;
     private String status; // pending, confirmed, preparing, shipped, delivered, cancelled
     private Integer couponId;
     private List<OrderItem> items;
@@ -25,7 +25,7 @@ public class Order {
         this.orderId = orderId;
         this.customerId = customerId;
         this.restaurantId = restaurantId;
-        this.totalPrice = totalPrice;
+        this.totalPriceCents = Money.ofDouble(totalPrice);
         this.status = status.trim();
         this.couponId = couponId;
         this.items = new ArrayList<>();
@@ -56,14 +56,25 @@ public class Order {
     }
 
     public double getTotalPrice() {
-        return totalPrice;
+        return Money.toDouble(totalPriceCents);
+    }
+
+    public long getTotalPriceCents() {
+        return totalPriceCents;
     }
 
     public void setTotalPrice(double totalPrice) {
         if (totalPrice < 0) {
             throw new IllegalArgumentException("Total price cannot be negative");
         }
-        this.totalPrice = totalPrice;
+        this.totalPriceCents = Money.ofDouble(totalPrice);
+    }
+
+    public void setTotalPriceCents(long totalPriceCents) {
+        if (totalPriceCents < 0) {
+            throw new IllegalArgumentException("Total price cannot be negative");
+        }
+        this.totalPriceCents = totalPriceCents;
     }
 
     public String getStatus() {
@@ -101,16 +112,23 @@ public class Order {
      * Calculates total price from order items.
      */
     public double calculateTotal() {
-        double total = 0.0;
+        return Money.toDouble(calculateTotalCents());
+    }
+
+    /**
+     * Calculates total price from order items, in cents.
+     */
+    public long calculateTotalCents() {
+        long total = Money.ZERO;
         for (OrderItem item : items) {
-            total += item.getUnitPrice() * item.getQuantity();
+            total = Money.add(total, item.getSubtotalCents());
         }
-        return Math.round(total * 100.0) / 100.0; // round to 2 decimals
+        return total;
     }
 
     @Override
     public String toString() {
         return String.format("Order{id=%d, customer=%d, restaurant=%d, total=%.2f, status='%s'}",
-                orderId, customerId, restaurantId, totalPrice, status);
+                orderId, customerId, restaurantId, getTotalPrice(), status);
     }
 }
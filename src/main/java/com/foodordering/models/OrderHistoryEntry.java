@@ -0,0 +1,67 @@
+package com.foodordering.models;
+
+import java.sql.Timestamp;
+
+/**
+ * Read-only row of a customer's order history: an order together with
+ * its restaurant name and number of items, as loaded by one joined query.
+ */
+public class OrderHistoryEntry {
+    private final int orderId;
+    private final int restaurantId;
+    private final String restaurantName;
+    private final long totalPriceCents;
+    private final String status;
+    private final Timestamp createdAt;
+    private final int itemCount;
+
+    public OrderHistoryEntry(int orderId, int restaurantId, String restaurantName, long totalPriceCents,
+                             String status, Timestamp createdAt, int itemCount) {
+        this.orderId = orderId;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.totalPriceCents = totalPriceCents;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.itemCount = itemCount;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public int getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    public double getTotalPrice() {
+        return Money.toDouble(totalPriceCents);
+    }
+
+    public long getTotalPriceCents() {
+        return totalPriceCents;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    /** @return total quantity of items in the order */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderHistoryEntry{id=%d, restaurant='%s', total=%.2f, status='%s', items=%d}",
+                orderId, restaurantName, getTotalPrice(), status, itemCount);
+    }
+}
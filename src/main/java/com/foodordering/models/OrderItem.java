@@ -8,7 +8,7 @@ public class OrderItem {
     private int orderId;
     private int itemId;
     private int quantity;
-    private double unitPrice;
+    private long unitPriceCents;
 
     public OrderItem(int orderItemId, int orderId, int itemId, int quantity, double unitPrice) {
         if (quantity <= 0) {
@@ -21,7 +21,7 @@ public class OrderItem {
         this.orderId = orderId;
         this.itemId = itemId;
         this.quantity = quantity;
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = Money.ofDouble(unitPrice);
     }
 
     public int getOrderItemId() {
@@ -60,23 +60,38 @@ public class OrderItem {
     }
 
     public double getUnitPrice() {
-        return unitPrice;
+        return Money.toDouble(unitPriceCents);
+    }
+
+    public long getUnitPriceCents() {
+        return unitPriceCents;
     }
 
     public void setUnitPrice(double unitPrice) {
         if (unitPrice < 0) {
             throw new IllegalArgumentException("Unit price cannot be negative");
         }
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = Money.ofDouble(unitPrice);
+    }
+
+    public void setUnitPriceCents(long unitPriceCents) {
+        if (unitPriceCents < 0) {
+            throw new IllegalArgumentException("Unit price cannot be negative");
+        }
+        this.unitPriceCents = unitPriceCents;
     }
 
     public double getSubtotal() {
-        return Math.round(quantity * unitPrice * 100.0) / 100.0;
+        return Money.toDouble(getSubtotalCents());
+    }
+
+    public long getSubtotalCents() {
+        return Money.multiply(unitPriceCents, quantity);
     }
 
     @Override
     public String toString() {
         return String.format("OrderItem{id=%d, order=%d, item=%d, qty=%d, price=%.2f}",
-                orderItemId, orderId, itemId, quantity, unitPrice);
+                orderItemId, orderId, itemId, quantity, getUnitPrice());
     }
 }
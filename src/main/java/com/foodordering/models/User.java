@@ -1,25 +1,45 @@
 package com.foodordering.models;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import com.foodordering.security.PasswordHashing;
 
 /**
  * User entity representing authentication data.
- * Passwords are stored as SHA-256 hashes (demo purpose).
+ * Passwords are stored as salted BCrypt hashes; see {@link PasswordHashing}.
+ * The constructor only validates: the password it is given is hashed by
+ * {@link #hashPassword}, which registration calls before the user is saved,
+ * so building a user that is never saved costs no crypto.
  */
 public class User {
     private int id;
     private String username;
     private String email;
     private String passwordHash;
+    /** Password given to the constructor, kept only until {@link #hashPassword} runs. */
+    private String pendingPassword;
 
     public User(int id, String username, String email, String rawPassword) {
         validateInput(username, email, rawPassword);
         this.id = id;
         this.username = username;
         this.email = email;
-        setPassword(rawPassword);
+        this.pendingPassword = rawPassword;
+    }
+
+    private User() {
+    }
+
+    /**
+     * Rebuilds a user from a row in the users table. Skips validation and
+     * hashing: the stored hash is kept as is and only checked when
+     * {@link #verifyPassword} is called, so read-only loads cost no crypto.
+     */
+    public static User fromDatabase(int id, String username, String email, String passwordHash) {
+        User user = new User();
+        user.id = id;
+        user.username = username;
+        user.email = email;
+        user.passwordHash = passwordHash;
+        return user;
     }
 
     private void validateInput(String username, String email, String password) {
@@ -34,12 +54,34 @@ public class User {
         }
     }
 
-    private boolean isValidEmail(String email) {
-        if (email == null || email.isEmpty()) {
+    /**
+     * Checks {@code ^[A-Za-z0-9+_.-]+@(.+)$} with a plain scan, since
+     * {@code String.matches} would compile the regex for every new User.
+     */
+    static boolean isValidEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0 || at == email.length() - 1) {
             return false;
         }
-        String emailRegex = "^[A-Za-z0-9+_.-]+@(.+)$";
-        return email.matches(emailRegex);
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '+' || c == '_' || c == '.' || c == '-';
+            if (!allowed) {
+                return false;
+            }
+        }
+        // '.' matches anything but a line terminator
+        for (int i = at + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
     }
 
     public int getId() {
@@ -66,23 +108,44 @@ public class User {
         this.email = email;
     }
 
+    /**
+     * @return the stored hash; a password still pending from the constructor
+     *         is hashed first
+     */
     public String getPasswordHash() {
+        hashPassword();
         return passwordHash;
     }
 
     /**
-     * Set password by hashing the raw value using SHA-256.
+     * Hashes the password given to the constructor, if that has not happened
+     * yet, and forgets the plain text. Does nothing for users loaded with
+     * {@link #fromDatabase} or whose password is already hashed.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing queue is full
+     */
+    public void hashPassword() {
+        if (pendingPassword != null) {
+            this.passwordHash = PasswordHashing.getInstance().hash(pendingPassword);
+            this.pendingPassword = null;
+        }
+    }
+
+    /**
+     * Set password by hashing the raw value with the current password hasher.
      * @param rawPassword plain text password
      */
     public void setPassword(String rawPassword) {
         if (rawPassword == null) {
             throw new IllegalArgumentException("Password cannot be null");
         }
-        this.passwordHash = hashPassword(rawPassword);
+        this.passwordHash = PasswordHashing.getInstance().hash(rawPassword);
+        this.pendingPassword = null;
     }
 
     /**
-     * Verify raw password against stored hash.
+     * Verify raw password against stored hash. Hashes in the legacy SHA-256
+     * format are still accepted.
      * @param rawPassword plain password to check
      * @return true if matches
      */
@@ -90,21 +153,7 @@ public class User {
         if (rawPassword == null) {
             return false;
         }
-        String hashed = hashPassword(rawPassword);
-        return hashed.equals(this.passwordHash);
-    }
-
-    private String hashPassword(String rawPassword) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = digest.digest(rawPassword.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashedBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+        hashPassword();
+        return PasswordHashing.getInstance().matches(rawPassword, this.passwordHash);
     }
 }
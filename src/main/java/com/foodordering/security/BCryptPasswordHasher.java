@@ -0,0 +1,75 @@
+package com.foodordering.security;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Salted BCrypt hashes ({@code $2a$<cost>$...}, 60 characters) using jBCrypt.
+ * Each hash or check costs roughly 2^cost key-setup rounds, so these calls
+ * should run on the {@link PasswordHashing} executor.
+ */
+public class BCryptPasswordHasher implements PasswordHasher {
+
+    /** About 50-100 ms per hash on current hardware. */
+    public static final int DEFAULT_COST = 10;
+
+    private static final int HASH_LENGTH = 60;
+
+    private final int cost;
+
+    public BCryptPasswordHasher() {
+        this(DEFAULT_COST);
+    }
+
+    /**
+     * @param cost log2 of the number of rounds, 4 to 31
+     */
+    public BCryptPasswordHasher(int cost) {
+        if (cost < 4 || cost > 31) throw new IllegalArgumentException("cost must be between 4 and 31");
+        this.cost = cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedHash) {
+        if (rawPassword == null || !recognizes(storedHash)) {
+            return false;
+        }
+        try {
+            return BCrypt.checkpw(rawPassword, storedHash);
+        } catch (IllegalArgumentException e) {
+            // Malformed salt
+            return false;
+        }
+    }
+
+    @Override
+    public boolean recognizes(String storedHash) {
+        // jBCrypt 0.4 only implements the $2a$ revision
+        return storedHash != null && storedHash.length() == HASH_LENGTH && storedHash.startsWith("$2a$");
+    }
+
+    /**
+     * Also true for BCrypt hashes made with a different cost, so that raising
+     * the cost upgrades accounts as they log in.
+     */
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return !recognizes(storedHash) || costOf(storedHash) != cost;
+    }
+
+    private static int costOf(String storedHash) {
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
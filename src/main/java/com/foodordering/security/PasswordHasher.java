@@ -0,0 +1,36 @@
+package com.foodordering.security;
+
+/**
+ * One password hash format: how to create a hash and how to check a password
+ * against a stored hash of this format.
+ */
+public interface PasswordHasher {
+
+    /**
+     * @param rawPassword plain text password
+     * @return hash to store in users.password_hash
+     */
+    String hash(String rawPassword);
+
+    /**
+     * @param rawPassword plain text password
+     * @param storedHash hash read from the database, in this hasher's format
+     * @return true if the password matches
+     */
+    boolean matches(String rawPassword, String storedHash);
+
+    /**
+     * Recognizes the format only; does no hashing.
+     *
+     * @return true if {@code storedHash} was produced by this kind of hasher
+     */
+    boolean recognizes(String storedHash);
+
+    /**
+     * @return true if {@code storedHash} should be replaced with a new
+     *         {@link #hash} after the next successful login
+     */
+    default boolean needsRehash(String storedHash) {
+        return !recognizes(storedHash);
+    }
+}
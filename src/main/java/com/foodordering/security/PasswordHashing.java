@@ -0,0 +1,209 @@
+package com.foodordering.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashes and verifies passwords on a small dedicated pool of threads.
+ *
+ * New hashes use the current hasher (BCrypt by default). Stored hashes in an
+ * older format are still accepted, and {@link #verify} returns a replacement
+ * hash for them so callers can upgrade the account on login. Because BCrypt is
+ * deliberately slow, the pool has fewer threads than there are cores and a
+ * bounded queue: a burst of logins waits its turn or is rejected instead of
+ * taking every CPU from the rest of the application.
+ */
+public class PasswordHashing implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 128;
+
+    /** Hashing threads sit idle between login bursts, so they are let go after this long. */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static PasswordHashing instance;
+
+    /**
+     * Outcome of {@link #verify}: whether the password matched and, if the
+     * stored hash is outdated, the hash that should replace it.
+     */
+    public static final class Verification {
+        private static final Verification NO_MATCH = new Verification(false, null);
+
+        private final boolean matches;
+        private final String upgradedHash;
+
+        private Verification(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean matches() {
+            return matches;
+        }
+
+        /** @return new hash to store, or null if the stored one is current */
+        public String getUpgradedHash() {
+            return upgradedHash;
+        }
+    }
+
+    private final PasswordHasher current;
+    private final List<PasswordHasher> accepted = new ArrayList<>();
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @return shared instance: BCrypt with the cost from the
+     *         {@code password.bcrypt.cost} system property (default
+     *         {@value BCryptPasswordHasher#DEFAULT_COST}), accepting legacy SHA-256 hashes
+     */
+    public static synchronized PasswordHashing getInstance() {
+        if (instance == null || instance.isShutdown()) {
+            int cost = Integer.getInteger("password.bcrypt.cost", BCryptPasswordHasher.DEFAULT_COST);
+            instance = new PasswordHashing(new BCryptPasswordHasher(cost), List.of(new Sha256PasswordHasher()),
+                    defaultThreads(), DEFAULT_QUEUE_CAPACITY);
+        }
+        return instance;
+    }
+
+    /**
+     * @param current hasher for new hashes
+     * @param legacy other formats still accepted when verifying
+     * @param threads hashing threads (must be > 0)
+     * @param queueCapacity maximum number of waiting requests (must be > 0)
+     */
+    public PasswordHashing(PasswordHasher current, List<PasswordHasher> legacy, int threads, int queueCapacity) {
+        if (current == null) throw new IllegalArgumentException("current must not be null");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be > 0");
+
+        this.current = current;
+        this.accepted.add(current);
+        this.accepted.addAll(legacy);
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), hashingThreads());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** Half the cores, so hashing never takes the whole machine. */
+    static int defaultThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * @param rawPassword plain text password
+     * @return hash in the current format
+     * @throws RejectedExecutionException if too many requests are already waiting
+     */
+    public String hash(String rawPassword) {
+        if (rawPassword == null) throw new IllegalArgumentException("Password cannot be null");
+        return run(() -> current.hash(rawPassword));
+    }
+
+    /**
+     * @return true if the password matches the stored hash, in any accepted format
+     * @throws RejectedExecutionException if too many requests are already waiting
+     */
+    public boolean matches(String rawPassword, String storedHash) {
+        return verify(rawPassword, storedHash).matches();
+    }
+
+    /**
+     * Checks a password and, if it matches a hash in an outdated format or
+     * with outdated parameters, computes its replacement in the same task.
+     *
+     * @throws RejectedExecutionException if too many requests are already waiting
+     */
+    public Verification verify(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return Verification.NO_MATCH;
+        }
+        PasswordHasher hasher = hasherFor(storedHash);
+        if (hasher == null) {
+            return Verification.NO_MATCH;
+        }
+        return run(() -> {
+            if (!hasher.matches(rawPassword, storedHash)) {
+                return Verification.NO_MATCH;
+            }
+            String upgraded = current.needsRehash(storedHash) ? current.hash(rawPassword) : null;
+            return new Verification(true, upgraded);
+        });
+    }
+
+    /**
+     * @return true if the stored hash is not in the current format and parameters
+     */
+    public boolean needsRehash(String storedHash) {
+        return current.needsRehash(storedHash);
+    }
+
+    private PasswordHasher hasherFor(String storedHash) {
+        for (PasswordHasher hasher : accepted) {
+            if (hasher.recognizes(storedHash)) {
+                return hasher;
+            }
+        }
+        return null;
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /** @return requests waiting for a hashing thread */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /** @return requests turned away because the queue was full */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory hashingThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
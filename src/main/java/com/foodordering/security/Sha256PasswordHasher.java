@@ -0,0 +1,69 @@
+package com.foodordering.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The original format: unsalted SHA-256 as 64 lowercase hex characters.
+ * Kept so existing accounts can still log in; their hashes are replaced
+ * with the current format on their next login.
+ */
+public class Sha256PasswordHasher implements PasswordHasher {
+
+    private static final int HEX_LENGTH = 64;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** MessageDigest is not thread-safe; one per thread avoids a provider lookup per hash. */
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    });
+
+    @Override
+    public String hash(String rawPassword) {
+        MessageDigest digest = DIGEST.get();
+        // digest() resets the instance for the next use
+        return toHex(digest.digest(rawPassword.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(hash(rawPassword).getBytes(StandardCharsets.US_ASCII),
+                storedHash.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean recognizes(String storedHash) {
+        if (storedHash == null || storedHash.length() != HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEX_LENGTH; i++) {
+            char c = storedHash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lowercase hex encoding through a lookup table instead of
+     * {@code String.format("%02x")} per byte.
+     */
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            chars[i * 2] = HEX_DIGITS[b >>> 4];
+            chars[i * 2 + 1] = HEX_DIGITS[b & 0x0f];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,490 @@
+package com.foodordering.services;
+
+import com.foodordering.dao.CartRepository;
+import com.foodordering.dao.CouponDAO;
+import com.foodordering.models.Cart;
+import com.foodordering.models.CartItem;
+import com.foodordering.models.CartSnapshot;
+import com.foodordering.models.Coupon;
+import com.foodordering.models.Money;
+import com.foodordering.utils.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the carts of logged-in users in the database, so a cart survives a
+ * restart or crash, without ever making a cart edit wait for the database.
+ *
+ * Edits only change the in-memory {@link Cart}. A single flush thread checks
+ * the open carts every flush interval, takes a snapshot of each cart whose
+ * version has changed, and saves the snapshots in batches; any number of edits
+ * between two flushes cost one write. Before saving, the snapshots are
+ * written to a journal file. The journal is deleted once everything is saved,
+ * so if the application stops before that, the next start replays it. Carts
+ * that could not be saved stay queued and are retried on the next flush. A
+ * cart the database rejects while others save is retried on its own, outside
+ * the batches, and dropped only after {@link #MAX_SAVE_ATTEMPTS} such rejections.
+ *
+ * A cart is owned by one running application; two processes editing the same
+ * user's cart overwrite each other's saves.
+ */
+public class CartStore implements AutoCloseable {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 2000;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    /** Flushes in which a cart may be rejected, while other carts save, before it is dropped. */
+    public static final int MAX_SAVE_ATTEMPTS = 10;
+
+    private static CartStore instance;
+
+    /** A cart in use, and the version that has been queued for saving. */
+    private static final class OpenCart {
+        private final Cart cart;
+        private volatile long queuedVersion;
+        private volatile boolean released;
+
+        private OpenCart(Cart cart) {
+            this.cart = cart;
+            this.queuedVersion = cart.getVersion();
+        }
+    }
+
+    private final CartRepository repository;
+    private final CouponDAO couponDAO;
+    private final Path journal;
+    private final int batchSize;
+    private final ScheduledThreadPoolExecutor flusher;
+    private final Object flushLock = new Object();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final Map<Integer, OpenCart> openCarts = new ConcurrentHashMap<>();
+    /** Latest unsaved snapshot per user; only the flush thread adds to it. */
+    private final Map<Integer, CartSnapshot> pending = new ConcurrentHashMap<>();
+    /** Rejections per user since the cart was last saved; guarded by flushLock. */
+    private final Map<Integer, Integer> rejections = new HashMap<>();
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    /**
+     * @return shared store used by the application; the flush interval comes
+     *         from {@code -Dcart.flushIntervalMillis} and the journal location
+     *         from {@code -Dcart.journal}
+     */
+    public static synchronized CartStore getInstance() {
+        if (instance == null || instance.isShutdown()) {
+            long interval = Long.getLong("cart.flushIntervalMillis", DEFAULT_FLUSH_INTERVAL_MILLIS);
+            Path journal = Paths.get(System.getProperty("cart.journal",
+                    Paths.get(System.getProperty("user.home"), ".food-ordering", "cart-journal.json").toString()));
+            CartStore store = new CartStore(new CartRepository(), new CouponDAO(), journal,
+                    interval, DEFAULT_BATCH_SIZE);
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "cart-flush-shutdown"));
+            instance = store;
+        }
+        return instance;
+    }
+
+    /**
+     * Creates the store and queues whatever an earlier run left in the journal.
+     *
+     * @param repository DAO the carts are saved with
+     * @param couponDAO used to look up the coupon of a restored cart
+     * @param journal file holding snapshots that are not known to be saved
+     * @param flushIntervalMillis time between flushes (must be > 0)
+     * @param batchSize carts per transaction (must be > 0)
+     */
+    public CartStore(CartRepository repository, CouponDAO couponDAO, Path journal,
+                     long flushIntervalMillis, int batchSize) {
+        if (repository == null) throw new IllegalArgumentException("repository must not be null");
+        if (couponDAO == null) throw new IllegalArgumentException("couponDAO must not be null");
+        if (journal == null) throw new IllegalArgumentException("journal must not be null");
+        if (flushIntervalMillis <= 0) throw new IllegalArgumentException("flushIntervalMillis must be > 0");
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be > 0");
+
+        this.repository = repository;
+        this.couponDAO = couponDAO;
+        this.journal = journal;
+        this.batchSize = batchSize;
+        for (CartSnapshot snapshot : readJournal()) {
+            pending.put(snapshot.getUserId(), snapshot);
+        }
+        this.flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cart-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The first run replays the journal straight away
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, 0, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the user's cart, restoring the saved one the first time.
+     * Reads the database, so call it off the EDT.
+     *
+     * @param userId user id; carts of users without an id are not saved
+     * @return cart to edit; the same cart until {@link #release} is called
+     */
+    public Cart open(int userId) {
+        if (userId <= 0) {
+            return new Cart();
+        }
+        OpenCart reopened = openCarts.computeIfPresent(userId, (id, entry) -> {
+            entry.released = false;
+            return entry;
+        });
+        if (reopened != null) {
+            return reopened.cart;
+        }
+
+        // A queued snapshot is newer than anything in the database
+        CartSnapshot snapshot = pending.get(userId);
+        if (snapshot == null) {
+            snapshot = load(userId);
+        }
+        Cart cart = snapshot == null ? new Cart() : snapshot.toCart(findCoupon(snapshot.getCouponCode()));
+        OpenCart raced = openCarts.putIfAbsent(userId, new OpenCart(cart));
+        return raced == null ? cart : raced.cart;
+    }
+
+    /**
+     * Stops tracking the user's cart after its last changes are saved,
+     * e.g. on logout. Does not wait for the database.
+     */
+    public void release(int userId) {
+        openCarts.computeIfPresent(userId, (id, entry) -> {
+            entry.released = true;
+            return entry;
+        });
+    }
+
+    /**
+     * Saves every changed cart now. Normally called by the flush thread.
+     *
+     * @return number of carts saved
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            try {
+                return flushPending();
+            } finally {
+                flushes.increment();
+            }
+        }
+    }
+
+    /** @return carts waiting to be saved */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /** @return carts currently tracked */
+    public int getOpenCount() {
+        return openCarts.size();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    public long getSavedCount() {
+        return saved.sum();
+    }
+
+    /** @return flushes that stopped because a batch could not be saved */
+    public long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+
+    public boolean isShutdown() {
+        return closed.get();
+    }
+
+    /**
+     * Stops the flush thread and saves the remaining changes. Whatever cannot
+     * be saved is left in the journal for the next start.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("WARNING: Cart flush still running after shutdown timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CartStore{open=%d, pending=%d, flushes=%d, saved=%d, failedFlushes=%d}",
+                getOpenCount(), getPendingCount(), getFlushCount(), getSavedCount(), getFailedFlushCount());
+    }
+
+    /** Snapshots carts edited since they were last queued and drops released ones. */
+    private void queueChangedCarts() {
+        for (Map.Entry<Integer, OpenCart> e : openCarts.entrySet()) {
+            int userId = e.getKey();
+            OpenCart entry = e.getValue();
+            if (entry.cart.getVersion() != entry.queuedVersion) {
+                CartSnapshot snapshot = CartSnapshot.of(userId, entry.cart);
+                pending.put(userId, snapshot);
+                entry.queuedVersion = snapshot.getVersion();
+            }
+            openCarts.computeIfPresent(userId, (id, current) ->
+                    current == entry && current.released && current.queuedVersion == current.cart.getVersion()
+                            ? null : current);
+        }
+    }
+
+    /**
+     * Saves a batch in one transaction. If that fails, saves the carts one by
+     * one, so that a single cart the database rejects does not hold back the
+     * others; a cart that fails while others in the batch save is counted as
+     * rejected and stays queued.
+     *
+     * @return number of carts saved
+     */
+    private int save(List<CartSnapshot> batch) {
+        if (repository.saveAll(batch)) {
+            batch.forEach(this::markSaved);
+            return batch.size();
+        }
+        if (batch.size() == 1) {
+            return 0;
+        }
+        List<CartSnapshot> failed = new ArrayList<>();
+        int count = 0;
+        for (CartSnapshot snapshot : batch) {
+            if (repository.saveAll(List.of(snapshot))) {
+                markSaved(snapshot);
+                count++;
+            } else {
+                failed.add(snapshot);
+            }
+        }
+        if (count > 0) {
+            failed.forEach(this::markRejected);
+        }
+        return count;
+    }
+
+    private void markSaved(CartSnapshot snapshot) {
+        pending.remove(snapshot.getUserId(), snapshot);
+        rejections.remove(snapshot.getUserId());
+    }
+
+    /**
+     * Counts a rejection of a cart the database would not take while it took
+     * others. The cart stays queued until it has been rejected
+     * {@link #MAX_SAVE_ATTEMPTS} times, which points at a problem with the
+     * cart itself rather than with the database.
+     */
+    private void markRejected(CartSnapshot snapshot) {
+        int userId = snapshot.getUserId();
+        int attempts = rejections.merge(userId, 1, Integer::sum);
+        if (attempts < MAX_SAVE_ATTEMPTS) {
+            System.err.println("WARNING: Cart of user " + userId + " could not be saved (attempt "
+                    + attempts + " of " + MAX_SAVE_ATTEMPTS + "), retrying on the next flush");
+            return;
+        }
+        System.err.println("ERROR: Dropping cart of user " + userId + " after "
+                + attempts + " rejected saves; it is queued again after its next edit");
+        pending.remove(userId, snapshot);
+        rejections.remove(userId);
+    }
+
+    private int flushPending() {
+        queueChangedCarts();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<CartSnapshot> snapshots = new ArrayList<>(pending.values());
+        writeJournal(snapshots);
+
+        // Carts rejected before are saved on their own so they do not fail whole batches again
+        List<CartSnapshot> batched = new ArrayList<>();
+        List<CartSnapshot> rejected = new ArrayList<>();
+        for (CartSnapshot snapshot : snapshots) {
+            (rejections.containsKey(snapshot.getUserId()) ? rejected : batched).add(snapshot);
+        }
+
+        int count = 0;
+        boolean unavailable = false;
+        for (int from = 0; from < batched.size(); from += batchSize) {
+            List<CartSnapshot> batch = batched.subList(from, Math.min(from + batchSize, batched.size()));
+            int batchSaved = save(batch);
+            if (batchSaved == 0) {
+                // The database is most likely unavailable; keep the rest for the next flush
+                failedFlushes.increment();
+                unavailable = true;
+                break;
+            }
+            count += batchSaved;
+        }
+        if (!unavailable) {
+            for (CartSnapshot snapshot : rejected) {
+                if (repository.saveAll(List.of(snapshot))) {
+                    markSaved(snapshot);
+                    count++;
+                } else if (count > 0) {
+                    markRejected(snapshot);
+                }
+            }
+        }
+        saved.add(count);
+
+        if (pending.isEmpty()) {
+            deleteJournal();
+        } else if (count > 0) {
+            writeJournal(new ArrayList<>(pending.values()));
+        }
+        return count;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Keep the flush thread scheduled; the changes are retried next time
+            failedFlushes.increment();
+            System.err.println("ERROR: Cart flush failed: " + e.getMessage());
+        }
+    }
+
+    private CartSnapshot load(int userId) {
+        try {
+            return repository.load(userId);
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Could not restore cart: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Coupon findCoupon(String code) {
+        if (code == null) {
+            return null;
+        }
+        try {
+            return couponDAO.getCouponByCode(code);
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Could not restore coupon: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Journal
+
+    /** Replaces the journal atomically, so a crash leaves either the old or the new file. */
+    private void writeJournal(List<CartSnapshot> snapshots) {
+        List<Object> carts = new ArrayList<>(snapshots.size());
+        for (CartSnapshot snapshot : snapshots) {
+            carts.add(toJson(snapshot));
+        }
+        byte[] bytes = Json.write(carts).getBytes(StandardCharsets.UTF_8);
+        Path temp = journal.resolveSibling(journal.getFileName() + ".tmp");
+        try {
+            if (journal.getParent() != null) {
+                Files.createDirectories(journal.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("ERROR: Could not write cart journal: " + e.getMessage());
+        }
+    }
+
+    private void deleteJournal() {
+        try {
+            Files.deleteIfExists(journal);
+        } catch (IOException e) {
+            System.err.println("ERROR: Could not delete cart journal: " + e.getMessage());
+        }
+    }
+
+    private List<CartSnapshot> readJournal() {
+        List<CartSnapshot> snapshots = new ArrayList<>();
+        if (!Files.exists(journal)) {
+            return snapshots;
+        }
+        try {
+            for (Object cart : (List<?>) Json.parse(Files.readString(journal, StandardCharsets.UTF_8))) {
+                snapshots.add(fromJson((Map<?, ?>) cart));
+            }
+            System.out.println("Replaying " + snapshots.size() + " unsaved cart(s) from " + journal);
+        } catch (IOException | RuntimeException e) {
+            // Keep the file for inspection instead of overwriting it on the next flush
+            System.err.println("ERROR: Could not read cart journal " + journal + ": " + e.getMessage());
+            try {
+                Files.move(journal, journal.resolveSibling(journal.getFileName() + ".corrupt"),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveError) {
+                System.err.println("ERROR: Could not move cart journal aside: " + moveError.getMessage());
+            }
+            snapshots.clear();
+        }
+        return snapshots;
+    }
+
+    private static Map<String, Object> toJson(CartSnapshot snapshot) {
+        List<Object> items = new ArrayList<>();
+        for (CartItem item : snapshot.getItems()) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("itemId", item.getItemId());
+            line.put("name", item.getName());
+            line.put("unitPriceCents", item.getUnitPriceCents());
+            line.put("quantity", item.getQuantity());
+            items.add(line);
+        }
+        Map<String, Object> cart = new LinkedHashMap<>();
+        cart.put("userId", snapshot.getUserId());
+        cart.put("couponCode", snapshot.getCouponCode());
+        cart.put("items", items);
+        return cart;
+    }
+
+    private static CartSnapshot fromJson(Map<?, ?> cart) {
+        List<CartItem> items = new ArrayList<>();
+        for (Object value : (List<?>) cart.get("items")) {
+            Map<?, ?> line = (Map<?, ?>) value;
+            items.add(new CartItem(
+                    ((BigDecimal) line.get("itemId")).intValueExact(),
+                    (String) line.get("name"),
+                    Money.toDouble(((BigDecimal) line.get("unitPriceCents")).longValueExact()),
+                    ((BigDecimal) line.get("quantity")).intValueExact()));
+        }
+        return new CartSnapshot(((BigDecimal) cart.get("userId")).intValueExact(), 0,
+                (String) cart.get("couponCode"), items);
+    }
+}
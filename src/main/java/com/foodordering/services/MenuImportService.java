@@ -0,0 +1,537 @@
+package com.foodordering.services;
+
+import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.dao.RestaurantDAO;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.ValidationException;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
+import com.foodordering.utils.DatabaseConnection;
+import com.foodordering.utils.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of menu items from CSV or JSON files.
+ *
+ * A file is first split into records in one cheap sequential pass; the
+ * records are then parsed and validated in parallel. Rows that fail the
+ * {@link MenuItem} rules, do not fit the menu_items columns or reference an
+ * unknown restaurant are rejected and reported. The remaining items are
+ * written with {@link MenuItemDAO#addMenuItems(List, int)}.
+ *
+ * CSV files need a header naming the columns {@code restaurant_id},
+ * {@code name} and {@code price}, and optionally {@code description} and
+ * {@code available}, in any order. JSON files hold an array of flat objects
+ * with the same keys.
+ */
+public class MenuImportService {
+
+    /** Supported file formats. */
+    public enum Format {
+        CSV, JSON;
+
+        /** Picks the format from the file extension, defaulting to CSV. */
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") ? JSON : CSV;
+        }
+    }
+
+    /** Length of menu_items.name. */
+    static final int MAX_NAME_LENGTH = 100;
+    /** Largest price menu_items.price (DECIMAL(10,2)) can hold, in cents. */
+    static final long MAX_PRICE_CENTS = 9_999_999_999L;
+
+    private static final List<String> COLUMNS = List.of("restaurant_id", "name", "price", "description", "available");
+
+    /**
+     * A row that was not imported.
+     */
+    public static final class Rejection {
+        private final String location;
+        private final String reason;
+
+        Rejection(String location, String reason) {
+            this.location = location;
+            this.reason = reason;
+        }
+
+        /** @return where the row is in the file, e.g. "line 12" or "item 3" */
+        public String getLocation() {
+            return location;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return location + ": " + reason;
+        }
+    }
+
+    /**
+     * Outcome of one import.
+     */
+    public static final class ImportReport {
+        private final int rowsRead;
+        private final int rowsInserted;
+        private final List<Rejection> rejected;
+        private final long elapsedNanos;
+
+        ImportReport(int rowsRead, int rowsInserted, List<Rejection> rejected, long elapsedNanos) {
+            this.rowsRead = rowsRead;
+            this.rowsInserted = rowsInserted;
+            this.rejected = Collections.unmodifiableList(rejected);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getRowsInserted() {
+            return rowsInserted;
+        }
+
+        /** @return rows rejected by validation, in file order */
+        public List<Rejection> getRejected() {
+            return rejected;
+        }
+
+        /** @return valid rows that were not written because their transaction failed */
+        public int getRowsFailed() {
+            return rowsRead - rejected.size() - rowsInserted;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /** @return inserted rows per second of the whole import, parsing included */
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rowsInserted * 1e9 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d inserted, %d rejected, %d failed in %d ms (%.0f rows/s)",
+                    rowsRead, rowsInserted, rejected.size(), getRowsFailed(), getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+
+    /** A split-out record and where it starts in the file. */
+    private static final class Record {
+        private final String location;
+        private final String text;
+
+        private Record(String location, String text) {
+            this.location = location;
+            this.text = text;
+        }
+    }
+
+    /** Result of parsing one record: either an item or a rejection. */
+    private static final class Parsed {
+        private final String location;
+        private final MenuItem item;
+        private final Rejection rejection;
+
+        private Parsed(String location, MenuItem item, Rejection rejection) {
+            this.location = location;
+            this.item = item;
+            this.rejection = rejection;
+        }
+    }
+
+    private final MenuItemDAO menuItemDAO;
+    private final RestaurantDAO restaurantDAO;
+
+    public MenuImportService() {
+        this(new MenuItemDAO(), new RestaurantDAO());
+    }
+
+    public MenuImportService(MenuItemDAO menuItemDAO, RestaurantDAO restaurantDAO) {
+        this.menuItemDAO = menuItemDAO;
+        this.restaurantDAO = restaurantDAO;
+    }
+
+    /**
+     * Imports a UTF-8 menu file, choosing the format by extension.
+     */
+    public ImportReport importFile(Path file) throws IOException, ValidationException, DatabaseException {
+        return importMenu(Files.readString(file, StandardCharsets.UTF_8), Format.of(file),
+                MenuItemDAO.DEFAULT_IMPORT_TRANSACTION_SIZE);
+    }
+
+    /**
+     * Parses, validates and inserts the menu items in {@code content}.
+     *
+     * @param content whole file content
+     * @param format format of the content
+     * @param rowsPerTransaction items committed per transaction
+     * @return counts, rejected rows and throughput
+     * @throws ValidationException if the file itself is malformed (no header, not a JSON array, ...)
+     * @throws DatabaseException if the restaurant ids could not be checked
+     */
+    public ImportReport importMenu(String content, Format format, int rowsPerTransaction)
+            throws ValidationException, DatabaseException {
+        long start = System.nanoTime();
+
+        List<Parsed> parsed = parse(content, format);
+
+        Set<Integer> restaurantIds = new HashSet<>();
+        for (Parsed p : parsed) {
+            if (p.item != null) {
+                restaurantIds.add(p.item.getRestaurantId());
+            }
+        }
+        Set<Integer> existing = restaurantIds.isEmpty()
+                ? Collections.emptySet()
+                : restaurantDAO.getExistingRestaurantIds(restaurantIds);
+        if (existing == null) {
+            throw new DatabaseException("Could not check the restaurants of the imported menu");
+        }
+
+        List<MenuItem> items = new ArrayList<>(parsed.size());
+        List<Rejection> rejected = new ArrayList<>();
+        for (Parsed p : parsed) {
+            if (p.rejection != null) {
+                rejected.add(p.rejection);
+            } else if (!existing.contains(p.item.getRestaurantId())) {
+                rejected.add(new Rejection(p.location, "restaurant " + p.item.getRestaurantId() + " does not exist"));
+            } else {
+                items.add(p.item);
+            }
+        }
+
+        int inserted = items.isEmpty() ? 0 : menuItemDAO.addMenuItems(items, rowsPerTransaction);
+        return new ImportReport(parsed.size(), inserted, rejected, System.nanoTime() - start);
+    }
+
+    /**
+     * Splits the content into records and parses them in parallel, keeping file order.
+     */
+    private static List<Parsed> parse(String content, Format format) throws ValidationException {
+        if (format == Format.JSON) {
+            return splitJsonArray(content).parallelStream()
+                    .map(MenuImportService::parseJsonRecord)
+                    .collect(Collectors.toList());
+        }
+        List<Record> records = splitCsvRecords(content);
+        if (records.isEmpty()) {
+            throw new ValidationException("CSV file has no header");
+        }
+        int[] columns = csvColumns(parseCsvRecord(records.get(0).text));
+        return records.subList(1, records.size()).parallelStream()
+                .map(record -> parseCsvRow(record, columns))
+                .collect(Collectors.toList());
+    }
+
+    // ---- validation ----
+
+    /**
+     * Builds a menu item from raw field values, applying the {@link MenuItem}
+     * rules and the limits of the menu_items columns.
+     *
+     * @throws IllegalArgumentException describing the first invalid field
+     */
+    static MenuItem toMenuItem(String restaurantId, String name, String price, String description, String available) {
+        int rid;
+        try {
+            rid = Integer.parseInt(required("restaurant_id", restaurantId).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("restaurant_id is not a number: " + restaurantId);
+        }
+        if (rid <= 0) {
+            throw new IllegalArgumentException("restaurant_id must be positive");
+        }
+
+        long cents;
+        try {
+            cents = Money.fromBigDecimal(new BigDecimal(required("price", price).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: " + price);
+        }
+        if (cents > MAX_PRICE_CENTS) {
+            throw new IllegalArgumentException("price is too large: " + price);
+        }
+
+        if (name != null && name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+
+        return new MenuItem(0, rid, name, Money.toDouble(cents), emptyToNull(description), parseAvailable(available));
+    }
+
+    private static String required(String field, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is missing");
+        }
+        return value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static boolean parseAvailable(String value) {
+        if (value == null || value.isBlank()) {
+            return true;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true": case "yes": case "1":
+                return true;
+            case "false": case "no": case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("available is not a boolean: " + value);
+        }
+    }
+
+    // ---- CSV ----
+
+    /**
+     * Splits CSV content into records, honouring line breaks inside quoted fields.
+     */
+    private static List<Record> splitCsvRecords(String content) {
+        List<Record> records = new ArrayList<>();
+        int start = 0;
+        int line = 1;
+        int startLine = 1;
+        boolean quoted = false;
+        for (int i = 0; i < content.length(); i++) {
+            char ch = content.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (ch == '\n') {
+                if (!quoted) {
+                    addCsvRecord(records, content, start, i, startLine);
+                    start = i + 1;
+                    startLine = line + 1;
+                }
+                line++;
+            }
+        }
+        addCsvRecord(records, content, start, content.length(), startLine);
+        return records;
+    }
+
+    private static void addCsvRecord(List<Record> records, String content, int start, int end, int line) {
+        if (end > start && content.charAt(end - 1) == '\r') {
+            end--;
+        }
+        if (end > start) {
+            records.add(new Record("line " + line, content.substring(start, end)));
+        }
+    }
+
+    /**
+     * Splits one CSV record into fields; quoted fields may contain commas,
+     * line breaks and doubled quotes.
+     */
+    static List<String> parseCsvRecord(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char ch = record.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Maps each of {@link #COLUMNS} to its index in the header, -1 if absent.
+     */
+    private static int[] csvColumns(List<String> header) throws ValidationException {
+        int[] columns = new int[COLUMNS.size()];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = -1;
+            for (int h = 0; h < header.size(); h++) {
+                if (header.get(h).trim().equalsIgnoreCase(COLUMNS.get(c))) {
+                    columns[c] = h;
+                }
+            }
+        }
+        for (int c = 0; c < 3; c++) {
+            if (columns[c] < 0) {
+                throw new ValidationException("CSV header has no " + COLUMNS.get(c) + " column");
+            }
+        }
+        return columns;
+    }
+
+    private static Parsed parseCsvRow(Record record, int[] columns) {
+        List<String> fields = parseCsvRecord(record.text);
+        String[] values = new String[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            values[c] = columns[c] >= 0 && columns[c] < fields.size() ? fields.get(columns[c]) : null;
+        }
+        return toParsed(record.location, values);
+    }
+
+    private static Parsed toParsed(String location, String[] values) {
+        try {
+            return new Parsed(location, toMenuItem(values[0], values[1], values[2], values[3], values[4]), null);
+        } catch (IllegalArgumentException e) {
+            return new Parsed(location, null, new Rejection(location, e.getMessage()));
+        }
+    }
+
+    // ---- JSON ----
+
+    /**
+     * Splits a JSON array into the text of its elements without parsing them.
+     */
+    private static List<Record> splitJsonArray(String content) throws ValidationException {
+        int i = skipWhitespace(content, 0);
+        if (i >= content.length() || content.charAt(i) != '[') {
+            throw new ValidationException("JSON menu must be an array of objects");
+        }
+        List<Record> records = new ArrayList<>();
+        int depth = 0;
+        int start = -1;
+        boolean inString = false;
+        for (i++; i < content.length(); i++) {
+            char ch = content.charAt(i);
+            if (inString) {
+                if (ch == '\\') {
+                    i++;
+                } else if (ch == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (ch == '"') {
+                inString = true;
+                if (start < 0) start = i;
+            } else if (ch == '{' || ch == '[') {
+                if (start < 0) start = i;
+                depth++;
+            } else if (ch == '}' || ch == ']') {
+                if (depth == 0) {
+                    addJsonRecord(records, content, start, i);
+                    return records;
+                }
+                depth--;
+            } else if (ch == ',' && depth == 0) {
+                addJsonRecord(records, content, start, i);
+                start = -1;
+            } else if (start < 0 && !Character.isWhitespace(ch)) {
+                start = i;
+            }
+        }
+        throw new ValidationException("JSON menu array is not closed");
+    }
+
+    private static void addJsonRecord(List<Record> records, String content, int start, int end) {
+        if (start >= 0) {
+            records.add(new Record("item " + (records.size() + 1), content.substring(start, end).trim()));
+        }
+    }
+
+    private static Parsed parseJsonRecord(Record record) {
+        Map<String, String> fields;
+        try {
+            fields = parseJsonObject(record.text);
+        } catch (IllegalArgumentException e) {
+            return new Parsed(record.location, null, new Rejection(record.location, "invalid JSON: " + e.getMessage()));
+        }
+        String[] values = new String[COLUMNS.size()];
+        for (int c = 0; c < values.length; c++) {
+            values[c] = fields.get(COLUMNS.get(c));
+        }
+        return toParsed(record.location, values);
+    }
+
+    /**
+     * Parses a flat JSON object whose values are strings, numbers, booleans or
+     * null. Values are returned as text; null values are left out.
+     *
+     * @throws IllegalArgumentException if the text is not such an object
+     */
+    static Map<String, String> parseJsonObject(String text) {
+        Object parsed = Json.parse(text);
+        if (!(parsed instanceof Map)) {
+            throw new IllegalArgumentException("expected an object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) parsed).entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map || value instanceof List) {
+                throw new IllegalArgumentException("nested values are not supported");
+            }
+            if (value instanceof BigDecimal) {
+                fields.put((String) entry.getKey(), ((BigDecimal) value).toPlainString());
+            } else if (value != null) {
+                fields.put((String) entry.getKey(), value.toString());
+            }
+        }
+        return fields;
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Imports a menu file.
+     * Usage: MenuImportService &lt;file.csv|file.json&gt; [rowsPerTransaction]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: MenuImportService <file.csv|file.json> [rowsPerTransaction]");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        int rowsPerTransaction = args.length > 1 ? Integer.parseInt(args[1]) : MenuItemDAO.DEFAULT_IMPORT_TRANSACTION_SIZE;
+        try {
+            ImportReport report = new MenuImportService().importMenu(
+                    Files.readString(file, StandardCharsets.UTF_8), Format.of(file), rowsPerTransaction);
+            System.out.println(report);
+            for (Rejection rejection : report.getRejected()) {
+                System.out.println("  rejected " + rejection);
+            }
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+}
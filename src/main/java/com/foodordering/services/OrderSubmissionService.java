@@ -0,0 +1,282 @@
+package com.foodordering.services;
+
+import com.foodordering.dao.OrderDAO;
+import com.foodordering.exceptions.OrderException;
+import com.foodordering.models.Order;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Places orders asynchronously on a bounded pool of worker threads.
+ * Submissions wait in a bounded queue; when it is full the service either
+ * rejects the submission or blocks the caller for a limited time, depending
+ * on the {@link OverflowPolicy}. Queue depth and submission latency are recorded.
+ */
+public class OrderSubmissionService implements AutoCloseable {
+
+    /**
+     * What {@link #submit} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Fail the returned future immediately. */
+        REJECT,
+        /** Block the caller until space frees up or the wait timeout elapses. */
+        WAIT
+    }
+
+    /**
+     * Step run on the worker after the order has been saved, such as taking
+     * payment for it.
+     */
+    @FunctionalInterface
+    public interface AfterSave {
+        /**
+         * @param order the saved order, with its generated id
+         * @return true if the order stands, false if the step cancelled it
+         */
+        boolean run(Order order) throws Exception;
+    }
+
+    public static final int DEFAULT_WORKERS = 4;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 2000;
+
+    /** Idle workers exit after this long so the JVM can shut down once the UI is closed. */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static OrderSubmissionService instance;
+
+    private final OrderDAO orderDAO;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+
+    /** @return shared service used by the checkout screen */
+    public static synchronized OrderSubmissionService getInstance() {
+        if (instance == null || instance.isShutdown()) {
+            instance = new OrderSubmissionService(new OrderDAO(), DEFAULT_WORKERS, DEFAULT_QUEUE_CAPACITY,
+                    OverflowPolicy.REJECT, DEFAULT_WAIT_TIMEOUT_MILLIS);
+        }
+        return instance;
+    }
+
+    /**
+     * @param orderDAO DAO used to persist orders
+     * @param workers number of worker threads (must be > 0)
+     * @param queueCapacity maximum number of queued submissions (must be > 0)
+     * @param policy behaviour when the queue is full
+     * @param waitTimeoutMillis maximum time {@link OverflowPolicy#WAIT} blocks the caller
+     */
+    public OrderSubmissionService(OrderDAO orderDAO, int workers, int queueCapacity,
+                                  OverflowPolicy policy, long waitTimeoutMillis) {
+        if (orderDAO == null) throw new IllegalArgumentException("orderDAO must not be null");
+        if (workers <= 0) throw new IllegalArgumentException("workers must be > 0");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be > 0");
+        if (policy == null) throw new IllegalArgumentException("policy must not be null");
+
+        this.orderDAO = orderDAO;
+        this.queueCapacity = queueCapacity;
+        RejectedExecutionHandler overflow = policy == OverflowPolicy.WAIT
+                ? waitForSpace(waitTimeoutMillis)
+                : new ThreadPoolExecutor.AbortPolicy();
+        this.executor = new ThreadPoolExecutor(workers, workers, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreads(), overflow);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Persists an already prepared order.
+     *
+     * @param order order with its items
+     * @return future completed with the new order id
+     */
+    public CompletableFuture<Integer> submit(Order order) {
+        if (order == null) throw new IllegalArgumentException("order must not be null");
+        return submit(() -> order);
+    }
+
+    /**
+     * Runs {@code preparation} on a worker thread and persists the order it returns.
+     * The preparation step is where slow work such as payment processing and
+     * customer lookup belongs, so that none of it runs on the caller's thread.
+     *
+     * @param preparation builds the order to save, or returns null to skip saving
+     * @return future completed with the new order id, or 0 if preparation returned null;
+     *         completed exceptionally with {@link OrderException} if the queue is full
+     *         or the order could not be saved
+     */
+    public CompletableFuture<Integer> submit(Callable<Order> preparation) {
+        return submit(preparation, order -> true);
+    }
+
+    /**
+     * Like {@link #submit(Callable)}, then runs {@code afterSave} on the same worker
+     * once the order is saved. Payment belongs there, so that nothing is charged
+     * for an order that could not be saved.
+     *
+     * @param preparation builds the order to save, or returns null to skip saving
+     * @param afterSave step run with the saved order
+     * @return future completed with the new order id, or 0 if preparation returned null
+     *         or {@code afterSave} cancelled the order; completed exceptionally with
+     *         {@link OrderException} if the queue is full or the order could not be saved
+     */
+    public CompletableFuture<Integer> submit(Callable<Order> preparation, AfterSave afterSave) {
+        if (preparation == null) throw new IllegalArgumentException("preparation must not be null");
+        if (afterSave == null) throw new IllegalArgumentException("afterSave must not be null");
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(preparation, afterSave, result, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new OrderException("Order queue is full, please try again", e));
+            return result;
+        }
+        submitted.increment();
+        maxQueueDepth.accumulate(executor.getQueue().size());
+        return result;
+    }
+
+    private void process(Callable<Order> preparation, AfterSave afterSave,
+                         CompletableFuture<Integer> result, long enqueuedAt) {
+        try {
+            Order order = preparation.call();
+            if (order == null) {
+                completed.increment();
+                result.complete(0);
+            } else if (orderDAO.createOrder(order)) {
+                boolean stands = afterSave.run(order);
+                completed.increment();
+                result.complete(stands ? order.getOrderId() : 0);
+            } else {
+                failed.increment();
+                result.completeExceptionally(new OrderException("Failed to save order"));
+            }
+        } catch (Exception e) {
+            failed.increment();
+            result.completeExceptionally(e instanceof OrderException ? e : new OrderException("Order submission failed", e));
+        } finally {
+            long latency = System.nanoTime() - enqueuedAt;
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+        }
+    }
+
+    /** @return submissions currently waiting for a worker */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /** @return deepest queue observed right after a submission */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /** @return submissions being processed right now */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /** @return mean time from submission to completion, in milliseconds */
+    public double getAverageLatencyMillis() {
+        long done = completed.sum() + failed.sum();
+        return done == 0 ? 0.0 : latencyNanos.sum() / 1e6 / done;
+    }
+
+    /** @return longest time from submission to completion, in milliseconds */
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Stops accepting submissions and waits briefly for queued orders to be saved.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("WARNING: Order submissions still running after shutdown timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderSubmissionService{queue=%d/%d, maxQueue=%d, submitted=%d, completed=%d, " +
+                        "failed=%d, rejected=%d, avgLatency=%.1fms, maxLatency=%.1fms}",
+                getQueueDepth(), queueCapacity, getMaxQueueDepth(), getSubmittedCount(), getCompletedCount(),
+                getFailedCount(), getRejectedCount(), getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+
+    private static RejectedExecutionHandler waitForSpace(long timeoutMillis) {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Order submission service is shut down");
+            }
+            BlockingQueue<Runnable> queue = pool.getQueue();
+            try {
+                if (!queue.offer(task, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new RejectedExecutionException("Timed out waiting for space in the order queue");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the order queue", e);
+            }
+        };
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "order-submit-" + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        };
+    }
+}
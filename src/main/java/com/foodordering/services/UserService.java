@@ -5,6 +5,8 @@ import com.foodordering.exceptions.*;
 import com.foodordering.models.User;
 import com.foodordering.utils.ValidationUtils;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Service layer for user operations with proper exception handling.
  * Demonstrates best practices for validation and error handling.
@@ -44,12 +46,15 @@ public class UserService {
             throw e; // Re-throw validation exceptions
         }
         
-        // Step 2: Create user object
+        // Step 2: Create user object and hash the password before any database work
         User newUser;
         try {
             newUser = new User(0, username, email, password);
+            newUser.hashPassword();
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Invalid user data: " + e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            throw new DatabaseException("Too many registrations at once, please try again shortly", e);
         }
         
         // Step 3: Register in database
@@ -77,7 +82,7 @@ public class UserService {
      * @return The authenticated User object
      * @throws ValidationException if inputs are invalid
      * @throws AuthenticationException if credentials are invalid
-     * @throws DatabaseException if database operation fails
+     * @throws DatabaseException if database operation fails or too many logins are being checked
      */
     public User loginUser(String username, String password) 
             throws ValidationException, AuthenticationException, DatabaseException {
@@ -94,6 +99,9 @@ public class UserService {
         User user;
         try {
             user = userDAO.login(username, password);
+        } catch (RejectedExecutionException e) {
+            // Password hashing queue is full: the server is busy, the credentials were never checked
+            throw new DatabaseException("Too many logins at once, please try again shortly", e);
         } catch (Exception e) {
             throw new DatabaseException("Database error during login", e);
         }
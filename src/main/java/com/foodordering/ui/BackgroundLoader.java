@@ -0,0 +1,238 @@
+package com.foodordering.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the DAO calls of a frame on a shared worker pool so the event dispatch
+ * thread never waits for the database.
+ *
+ * Each load is a {@link SwingWorker}: the work runs on a worker thread and its
+ * result (or failure) is handed to the callback on the EDT. Loads are keyed;
+ * starting a load cancels the pending one with the same key, so a slow, stale
+ * result can never overwrite a newer one. All pending loads are cancelled when
+ * the owning window is closed, and the window shows a wait cursor while any
+ * load is running. Cancelling does not interrupt a query that is already
+ * running; its result is simply discarded.
+ */
+public class BackgroundLoader {
+
+    public static final int WORKERS = 4;
+
+    /** Screens load in short bursts when opened; between them the daemon workers are released. */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private final Component owner;
+    private final Map<String, Load<?>> latest = new HashMap<>();
+    private final Set<Load<?>> pending = new HashSet<>();
+    private boolean disposed;
+
+    /**
+     * @param owner component whose loads these are; if it is a window they are
+     *              cancelled when it is closed
+     */
+    public BackgroundLoader(Component owner) {
+        this.owner = owner;
+        if (owner instanceof Window) {
+            ((Window) owner).addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    cancelAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs {@code work} on a worker thread and passes its result to
+     * {@code onResult} on the EDT. Failures are only logged.
+     *
+     * @see #load(String, Callable, Consumer, Consumer)
+     */
+    public <T> CompletableFuture<T> load(String key, Callable<T> work, Consumer<? super T> onResult) {
+        return load(key, work, onResult, e -> { });
+    }
+
+    /**
+     * Runs {@code work} on a worker thread, cancelling any pending load with the
+     * same key, and hands the outcome to {@code onResult} or {@code onFailure}
+     * on the EDT. Failures are logged as well. Nothing is published for a load
+     * that was cancelled.
+     *
+     * @param key identifies the kind of load, e.g. "menu"
+     * @param work DAO calls to run; must not touch Swing components
+     * @param onResult receives the result on the EDT
+     * @param onFailure receives the exception thrown by {@code work} on the EDT
+     * @return future completed on the EDT after the callback has run, or
+     *         cancelled if the load was superseded or the window closed
+     */
+    public <T> CompletableFuture<T> load(String key, Callable<T> work, Consumer<? super T> onResult,
+                                         Consumer<? super Exception> onFailure) {
+        Load<T> load = new Load<>(key, work, onResult, onFailure);
+        Load<?> stale;
+        boolean becameBusy;
+        synchronized (this) {
+            if (disposed) {
+                load.published.cancel(false);
+                return load.published;
+            }
+            stale = latest.put(key, load);
+            becameBusy = pending.isEmpty();
+            pending.add(load);
+        }
+        if (stale != null) {
+            stale.cancel(false);
+        }
+        if (becameBusy) {
+            updateCursor();
+        }
+        EXECUTOR.execute(load);
+        return load.published;
+    }
+
+    /**
+     * Cancels all pending loads and refuses new ones. Called when the owning
+     * window is closed.
+     */
+    public void cancelAll() {
+        Set<Load<?>> toCancel;
+        synchronized (this) {
+            disposed = true;
+            toCancel = new HashSet<>(pending);
+        }
+        for (Load<?> load : toCancel) {
+            load.cancel(false);
+        }
+    }
+
+    /** @return true while at least one load has not published yet */
+    public synchronized boolean isBusy() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Blocks until every load, including loads started by callbacks of other
+     * loads, has published. For tests; must not be called on the EDT.
+     *
+     * @return false if loads were still pending after {@code timeoutMillis}
+     */
+    synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!pending.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the load from the pending set and completes its future in one
+     * step, so neither {@link #isBusy} nor {@link #awaitIdle} can observe one
+     * without the other.
+     */
+    private void finished(Load<?> load, Runnable completeFuture) {
+        boolean idle;
+        synchronized (this) {
+            latest.remove(load.key, load);
+            idle = pending.remove(load) && pending.isEmpty();
+            completeFuture.run();
+            notifyAll();
+        }
+        if (idle) {
+            updateCursor();
+        }
+    }
+
+    /** Shows the wait cursor on the owner while loads are pending. */
+    private void updateCursor() {
+        Runnable update = () -> owner.setCursor(isBusy()
+                ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        if (SwingUtilities.isEventDispatchThread()) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater(update);
+        }
+    }
+
+    private final class Load<T> extends SwingWorker<T, Void> {
+        private final String key;
+        private final Callable<T> work;
+        private final Consumer<? super T> onResult;
+        private final Consumer<? super Exception> onFailure;
+        private final CompletableFuture<T> published = new CompletableFuture<>();
+
+        private Load(String key, Callable<T> work, Consumer<? super T> onResult,
+                     Consumer<? super Exception> onFailure) {
+            this.key = key;
+            this.work = work;
+            this.onResult = onResult;
+            this.onFailure = onFailure;
+        }
+
+        @Override
+        protected T doInBackground() throws Exception {
+            return work.call();
+        }
+
+        @Override
+        protected void done() {
+            Runnable complete;
+            try {
+                if (isCancelled()) {
+                    complete = () -> published.cancel(false);
+                } else {
+                    try {
+                        T result = get();
+                        onResult.accept(result);
+                        complete = () -> published.complete(result);
+                    } catch (ExecutionException e) {
+                        Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                        System.err.println("Error loading " + key + ": " + cause.getMessage());
+                        onFailure.accept(cause);
+                        complete = () -> published.completeExceptionally(cause);
+                    }
+                }
+            } catch (InterruptedException | CancellationException e) {
+                complete = () -> published.cancel(false);
+            } catch (RuntimeException e) {
+                System.err.println("Error publishing " + key + ": " + e.getMessage());
+                complete = () -> published.completeExceptionally(e);
+            }
+            // After the callbacks, so that loads they start keep the loader busy
+            finished(this, complete);
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS, WORKERS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ui-loader-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
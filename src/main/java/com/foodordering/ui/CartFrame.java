@@ -74,8 +74,7 @@ public class CartFrame extends JFrame {
 
     public void loadCartItems() {
         tableModel.setRowCount(0);
-        List<CartItem> items = cart.getItems();
-        for (CartItem item : items) {
+        for (CartItem item : cart.getItemsView()) {
             tableModel.addRow(new Object[]{
                 item.getName(),
                 String.format("$%.2f", item.getUnitPrice()),
@@ -105,7 +104,7 @@ public class CartFrame extends JFrame {
             return;
         }
 
-        List<CartItem> items = cart.getItems();
+        List<CartItem> items = cart.getItemsView();
         if (row < items.size()) {
             CartItem item = items.get(row);
             try {
@@ -125,7 +124,7 @@ public class CartFrame extends JFrame {
             return;
         }
 
-        List<CartItem> items = cart.getItems();
+        List<CartItem> items = cart.getItemsView();
         if (row < items.size()) {
             CartItem item = items.get(row);
             cart.removeItem(item.getItemId());
@@ -144,7 +143,7 @@ public class CartFrame extends JFrame {
     }
 
     private void proceedToCheckout() {
-        if (cart.getItems().isEmpty()) {
+        if (cart.getSummary().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Cart is empty! Add items first.", "Info", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
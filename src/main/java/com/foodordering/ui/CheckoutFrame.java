@@ -2,23 +2,34 @@ package com.foodordering.ui;
 
 import com.foodordering.dao.OrderDAO;
 import com.foodordering.dao.CouponDAO;
+import com.foodordering.dao.CustomerDAO;
+import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.exceptions.CartChangedException;
+import com.foodordering.exceptions.OrderException;
 import com.foodordering.interfaces.Orderable;
 import com.foodordering.models.Cart;
 import com.foodordering.models.CartItem;
-import com.foodordering.models.Coupon;
+import com.foodordering.models.CartRevalidation;
+import com.foodordering.models.CartSummary;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
 import com.foodordering.models.Order;
 import com.foodordering.models.OrderItem;
 import com.foodordering.models.User;
 import com.foodordering.payments.CashPayment;
 import com.foodordering.payments.CreditCardPayment;
 import com.foodordering.payments.DebitCardPayment;
+import com.foodordering.services.OrderSubmissionService;
 import com.foodordering.services.PaymentService;
-import com.foodordering.utils.DatabaseConnection;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -29,7 +40,10 @@ public class CheckoutFrame extends JFrame {
     private final Cart cart;
     private final OrderDAO orderDAO;
     private final CouponDAO couponDAO = new CouponDAO();
+    private final CustomerDAO customerDAO = new CustomerDAO();
+    private final MenuItemDAO menuItemDAO = new MenuItemDAO();
     private final PaymentService paymentService = new PaymentService();
+    private final OrderSubmissionService submissionService;
 
     private int lastOrderId;
 
@@ -47,11 +61,18 @@ public class CheckoutFrame extends JFrame {
     private final JButton applyCouponBtn = new JButton("Apply Coupon");
     
     private final JComboBox<String> paymentCombo = new JComboBox<>(new String[]{"Credit Card", "Debit Card", "Cash"});
+    private final JButton placeOrderBtn = new JButton("Place Order");
+    private final BackgroundLoader loader = new BackgroundLoader(this);
 
     public CheckoutFrame(User currentUser, Cart cart, OrderDAO orderDAO) {
+        this(currentUser, cart, orderDAO, OrderSubmissionService.getInstance());
+    }
+
+    public CheckoutFrame(User currentUser, Cart cart, OrderDAO orderDAO, OrderSubmissionService submissionService) {
         this.currentUser = currentUser;
         this.cart = cart;
         this.orderDAO = orderDAO;
+        this.submissionService = submissionService;
         initializeUI();
         loadCartItems();
     }
@@ -92,7 +113,6 @@ public class CheckoutFrame extends JFrame {
         JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         actions.add(new JLabel("Payment Method:"));
         actions.add(paymentCombo);
-        JButton placeOrderBtn = new JButton("Place Order");
         placeOrderBtn.addActionListener(e -> placeOrderFromUI());
         actions.add(placeOrderBtn);
 
@@ -109,45 +129,89 @@ public class CheckoutFrame extends JFrame {
             return;
         }
 
-        Coupon coupon = couponDAO.getCouponByCode(code);
-        if (coupon == null || !coupon.isValid()) {
-            JOptionPane.showMessageDialog(this, "Invalid or expired coupon code.", "Error", JOptionPane.ERROR_MESSAGE);
-            couponField.setText("");
-            cart.applyCoupon(null);
-        } else {
-            cart.applyCoupon(coupon);
-            JOptionPane.showMessageDialog(this, "Coupon applied! " + (int)coupon.getValue() + "% discount.", "Success", JOptionPane.INFORMATION_MESSAGE);
-        }
-        loadCartItems();
+        applyCouponBtn.setEnabled(false);
+        loader.load("coupon", () -> couponDAO.getCouponByCode(code), coupon -> {
+            applyCouponBtn.setEnabled(true);
+            if (coupon == null || !coupon.isValid()) {
+                JOptionPane.showMessageDialog(this, "Invalid or expired coupon code.", "Error", JOptionPane.ERROR_MESSAGE);
+                couponField.setText("");
+                cart.applyCoupon(null);
+            } else {
+                cart.applyCoupon(coupon);
+                JOptionPane.showMessageDialog(this, "Coupon applied! " + (int)coupon.getValue() + "% discount.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            }
+            loadCartItems();
+        }, e -> {
+            applyCouponBtn.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Could not check the coupon code.", "Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     public void loadCartItems() {
         tableModel.setRowCount(0);
-        for (CartItem ci : cart.getItems()) {
+        for (CartItem ci : cart.getItemsView()) {
             tableModel.addRow(new Object[]{ci.getName(), ci.getUnitPrice(), ci.getQuantity(), ci.getSubtotal()});
         }
         
-        // Calculate and display prices
-        double subtotal = cart.getItems().stream().mapToDouble(CartItem::getSubtotal).sum();
-        double discount = cart.getAppliedCoupon() != null ? cart.getAppliedCoupon().computeDiscount(subtotal) : 0;
-        double total = subtotal - discount;
-        
-        subtotalLabel.setText(String.format("Subtotal: $%.2f", subtotal));
-        discountLabel.setText(String.format("Discount: -$%.2f", discount));
-        totalLabel.setText(String.format("Total: $%.2f", Math.max(0, total)));
+        CartSummary summary = cart.getSummary();
+        subtotalLabel.setText("Subtotal: " + Money.format(summary.getSubtotalCents()));
+        discountLabel.setText("Discount: -" + Money.format(summary.getDiscountCents()));
+        totalLabel.setText("Total: " + Money.format(summary.getTotalCents()));
     }
 
     private void placeOrderFromUI() {
         Orderable method = buildSelectedPaymentMethod();
-        int orderId = placeOrderForTest(method);
-        if (orderId > 0) {
-            dispose();
-            // Open order summary frame
-            OrderSummaryFrame summaryFrame = new OrderSummaryFrame(orderId);
-            summaryFrame.setVisible(true);
-        } else {
-            JOptionPane.showMessageDialog(this, "Payment failed or cart empty.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        placeOrderBtn.setEnabled(false);
+        submitOrder(method).whenComplete((orderId, error) -> SwingUtilities.invokeLater(() -> {
+            placeOrderBtn.setEnabled(true);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof CartChangedException) {
+                    // Nothing was charged; show the customer the updated cart before they try again
+                    ((CartChangedException) cause).getRevalidation().applyTo(cart);
+                    loadCartItems();
+                    JOptionPane.showMessageDialog(this, cause.getMessage()
+                                    + "\n\nYour cart has been updated. Please check the new total and place the order again.",
+                            "Cart Updated", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            } else if (orderId > 0) {
+                dispose();
+                // Open order summary frame
+                OrderSummaryFrame summaryFrame = new OrderSummaryFrame(orderId);
+                summaryFrame.setVisible(true);
+            } else {
+                JOptionPane.showMessageDialog(this, "Payment failed or cart empty.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }));
+    }
+
+    /**
+     * Places the order on the {@link OrderSubmissionService} workers so payment and
+     * database work stay off the event dispatch thread. The order is saved as pending
+     * before the payment is taken, then confirmed, or cancelled if the payment is
+     * declined. The cart is cleared once the order has been placed.
+     *
+     * @param paymentMethod payment method to charge
+     * @return future completed with the order id, or 0 if the cart was empty or payment failed;
+     *         completed exceptionally with {@link CartChangedException} if prices or availability
+     *         changed since the items were added, or with {@link OrderException} if the order
+     *         could not be saved, in which case nothing was charged
+     */
+    public CompletableFuture<Integer> submitOrder(Orderable paymentMethod) {
+        if (cart.getSummary().isEmpty()) return CompletableFuture.completedFuture(0);
+        // Snapshot the cart on the calling thread; workers never touch the Cart itself
+        List<CartItem> items = cart.getItems();
+        double total = cart.calculateTotal();
+        return submissionService.submit(() -> prepareOrder(items, total),
+                        order -> takePayment(order, paymentMethod))
+                .thenApply(orderId -> {
+                    if (orderId > 0) {
+                        SwingUtilities.invokeLater(() -> orderPlaced(orderId));
+                    }
+                    return orderId;
+                });
     }
 
     private Orderable buildSelectedPaymentMethod() {
@@ -162,64 +226,85 @@ public class CheckoutFrame extends JFrame {
     }
 
     public int placeOrderForTest(Orderable paymentMethod) {
-        double total = cart.calculateTotal();
-        if (cart.getItems().isEmpty()) return 0;
-        if (!paymentService.process(paymentMethod, total)) return 0;
+        if (cart.getSummary().isEmpty()) return 0;
+        try {
+            Order order = prepareOrder(cart.getItems(), cart.calculateTotal());
+            if (!orderDAO.createOrder(order) || !takePayment(order, paymentMethod)) return 0;
+            orderPlaced(order.getOrderId());
+            return lastOrderId;
+        } catch (OrderException e) {
+            return 0;
+        }
+    }
 
-        int custId = resolveOrCreateCustomerId(currentUser);
-        if (custId <= 0) return 0;
+    /**
+     * Checks the cart lines against the live menu and builds the pending order
+     * for them. Nothing is charged here.
+     *
+     * @return order ready to be saved
+     * @throws CartChangedException if prices or availability changed
+     * @throws OrderException if the menu could not be checked or the customer was not found
+     */
+    private Order prepareOrder(List<CartItem> items, double total) throws OrderException {
+        CartRevalidation revalidation = revalidate(items);
+        int custId = customerDAO.resolveCustomerId(currentUser.getId());
+        if (custId <= 0) {
+            throw new OrderException("Could not find your customer account, please try again");
+        }
 
-        Order order = new Order(0, custId, inferRestaurantIdFromCart(), total, "pending", null);
-        for (CartItem ci : cart.getItems()) {
+        Order order = new Order(0, custId, revalidation.getRestaurantId(), total, "pending", null);
+        for (CartItem ci : items) {
             order.addItem(new OrderItem(0, 0, ci.getItemId(), ci.getQuantity(), ci.getUnitPrice()));
         }
-        boolean ok = orderDAO.createOrder(order);
-        if (ok) {
-            lastOrderId = order.getOrderId();
-            cart.clearCart();
-            return lastOrderId;
-        }
-        return 0;
+        return order;
     }
 
-    private int resolveOrCreateCustomerId(User user) {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
-            // Try resolve existing customer
-            try (PreparedStatement ps = conn.prepareStatement("SELECT customer_id FROM customers WHERE user_id = ?")) {
-                ps.setInt(1, user.getId());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) return rs.getInt(1);
-                }
-            }
-            // Create minimal customer record
-            try (PreparedStatement ps = conn.prepareStatement(
-                    "INSERT INTO customers (user_id, address, phone) VALUES (?, 'Unknown', '000-0000')",
-                    Statement.RETURN_GENERATED_KEYS)) {
-                ps.setInt(1, user.getId());
-                int affected = ps.executeUpdate();
-                if (affected > 0) {
-                    try (ResultSet keys = ps.getGeneratedKeys()) { if (keys.next()) return keys.getInt(1); }
-                }
+    /**
+     * Charges the payment method for a saved pending order, then confirms the
+     * order, or cancels it if the payment was declined. A paid order whose
+     * confirmation fails stays pending but is still placed.
+     *
+     * @return true if the payment went through
+     */
+    private boolean takePayment(Order order, Orderable paymentMethod) {
+        if (!paymentService.process(paymentMethod, order.getTotalPrice())) {
+            if (!orderDAO.updateOrderStatus(order.getOrderId(), "cancelled")) {
+                System.err.println("Could not cancel order " + order.getOrderId() + " after a declined payment");
             }
-        } catch (SQLException ex) {
-            System.err.println("Error resolving customer: " + ex.getMessage());
+            return false;
         }
-        return 0;
+        if (orderDAO.updateOrderStatus(order.getOrderId(), "confirmed")) {
+            order.setStatus("confirmed");
+        } else {
+            System.err.println("Order " + order.getOrderId() + " was paid but could not be confirmed");
+        }
+        return true;
     }
 
-    private int inferRestaurantIdFromCart() {
-        if (cart.getItems().isEmpty()) return 0;
-        int firstItemId = cart.getItems().get(0).getItemId();
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT restaurant_id FROM menu_items WHERE item_id = ?")) {
-            ps.setInt(1, firstItemId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return rs.getInt(1);
-            }
-        } catch (SQLException ex) {
-            System.err.println("Error inferring restaurant id: " + ex.getMessage());
+    private void orderPlaced(int orderId) {
+        lastOrderId = orderId;
+        cart.clearCart();
+    }
+
+    /**
+     * Fetches the current price and availability of every line in one query.
+     * The result also gives the order's restaurant, so checkout needs no
+     * other menu query.
+     */
+    private CartRevalidation revalidate(List<CartItem> items) throws OrderException {
+        List<Integer> itemIds = new ArrayList<>(items.size());
+        for (CartItem ci : items) {
+            itemIds.add(ci.getItemId());
+        }
+        Map<Integer, MenuItem> current = menuItemDAO.getMenuItemsByIds(itemIds);
+        if (current == null) {
+            throw new OrderException("Could not check menu prices, please try again");
+        }
+        CartRevalidation revalidation = CartRevalidation.compare(items, current);
+        if (!revalidation.isValid()) {
+            throw new CartChangedException(revalidation);
         }
-        return 0;
+        return revalidation;
     }
 
     public int getLastOrderId() { return lastOrderId; }
@@ -4,8 +4,10 @@ import com.foodordering.exceptions.AuthenticationException;
 import com.foodordering.exceptions.DatabaseException;
 import com.foodordering.exceptions.ValidationException;
 import com.foodordering.models.User;
+import com.foodordering.services.CartStore;
 import com.foodordering.services.Session;
 import com.foodordering.services.UserService;
+import com.foodordering.utils.ExceptionHandler;
 
 import javax.swing.*;
 import java.awt.*;
@@ -22,6 +24,7 @@ public class LoginFrame extends JFrame {
     private JButton registerButton;
     private JLabel messageLabel;
     private UserService userService;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
 
     public LoginFrame() {
         this.userService = new UserService();
@@ -84,8 +87,14 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        try {
+        // Password hashing, the user lookup and restoring the saved cart run off the EDT
+        loginButton.setEnabled(false);
+        loader.load("login", () -> {
             User user = userService.loginUser(username, password);
+            CartStore.getInstance().open(user.getId());
+            return user;
+        }, user -> {
+            loginButton.setEnabled(true);
             Session.getInstance().login(user);
             showSuccess("Login successful! Welcome, " + user.getUsername());
             clearFields();
@@ -95,13 +104,19 @@ public class LoginFrame extends JFrame {
             appFrame.setVisible(true);
             // Close login window
             dispose();
-        } catch (ValidationException | AuthenticationException e) {
-            showError(e.getMessage());
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Login Error", JOptionPane.ERROR_MESSAGE);
-        } catch (DatabaseException e) {
-            showError("A system error occurred. Please try again later.");
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "System Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> {
+            loginButton.setEnabled(true);
+            if (e instanceof ValidationException || e instanceof AuthenticationException) {
+                showError(e.getMessage());
+                JOptionPane.showMessageDialog(this, e.getMessage(), "Login Error", JOptionPane.ERROR_MESSAGE);
+            } else if (e instanceof DatabaseException) {
+                showError("A system error occurred. Please try again later.");
+                JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "System Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                showError("A system error occurred. Please try again later.");
+                ExceptionHandler.handleException(e, this);
+            }
+        });
     }
 
     private void openRegisterFrame() {
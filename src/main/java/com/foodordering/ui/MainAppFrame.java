@@ -2,10 +2,12 @@ package com.foodordering.ui;
 
 import com.foodordering.dao.MenuItemDAO;
 import com.foodordering.dao.OrderDAO;
+import com.foodordering.dao.RestaurantCatalog;
 import com.foodordering.dao.RestaurantDAO;
 import com.foodordering.dao.UserDAO;
 import com.foodordering.models.Cart;
 import com.foodordering.models.User;
+import com.foodordering.services.CartStore;
 import com.foodordering.services.Session;
 
 import javax.swing.*;
@@ -18,19 +20,20 @@ import java.awt.*;
 public class MainAppFrame extends JFrame {
     private final User currentUser;
     private final Cart cart;
-    private final RestaurantDAO restaurantDAO;
+    private final RestaurantCatalog restaurantCatalog;
     private final MenuItemDAO menuItemDAO;
     private final UserDAO userDAO;
     private final OrderDAO orderDAO;
 
+    /** Opens the home screen with the user's saved cart, see {@link CartStore#open}. */
     public MainAppFrame(User user) {
-        this(user, new Cart(), new RestaurantDAO(), new MenuItemDAO());
+        this(user, CartStore.getInstance().open(user.getId()), new RestaurantDAO(), new MenuItemDAO());
     }
 
     public MainAppFrame(User user, Cart cart, RestaurantDAO restaurantDAO, MenuItemDAO menuItemDAO) {
         this.currentUser = user;
         this.cart = cart;
-        this.restaurantDAO = restaurantDAO;
+        this.restaurantCatalog = new RestaurantCatalog(restaurantDAO);
         this.menuItemDAO = menuItemDAO;
         this.userDAO = new UserDAO();
         this.orderDAO = new OrderDAO();
@@ -59,7 +62,7 @@ public class MainAppFrame extends JFrame {
         browseButton.setFont(new Font("Arial", Font.PLAIN, 14));
         browseButton.addActionListener(e -> openRestaurantBrowser());
 
-        JButton cartButton = new JButton("🛒 View Cart (" + cart.getItems().size() + " items)");
+        JButton cartButton = new JButton("🛒 View Cart (" + cart.getSummary().getLineCount() + " items)");
         cartButton.setFont(new Font("Arial", Font.PLAIN, 14));
         cartButton.addActionListener(e -> openCartView());
 
@@ -83,7 +86,7 @@ public class MainAppFrame extends JFrame {
     }
 
     private void openRestaurantBrowser() {
-        RestaurantFrame restaurantFrame = new RestaurantFrame(cart, restaurantDAO, menuItemDAO);
+        RestaurantFrame restaurantFrame = new RestaurantFrame(cart, restaurantCatalog, menuItemDAO);
         restaurantFrame.setVisible(true);
     }
 
@@ -93,6 +96,7 @@ public class MainAppFrame extends JFrame {
     }
 
     private void handleLogout() {
+        CartStore.getInstance().release(currentUser.getId());
         Session.getInstance().logout();
         LoginFrame loginFrame = new LoginFrame();
         loginFrame.setVisible(true);
@@ -10,6 +10,7 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * UI frame to display a restaurant menu and add items to cart.
@@ -28,6 +29,8 @@ public class MenuFrame extends JFrame {
     };
     private final JTable menuTable = new JTable(tableModel);
     private final JSpinner quantitySpinner = new JSpinner(new SpinnerNumberModel(1, 1, 20, 1));
+    private final JLabel statusLabel = new JLabel(" ", SwingConstants.CENTER);
+    private final BackgroundLoader loader = new BackgroundLoader(this);
     private List<MenuItem> menuItems = new ArrayList<>();
 
     public MenuFrame(Restaurant restaurant, Cart cart, MenuItemDAO menuItemDAO) {
@@ -55,16 +58,29 @@ public class MenuFrame extends JFrame {
         bottom.add(quantitySpinner);
         bottom.add(addButton);
 
+        add(statusLabel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
         add(bottom, BorderLayout.SOUTH);
     }
 
-    public void loadMenu() {
+    /**
+     * Reloads the menu in the background; the table is filled on the EDT once it arrives.
+     *
+     * @return future completed after the table has been filled
+     */
+    public CompletableFuture<List<MenuItem>> loadMenu() {
         tableModel.setRowCount(0);
-        menuItems = menuItemDAO.getAvailableMenuItemsByRestaurant(restaurant.getRestaurantId());
-        for (MenuItem item : menuItems) {
-            tableModel.addRow(new Object[]{item.getName(), item.getPrice(), item.isAvailable()});
-        }
+        menuItems = new ArrayList<>();
+        statusLabel.setText("Loading menu...");
+        return loader.load("menu", () -> menuItemDAO.getMenu(restaurant.getRestaurantId()).getAvailableItems(),
+                items -> {
+                    menuItems = items;
+                    for (MenuItem item : items) {
+                        tableModel.addRow(new Object[]{item.getName(), item.getPrice(), item.isAvailable()});
+                    }
+                    statusLabel.setText(items.isEmpty() ? "No items available." : " ");
+                },
+                e -> statusLabel.setText("Could not load the menu."));
     }
 
     private void addSelectedFromUI() {
@@ -94,4 +110,8 @@ public class MenuFrame extends JFrame {
     public List<MenuItem> getMenuItems() {
         return menuItems;
     }
+
+    BackgroundLoader getLoader() {
+        return loader;
+    }
 }
@@ -23,12 +23,19 @@ public class OrderSummaryFrame extends JFrame {
     private final JLabel totalLabel = new JLabel();
     private final JLabel dateLabel = new JLabel();
     private final JTextArea confirmationArea = new JTextArea();
+    private final BackgroundLoader loader = new BackgroundLoader(this);
 
+    /**
+     * Opens the summary at once and loads the order in the background.
+     */
     public OrderSummaryFrame(int orderId) {
-        OrderDAO orderDAO = new OrderDAO();
-        this.order = orderDAO.getOrderById(orderId);
         initializeUI();
-        loadOrderDetails();
+        orderIdLabel.setText("Loading order #" + orderId + "...");
+        OrderDAO orderDAO = new OrderDAO();
+        loader.load("order", () -> orderDAO.getOrderById(orderId), loaded -> {
+            this.order = loaded;
+            loadOrderDetails();
+        }, e -> loadOrderDetails());
     }
 
     // For testing: inject order directly
@@ -101,7 +108,7 @@ public class OrderSummaryFrame extends JFrame {
         // Load items
         tableModel.setRowCount(0);
         for (OrderItem item : order.getItems()) {
-            double subtotal = item.getUnitPrice() * item.getQuantity();
+            double subtotal = item.getSubtotal();
             tableModel.addRow(new Object[]{
                 "Item #" + item.getItemId(),
                 String.format("$%.2f", item.getUnitPrice()),
@@ -141,4 +148,8 @@ public class OrderSummaryFrame extends JFrame {
     public Order getOrder() {
         return order;
     }
+
+    BackgroundLoader getLoader() {
+        return loader;
+    }
 }
@@ -1,21 +1,33 @@
 package com.foodordering.ui;
 
+import com.foodordering.dao.CustomerDAO;
 import com.foodordering.dao.OrderDAO;
 import com.foodordering.dao.UserDAO;
-import com.foodordering.models.Order;
+import com.foodordering.models.OrderHistoryEntry;
 import com.foodordering.models.User;
 import com.foodordering.utils.DatabaseConnection;
 
 import javax.swing.*;
+import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.*;
+import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 public class ProfileFrame extends JFrame {
     private final User currentUser;
     private final OrderDAO orderDAO;
+    private final CustomerDAO customerDAO = new CustomerDAO();
+    private final int pageSize;
+    private int customerId; // 0 until the profile has loaded
+
+    // Keyset cursor of the order history: last row loaded and whether more may follow
+    private OrderHistoryEntry lastHistoryEntry;
+    private boolean moreHistory;
+    private boolean loadingPage;
 
     // User info fields
     private final JTextField usernameField = new JTextField(20);
@@ -32,13 +44,36 @@ public class ProfileFrame extends JFrame {
         }
     };
     private final JTable orderTable = new JTable(orderTableModel);
+    private final JScrollPane orderScrollPane = new JScrollPane(orderTable);
+    private final JPanel orderHistoryPanel = new JPanel(new BorderLayout());
+    private final TitledBorder orderHistoryBorder = BorderFactory.createTitledBorder("Order History");
+    private final JButton updateButton = new JButton("Update Profile");
+    private final BackgroundLoader loader = new BackgroundLoader(this);
+
+    /** Customer row of the user, read off the EDT. */
+    private static final class CustomerDetails {
+        private final int customerId;
+        private final String phone;
+        private final String address;
+
+        private CustomerDetails(int customerId, String phone, String address) {
+            this.customerId = customerId;
+            this.phone = phone;
+            this.address = address;
+        }
+    }
 
     public ProfileFrame(User currentUser, UserDAO userDAO, OrderDAO orderDAO) {
+        this(currentUser, userDAO, orderDAO, OrderDAO.DEFAULT_HISTORY_PAGE_SIZE);
+    }
+
+    public ProfileFrame(User currentUser, UserDAO userDAO, OrderDAO orderDAO, int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be > 0");
         this.currentUser = currentUser;
         this.orderDAO = orderDAO;
+        this.pageSize = pageSize;
         initializeUI();
         loadUserInfo();
-        loadOrderHistory();
     }
 
     private void initializeUI() {
@@ -90,14 +125,22 @@ public class ProfileFrame extends JFrame {
         // Update button
         gbc.gridx = 1;
         gbc.gridy = 4;
-        JButton updateButton = new JButton("Update Profile");
         updateButton.addActionListener(e -> updateProfile());
         userInfoPanel.add(updateButton, gbc);
 
         // Center panel: Order History
-        JPanel orderHistoryPanel = new JPanel(new BorderLayout());
-        orderHistoryPanel.setBorder(BorderFactory.createTitledBorder("Order History"));
-        orderHistoryPanel.add(new JScrollPane(orderTable), BorderLayout.CENTER);
+        orderHistoryPanel.setBorder(orderHistoryBorder);
+        orderHistoryPanel.add(orderScrollPane, BorderLayout.CENTER);
+        // Fetch the next page when the user scrolls near the end of the table
+        orderScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (e.getValueIsAdjusting() || !moreHistory) {
+                return;
+            }
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - orderTable.getRowHeight() * 2) {
+                loadMoreOrderHistory();
+            }
+        });
 
         // Add panels to frame
         add(userInfoPanel, BorderLayout.NORTH);
@@ -111,104 +154,133 @@ public class ProfileFrame extends JFrame {
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
-    private void loadUserInfo() {
+    /**
+     * Shows the account fields, then loads the customer details and, once the
+     * customer is known, the first page of the order history in the background.
+     */
+    private CompletableFuture<CustomerDetails> loadUserInfo() {
         usernameField.setText(currentUser.getUsername());
         emailField.setText(currentUser.getEmail());
+        updateButton.setEnabled(false);
+        showHistoryLoading(true);
 
-        // Load customer details (phone, address)
-        int customerId = getCustomerId(currentUser.getId());
-        if (customerId > 0) {
-            try (Connection conn = DatabaseConnection.getInstance().getConnection();
-                 PreparedStatement ps = conn.prepareStatement(
-                         "SELECT phone, address FROM customers WHERE customer_id = ?")) {
-                ps.setInt(1, customerId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        phoneField.setText(rs.getString("phone") != null ? rs.getString("phone") : "");
-                        addressField.setText(rs.getString("address") != null ? rs.getString("address") : "");
-                    }
+        int userId = currentUser.getId();
+        return loader.load("profile", () -> loadCustomerDetails(userId), details -> {
+            customerId = details.customerId;
+            phoneField.setText(details.phone != null ? details.phone : "");
+            addressField.setText(details.address != null ? details.address : "");
+            updateButton.setEnabled(true);
+            loadOrderHistory();
+        }, e -> showHistoryLoading(false));
+    }
+
+    private CustomerDetails loadCustomerDetails(int userId) throws SQLException {
+        int id = customerDAO.findCustomerId(userId);
+        if (id <= 0) {
+            return new CustomerDetails(0, null, null);
+        }
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT phone, address FROM customers WHERE customer_id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new CustomerDetails(id, rs.getString("phone"), rs.getString("address"));
                 }
-            } catch (SQLException ex) {
-                System.err.println("Error loading customer info: " + ex.getMessage());
             }
         }
+        return new CustomerDetails(id, null, null);
     }
 
-    public void loadOrderHistory() {
+    /**
+     * Clears the order history table and loads its first page in the background.
+     *
+     * @return future completed with the number of rows shown
+     */
+    public CompletableFuture<Integer> loadOrderHistory() {
         orderTableModel.setRowCount(0);
-        int customerId = getCustomerId(currentUser.getId());
-        if (customerId > 0) {
-            List<Order> orders = orderDAO.getOrdersByCustomerId(customerId);
-            for (Order order : orders) {
-                String restaurantName = getRestaurantName(order.getRestaurantId());
+        lastHistoryEntry = null;
+        moreHistory = customerId > 0;
+        loadingPage = false;
+        showHistoryLoading(false);
+        return loadMoreOrderHistory();
+    }
+
+    /**
+     * Appends the next page of the order history, if there is one and no page
+     * is already being loaded.
+     *
+     * @return future completed with the number of rows added
+     */
+    public CompletableFuture<Integer> loadMoreOrderHistory() {
+        if (!moreHistory || loadingPage) {
+            return CompletableFuture.completedFuture(0);
+        }
+        loadingPage = true;
+        showHistoryLoading(true);
+        int id = customerId;
+        OrderHistoryEntry after = lastHistoryEntry;
+        // Same key for every page: reloading the history discards a page still in flight
+        return loader.load("history", () -> orderDAO.getOrderHistoryPage(id, after, pageSize), page -> {
+            loadingPage = false;
+            showHistoryLoading(false);
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+            for (OrderHistoryEntry entry : page) {
                 orderTableModel.addRow(new Object[]{
-                        order.getOrderId(),
-                        restaurantName,
-                        String.format("$%.2f", order.getTotalPrice()),
-                        order.getStatus(),
-                        "N/A"
+                        entry.getOrderId(),
+                        entry.getRestaurantName(),
+                        String.format("$%.2f", entry.getTotalPrice()),
+                        entry.getStatus(),
+                        entry.getCreatedAt() != null ? dateFormat.format(entry.getCreatedAt()) : "N/A"
                 });
             }
-        }
+            if (!page.isEmpty()) {
+                lastHistoryEntry = page.get(page.size() - 1);
+            }
+            moreHistory = page.size() == pageSize;
+        }, e -> {
+            loadingPage = false;
+            moreHistory = false;
+            showHistoryLoading(false);
+        }).thenApply(List::size);
+    }
+
+    private void showHistoryLoading(boolean loading) {
+        orderHistoryBorder.setTitle(loading ? "Order History (loading...)" : "Order History");
+        orderHistoryPanel.repaint();
     }
 
     private void updateProfile() {
         String phone = phoneField.getText().trim();
         String address = addressField.getText().trim();
 
-        int customerId = getCustomerId(currentUser.getId());
-        if (customerId > 0) {
+        if (customerId <= 0) {
+            JOptionPane.showMessageDialog(this, "Customer record not found.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        int id = customerId;
+        updateButton.setEnabled(false);
+        loader.load("update-profile", () -> {
             try (Connection conn = DatabaseConnection.getInstance().getConnection();
                  PreparedStatement ps = conn.prepareStatement(
                          "UPDATE customers SET phone = ?, address = ? WHERE customer_id = ?")) {
                 ps.setString(1, phone.isEmpty() ? null : phone);
                 ps.setString(2, address.isEmpty() ? null : address);
-                ps.setInt(3, customerId);
-                int updated = ps.executeUpdate();
-                if (updated > 0) {
-                    JOptionPane.showMessageDialog(this, "Profile updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to update profile.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
-            } catch (SQLException ex) {
-                System.err.println("Error updating profile: " + ex.getMessage());
-                JOptionPane.showMessageDialog(this, "Error updating profile: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        } else {
-            JOptionPane.showMessageDialog(this, "Customer record not found.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private int getCustomerId(int userId) {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "SELECT customer_id FROM customers WHERE user_id = ?")) {
-            ps.setInt(1, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("customer_id");
-                }
+                ps.setInt(3, id);
+                return ps.executeUpdate();
             }
-        } catch (SQLException ex) {
-            System.err.println("Error getting customer ID: " + ex.getMessage());
-        }
-        return 0;
-    }
-
-    private String getRestaurantName(int restaurantId) {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "SELECT name FROM restaurants WHERE restaurant_id = ?")) {
-            ps.setInt(1, restaurantId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("name");
-                }
+        }, updated -> {
+            updateButton.setEnabled(true);
+            if (updated > 0) {
+                JOptionPane.showMessageDialog(this, "Profile updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to update profile.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
-            System.err.println("Error getting restaurant name: " + ex.getMessage());
-        }
-        return "Unknown";
+        }, e -> {
+            updateButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Error updating profile: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     // Testing helpers
@@ -227,4 +299,12 @@ public class ProfileFrame extends JFrame {
     public DefaultTableModel getOrderTableModel() {
         return orderTableModel;
     }
+
+    public boolean hasMoreOrderHistory() {
+        return moreHistory;
+    }
+
+    BackgroundLoader getLoader() {
+        return loader;
+    }
 }
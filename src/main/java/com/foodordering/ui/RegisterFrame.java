@@ -22,6 +22,7 @@ public class RegisterFrame extends JFrame {
     private JButton backButton;
     private JLabel messageLabel;
     private UserDAO userDAO;
+    private final BackgroundLoader loader = new BackgroundLoader(this);
 
     public RegisterFrame() {
         this.userDAO = new UserDAO();
@@ -108,12 +109,14 @@ public class RegisterFrame extends JFrame {
             return;
         }
 
-        // Try registration
-        try {
+        // Try registration; hashing the password and the insert run off the EDT
+        registerButton.setEnabled(false);
+        loader.load("register", () -> {
             User newUser = new User(0, username, email, password);
-            boolean success = userDAO.registerUser(newUser);
-
-            if (success) {
+            return userDAO.registerUser(newUser) ? newUser : null;
+        }, newUser -> {
+            registerButton.setEnabled(true);
+            if (newUser != null) {
                 showSuccess("Registration successful! User ID: " + newUser.getId());
                 clearFields();
                 // Navigate to login screen after successful registration
@@ -125,9 +128,10 @@ public class RegisterFrame extends JFrame {
             } else {
                 showError("Username or email already exists");
             }
-        } catch (IllegalArgumentException ex) {
+        }, ex -> {
+            registerButton.setEnabled(true);
             showError(ex.getMessage());
-        }
+        });
     }
 
     private void showError(String message) {
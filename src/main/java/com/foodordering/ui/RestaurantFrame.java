@@ -1,6 +1,7 @@
 package com.foodordering.ui;
 
 import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.dao.RestaurantCatalog;
 import com.foodordering.dao.RestaurantDAO;
 import com.foodordering.dao.ReviewDAO;
 import com.foodordering.models.Cart;
@@ -10,18 +11,20 @@ import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * UI frame to display restaurants and open their menus.
  */
 public class RestaurantFrame extends JFrame {
-    private final RestaurantDAO restaurantDAO;
+    private final RestaurantCatalog restaurantCatalog;
     private final MenuItemDAO menuItemDAO;
     private final ReviewDAO reviewDAO;
     private final Cart cart;
 
     private final DefaultListModel<String> restaurantListModel = new DefaultListModel<>();
     private final JList<String> restaurantList = new JList<>(restaurantListModel);
+    private final BackgroundLoader loader = new BackgroundLoader(this);
     private List<Restaurant> restaurants = new ArrayList<>();
 
     public RestaurantFrame() {
@@ -29,8 +32,12 @@ public class RestaurantFrame extends JFrame {
     }
 
     public RestaurantFrame(Cart cart, RestaurantDAO restaurantDAO, MenuItemDAO menuItemDAO) {
+        this(cart, new RestaurantCatalog(restaurantDAO), menuItemDAO);
+    }
+
+    public RestaurantFrame(Cart cart, RestaurantCatalog restaurantCatalog, MenuItemDAO menuItemDAO) {
         this.cart = cart;
-        this.restaurantDAO = restaurantDAO;
+        this.restaurantCatalog = restaurantCatalog;
         this.menuItemDAO = menuItemDAO;
         this.reviewDAO = new ReviewDAO();
         initializeUI();
@@ -61,12 +68,26 @@ public class RestaurantFrame extends JFrame {
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
-    public void loadRestaurants() {
+    /**
+     * Reloads the restaurant list in the background. Until it arrives the list
+     * shows a placeholder that cannot be opened.
+     *
+     * @return future completed after the list has been filled
+     */
+    public CompletableFuture<List<Restaurant>> loadRestaurants() {
         restaurantListModel.clear();
-        restaurants = restaurantDAO.getAllRestaurants();
-        for (Restaurant r : restaurants) {
-            restaurantListModel.addElement(r.getName());
-        }
+        restaurants = new ArrayList<>();
+        restaurantListModel.addElement("Loading restaurants...");
+        return loader.load("restaurants", restaurantCatalog::getAllRestaurants, loaded -> {
+            restaurantListModel.clear();
+            restaurants = loaded;
+            for (Restaurant r : loaded) {
+                restaurantListModel.addElement(r.getName());
+            }
+        }, e -> {
+            restaurantListModel.clear();
+            restaurantListModel.addElement("Could not load restaurants.");
+        });
     }
 
     private void openSelectedMenu() {
@@ -99,4 +120,8 @@ public class RestaurantFrame extends JFrame {
     public List<Restaurant> getRestaurants() {
         return restaurants;
     }
+
+    BackgroundLoader getLoader() {
+        return loader;
+    }
 }
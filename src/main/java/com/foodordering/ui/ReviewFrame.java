@@ -1,17 +1,17 @@
 package com.foodordering.ui;
 
+import com.foodordering.dao.CustomerDAO;
 import com.foodordering.dao.ReviewDAO;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.ResourceNotFoundException;
 import com.foodordering.models.Restaurant;
 import com.foodordering.models.Review;
 import com.foodordering.services.Session;
-import com.foodordering.utils.DatabaseConnection;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * UI frame to display and add restaurant reviews.
@@ -19,15 +19,33 @@ import java.util.List;
 public class ReviewFrame extends JFrame {
     private final Restaurant restaurant;
     private final ReviewDAO reviewDAO;
-    private Integer customerId; // resolved on demand
+    private final int pageSize;
+    private final CustomerDAO customerDAO = new CustomerDAO();
+
+    // Keyset cursor of the review feed: last review loaded and whether more may follow
+    private Review lastReview;
+    private boolean moreReviews;
+    private boolean loadingPage;
 
     private final JTextArea reviewsArea = new JTextArea(15, 40);
+    private final JScrollPane reviewsScrollPane = new JScrollPane(reviewsArea);
     private final JComboBox<Integer> ratingCombo = new JComboBox<>(new Integer[]{1, 2, 3, 4, 5});
     private final JTextField commentField = new JTextField(30);
+    private final JButton submitButton = new JButton("Submit Review");
+    private final BackgroundLoader loader = new BackgroundLoader(this);
 
     public ReviewFrame(Restaurant restaurant, ReviewDAO reviewDAO) {
+        this(restaurant, reviewDAO, ReviewDAO.DEFAULT_REVIEW_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize number of reviews fetched per page (> 0)
+     */
+    public ReviewFrame(Restaurant restaurant, ReviewDAO reviewDAO, int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be > 0");
         this.restaurant = restaurant;
         this.reviewDAO = reviewDAO;
+        this.pageSize = pageSize;
         initializeUI();
         loadReviews();
     }
@@ -52,7 +70,16 @@ public class ReviewFrame extends JFrame {
         reviewsArea.setEditable(false);
         reviewsArea.setLineWrap(true);
         reviewsArea.setWrapStyleWord(true);
-        JScrollPane scrollPane = new JScrollPane(reviewsArea);
+        // Fetch the next page when the user scrolls near the end of the feed
+        reviewsScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (e.getValueIsAdjusting() || !moreReviews) {
+                return;
+            }
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - bar.getVisibleAmount() / 4) {
+                loadMoreReviews();
+            }
+        });
 
         // Bottom: Add review form
         JPanel bottomPanel = new JPanel(new BorderLayout(5, 5));
@@ -65,34 +92,87 @@ public class ReviewFrame extends JFrame {
         formPanel.add(new JLabel("Comment:"));
         formPanel.add(commentField);
 
-        JButton submitButton = new JButton("Submit Review");
         submitButton.addActionListener(e -> submitReview());
 
         bottomPanel.add(formPanel, BorderLayout.CENTER);
         bottomPanel.add(submitButton, BorderLayout.SOUTH);
 
         add(topPanel, BorderLayout.NORTH);
-        add(scrollPane, BorderLayout.CENTER);
+        add(reviewsScrollPane, BorderLayout.CENTER);
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
-    private void loadReviews() {
-        reviewsArea.setText("");
-        List<Review> reviews = reviewDAO.getReviewsByRestaurant(restaurant.getRestaurantId());
-        
-        if (reviews.isEmpty()) {
-            reviewsArea.setText("No reviews yet. Be the first to review!");
-        } else {
-            StringBuilder sb = new StringBuilder();
-            for (Review r : reviews) {
-                sb.append(String.format("⭐ %d/5 - %s\n", r.getRating(), r.getComment() != null ? r.getComment() : "(No comment)"));
-                if (r.getCreatedAt() != null) {
-                    sb.append("   " + r.getCreatedAt().toString() + "\n");
-                }
-                sb.append("\n");
+    /**
+     * Clears the review feed and loads its first page in the background.
+     *
+     * @return future completed with the number of reviews shown
+     */
+    public CompletableFuture<Integer> loadReviews() {
+        reviewsArea.setText("Loading reviews...");
+        lastReview = null;
+        moreReviews = true;
+        return loadPage(true);
+    }
+
+    /**
+     * Appends the next page of reviews, if there is one and no page is
+     * already being loaded.
+     *
+     * @return future completed with the number of reviews added
+     */
+    public CompletableFuture<Integer> loadMoreReviews() {
+        if (!moreReviews || loadingPage) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return loadPage(false);
+    }
+
+    private CompletableFuture<Integer> loadPage(boolean firstPage) {
+        loadingPage = true;
+        int restaurantId = restaurant.getRestaurantId();
+        Review after = lastReview;
+        // Same key for both: reloading the feed discards a page still in flight
+        return loader.load("reviews", () -> after == null
+                ? reviewDAO.getReviewsPage(restaurantId, pageSize)
+                : reviewDAO.getReviewsPage(restaurantId, after.getCreatedAt(), after.getReviewId(), pageSize),
+                page -> {
+                    loadingPage = false;
+                    if (firstPage) {
+                        reviewsArea.setText(page.isEmpty() ? "No reviews yet. Be the first to review!" : "");
+                    }
+                    appendReviews(page);
+                }, e -> {
+                    loadingPage = false;
+                    moreReviews = false;
+                    if (firstPage) {
+                        reviewsArea.setText("Could not load reviews.");
+                    }
+                }).thenApply(List::size);
+    }
+
+    private void appendReviews(List<Review> page) {
+        StringBuilder sb = new StringBuilder();
+        for (Review r : page) {
+            sb.append(String.format("⭐ %d/5 - %s\n", r.getRating(), r.getComment() != null ? r.getComment() : "(No comment)"));
+            if (r.getCreatedAt() != null) {
+                sb.append("   " + r.getCreatedAt().toString() + "\n");
             }
-            reviewsArea.setText(sb.toString());
+            sb.append("\n");
         }
+        reviewsArea.append(sb.toString());
+        
+        if (!page.isEmpty()) {
+            lastReview = page.get(page.size() - 1);
+        }
+        // A review without created_at cannot serve as a keyset cursor
+        moreReviews = page.size() == pageSize && lastReview.getCreatedAt() != null;
+    }
+
+    /**
+     * @return true if another page of reviews may be available
+     */
+    public boolean hasMoreReviews() {
+        return moreReviews;
     }
 
     private void submitReview() {
@@ -101,12 +181,6 @@ public class ReviewFrame extends JFrame {
             return;
         }
 
-        int custId = resolveOrCreateCustomerId();
-        if (custId <= 0) {
-            JOptionPane.showMessageDialog(this, "Unable to resolve customer account.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
         Integer rating = (Integer) ratingCombo.getSelectedItem();
         String comment = commentField.getText().trim();
 
@@ -115,59 +189,39 @@ public class ReviewFrame extends JFrame {
             return;
         }
 
-        Review review = new Review(0, restaurant.getRestaurantId(), custId, rating, comment);
-        boolean success = reviewDAO.addReview(review);
-
-        if (success) {
+        int userId = Session.getInstance().getCurrentUser().getId();
+        int restaurantId = restaurant.getRestaurantId();
+        submitButton.setEnabled(false);
+        loader.load("submit-review", () -> {
+            int custId = customerDAO.resolveCustomerId(userId);
+            if (custId <= 0) {
+                throw new ResourceNotFoundException("Unable to resolve customer account.");
+            }
+            Review review = new Review(0, restaurantId, custId, rating, comment);
+            if (!reviewDAO.addReview(review)) {
+                throw new DatabaseException("Failed to submit review. You may have already reviewed this restaurant.");
+            }
+            // Refresh restaurant rating from database
+            return reviewDAO.calculateAverageRating(restaurantId);
+        }, newRating -> {
+            submitButton.setEnabled(true);
+            restaurant.setRating(newRating);
             JOptionPane.showMessageDialog(this, "Review submitted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             commentField.setText("");
             ratingCombo.setSelectedItem(5);
             loadReviews();
-            
-            // Refresh restaurant rating from database
-            double newRating = reviewDAO.calculateAverageRating(restaurant.getRestaurantId());
-            restaurant.setRating(newRating);
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to submit review. You may have already reviewed this restaurant.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private int resolveOrCreateCustomerId() {
-        if (customerId != null && customerId > 0) {
-            return customerId;
-        }
-
-        int userId = Session.getInstance().getCurrentUser().getId();
-        
-        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
-            // Try resolve existing customer
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT customer_id FROM customers WHERE user_id = " + userId);
-                if (rs.next()) {
-                    customerId = rs.getInt(1);
-                    return customerId;
-                }
-                rs.close();
-            }
-            // Create minimal customer record
-            try (Statement stmt = conn.createStatement()) {
-                stmt.executeUpdate("INSERT INTO customers (user_id, address, phone) VALUES (" + userId + ", 'Unknown', '000-0000')");
-                ResultSet keys = stmt.executeQuery("SELECT LAST_INSERT_ID()");
-                if (keys.next()) {
-                    customerId = keys.getInt(1);
-                    return customerId;
-                }
-                keys.close();
-            }
-        } catch (Exception ex) {
-            System.err.println("Error resolving customer: " + ex.getMessage());
-        }
-        
-        return 0;
+        }, e -> {
+            submitButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
 
-    // Testing helper
+    // Testing helpers
     public String getReviewsText() {
         return reviewsArea.getText();
     }
+
+    BackgroundLoader getLoader() {
+        return loader;
+    }
 }
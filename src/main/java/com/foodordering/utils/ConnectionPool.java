@@ -0,0 +1,348 @@
+package com.foodordering.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded JDBC connection pool.
+ * Keeps between {@code minSize} and {@code maxSize} physical connections,
+ * validates idle connections on borrow, evicts connections that stay idle
+ * longer than {@code idleTimeoutMillis} and fails a borrow that cannot be
+ * served within {@code borrowTimeoutMillis}.
+ * Connections handed out are proxies: calling {@code close()} returns the
+ * physical connection to the pool instead of closing it, and
+ * {@code prepareStatement} is served from a per-connection {@link StatementCache}.
+ */
+public class ConnectionPool {
+
+    /**
+     * Opens new physical connections for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool without a statement cache and opens {@code minSize} connections eagerly.
+     */
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds) {
+        this(factory, minSize, maxSize, borrowTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds, 0);
+    }
+
+    /**
+     * Creates a pool and opens {@code minSize} connections eagerly.
+     *
+     * @param factory source of physical connections
+     * @param minSize connections kept open even when idle
+     * @param maxSize maximum connections open at the same time
+     * @param borrowTimeoutMillis how long {@link #borrow()} waits for a free connection
+     * @param idleTimeoutMillis idle time after which connections above {@code minSize} are closed
+     * @param validationTimeoutSeconds timeout passed to {@link Connection#isValid(int)} on borrow
+     * @param statementCacheSize prepared statements cached per connection, 0 to disable
+     */
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (factory == null) throw new IllegalArgumentException("factory must not be null");
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        if (minSize < 0 || minSize > maxSize) throw new IllegalArgumentException("minSize must be in [0, maxSize]");
+        if (borrowTimeoutMillis < 0) throw new IllegalArgumentException("borrowTimeoutMillis must be >= 0");
+        if (statementCacheSize < 0) throw new IllegalArgumentException("statementCacheSize must be >= 0");
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        for (int i = 0; i < minSize; i++) {
+            try {
+                idle.addLast(openPhysical());
+            } catch (SQLException e) {
+                System.err.println("ERROR: Failed to pre-open pooled connection: " + e.getMessage());
+                break;
+            }
+        }
+
+        if (idleTimeoutMillis > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "connection-pool-evictor");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000L, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout for one to become free.
+     *
+     * @return pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, the timeout expires or a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lease();
+                }
+                discard(pooled);
+            }
+            return openPhysical().lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** @return number of physical connections currently open */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /** @return number of open connections waiting in the pool */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /** @return number of connections currently borrowed */
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /** @return hit/miss counters of the prepared statement caches */
+    public StatementCache.Stats getStatementCacheStats() {
+        return statementStats;
+    }
+
+    /**
+     * Closes every physical connection, including borrowed ones, and stops the evictor.
+     */
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        idle.clear();
+        for (PooledConnection pooled : all) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Closes connections idle for longer than the idle timeout, keeping at least {@code minSize} open.
+     */
+    void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturned >= idleTimeoutMillis && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = factory.create();
+        PooledConnection pooled = new PooledConnection(physical);
+        totalConnections.incrementAndGet();
+        all.add(pooled);
+        return pooled;
+    }
+
+    private void discard(PooledConnection pooled) {
+        if (!all.remove(pooled)) {
+            return;
+        }
+        totalConnections.decrementAndGet();
+        if (pooled.statements != null) {
+            pooled.statements.close();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable) {
+                try {
+                    if (!pooled.physical.getAutoCommit()) {
+                        pooled.physical.rollback();
+                        pooled.physical.setAutoCommit(true);
+                    }
+                } catch (SQLException e) {
+                    reusable = false;
+                }
+            }
+            if (reusable) {
+                pooled.lastReturned = System.currentTimeMillis();
+                idle.addFirst(pooled);
+            } else {
+                discard(pooled);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastReturned = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementStats)
+                    : null;
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the lease is closed.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "prepareStatement":
+                    if (!returned && pooled.statements != null && isCacheable(method)) {
+                        return args.length == 1
+                                ? pooled.statements.prepare((Connection) proxy, (String) args[0])
+                                : pooled.statements.prepare((Connection) proxy, (String) args[0], (Integer) args[1]);
+                    }
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /** Only prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys) are cached. */
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+}
@@ -9,19 +9,34 @@ import java.util.Properties;
 
 /**
  * Database Connection Manager using Singleton Pattern.
- * Manages MySQL database connections for the application.
+ * Manages MySQL database connections for the application through a
+ * bounded {@link ConnectionPool}. Connections returned by
+ * {@link #getConnection()} go back to the pool when closed.
  * 
  * @author A7MED505
  * @version 1.0.0
  */
 public class DatabaseConnection {
     
+    private static final int DEFAULT_MIN_CONNECTIONS = 2;
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+    private static final long DEFAULT_CONNECTION_TIMEOUT_MS = 30000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 600000;
+    private static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
     private static DatabaseConnection instance;
-    private Connection connection;
+    private ConnectionPool pool;
     private String url;
     private String username;
     private String password;
     private String driver;
+    private int minConnections;
+    private int maxConnections;
+    private long connectionTimeout;
+    private long idleTimeout;
+    private int validationTimeout;
+    private int statementCacheSize;
     
     /**
      * Private constructor - implements Singleton pattern
@@ -43,20 +58,28 @@ public class DatabaseConnection {
     }
     
     /**
-     * Load database configuration from properties file
+     * Load database configuration from properties file.
+     * Any {@code db.*} system property overrides the file; when {@code db.url}
+     * is given as a system property the file is optional, which lets tools and
+     * benchmarks point the DAOs at another database (e.g. an embedded one).
      */
     private void loadProperties() {
         Properties props = new Properties();
         try (InputStream input = DatabaseConnection.class.getClassLoader()
                 .getResourceAsStream("database.properties")) {
             
-            if (input == null) {
+            if (input != null) {
+                props.load(input);
+            } else if (System.getProperty("db.url") == null) {
                 System.err.println("ERROR: database.properties file not found!");
                 System.err.println("Please create src/main/resources/database.properties with your MySQL credentials");
                 throw new IOException("database.properties not found");
             }
-            
-            props.load(input);
+            for (String key : System.getProperties().stringPropertyNames()) {
+                if (key.startsWith("db.")) {
+                    props.setProperty(key, System.getProperty(key));
+                }
+            }
             
             this.url = props.getProperty("db.url");
             this.username = props.getProperty("db.username");
@@ -66,25 +89,50 @@ public class DatabaseConnection {
             if (url == null || username == null || password == null || driver == null) {
                 throw new IOException("Missing required database configuration properties");
             }
+
+            this.minConnections = intProperty(props, "db.minConnections", DEFAULT_MIN_CONNECTIONS);
+            this.maxConnections = intProperty(props, "db.maxConnections", DEFAULT_MAX_CONNECTIONS);
+            this.connectionTimeout = longProperty(props, "db.connectionTimeout", DEFAULT_CONNECTION_TIMEOUT_MS);
+            this.idleTimeout = longProperty(props, "db.idleTimeout", DEFAULT_IDLE_TIMEOUT_MS);
+            this.validationTimeout = intProperty(props, "db.validationTimeout", DEFAULT_VALIDATION_TIMEOUT_SECONDS);
+            this.statementCacheSize = intProperty(props, "db.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE);
             
             System.out.println("✓ Database properties loaded successfully");
             System.out.println("  URL: " + url);
             System.out.println("  Username: " + username);
+            System.out.println("  Pool: " + minConnections + "-" + maxConnections + " connections");
             
-        } catch (IOException e) {
+        } catch (IOException | NumberFormatException e) {
             System.err.println("ERROR loading database.properties: " + e.getMessage());
             throw new RuntimeException("Failed to load database configuration", e);
         }
     }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
     
     /**
-     * Establish connection to the database
+     * Create the connection pool and open its minimum connections
      */
     private void connectToDatabase() {
         try {
             Class.forName(driver);
-            this.connection = DriverManager.getConnection(url, username, password);
-            System.out.println("✓ Database connection established successfully");
+            this.pool = new ConnectionPool(
+                    () -> DriverManager.getConnection(url, username, password),
+                    minConnections, maxConnections, connectionTimeout, idleTimeout, validationTimeout,
+                    statementCacheSize);
+            if (minConnections > 0 && pool.getTotalConnections() == 0) {
+                // Surface an unreachable server right away instead of on the first borrow
+                pool.borrow().close();
+            }
+            System.out.println("✓ Database connection pool established successfully");
         } catch (ClassNotFoundException e) {
             System.err.println("ERROR: MySQL JDBC driver not found: " + e.getMessage());
             throw new RuntimeException("MySQL JDBC driver not found. Add mysql-connector-java to Maven dependencies", e);
@@ -98,32 +146,48 @@ public class DatabaseConnection {
     }
     
     /**
-     * Get active database connection
+     * Borrow a connection from the pool.
+     * Callers must close it (try-with-resources) to return it to the pool.
      * @return Connection object
      */
     public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
+        ConnectionPool current;
+        synchronized (this) {
+            if (pool == null || pool.isClosed()) {
                 connectToDatabase();
             }
+            current = pool;
+        }
+        try {
+            return current.borrow();
         } catch (SQLException e) {
-            System.err.println("ERROR: Connection is closed, attempting to reconnect: " + e.getMessage());
-            connectToDatabase();
+            System.err.println("ERROR: Failed to obtain pooled connection: " + e.getMessage());
+            throw new RuntimeException("Failed to obtain database connection", e);
         }
-        return connection;
+    }
+
+    /**
+     * @return the underlying connection pool, e.g. for monitoring
+     */
+    public synchronized ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return hit/miss counters of the per-connection prepared statement caches
+     */
+    public StatementCache.Stats getStatementCacheStats() {
+        return getPool().getStatementCacheStats();
     }
     
     /**
-     * Close database connection
+     * Close every pooled database connection.
+     * The next call to {@link #getConnection()} creates a new pool.
      */
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✓ Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("ERROR: Failed to close connection: " + e.getMessage());
+    public synchronized void closeConnection() {
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
+            System.out.println("✓ Database connection pool closed");
         }
     }
     
@@ -133,10 +197,9 @@ public class DatabaseConnection {
      * @return true if connection is valid, false otherwise
      */
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed() && conn.isValid(5);
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             System.err.println("ERROR: Database connection test failed: " + e.getMessage());
             return false;
         }
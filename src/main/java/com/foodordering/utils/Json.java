@@ -0,0 +1,249 @@
+package com.foodordering.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the HTTP API and the menu importer,
+ * so the project does not need a JSON library.
+ *
+ * Parsed values are {@link Map} (objects, in document order), {@link List},
+ * {@link String}, {@link BigDecimal}, {@link Boolean} or null.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Parses a JSON document.
+     *
+     * @param text JSON text
+     * @return parsed value
+     * @throws IllegalArgumentException if the text is not valid JSON
+     */
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw new IllegalArgumentException("unexpected text at " + parser.pos);
+        }
+        return value;
+    }
+
+    /**
+     * Serializes maps, collections, strings, numbers, booleans and null.
+     * Any other object is written as its {@code toString()} string.
+     */
+    public static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(value, out);
+        return out.toString();
+    }
+
+    private static void write(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                writeString(String.valueOf(entry.getKey()), out);
+                out.append(':');
+                write(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) out.append(',');
+                first = false;
+                write(element, out);
+            }
+            out.append(']');
+        } else if (value instanceof BigDecimal) {
+            out.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            writeString(value.toString(), out);
+        }
+    }
+
+    private static void writeString(String s, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (ch < 0x20) {
+                        out.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        out.append(ch);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private Object readValue() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw new IllegalArgumentException("unexpected end of input");
+            }
+            char ch = text.charAt(pos);
+            switch (ch) {
+                case '{': return readObject();
+                case '[': return readArray();
+                case '"': return readString();
+                default: return readLiteral();
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw new IllegalArgumentException("expected a key at " + pos);
+                }
+                String key = readString();
+                expect(':');
+                object.put(key, readValue());
+                if (next('}')) {
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(readValue());
+                if (next(']')) {
+                    return array;
+                }
+            }
+        }
+
+        /** Consumes ',' or {@code close}; returns true for {@code close}. */
+        private boolean next(char close) {
+            skipWhitespace();
+            char ch = peek();
+            if (ch != ',' && ch != close) {
+                throw new IllegalArgumentException("expected ',' or '" + close + "' at " + pos);
+            }
+            pos++;
+            return ch == close;
+        }
+
+        private String readString() {
+            pos++;
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char ch = text.charAt(pos++);
+                if (ch == '"') {
+                    return value.toString();
+                }
+                if (ch != '\\') {
+                    value.append(ch);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 't': value.append('\t'); break;
+                    case 'r': value.append('\r'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw new IllegalArgumentException("truncated \\u escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("invalid \\u escape at " + pos);
+                        }
+                        pos += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("unterminated string");
+        }
+
+        private Object readLiteral() {
+            int start = pos;
+            while (pos < text.length() && ",:}] \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            switch (literal) {
+                case "null": return null;
+                case "true": return Boolean.TRUE;
+                case "false": return Boolean.FALSE;
+                default:
+                    try {
+                        return new BigDecimal(literal);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("unexpected value '" + literal + "' at " + start);
+                    }
+            }
+        }
+
+        private void expect(char expected) {
+            skipWhitespace();
+            if (peek() != expected) {
+                throw new IllegalArgumentException("expected '" + expected + "' at " + pos);
+            }
+            pos++;
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.foodordering.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * Statements handed out are proxies: {@code close()} clears parameters and
+ * the batch, restores fetch size, max rows, query timeout and the other
+ * per-statement settings a borrower changed, and puts the statement back in
+ * the cache instead of closing it. When the cache is full the least recently
+ * used statement is closed.
+ * All caches of a pool share one {@link Stats} instance.
+ */
+public class StatementCache {
+
+    /**
+     * Hit/miss counters shared by the statement caches of a pool.
+     */
+    public static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final Map<String, LongAdder> hitsBySql = new ConcurrentHashMap<>();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        /** @return hits / (hits + misses), or 0.0 before the first prepare */
+        public double getHitRatio() {
+            long h = hits.sum();
+            long total = h + misses.sum();
+            return total == 0 ? 0.0 : (double) h / total;
+        }
+
+        /**
+         * @param sql SQL text exactly as passed to prepareStatement
+         * @return number of times the statement was served from a cache
+         */
+        public long getHits(String sql) {
+            LongAdder adder = hitsBySql.get(sql);
+            return adder == null ? 0 : adder.sum();
+        }
+
+        /** @return snapshot of hit counts per SQL text */
+        public Map<String, Long> getHitsBySql() {
+            Map<String, Long> snapshot = new TreeMap<>();
+            hitsBySql.forEach((sql, adder) -> snapshot.put(sql, adder.sum()));
+            return Collections.unmodifiableMap(snapshot);
+        }
+
+        public void reset() {
+            hits.reset();
+            misses.reset();
+            evictions.reset();
+            hitsBySql.clear();
+        }
+
+        private void recordHit(String sql) {
+            hits.increment();
+            hitsBySql.computeIfAbsent(sql, k -> new LongAdder()).increment();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("StatementCache.Stats{hits=%d, misses=%d, evictions=%d, hitRatio=%.2f}",
+                    getHits(), getMisses(), getEvictions(), getHitRatio());
+        }
+    }
+
+    /** Marker for statements prepared without an auto-generated-keys flag. */
+    private static final int NO_KEYS_FLAG = -1;
+
+    private record Key(String sql, int autoGeneratedKeys) { }
+
+    /** Per-statement settings as the driver created them, restored when a borrower changed them. */
+    private record Settings(int fetchSize, int fetchDirection, long maxRows, int maxFieldSize,
+                            int queryTimeout, boolean poolable) {
+        private static Settings of(PreparedStatement stmt) throws SQLException {
+            return new Settings(stmt.getFetchSize(), stmt.getFetchDirection(), stmt.getMaxRows(),
+                    stmt.getMaxFieldSize(), stmt.getQueryTimeout(), stmt.isPoolable());
+        }
+
+        private void restore(PreparedStatement stmt) throws SQLException {
+            stmt.setFetchSize(fetchSize);
+            stmt.setFetchDirection(fetchDirection);
+            stmt.setLargeMaxRows(maxRows);
+            stmt.setMaxFieldSize(maxFieldSize);
+            stmt.setQueryTimeout(queryTimeout);
+            stmt.setPoolable(poolable);
+            // JDBC default; there is no getter to read it back
+            stmt.setEscapeProcessing(true);
+        }
+    }
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Stats stats;
+    private final LinkedHashMap<Key, CachedStatement> entries;
+    private boolean closed;
+
+    /**
+     * @param physical connection statements are prepared on
+     * @param maxSize maximum number of cached statements (must be > 0)
+     * @param stats counters to update
+     */
+    public StatementCache(Connection physical, int maxSize, Stats stats) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a cached statement for {@code sql}, preparing it on a miss.
+     *
+     * @param owner connection reported by {@link PreparedStatement#getConnection()}
+     * @param sql SQL text
+     * @return statement proxy; closing it returns it to the cache
+     */
+    public PreparedStatement prepare(Connection owner, String sql) throws SQLException {
+        return prepare(owner, sql, NO_KEYS_FLAG);
+    }
+
+    /**
+     * Same as {@link #prepare(Connection, String)} for
+     * {@link Connection#prepareStatement(String, int)}.
+     */
+    public synchronized PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        if (closed) {
+            throw new SQLException("Statement cache is closed");
+        }
+        Key key = new Key(sql, autoGeneratedKeys);
+        CachedStatement cached = entries.get(key);
+        if (cached != null && !cached.inUse) {
+            stats.recordHit(sql);
+            cached.inUse = true;
+            return cached.lease(owner);
+        }
+
+        stats.misses.increment();
+        PreparedStatement stmt = autoGeneratedKeys == NO_KEYS_FLAG
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+        CachedStatement created = new CachedStatement(stmt);
+        created.inUse = true;
+        if (cached == null) {
+            entries.put(key, created);
+            evictOverflow();
+        } else {
+            // The cached copy is still open in the caller (nested use of the same SQL)
+            created.evicted = true;
+        }
+        return created.lease(owner);
+    }
+
+    /** @return number of statements currently cached */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Closes every cached statement. Called when the physical connection is evicted.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (CachedStatement cached : entries.values()) {
+            if (cached.inUse) {
+                cached.evicted = true;
+            } else {
+                closeQuietly(cached.statement);
+            }
+        }
+        entries.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            stats.evictions.increment();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private synchronized void release(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted || closed) {
+            closeQuietly(cached.statement);
+            return;
+        }
+        try {
+            cached.statement.clearParameters();
+            if (cached.batched) {
+                cached.statement.clearBatch();
+                cached.batched = false;
+            }
+            if (cached.tuned) {
+                cached.defaults.restore(cached.statement);
+                cached.tuned = false;
+            }
+        } catch (SQLException e) {
+            cached.evicted = true;
+            entries.values().remove(cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.err.println("ERROR: Failed to close cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A physical statement owned by the cache.
+     */
+    private final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean batched;
+        /** Set when a borrower changed a setting; {@link #defaults} holds the values to restore. */
+        private boolean tuned;
+        private Settings defaults;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement lease(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new LeaseHandler(this, owner));
+        }
+    }
+
+    /**
+     * Forwards calls to the cached statement and tracks result sets to close on return.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private final List<ResultSet> openResults = new ArrayList<>(2);
+        private boolean returned;
+
+        private LeaseHandler(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        for (ResultSet rs : openResults) {
+                            try {
+                                rs.close();
+                            } catch (SQLException ignored) {
+                                // the statement is reset below regardless
+                            }
+                        }
+                        openResults.clear();
+                        release(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                case "addBatch":
+                    cached.batched = true;
+                    break;
+                case "setFetchSize":
+                case "setFetchDirection":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setMaxFieldSize":
+                case "setQueryTimeout":
+                case "setPoolable":
+                case "setEscapeProcessing":
+                    if (!returned && !cached.tuned) {
+                        if (cached.defaults == null) {
+                            cached.defaults = Settings.of(cached.statement);
+                        }
+                        cached.tuned = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                openResults.add((ResultSet) result);
+            }
+            return result;
+        }
+    }
+}
@@ -5,6 +5,11 @@ import com.foodordering.exceptions.ValidationException;
 /**
  * Utility class for input validation across the application.
  * Provides common validation methods with meaningful error messages.
+ *
+ * Format checks are hand-written character scans rather than
+ * {@code String.matches}, which compiles its regex on every call; they
+ * accept exactly what the documented patterns accept and allocate nothing
+ * on valid input.
  */
 public class ValidationUtils {
 
@@ -15,7 +20,7 @@ public class ValidationUtils {
      * @throws ValidationException if validation fails
      */
     public static void validateNotEmpty(String value, String fieldName) throws ValidationException {
-        if (value == null || value.trim().isEmpty()) {
+        if (isBlank(value)) {
             throw new ValidationException(fieldName + " cannot be empty");
         }
     }
@@ -26,16 +31,52 @@ public class ValidationUtils {
      * @throws ValidationException if email format is invalid
      */
     public static void validateEmail(String email) throws ValidationException {
-        if (email == null || email.trim().isEmpty()) {
+        if (isBlank(email)) {
             throw new ValidationException("Email cannot be empty");
         }
         
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        if (!email.matches(emailRegex)) {
+        if (!isValidEmail(email)) {
             throw new ValidationException("Invalid email format. Example: user@example.com");
         }
     }
 
+    /**
+     * Checks {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}: a local
+     * part, one '@', and a domain whose last label has at least two letters.
+     * @param email Email address to check (not null)
+     * @return true if the format is valid
+     */
+    static boolean isValidEmail(String email) {
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            if (!isEmailLocalChar(email.charAt(i))) {
+                return false;
+            }
+        }
+        int lastDot = -1;
+        for (int i = at + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        // At least one domain character before the last dot, two or more letters after it
+        if (lastDot <= at + 1 || email.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Validates password meets minimum requirements.
      * @param password Password to validate
@@ -68,9 +109,11 @@ public class ValidationUtils {
             throw new ValidationException("Username cannot exceed 50 characters");
         }
         
-        String usernameRegex = "^[a-zA-Z0-9_]+$";
-        if (!username.matches(usernameRegex)) {
-            throw new ValidationException("Username can only contain letters, numbers, and underscores");
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '_') {
+                throw new ValidationException("Username can only contain letters, numbers, and underscores");
+            }
         }
     }
 
@@ -80,18 +123,29 @@ public class ValidationUtils {
      * @throws ValidationException if phone format is invalid
      */
     public static void validatePhone(String phone) throws ValidationException {
-        if (phone == null || phone.trim().isEmpty()) {
+        if (isBlank(phone)) {
             throw new ValidationException("Phone number cannot be empty");
         }
         
-        // Remove common formatting characters
-        String cleanPhone = phone.replaceAll("[\\s()-]", "");
+        // Skip common formatting characters (whitespace, parentheses, dashes) instead of removing them
+        int length = 0;
+        boolean onlyDigitsAndPlus = true;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c == '(' || c == ')' || c == '-' || isRegexWhitespace(c)) {
+                continue;
+            }
+            length++;
+            if ((c < '0' || c > '9') && c != '+') {
+                onlyDigitsAndPlus = false;
+            }
+        }
         
-        if (cleanPhone.length() < 10 || cleanPhone.length() > 15) {
+        if (length < 10 || length > 15) {
             throw new ValidationException("Phone number must be between 10 and 15 digits");
         }
         
-        if (!cleanPhone.matches("^[0-9+]+$")) {
+        if (!onlyDigitsAndPlus) {
             throw new ValidationException("Phone number can only contain digits and + symbol");
         }
     }
@@ -173,4 +227,37 @@ public class ValidationUtils {
                 fieldName + " cannot exceed " + maxLength + " characters");
         }
     }
+
+    /**
+     * Same as {@code value == null || value.trim().isEmpty()} without creating
+     * the trimmed copy.
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmailLocalChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    /** The characters of the regex class {@code \s}: space, \t, \n, \x0B, \f and \r. */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
 }
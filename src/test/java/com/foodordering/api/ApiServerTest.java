@@ -0,0 +1,177 @@
+package com.foodordering.api;
+
+import com.foodordering.exceptions.AuthenticationException;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.PaymentException;
+import com.foodordering.exceptions.ResourceNotFoundException;
+import com.foodordering.exceptions.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests of ApiServer routing, error mapping and concurrency limit over real HTTP
+ * with a mocked OrderingApi.
+ */
+class ApiServerTest {
+
+    private final OrderingApi api = mock(OrderingApi.class);
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ApiServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void start(int maxConcurrentRequests, long permitTimeoutMillis) throws Exception {
+        server = new ApiServer(0, api, maxConcurrentRequests, permitTimeoutMillis);
+        server.start();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Requests are routed with path, query, body and token")
+    void testRouting() throws Exception {
+        when(api.listReviews(any())).thenReturn(List.of(Map.of("rating", 5)));
+        when(api.checkout(any())).thenReturn(Map.of("orderId", 42));
+        start(4, 1000);
+
+        HttpResponse<String> reviews = get("/api/restaurants/7/reviews?limit=5&afterCreatedAt=2024-01-01%2010:00:00");
+        assertEquals(200, reviews.statusCode());
+        assertEquals("[{\"rating\":5}]", reviews.body());
+        assertTrue(reviews.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        ArgumentCaptor<ApiRequest> captor = ArgumentCaptor.forClass(ApiRequest.class);
+        verify(api).listReviews(captor.capture());
+        assertEquals(7, captor.getValue().pathInt("restaurantId"));
+        assertEquals(5, captor.getValue().queryInt("limit", 20));
+        assertEquals("2024-01-01 10:00:00", captor.getValue().query("afterCreatedAt"));
+
+        HttpResponse<String> order = post("/api/orders", "{\"items\":[]}", "abc");
+        assertEquals(201, order.statusCode());
+        assertEquals("{\"orderId\":42}", order.body());
+        verify(api).checkout(captor.capture());
+        assertEquals("abc", captor.getValue().getBearerToken());
+        assertEquals(List.of(), captor.getValue().bodyList("items"));
+    }
+
+    @Test
+    @DisplayName("Unknown paths, wrong methods and bad bodies get 404, 405 and 400")
+    void testRequestErrors() throws Exception {
+        start(4, 1000);
+
+        assertEquals(404, get("/api/nothing").statusCode());
+        assertEquals(405, get("/api/orders").statusCode());
+        HttpResponse<String> badJson = post("/api/cart/price", "{\"items\": [", null);
+        assertEquals(400, badJson.statusCode());
+        assertTrue(badJson.body().startsWith("{\"error\":\"Invalid JSON body"));
+        verifyNoInteractions(api);
+    }
+
+    @Test
+    @DisplayName("Application exceptions map to status codes")
+    void testExceptionMapping() throws Exception {
+        when(api.getRestaurant(any())).thenThrow(new ResourceNotFoundException("Restaurant not found: 9"));
+        when(api.login(any())).thenThrow(new AuthenticationException("Invalid username or password"));
+        when(api.priceCart(any())).thenThrow(new IllegalStateException("bug"));
+        when(api.getMenu(any())).thenThrow(new DatabaseException("Too many logins at once"));
+        start(4, 1000);
+
+        HttpResponse<String> notFound = get("/api/restaurants/9");
+        assertEquals(404, notFound.statusCode());
+        assertEquals("{\"error\":\"Restaurant not found: 9\"}", notFound.body());
+        assertEquals(401, post("/api/login", "{}", null).statusCode());
+        assertEquals(500, post("/api/cart/price", "{}", null).statusCode());
+        HttpResponse<String> busy = get("/api/restaurants/1/menu");
+        assertEquals(503, busy.statusCode());
+        assertEquals("1", busy.headers().firstValue("Retry-After").orElse(null));
+
+        assertEquals(400, ApiServer.statusOf(new ValidationException("x")));
+        assertEquals(402, ApiServer.statusOf(new PaymentException("x")));
+        assertEquals(503, ApiServer.statusOf(new DatabaseException("x")));
+    }
+
+    @Test
+    @DisplayName("Requests beyond the connection budget get 503 instead of queueing on the pool")
+    void testConcurrencyLimit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(api.listRestaurants(any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        start(1, 100);
+
+        CompletableFuture<HttpResponse<String>> first = client.sendAsync(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/api/restaurants")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getActiveRequests());
+
+        HttpResponse<String> rejected = get("/api/restaurants");
+        assertEquals(503, rejected.statusCode());
+        assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null));
+
+        release.countDown();
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, get("/api/restaurants").statusCode());
+    }
+
+    @Test
+    @DisplayName("Login does not wait for a database permit, cart pricing does")
+    void testRoutesWithoutPermit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(api.listRestaurants(any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(api.login(any())).thenReturn(Map.of("token", "t"));
+        start(1, 100);
+
+        CompletableFuture<HttpResponse<String>> first = client.sendAsync(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/api/restaurants")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertEquals(200, post("/api/login", "{}", null).statusCode());
+        assertEquals(1, server.getActiveRequests());
+        assertEquals(503, post("/api/cart/price", "{}", null).statusCode());
+        verify(api, never()).priceCart(any());
+
+        release.countDown();
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).statusCode());
+    }
+}
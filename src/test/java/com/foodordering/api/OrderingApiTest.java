@@ -0,0 +1,251 @@
+package com.foodordering.api;
+
+import com.foodordering.dao.CouponDAO;
+import com.foodordering.dao.MenuCache;
+import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.dao.OrderDAO;
+import com.foodordering.dao.RestaurantCatalog;
+import com.foodordering.dao.ReviewDAO;
+import com.foodordering.exceptions.AuthenticationException;
+import com.foodordering.exceptions.CartChangedException;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.PaymentException;
+import com.foodordering.exceptions.ResourceNotFoundException;
+import com.foodordering.exceptions.ValidationException;
+import com.foodordering.models.Coupon;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Order;
+import com.foodordering.models.User;
+import com.foodordering.services.PaymentService;
+import com.foodordering.services.UserService;
+import com.foodordering.utils.Json;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for OrderingApi endpoint logic using mocked DAOs and services.
+ */
+class OrderingApiTest {
+
+    private final RestaurantCatalog catalog = mock(RestaurantCatalog.class);
+    private final MenuItemDAO menuItemDAO = mock(MenuItemDAO.class);
+    private final CouponDAO couponDAO = mock(CouponDAO.class);
+    private final ReviewDAO reviewDAO = mock(ReviewDAO.class);
+    private final OrderDAO orderDAO = mock(OrderDAO.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final UserService userService = mock(UserService.class);
+
+    private OrderingApi api;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        api = new OrderingApi(catalog, menuItemDAO, couponDAO, reviewDAO, orderDAO, paymentService, userService, 60_000) {
+            @Override
+            int resolveCustomerId(User user) {
+                return 100 + user.getId();
+            }
+        };
+
+        MenuCache.Menu menu = mock(MenuCache.Menu.class);
+        MenuItem pizza = new MenuItem(1, 7, "Pizza", 10.00, null, true);
+        MenuItem cola = new MenuItem(2, 7, "Cola", 2.50, null, true);
+        when(menu.getItem(1)).thenReturn(pizza);
+        when(menu.getItem(2)).thenReturn(cola);
+        when(menuItemDAO.getMenuItemsByIds(any())).thenReturn(Map.of(1, pizza, 2, cola));
+        when(menu.getItem(3)).thenReturn(new MenuItem(3, 7, "Soup", 4.00, null, false));
+        MenuCache.Menu otherMenu = mock(MenuCache.Menu.class);
+        when(otherMenu.getItem(9)).thenReturn(new MenuItem(9, 8, "Sushi", 12.00, null, true));
+        when(menuItemDAO.getRestaurantIdForItem(anyIntBetween(1, 3))).thenReturn(7);
+        when(menuItemDAO.getRestaurantIdForItem(9)).thenReturn(8);
+        when(menuItemDAO.getMenu(7)).thenReturn(menu);
+        when(menuItemDAO.getMenu(8)).thenReturn(otherMenu);
+        when(couponDAO.getCouponByCode("HALF")).thenReturn(
+                new Coupon(5, "HALF", Coupon.Type.PERCENTAGE, 50, LocalDate.now().plusDays(1), true));
+        when(userService.loginUser("alice", "secret")).thenReturn(new User(1, "alice", "a@example.com", "Secret123!"));
+    }
+
+    private static int anyIntBetween(int from, int to) {
+        return intThat(i -> i >= from && i <= to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ApiRequest request(String json, String token) {
+        return new ApiRequest(Map.of(), Map.of(), (Map<String, Object>) Json.parse(json), token);
+    }
+
+    private String login() throws Exception {
+        return (String) ((Map<?, ?>) api.login(request("{\"username\":\"alice\",\"password\":\"secret\"}", null)))
+                .get("token");
+    }
+
+    @Test
+    @DisplayName("Cart is priced from the menu with the coupon applied")
+    void testPriceCart() throws Exception {
+        Map<?, ?> body = (Map<?, ?>) api.priceCart(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":2},{\"itemId\":2,\"quantity\":1},{\"itemId\":1,\"quantity\":1}],"
+                        + "\"couponCode\":\"HALF\"}", null));
+
+        assertEquals(7, body.get("restaurantId"));
+        assertEquals(new BigDecimal("32.50"), body.get("subtotal"));
+        assertEquals(new BigDecimal("16.25"), body.get("discount"));
+        assertEquals(new BigDecimal("16.25"), body.get("total"));
+        assertEquals(2, ((List<?>) body.get("items")).size());
+    }
+
+    @Test
+    @DisplayName("Invalid carts are rejected")
+    void testInvalidCarts() {
+        assertThrows(ValidationException.class, () -> api.priceCart(request("{\"items\":[]}", null)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> api.priceCart(request("{\"items\":[{\"itemId\":4,\"quantity\":1}]}", null)));
+        assertThrows(ValidationException.class,
+                () -> api.priceCart(request("{\"items\":[{\"itemId\":3,\"quantity\":1}]}", null)));
+        assertThrows(ValidationException.class,
+                () -> api.priceCart(request("{\"items\":[{\"itemId\":1,\"quantity\":0}]}", null)));
+        assertThrows(ValidationException.class,
+                () -> api.priceCart(request("{\"items\":[{\"itemId\":1,\"quantity\":1.5}]}", null)));
+        assertThrows(ValidationException.class,
+                () -> api.priceCart(request("{\"items\":[{\"itemId\":1,\"quantity\":1},{\"itemId\":9,\"quantity\":1}]}", null)));
+        assertThrows(ValidationException.class,
+                () -> api.priceCart(request("{\"items\":[{\"itemId\":1,\"quantity\":1}],\"couponCode\":\"NOPE\"}", null)));
+    }
+
+    @Test
+    @DisplayName("Checkout needs a login, saves the order, charges the server-side total and confirms the order")
+    void testCheckout() throws Exception {
+        String cart = "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"couponCode\":\"HALF\",\"payment\":{\"method\":\"cash\"}}";
+        assertThrows(AuthenticationException.class, () -> api.checkout(request(cart, null)));
+        assertThrows(AuthenticationException.class, () -> api.checkout(request(cart, "forged")));
+
+        String token = login();
+        when(paymentService.process(any(), eq(5.0))).thenReturn(true);
+        when(orderDAO.createOrder(any())).thenAnswer(inv -> {
+            inv.<Order>getArgument(0).setOrderId(42);
+            return true;
+        });
+        when(orderDAO.updateOrderStatus(42, "confirmed")).thenReturn(true);
+
+        Map<?, ?> body = (Map<?, ?>) api.checkout(request(cart, token));
+
+        assertEquals(42, body.get("orderId"));
+        assertEquals("confirmed", body.get("status"));
+        assertEquals(new BigDecimal("5.00"), body.get("total"));
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        InOrder sequence = inOrder(orderDAO, paymentService);
+        sequence.verify(orderDAO).createOrder(order.capture());
+        sequence.verify(paymentService).process(any(), eq(5.0));
+        sequence.verify(orderDAO).updateOrderStatus(42, "confirmed");
+        assertEquals(101, order.getValue().getCustomerId());
+        assertEquals(7, order.getValue().getRestaurantId());
+        assertEquals(5, order.getValue().getCouponId());
+        assertEquals(1, order.getValue().getItems().size());
+    }
+
+    @Test
+    @DisplayName("A declined payment cancels the saved order; an unknown payment method saves nothing")
+    void testCheckoutPaymentFailures() throws Exception {
+        String token = login();
+        when(paymentService.process(any(), anyDouble())).thenReturn(false);
+
+        assertThrows(ValidationException.class, () -> api.checkout(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"payment\":{\"method\":\"iou\"}}", token)));
+        verify(orderDAO, never()).createOrder(any());
+
+        when(orderDAO.createOrder(any())).thenAnswer(inv -> {
+            inv.<Order>getArgument(0).setOrderId(43);
+            return true;
+        });
+        assertThrows(PaymentException.class, () -> api.checkout(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"payment\":{\"method\":\"cash\"}}", token)));
+        verify(orderDAO).updateOrderStatus(43, "cancelled");
+        verify(orderDAO, never()).updateOrderStatus(43, "confirmed");
+    }
+
+    @Test
+    @DisplayName("An order that cannot be saved is never charged")
+    void testCheckoutSaveFailureDoesNotCharge() throws Exception {
+        String token = login();
+        when(orderDAO.createOrder(any())).thenReturn(false);
+
+        assertThrows(DatabaseException.class, () -> api.checkout(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"payment\":{\"method\":\"cash\"}}", token)));
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    @DisplayName("A charged order that cannot be confirmed is still reported as placed")
+    void testCheckoutConfirmFailureIsNotAnError() throws Exception {
+        String token = login();
+        when(paymentService.process(any(), anyDouble())).thenReturn(true);
+        when(orderDAO.createOrder(any())).thenAnswer(inv -> {
+            inv.<Order>getArgument(0).setOrderId(44);
+            return true;
+        });
+        when(orderDAO.updateOrderStatus(44, "confirmed")).thenReturn(false);
+
+        Map<?, ?> body = (Map<?, ?>) api.checkout(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"payment\":{\"method\":\"cash\"}}", token));
+
+        assertEquals(44, body.get("orderId"));
+        assertEquals("pending", body.get("status"));
+        verify(paymentService, times(1)).process(any(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Checkout re-reads prices from the database and rejects a cart priced from a stale menu")
+    void testCheckoutRevalidatesAgainstDatabase() throws Exception {
+        String token = login();
+        when(menuItemDAO.getMenuItemsByIds(List.of(1))).thenReturn(
+                Map.of(1, new MenuItem(1, 7, "Pizza", 11.00, null, true)));
+
+        CartChangedException e = assertThrows(CartChangedException.class, () -> api.checkout(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"payment\":{\"method\":\"cash\"}}", token)));
+
+        assertEquals(1, e.getRevalidation().getPriceChanges().size());
+        assertEquals(409, ApiServer.statusOf(e));
+        verify(orderDAO, never()).createOrder(any());
+        verifyNoInteractions(paymentService);
+
+        when(menuItemDAO.getMenuItemsByIds(List.of(1))).thenReturn(null);
+        assertThrows(DatabaseException.class, () -> api.checkout(request(
+                "{\"items\":[{\"itemId\":1,\"quantity\":1}],\"payment\":{\"method\":\"cash\"}}", token)));
+        verify(orderDAO, never()).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("Expired sessions are no longer accepted")
+    void testSessionExpiry() throws Exception {
+        api = new OrderingApi(catalog, menuItemDAO, couponDAO, reviewDAO, orderDAO, paymentService, userService, 1);
+        String token = login();
+        Thread.sleep(5);
+
+        assertThrows(AuthenticationException.class, () -> api.authenticate(request("{}", token)));
+    }
+
+    @Test
+    @DisplayName("A login flood keeps at most MAX_SESSIONS sessions, dropping the oldest")
+    void testSessionCap() throws Exception {
+        String first = login();
+        String last = null;
+        for (int i = 0; i < OrderingApi.MAX_SESSIONS; i++) {
+            last = login();
+        }
+
+        assertEquals(OrderingApi.MAX_SESSIONS, api.getSessionCount());
+        String dropped = first;
+        assertThrows(AuthenticationException.class, () -> api.authenticate(request("{}", dropped)));
+        assertEquals("alice", api.authenticate(request("{}", last)).getUsername());
+    }
+}
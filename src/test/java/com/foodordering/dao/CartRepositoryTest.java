@@ -0,0 +1,120 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.CartItem;
+import com.foodordering.models.CartSnapshot;
+import com.foodordering.performance.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the saved-cart queries used by CartRepository, run against the
+ * embedded H2 database.
+ */
+class CartRepositoryTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:cart_repository;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = EmbeddedDatabase.connect(URL);
+        EmbeddedDatabase.loadSchema(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO users (user_id, username, email, password_hash) VALUES " +
+                    "(1, 'a', 'a@example.com', 'x'), (2, 'b', 'b@example.com', 'x')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static CartSnapshot snapshot(int userId, String coupon, CartItem... items) {
+        return new CartSnapshot(userId, 0, coupon, List.of(items));
+    }
+
+    @Test
+    @DisplayName("Saved cart loads back with its lines in order, prices and coupon")
+    void testSaveAndLoad() throws SQLException {
+        CartRepository.saveAll(conn, List.of(snapshot(1, "SAVE10",
+                new CartItem(7, "Soda", 1.50, 3), new CartItem(2, "Pizza", 9.99, 1))));
+
+        CartSnapshot loaded = CartRepository.load(conn, 1);
+
+        assertEquals("SAVE10", loaded.getCouponCode());
+        assertEquals(List.of(7, 2), loaded.getItems().stream().map(CartItem::getItemId).toList());
+        assertEquals(150, loaded.getItems().get(0).getUnitPriceCents());
+        assertEquals(3, loaded.getItems().get(0).getQuantity());
+        assertEquals("Pizza", loaded.getItems().get(1).getName());
+        assertEquals(999, loaded.getItems().get(1).getUnitPriceCents());
+    }
+
+    @Test
+    @DisplayName("Saving again replaces the lines, and an empty cart deletes the saved one")
+    void testReplaceAndDelete() throws SQLException {
+        CartRepository.saveAll(conn, List.of(snapshot(1, "SAVE10", new CartItem(1, "Pizza", 10.0, 1),
+                new CartItem(2, "Soda", 1.0, 1))));
+        CartRepository.saveAll(conn, List.of(snapshot(1, null, new CartItem(2, "Soda", 1.0, 4))));
+
+        CartSnapshot loaded = CartRepository.load(conn, 1);
+        assertNull(loaded.getCouponCode());
+        assertEquals(1, loaded.getItems().size());
+        assertEquals(4, loaded.getItems().get(0).getQuantity());
+
+        CartRepository.saveAll(conn, List.of(snapshot(1, null)));
+        assertTrue(CartRepository.load(conn, 1).isEmpty());
+        assertEquals(0, count("SELECT COUNT(*) FROM carts"));
+        assertEquals(0, count("SELECT COUNT(*) FROM cart_items"));
+    }
+
+    @Test
+    @DisplayName("Several carts are saved in one call")
+    void testSaveSeveralCarts() throws SQLException {
+        CartRepository.saveAll(conn, List.of(
+                snapshot(2, null, new CartItem(1, "Pizza", 10.0, 2)),
+                snapshot(1, null, new CartItem(1, "Pizza", 10.0, 1), new CartItem(3, "Salad", 6.0, 1))));
+
+        assertEquals(2, count("SELECT COUNT(*) FROM carts"));
+        assertEquals(3, count("SELECT COUNT(*) FROM cart_items"));
+        assertEquals(2, CartRepository.load(conn, 2).getItems().get(0).getQuantity());
+    }
+
+    @Test
+    @DisplayName("A user without a saved cart loads as empty")
+    void testLoadMissingCart() throws SQLException {
+        CartSnapshot loaded = CartRepository.load(conn, 2);
+
+        assertTrue(loaded.isEmpty());
+        assertNull(loaded.getCouponCode());
+    }
+
+    @Test
+    @DisplayName("A cart of an unknown user is rejected")
+    void testUnknownUser() {
+        assertThrows(SQLException.class, () ->
+                CartRepository.saveAll(conn, List.of(snapshot(99, null, new CartItem(1, "Pizza", 10.0, 1)))));
+    }
+}
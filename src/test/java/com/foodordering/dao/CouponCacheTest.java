@@ -0,0 +1,159 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.Coupon;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CouponCache with a fake loader and a controllable clock.
+ */
+class CouponCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    /** Clock that only moves when the test advances it. */
+    private static final class TestClock extends Clock {
+        private long millis;
+
+        private TestClock(LocalDateTime start) {
+            this.millis = start.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+
+        void advance(long deltaMillis) {
+            millis += deltaMillis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final TestClock clock = new TestClock(TODAY.atTime(12, 0));
+
+    private Coupon load(String code) {
+        loads.incrementAndGet();
+        return "SAVE10".equals(code)
+                ? new Coupon(7, "SAVE10", Coupon.Type.PERCENTAGE, 10, TODAY.plusDays(10), true)
+                : null;
+    }
+
+    @Test
+    @DisplayName("Codes differing in case and whitespace share one entry")
+    void testNormalizedHit() {
+        CouponCache cache = new CouponCache(60_000, 1_000, 100, clock);
+
+        assertEquals(7, cache.get(" save10 ", this::load).getCouponId());
+        assertEquals(7, cache.get("SAVE10", this::load).getCouponId());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNull(cache.get("   ", this::load));
+    }
+
+    @Test
+    @DisplayName("Unknown codes are cached for the negative TTL only")
+    void testNegativeCaching() {
+        CouponCache cache = new CouponCache(60_000, 1_000, 100, clock);
+
+        assertNull(cache.get("TYPO", this::load));
+        assertNull(cache.get("typo", this::load));
+        assertEquals(1, loads.get());
+
+        clock.advance(1_000);
+        assertNull(cache.get("TYPO", this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Entries do not outlive the coupon's valid_until day")
+    void testExpiryBoundedByValidUntil() {
+        TestClock lateClock = new TestClock(TODAY.atTime(23, 59, 59));
+        CouponCache cache = new CouponCache(300_000, 0, 100, lateClock);
+        CouponCache.Loader endsToday = code -> {
+            loads.incrementAndGet();
+            return new Coupon(1, "LASTDAY", Coupon.Type.PERCENTAGE, 5, TODAY, true);
+        };
+
+        assertTrue(cache.get("LASTDAY", endsToday).isActive());
+        cache.get("LASTDAY", endsToday);
+        assertEquals(1, loads.get());
+
+        lateClock.advance(1_000);
+        cache.get("LASTDAY", endsToday);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Invalidation by code or id forces a reload")
+    void testInvalidate() {
+        CouponCache cache = new CouponCache(60_000, 60_000, 100, clock);
+
+        cache.get("SAVE10", this::load);
+        cache.invalidate("save10");
+        cache.get("SAVE10", this::load);
+        cache.invalidate(7);
+        cache.get("SAVE10", this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Database errors are not cached")
+    void testLoadFailureNotCached() {
+        CouponCache cache = new CouponCache(60_000, 60_000, 100, clock);
+        CouponCache.Loader failing = code -> {
+            loads.incrementAndGet();
+            throw new SQLException("connection lost");
+        };
+
+        assertNull(cache.get("SAVE10", failing));
+        assertEquals(0, cache.size());
+        assertNotNull(cache.get("SAVE10", this::load));
+    }
+
+    @Test
+    @DisplayName("Callers get their own copy of a cached coupon")
+    void testReturnsCopies() {
+        CouponCache cache = new CouponCache(60_000, 0, 100, clock);
+
+        cache.get("SAVE10", this::load).setActive(false);
+
+        assertTrue(cache.get("SAVE10", this::load).isActive());
+    }
+
+    @Test
+    @DisplayName("The number of cached codes is bounded")
+    void testBounded() {
+        CouponCache cache = new CouponCache(60_000, 60_000, 3, clock);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("TYPO" + i, this::load);
+        }
+
+        assertTrue(cache.size() <= 3);
+    }
+}
@@ -0,0 +1,117 @@
+package com.foodordering.dao;
+
+import com.foodordering.performance.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the customer upsert used by CustomerDAO, run against the
+ * embedded H2 database.
+ */
+class CustomerDAOTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:customer_dao;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = EmbeddedDatabase.connect(URL);
+        EmbeddedDatabase.loadSchema(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO users (user_id, username, email, password_hash) VALUES " +
+                    "(1, 'a', 'a@example.com', 'x'), (2, 'b', 'b@example.com', 'x'), (3, 'c', 'c@example.com', 'x')");
+            stmt.execute("INSERT INTO customers (customer_id, user_id, address, phone) VALUES (10, 1, '1 Main St', '555-0100')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    private int customerRows(int userId) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM customers WHERE user_id = " + userId)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Upsert returns the existing customer and leaves its details alone")
+    void testUpsertExistingCustomer() throws SQLException {
+        assertEquals(10, CustomerDAO.upsertCustomerId(conn, 1));
+        assertEquals(1, customerRows(1));
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT address, phone FROM customers WHERE customer_id = 10")) {
+            assertTrue(rs.next());
+            assertEquals("1 Main St", rs.getString(1));
+            assertEquals("555-0100", rs.getString(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Upsert creates a minimal customer once and then keeps returning it")
+    void testUpsertCreatesOnce() throws SQLException {
+        int created = CustomerDAO.upsertCustomerId(conn, 2);
+
+        assertTrue(created > 0);
+        assertNotEquals(10, created);
+        assertEquals(created, CustomerDAO.upsertCustomerId(conn, 2));
+        assertEquals(created, CustomerDAO.selectCustomerId(conn, 2));
+        assertEquals(1, customerRows(2));
+    }
+
+    @Test
+    @DisplayName("Select does not create a customer")
+    void testSelectMissingCustomer() throws SQLException {
+        assertEquals(0, CustomerDAO.selectCustomerId(conn, 3));
+        assertEquals(0, customerRows(3));
+    }
+
+    @Test
+    @DisplayName("Concurrent upserts for one user agree on a single customer")
+    void testConcurrentUpserts() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> {
+                    try (Connection own = EmbeddedDatabase.connect(URL)) {
+                        return CustomerDAO.upsertCustomerId(own, 3);
+                    }
+                });
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (Future<Integer> future : pool.invokeAll(tasks)) {
+                ids.add(future.get());
+            }
+            assertEquals(1, ids.size(), "Every caller should get the same customer id");
+            assertEquals(1, customerRows(3));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
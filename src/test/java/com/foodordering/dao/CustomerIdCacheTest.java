@@ -0,0 +1,82 @@
+package com.foodordering.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerIdCacheTest {
+
+    @Test
+    @DisplayName("Cached ids are returned and counted as hits")
+    void testGetAndPut() {
+        CustomerIdCache cache = new CustomerIdCache(10);
+
+        assertEquals(0, cache.get(1));
+        cache.put(1, 10);
+
+        assertEquals(10, cache.get(1));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Users without a customer are not cached")
+    void testIgnoresMissingCustomers() {
+        CustomerIdCache cache = new CustomerIdCache(10);
+
+        cache.put(1, 0);
+        cache.put(0, 5);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("A full cache keeps its entries and refuses new users")
+    void testBound() {
+        CustomerIdCache cache = new CustomerIdCache(2);
+        cache.put(1, 10);
+        cache.put(2, 20);
+        cache.put(3, 30);
+        cache.put(2, 21);
+
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.get(3));
+        assertEquals(21, cache.get(2));
+    }
+
+    @Test
+    @DisplayName("Invalidate and clear drop entries")
+    void testInvalidate() {
+        CustomerIdCache cache = new CustomerIdCache(10);
+        cache.put(1, 10);
+        cache.put(2, 20);
+
+        cache.invalidate(1);
+        assertEquals(0, cache.get(1));
+        assertEquals(20, cache.get(2));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new CustomerIdCache(0));
+    }
+
+    @Test
+    @DisplayName("A constraint violation on a write drops the customer, other failures do not")
+    void testWriteFailed() {
+        CustomerIdCache cache = new CustomerIdCache(10);
+        cache.put(1, 10);
+        cache.put(2, 20);
+
+        cache.writeFailed(10, new SQLException("Communications link failure", "08S01"));
+        assertEquals(10, cache.get(1));
+
+        cache.writeFailed(10, new SQLException("Cannot add or update a child row", "23000"));
+        assertEquals(0, cache.get(1));
+        cache.writeFailed(20, new SQLIntegrityConstraintViolationException("foreign key"));
+        assertEquals(0, cache.size());
+    }
+}
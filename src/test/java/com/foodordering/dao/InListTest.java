@@ -0,0 +1,49 @@
+package com.foodordering.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the padded IN lists.
+ */
+class InListTest {
+
+    @Test
+    @DisplayName("Lengths are rounded up to a power of two, at least eight")
+    void testPaddedSize() {
+        assertEquals(8, InList.paddedSize(1));
+        assertEquals(8, InList.paddedSize(8));
+        assertEquals(16, InList.paddedSize(9));
+        assertEquals(32, InList.paddedSize(17));
+        assertEquals(64, InList.paddedSize(64));
+        assertThrows(IllegalArgumentException.class, () -> InList.paddedSize(0));
+    }
+
+    @Test
+    @DisplayName("Lists of different lengths in one bucket share the SQL text")
+    void testPlaceholders() {
+        assertEquals("?, ?, ?, ?, ?, ?, ?, ?", InList.placeholders(3));
+        assertEquals(InList.placeholders(9), InList.placeholders(16));
+        assertNotEquals(InList.placeholders(16), InList.placeholders(17));
+    }
+
+    @Test
+    @DisplayName("Spare placeholders repeat the last id")
+    void testBind() throws Exception {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+
+        assertEquals(10, InList.bind(stmt, 2, List.of(5, 7)));
+
+        verify(stmt).setInt(2, 5);
+        for (int index = 3; index <= 9; index++) {
+            verify(stmt).setInt(index, 7);
+        }
+        verifyNoMoreInteractions(stmt);
+    }
+}
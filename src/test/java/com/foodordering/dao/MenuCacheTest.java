@@ -0,0 +1,183 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.MenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MenuCache using a mocked MenuItemDAO loader.
+ */
+class MenuCacheTest {
+
+    private MenuItemDAO dao;
+    private MenuCache cache;
+
+    private static List<MenuItem> menu(int restaurantId) {
+        List<MenuItem> items = new ArrayList<>();
+        items.add(new MenuItem(restaurantId * 10 + 1, restaurantId, "Burger", 8.99, "Beef", true));
+        items.add(new MenuItem(restaurantId * 10 + 2, restaurantId, "Fries", 2.99, "Salted", false));
+        items.add(new MenuItem(restaurantId * 10 + 3, restaurantId, "Shake", 3.49, "Vanilla", true));
+        return items;
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dao = mock(MenuItemDAO.class);
+        when(dao.loadMenuItemsByRestaurant(anyInt())).thenAnswer(inv -> menu(inv.getArgument(0)));
+        cache = new MenuCache(2);
+    }
+
+    @Test
+    @DisplayName("Menu is loaded once and then served from memory")
+    void testReadThrough() throws SQLException {
+        MenuCache.Menu first = cache.getMenu(1, dao);
+        MenuCache.Menu second = cache.getMenu(1, dao);
+
+        assertSame(first, second);
+        assertEquals(3, first.size());
+        assertEquals(2, first.getAvailableItems().size());
+        assertEquals("Fries", first.getItem(12).getName());
+        verify(dao, times(1)).loadMenuItemsByRestaurant(1);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Added item is inserted in name order without reloading")
+    void testItemAdded() throws SQLException {
+        MenuCache.Menu before = cache.getMenu(1, dao);
+        MenuItem added = new MenuItem(99, 1, "Cola", 1.99, "Cold", true);
+
+        cache.itemAdded(added);
+        added.setName("Changed by caller");
+        MenuCache.Menu after = cache.getMenu(1, dao);
+
+        assertEquals(3, before.size(), "Existing snapshot must not change");
+        assertEquals("Cola", after.getItems().get(1).getName());
+        assertEquals("Cola", cache.findItem(99).getName());
+        verify(dao, times(1)).loadMenuItemsByRestaurant(1);
+    }
+
+    @Test
+    @DisplayName("Updated item replaces the cached copy")
+    void testItemUpdated() {
+        cache.getMenu(1, dao);
+
+        cache.itemUpdated(new MenuItem(12, 1, "Fries", 3.49, "Salted", true));
+        MenuCache.Menu menu = cache.getMenu(1, dao);
+
+        assertEquals(3, menu.size());
+        assertEquals(3.49, menu.getItem(12).getPrice(), 0.001);
+        assertEquals(3, menu.getAvailableItems().size());
+    }
+
+    @Test
+    @DisplayName("Deleted item disappears from the menu and the index")
+    void testItemDeleted() {
+        cache.getMenu(1, dao);
+
+        cache.itemDeleted(11);
+        MenuCache.Menu menu = cache.getMenu(1, dao);
+
+        assertEquals(2, menu.size());
+        assertNull(menu.getItem(11));
+        assertNull(cache.findItem(11));
+    }
+
+    @Test
+    @DisplayName("Least recently used restaurant is evicted")
+    void testLruEviction() throws SQLException {
+        cache.getMenu(1, dao);
+        cache.getMenu(2, dao);
+        cache.getMenu(1, dao);
+        cache.getMenu(3, dao);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.findItem(21), "Restaurant 2 should have been evicted");
+        assertNotNull(cache.findItem(11));
+        cache.getMenu(2, dao);
+        verify(dao, times(2)).loadMenuItemsByRestaurant(2);
+    }
+
+    @Test
+    @DisplayName("Failed load is not cached")
+    void testFailedLoadNotCached() throws SQLException {
+        when(dao.loadMenuItemsByRestaurant(5)).thenThrow(new SQLException("down"));
+
+        assertEquals(0, cache.getMenu(5, dao).size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Returned lists and items cannot be modified")
+    void testUnmodifiable() {
+        MenuCache.Menu menu = cache.getMenu(1, dao);
+        assertThrows(UnsupportedOperationException.class, () -> menu.getItems().clear());
+        assertThrows(UnsupportedOperationException.class, () -> menu.getAvailableItems().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> menu.getItem(11).setPrice(0.01));
+        assertThrows(UnsupportedOperationException.class, () -> cache.findItem(12).setAvailable(true));
+        assertEquals(8.99, cache.getMenu(1, dao).getItem(11).getPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Repeated hits on one menu do not protect a menu used less recently")
+    void testEvictionAfterRepeatedHits() throws SQLException {
+        cache.getMenu(1, dao);
+        cache.getMenu(2, dao);
+        cache.getMenu(2, dao);
+        cache.getMenu(2, dao);
+        cache.getMenu(3, dao);
+
+        assertNull(cache.findItem(11), "Restaurant 1 should have been evicted");
+        assertNotNull(cache.findItem(21));
+        assertNotNull(cache.findItem(31));
+    }
+
+    @Test
+    @DisplayName("Expired menu is reloaded and its items are not served")
+    void testExpiry() throws SQLException {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(1_000L);
+        cache = new MenuCache(2, 60_000, clock);
+        MenuCache.Menu first = cache.getMenu(1, dao);
+
+        when(clock.millis()).thenReturn(60_999L);
+        assertSame(first, cache.getMenu(1, dao));
+        assertNotNull(cache.findItem(11));
+
+        when(clock.millis()).thenReturn(61_000L);
+        assertNull(cache.findItem(11), "Items of an expired menu should not be served");
+        MenuCache.Menu reloaded = cache.getMenu(1, dao);
+        assertNotSame(first, reloaded);
+        assertNotNull(cache.findItem(11));
+        verify(dao, times(2)).loadMenuItemsByRestaurant(1);
+    }
+
+    @Test
+    @DisplayName("Item index follows items moved between restaurants and invalidation")
+    void testItemIndex() {
+        cache.getMenu(1, dao);
+        cache.getMenu(2, dao);
+
+        cache.itemAdded(new MenuItem(50, 2, "Soup", 4.50, "Hot", true));
+        assertEquals(2, cache.findItem(50).getRestaurantId());
+        cache.itemUpdated(new MenuItem(50, 1, "Soup", 4.50, "Hot", true));
+        assertNull(cache.findItem(50), "A restaurant mismatch should drop the menu");
+        assertNull(cache.findItem(21));
+        assertNotNull(cache.findItem(11));
+
+        cache.invalidate(1);
+        assertNull(cache.findItem(11));
+        assertEquals(0, cache.size());
+    }
+}
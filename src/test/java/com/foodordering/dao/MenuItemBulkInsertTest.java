@@ -0,0 +1,95 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.MenuItem;
+import com.foodordering.performance.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the multi-row menu item inserts used by bulk imports,
+ * run against the embedded H2 database.
+ */
+class MenuItemBulkInsertTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:menu_bulk_insert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = EmbeddedDatabase.connect(URL);
+        EmbeddedDatabase.loadSchema(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO restaurants (restaurant_id, name) VALUES (1, 'One')");
+        }
+        conn.setAutoCommit(false);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    private int count(String where) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM menu_items WHERE " + where)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static List<MenuItem> items(int restaurantId, int count) {
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new MenuItem(0, restaurantId, "Item " + i, i + 0.25, i % 2 == 0 ? "desc" : null, i % 3 != 0));
+        }
+        return items;
+    }
+
+    @Test
+    @DisplayName("Items are inserted over several statements and transactions")
+    void testInsertsAllRows() throws SQLException {
+        int rows = MenuItemDAO.MAX_ROWS_PER_INSERT * 2 + 7;
+
+        assertEquals(rows, MenuItemDAO.insertRestaurantItems(conn, items(1, rows), 600));
+
+        assertEquals(rows, count("restaurant_id = 1"));
+        assertEquals(1, count("name = 'Item 5' AND price = 5.25 AND description IS NULL AND available = TRUE"));
+        assertEquals(1, count("name = 'Item 6' AND description = 'desc' AND available = FALSE"));
+    }
+
+    @Test
+    @DisplayName("A failing chunk is rolled back and later chunks are skipped")
+    void testStopsAtFailingChunk() throws SQLException {
+        List<MenuItem> items = items(1, 25);
+        // Violates the foreign key, so the second chunk of 10 fails
+        items.get(14).setRestaurantId(99);
+
+        assertEquals(10, MenuItemDAO.insertRestaurantItems(conn, items, 10));
+
+        assertEquals(10, count("1 = 1"));
+    }
+
+    @Test
+    @DisplayName("Multi-row INSERT has one placeholder group per row")
+    void testMultiRowSql() {
+        assertEquals("INSERT INTO menu_items (restaurant_id, name, price, description, available) VALUES "
+                + "(?, ?, ?, ?, ?), (?, ?, ?, ?, ?)", MenuItemDAO.multiRowMenuItemInsert(2));
+    }
+}
@@ -0,0 +1,82 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.MenuItem;
+import com.foodordering.performance.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the batch menu item lookup used to check cart prices at checkout,
+ * run against the embedded H2 database.
+ */
+class MenuItemLookupTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:menu_item_lookup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = EmbeddedDatabase.connect(URL);
+        EmbeddedDatabase.loadSchema(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO restaurants (restaurant_id, name) VALUES (1, 'One'), (2, 'Two')");
+            stmt.execute("INSERT INTO menu_items (item_id, restaurant_id, name, price, available) VALUES " +
+                    "(1, 1, 'Pizza', 10.99, TRUE), (2, 1, 'Soda', 1.50, FALSE), (3, 2, 'Salad', 6.00, TRUE)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    @DisplayName("All requested items come back from one query with current price and availability")
+    void testLoadsRequestedItems() throws SQLException {
+        Map<Integer, MenuItem> items = MenuItemDAO.loadMenuItemsByIds(conn, List.of(2, 1, 99));
+
+        assertEquals(2, items.size(), "Unknown ids are left out");
+        assertEquals(10.99, items.get(1).getPrice());
+        assertEquals(1, items.get(1).getRestaurantId());
+        assertFalse(items.get(2).isAvailable());
+        assertNull(items.get(99));
+    }
+
+    @Test
+    @DisplayName("A single id works too")
+    void testSingleItem() throws SQLException {
+        Map<Integer, MenuItem> items = MenuItemDAO.loadMenuItemsByIds(conn, List.of(3));
+
+        assertEquals("Salad", items.get(3).getName());
+    }
+
+    @Test
+    @DisplayName("More ids than fit in one query are looked up in several")
+    void testManyIds() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= MenuItemDAO.MAX_IDS_PER_QUERY * 2 + 5; id++) {
+            ids.add(id);
+        }
+        ids.add(3);
+
+        Map<Integer, MenuItem> items = MenuItemDAO.loadMenuItemsByIds(conn, ids);
+
+        assertEquals(List.of(1, 2, 3), items.keySet().stream().sorted().toList());
+    }
+}
@@ -1,6 +1,7 @@
 package com.foodordering.dao;
 
 import com.foodordering.models.Order;
+import com.foodordering.models.OrderHistoryEntry;
 import com.foodordering.models.OrderItem;
 import com.foodordering.models.User;
 import com.foodordering.utils.DatabaseConnection;
@@ -32,13 +33,12 @@ class OrderDAOTest {
         restaurantDAO = new RestaurantDAO();
         menuItemDAO = new MenuItemDAO();
         
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        
         // Create test user and customer
         User testUser = new User(0, "order_test_user", "order@test.com", "TestPass123");
         userDAO.registerUser(testUser);
         
-        try (Statement stmt = conn.createStatement()) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
             stmt.execute("INSERT INTO customers (user_id, address, phone) VALUES (" + testUser.getId() + ", '123 Test St', '555-1234')");
             var rs = stmt.executeQuery("SELECT LAST_INSERT_ID()");
             if (rs.next()) {
@@ -150,4 +150,53 @@ class OrderDAOTest {
         Order retrieved = orderDAO.getOrderById(order.getOrderId());
         assertEquals("confirmed", retrieved.getStatus());
     }
+
+    @Test
+    @org.junit.jupiter.api.Order(5)
+    @DisplayName("Test order history pages with restaurant name and item count")
+    void testGetOrderHistoryPage() {
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order(0, testCustomerId, testRestaurantId, 15.99, "pending", null);
+            order.addItem(new OrderItem(0, 0, testMenuItem1Id, i + 1, 15.99));
+            orderDAO.createOrder(order);
+        }
+
+        List<OrderHistoryEntry> first = orderDAO.getOrderHistoryPage(testCustomerId, 2);
+        List<OrderHistoryEntry> second = orderDAO.getOrderHistoryPage(testCustomerId, first.get(1), 2);
+        List<OrderHistoryEntry> third = orderDAO.getOrderHistoryPage(testCustomerId, second.get(1), 2);
+
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        assertEquals(1, third.size(), "Last page should hold the remaining order");
+        assertEquals("Order Test Restaurant", first.get(0).getRestaurantName());
+        assertEquals(5, first.get(0).getItemCount(), "Newest order has quantity 5");
+        assertEquals(1, third.get(0).getItemCount(), "Oldest order has quantity 1");
+        assertTrue(first.get(1).getOrderId() > second.get(0).getOrderId(), "Pages must not overlap");
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(6)
+    @DisplayName("Test batch create orders assigns ids and inserts items")
+    void testCreateOrders() {
+        List<Order> orders = new java.util.ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Order order = new Order(0, testCustomerId, testRestaurantId, 28.49, "pending", null);
+            order.addItem(new OrderItem(0, 0, testMenuItem1Id, 1, 15.99));
+            order.addItem(new OrderItem(0, 0, testMenuItem2Id, 1, 12.50));
+            orders.add(order);
+        }
+
+        int created = orderDAO.createOrders(orders, 3);
+
+        assertEquals(7, created, "All orders should be committed");
+        for (int i = 0; i < orders.size(); i++) {
+            assertTrue(orders.get(i).getOrderId() > 0, "Order ID should be set");
+            if (i > 0) {
+                assertTrue(orders.get(i).getOrderId() > orders.get(i - 1).getOrderId(), "IDs follow insert order");
+            }
+        }
+        Order retrieved = orderDAO.getOrderById(orders.get(6).getOrderId());
+        assertNotNull(retrieved);
+        assertEquals(2, retrieved.getItems().size(), "Items should be attached to the right order");
+    }
 }
@@ -0,0 +1,92 @@
+package com.foodordering.dao;
+
+import com.foodordering.performance.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the CSV order export, run against the embedded H2 database.
+ */
+class OrderExporterTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:order_export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = EmbeddedDatabase.connect(URL);
+        EmbeddedDatabase.loadSchema(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO users (user_id, username, email, password_hash) VALUES " +
+                    "(1, 'alice', 'a@example.com', 'x')");
+            stmt.execute("INSERT INTO customers (customer_id, user_id, phone) VALUES (1, 1, '555-0100')");
+            stmt.execute("INSERT INTO restaurants (restaurant_id, name) VALUES (1, 'Pizza, \"Best\" in town')");
+            stmt.execute("INSERT INTO menu_items (item_id, restaurant_id, name, price) VALUES " +
+                    "(1, 1, 'Margherita', 8.50), (2, 1, 'Cola', 2.00)");
+            stmt.execute("INSERT INTO orders (order_id, customer_id, restaurant_id, total_price, created_at) VALUES " +
+                    "(1, 1, 1, 19.00, '2024-01-31 23:59:59'), " +
+                    "(2, 1, 1, 2.00, '2024-02-01 00:00:00'), " +
+                    "(3, 1, 1, 0.00, '2024-02-15 12:00:00')");
+            stmt.execute("INSERT INTO order_items (order_item_id, order_id, item_id, quantity, unit_price) VALUES " +
+                    "(1, 1, 1, 2, 8.50), (2, 1, 2, 1, 2.00), (3, 2, 2, 1, 2.00)");
+            stmt.execute("INSERT INTO payments (order_id, payment_method, amount, status) VALUES " +
+                    "(1, 'cash', 19.00, 'completed')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    @DisplayName("One line per order item, orders without items included, fields escaped")
+    void testExportAll() throws Exception {
+        StringWriter out = new StringWriter();
+
+        long rows = new OrderExporter().exportCsv(conn, out, null, null);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, rows);
+        assertEquals(5, lines.length);
+        assertEquals(String.join(",", OrderExporter.COLUMNS), lines[0]);
+        assertTrue(lines[1].startsWith("1,2024-01-31 23:59:59"));
+        assertTrue(lines[1].contains(",alice,555-0100,1,\"Pizza, \"\"Best\"\" in town\",19.00,pending,,cash,completed,"));
+        assertTrue(lines[1].endsWith(",1,1,Margherita,2,8.50,17.00"));
+        assertTrue(lines[2].endsWith(",2,2,Cola,1,2.00,2.00"));
+        assertTrue(lines[3].startsWith("2,"));
+        // Order 3 has no items and no payment
+        assertTrue(lines[4].startsWith("3,"));
+        assertTrue(lines[4].endsWith(",pending,,,,,,,,,"));
+    }
+
+    @Test
+    @DisplayName("Date range includes from and excludes to")
+    void testDateRange() throws Exception {
+        OrderExporter exporter = new OrderExporter();
+        LocalDateTime february = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime march = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        StringWriter out = new StringWriter();
+        assertEquals(2, exporter.exportCsv(conn, out, february, march));
+        assertFalse(out.toString().contains("\n1,"));
+
+        assertEquals(2, exporter.exportCsv(conn, new StringWriter(), null, february));
+        assertEquals(0, exporter.exportCsv(conn, new StringWriter(), march, null));
+    }
+}
@@ -0,0 +1,106 @@
+package com.foodordering.dao;
+
+import com.foodordering.performance.EmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the restaurant rating aggregate SQL used by ReviewDAO,
+ * run against the embedded H2 database.
+ */
+class RatingAggregatesTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:rating_aggregates;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = EmbeddedDatabase.connect(URL);
+        EmbeddedDatabase.loadSchema(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO users (user_id, username, email, password_hash) VALUES " +
+                    "(1, 'a', 'a@example.com', 'x'), (2, 'b', 'b@example.com', 'x')");
+            stmt.execute("INSERT INTO customers (customer_id, user_id) VALUES (1, 1), (2, 2)");
+            stmt.execute("INSERT INTO restaurants (restaurant_id, name) VALUES (1, 'One'), (2, 'Two')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    private double[] aggregates(int restaurantId) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT review_count, rating_sum, rating FROM restaurants WHERE restaurant_id = " + restaurantId)) {
+            assertTrue(rs.next());
+            return new double[] {rs.getInt(1), rs.getInt(2), rs.getDouble(3)};
+        }
+    }
+
+    @Test
+    @DisplayName("Add, update and delete deltas keep count, sum and rating in step")
+    void testApplyRatingDelta() throws SQLException {
+        ReviewDAO.applyRatingDelta(conn, 1, 1, 5);
+        ReviewDAO.applyRatingDelta(conn, 1, 1, 3);
+        assertArrayEquals(new double[] {2, 8, 4.0}, aggregates(1));
+
+        ReviewDAO.applyRatingDelta(conn, 1, 0, 4 - 3);
+        assertArrayEquals(new double[] {2, 9, 4.5}, aggregates(1));
+
+        ReviewDAO.applyRatingDelta(conn, 1, -1, -5);
+        assertArrayEquals(new double[] {1, 4, 4.0}, aggregates(1));
+
+        ReviewDAO.applyRatingDelta(conn, 1, -1, -4);
+        assertArrayEquals(new double[] {0, 0, 0.0}, aggregates(1));
+        assertArrayEquals(new double[] {0, 0, 0.0}, aggregates(2));
+    }
+
+    @Test
+    @DisplayName("A delta for an unknown restaurant updates nothing")
+    void testApplyRatingDeltaUnknownRestaurant() throws SQLException {
+        assertEquals(1, ReviewDAO.applyRatingDelta(conn, 1, 1, 5));
+        assertEquals(0, ReviewDAO.applyRatingDelta(conn, 99, 1, 5));
+    }
+
+    @Test
+    @DisplayName("Rating is rounded to two decimals")
+    void testRounding() throws SQLException {
+        ReviewDAO.applyRatingDelta(conn, 1, 1, 5);
+        ReviewDAO.applyRatingDelta(conn, 1, 1, 4);
+        ReviewDAO.applyRatingDelta(conn, 1, 1, 4);
+
+        assertEquals(4.33, aggregates(1)[2], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Consistency check finds drift and rebuild repairs it")
+    void testCheckAndRebuild() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Written without going through ReviewDAO, so the aggregates are not adjusted
+            stmt.execute("INSERT INTO reviews (restaurant_id, customer_id, rating) VALUES (2, 1, 5), (2, 2, 2)");
+        }
+        assertEquals(List.of(2), ReviewDAO.findInconsistentRatingAggregates(conn));
+
+        assertEquals(2, ReviewDAO.rebuildRatingAggregates(conn));
+
+        assertTrue(ReviewDAO.findInconsistentRatingAggregates(conn).isEmpty());
+        assertArrayEquals(new double[] {2, 7, 3.5}, aggregates(2));
+    }
+}
@@ -0,0 +1,125 @@
+package com.foodordering.dao;
+
+import com.foodordering.models.Restaurant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RestaurantCatalog using a mocked RestaurantDAO.
+ */
+class RestaurantCatalogTest {
+
+    private RestaurantDAO dao;
+
+    private static List<Restaurant> restaurants() {
+        List<Restaurant> list = new ArrayList<>();
+        list.add(new Restaurant(1, "Burger Palace", "1 Main St", "555-0001", 4.5));
+        list.add(new Restaurant(2, "Pizza Corner", "2 Main St", "555-0002", 4.0));
+        return list;
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dao = mock(RestaurantDAO.class);
+        when(dao.loadAllRestaurants()).thenAnswer(inv -> restaurants());
+    }
+
+    @Test
+    @DisplayName("Reads within the TTL are served from one snapshot")
+    void testSnapshotReused() throws SQLException {
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 60_000);
+
+        assertEquals(2, catalog.getAllRestaurants().size());
+        assertEquals("Pizza Corner", catalog.getRestaurantName(2));
+        assertNotNull(catalog.getRestaurantById(1));
+
+        verify(dao, times(1)).loadAllRestaurants();
+    }
+
+    @Test
+    @DisplayName("Snapshot is reloaded once the TTL has expired")
+    void testTtlExpiry() throws Exception {
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 1);
+
+        catalog.getAllRestaurants();
+        Thread.sleep(5);
+        catalog.getAllRestaurants();
+
+        verify(dao, times(2)).loadAllRestaurants();
+    }
+
+    @Test
+    @DisplayName("Writes through the catalog invalidate the snapshot")
+    void testWriteInvalidates() throws SQLException {
+        when(dao.addRestaurant(any())).thenAnswer(inv -> {
+            RestaurantCatalog.invalidateAll();
+            return true;
+        });
+        when(dao.deleteRestaurant(anyInt())).thenAnswer(inv -> {
+            RestaurantCatalog.invalidateAll();
+            return true;
+        });
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 60_000);
+
+        catalog.getAllRestaurants();
+        assertTrue(catalog.addRestaurant(new Restaurant(3, "Sushi Bar", "3 Main St", "555-0003", 4.8)));
+        catalog.getAllRestaurants();
+        assertTrue(catalog.deleteRestaurant(3));
+        catalog.getAllRestaurants();
+
+        verify(dao, times(3)).loadAllRestaurants();
+    }
+
+    @Test
+    @DisplayName("invalidate() forces a reload on the next read")
+    void testExplicitInvalidate() throws SQLException {
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 60_000);
+
+        catalog.getAllRestaurants();
+        catalog.invalidate();
+        catalog.getAllRestaurants();
+
+        verify(dao, times(2)).loadAllRestaurants();
+    }
+
+    @Test
+    @DisplayName("Unknown id returns null and the placeholder name")
+    void testMissingRestaurant() {
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 60_000);
+
+        assertNull(catalog.getRestaurantById(99));
+        assertEquals("Unknown", catalog.getRestaurantName(99));
+    }
+
+    @Test
+    @DisplayName("Returned list cannot be modified")
+    void testUnmodifiableList() {
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 60_000);
+        List<Restaurant> list = catalog.getAllRestaurants();
+
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+    }
+
+    @Test
+    @DisplayName("Failed load shows no restaurants and is not cached")
+    void testFailedLoadNotCached() throws SQLException {
+        when(dao.loadAllRestaurants())
+                .thenThrow(new SQLException("connection refused"))
+                .thenAnswer(inv -> restaurants());
+        RestaurantCatalog catalog = new RestaurantCatalog(dao, 60_000);
+
+        assertTrue(catalog.getAllRestaurants().isEmpty());
+        assertEquals(2, catalog.getAllRestaurants().size());
+        verify(dao, times(2)).loadAllRestaurants();
+    }
+}
@@ -23,6 +23,8 @@ class ReviewDAOTest {
 
     private static int testUserId;
     private static int testCustomerId;
+    private static int secondUserId;
+    private static int secondCustomerId;
     private static int testRestaurantId;
 
     @BeforeAll
@@ -31,21 +33,17 @@ class ReviewDAOTest {
         userDAO = new UserDAO();
         restaurantDAO = new RestaurantDAO();
 
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-
         // Create test user and customer
         User testUser = new User(0, "review_test_user", "review@test.com", "TestPass123");
         userDAO.registerUser(testUser);
         testUserId = testUser.getId();
+        testCustomerId = addCustomer(testUserId, "111 Review St");
 
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute("INSERT INTO customers (user_id, address, phone) VALUES (" + testUserId + ", '111 Review St', '555-1111')");
-            var rs = stmt.executeQuery("SELECT LAST_INSERT_ID()");
-            if (rs.next()) {
-                testCustomerId = rs.getInt(1);
-            }
-            rs.close();
-        }
+        // A customer may review a restaurant once, so paging needs a second one
+        User secondUser = new User(0, "review_test_user2", "review2@test.com", "TestPass123");
+        userDAO.registerUser(secondUser);
+        secondUserId = secondUser.getId();
+        secondCustomerId = addCustomer(secondUserId, "112 Review St");
 
         // Create test restaurant
         Restaurant testRestaurant = new Restaurant(0, "Review Test Restaurant", "222 Test Ave", "555-2222", 0.0);
@@ -53,11 +51,21 @@ class ReviewDAOTest {
         testRestaurantId = testRestaurant.getRestaurantId();
     }
 
+    private static int addCustomer(int userId, String address) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO customers (user_id, address, phone) VALUES (" + userId + ", '" + address + "', '555-1111')");
+            try (var rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
     @AfterEach
     void cleanup() throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement()) {
-            stmt.execute("DELETE FROM reviews WHERE customer_id = " + testCustomerId);
+            stmt.execute("DELETE FROM reviews WHERE customer_id IN (" + testCustomerId + ", " + secondCustomerId + ")");
         }
     }
 
@@ -65,10 +73,10 @@ class ReviewDAOTest {
     static void teardown() throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              Statement stmt = conn.createStatement()) {
-            stmt.execute("DELETE FROM reviews WHERE customer_id = " + testCustomerId);
+            stmt.execute("DELETE FROM reviews WHERE customer_id IN (" + testCustomerId + ", " + secondCustomerId + ")");
             stmt.execute("DELETE FROM restaurants WHERE restaurant_id = " + testRestaurantId);
-            stmt.execute("DELETE FROM customers WHERE customer_id = " + testCustomerId);
-            stmt.execute("DELETE FROM users WHERE user_id = " + testUserId);
+            stmt.execute("DELETE FROM customers WHERE customer_id IN (" + testCustomerId + ", " + secondCustomerId + ")");
+            stmt.execute("DELETE FROM users WHERE user_id IN (" + testUserId + ", " + secondUserId + ")");
         }
         DatabaseConnection.getInstance().closeConnection();
     }
@@ -143,4 +151,29 @@ class ReviewDAOTest {
         
         assertTrue(found, "Added review should be in the list");
     }
+
+    @Test
+    @org.junit.jupiter.api.Order(4)
+    @DisplayName("Test get reviews page")
+    void testGetReviewsPage() {
+        Review older = new Review(0, testRestaurantId, testCustomerId, 4, "Paged review");
+        Review newer = new Review(0, testRestaurantId, secondCustomerId, 2, "Second paged review");
+        assertTrue(reviewDAO.addReview(older));
+        assertTrue(reviewDAO.addReview(newer));
+        
+        List<Review> first = reviewDAO.getReviewsPage(testRestaurantId, 1);
+        assertEquals(1, first.size());
+        Review last = first.get(0);
+        assertEquals(newer.getReviewId(), last.getReviewId(), "Newest review comes first");
+        assertNotNull(last.getCreatedAt());
+        
+        List<Review> second = reviewDAO.getReviewsPage(testRestaurantId, last.getCreatedAt(), last.getReviewId(), 1);
+        assertEquals(1, second.size());
+        assertEquals(older.getReviewId(), second.get(0).getReviewId());
+        
+        Review end = second.get(0);
+        assertTrue(reviewDAO.getReviewsPage(testRestaurantId, end.getCreatedAt(), end.getReviewId(), 1).isEmpty(),
+                "No reviews should follow the oldest review");
+        assertTrue(reviewDAO.getReviewsPage(testRestaurantId, 0).isEmpty());
+    }
 }
@@ -1,6 +1,7 @@
 package com.foodordering.dao;
 
 import com.foodordering.models.User;
+import com.foodordering.security.Sha256PasswordHasher;
 import com.foodordering.utils.DatabaseConnection;
 import org.junit.jupiter.api.*;
 
@@ -36,6 +37,11 @@ class UserDAOTest {
         stmt.close();
     }
 
+    @AfterAll
+    static void releaseConnection() throws SQLException {
+        connection.close();
+    }
+
     @Test
     @Order(1)
     @DisplayName("Test user registration")
@@ -85,4 +91,38 @@ class UserDAOTest {
         
         assertNull(result, "Login should fail with incorrect password");
     }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test login upgrades a legacy SHA-256 hash")
+    void testLoginRehashesLegacyHash() throws SQLException {
+        String legacyHash = new Sha256PasswordHasher().hash("legacypass");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO users (username, email, password_hash, user_type) " +
+                    "VALUES ('testuser5', 'test5@email.com', '" + legacyHash + "', 'customer')");
+        }
+
+        User loggedIn = userDAO.login("testuser5", "legacypass");
+
+        assertNotNull(loggedIn, "Login should accept a legacy hash");
+        assertTrue(loggedIn.getPasswordHash().startsWith("$2a$"), "Hash should be upgraded to BCrypt");
+        assertNotNull(userDAO.login("testuser5", "legacypass"), "Upgraded hash should still verify");
+        assertNull(userDAO.login("testuser5", "wrongpass"));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Test get user by ID carries the stored hash")
+    void testGetUserById() {
+        User user = new User(0, "testuser6", "test6@email.com", "password123");
+        userDAO.registerUser(user);
+
+        User loaded = userDAO.getUserById(user.getId());
+
+        assertNotNull(loaded, "User should be found by ID");
+        assertEquals("testuser6", loaded.getUsername());
+        assertEquals(user.getPasswordHash(), loaded.getPasswordHash(), "Stored hash should not be recomputed");
+        assertTrue(loaded.verifyPassword("password123"));
+        assertNull(userDAO.getUserById(Integer.MAX_VALUE));
+    }
 }
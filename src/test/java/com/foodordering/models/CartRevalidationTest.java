@@ -0,0 +1,66 @@
+package com.foodordering.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartRevalidationTest {
+
+    private final MenuItem pizza = new MenuItem(1, 5, "Pizza", 10.0, "Tasty", true);
+    private final MenuItem soda = new MenuItem(2, 5, "Soda", 1.5, "Cold", true);
+
+    @Test
+    void testUnchangedCartIsValid() {
+        Cart cart = new Cart();
+        cart.addItem(pizza, 2);
+        cart.addItem(soda, 1);
+
+        CartRevalidation result = CartRevalidation.compare(cart.getItems(), Map.of(1, pizza, 2, soda));
+
+        assertTrue(result.isValid());
+        assertEquals(5, result.getRestaurantId());
+    }
+
+    @Test
+    void testReportsPriceChangesAndUnavailableItems() {
+        Cart cart = new Cart();
+        cart.addItem(pizza, 2);
+        cart.addItem(soda, 1);
+        cart.addItem(new MenuItem(3, 5, "Salad", 6.0, "", true), 1);
+        MenuItem dearerPizza = new MenuItem(1, 5, "Pizza", 11.25, "Tasty", true);
+        MenuItem soldOutSoda = new MenuItem(2, 5, "Soda", 1.5, "Cold", false);
+
+        CartRevalidation result = CartRevalidation.compare(cart.getItems(), Map.of(1, dearerPizza, 2, soldOutSoda));
+
+        assertFalse(result.isValid());
+        assertEquals(1, result.getPriceChanges().size());
+        assertEquals(1000, result.getPriceChanges().get(0).getCartPriceCents());
+        assertEquals(1125, result.getPriceChanges().get(0).getCurrentPriceCents());
+        assertEquals(List.of(2, 3), result.getUnavailableItems().stream().map(CartItem::getItemId).toList(),
+                "Unavailable and deleted items are both reported");
+        String message = result.describe();
+        assertTrue(message.contains("Pizza: price changed from $10.00 to $11.25"), message);
+        assertTrue(message.contains("Salad: no longer available"), message);
+    }
+
+    @Test
+    void testApplyToUpdatesTheCart() {
+        Cart cart = new Cart();
+        cart.addItem(pizza, 2);
+        cart.addItem(soda, 1);
+        cart.addItem(new MenuItem(3, 5, "Salad", 6.0, "", true), 1);
+        CartRevalidation result = CartRevalidation.compare(cart.getItems(),
+                Map.of(1, pizza, 2, new MenuItem(2, 5, "Soda", 1.75, "Cold", true)));
+
+        result.applyTo(cart);
+
+        assertEquals(List.of(1, 2), cart.getItemsView().stream().map(CartItem::getItemId).toList());
+        assertEquals(175, cart.getItemsView().get(1).getUnitPriceCents());
+        assertEquals(2175, cart.getSummary().getSubtotalCents());
+        assertTrue(CartRevalidation.compare(cart.getItems(),
+                Map.of(1, pizza, 2, new MenuItem(2, 5, "Soda", 1.75, "Cold", true))).isValid());
+    }
+}
@@ -2,6 +2,12 @@ package com.foodordering.models;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class CartTest {
@@ -69,4 +75,233 @@ public class CartTest {
         cart.applyCoupon(fixed5);
         assertEquals(25.00, cart.calculateTotal());
     }
+
+    @Test
+    void testItemsKeepInsertionOrder() {
+        Cart cart = new Cart();
+        for (int id : new int[] {5, 1, 9, 3}) {
+            cart.addItem(new MenuItem(id, 1, "Item " + id, 1.0, "", true), 1);
+        }
+        cart.addItem(new MenuItem(1, 1, "Item 1", 1.0, "", true), 1);
+        cart.removeItem(9);
+        cart.addItem(new MenuItem(9, 1, "Item 9", 1.0, "", true), 1);
+
+        List<CartItem> items = cart.getItems();
+        assertEquals(List.of(5, 1, 3, 9), items.stream().map(CartItem::getItemId).toList());
+        assertEquals(2, items.get(1).getQuantity());
+    }
+
+    @Test
+    void testItemsAreAnUnmodifiableSnapshot() {
+        Cart cart = new Cart();
+        MenuItem pizza = new MenuItem(1, 1, "Pizza", 10.0, "Tasty", true);
+        cart.addItem(pizza, 1);
+
+        List<CartItem> before = cart.getItems();
+        assertSame(before, cart.getItems(), "Unchanged cart should reuse its snapshot");
+        assertThrows(UnsupportedOperationException.class, () -> before.remove(0));
+
+        cart.addItem(pizza, 1);
+        assertEquals(1, before.get(0).getQuantity(), "Earlier snapshots must not change");
+        assertEquals(2, cart.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testRunningSubtotalFollowsEveryChange() {
+        Cart cart = new Cart();
+        MenuItem pizza = new MenuItem(1, 1, "Pizza", 9.99, "Tasty", true);
+        MenuItem soda = new MenuItem(2, 1, "Soda", 1.50, "Cold", true);
+        cart.addItem(pizza, 2);
+        cart.addItem(soda, 3);
+        cart.updateQuantity(1, 1);
+        assertEquals(999 + 450, cart.calculateSubtotalCents());
+
+        assertFalse(cart.removeItem(7));
+        cart.removeItem(2);
+        assertEquals(999, cart.calculateSubtotalCents());
+        assertThrows(IllegalArgumentException.class, () -> cart.updateQuantity(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> cart.addItem(pizza, Integer.MAX_VALUE));
+        assertEquals(999, cart.calculateSubtotalCents(), "Rejected changes must not touch the subtotal");
+    }
+
+    @Test
+    void testConcurrentAddsMergeQuantities() throws InterruptedException {
+        Cart cart = new Cart();
+        MenuItem[] menu = new MenuItem[8];
+        for (int i = 0; i < menu.length; i++) {
+            menu[i] = new MenuItem(i + 1, 1, "Item " + (i + 1), 2.5, "", true);
+        }
+        int threads = 8;
+        int addsPerThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < addsPerThread; i++) {
+                    cart.addItem(menu[i % menu.length], 1);
+                    cart.getItems();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        int perItem = threads * addsPerThread / menu.length;
+        List<CartItem> items = cart.getItems();
+        assertEquals(menu.length, items.size());
+        for (CartItem item : items) {
+            assertEquals(perItem, item.getQuantity(), "No add may be lost for item " + item.getItemId());
+        }
+        assertEquals(threads * addsPerThread * 250L, cart.calculateSubtotalCents());
+    }
+
+    @Test
+    void testConcurrentClearLeavesConsistentSubtotal() throws InterruptedException {
+        Cart cart = new Cart();
+        MenuItem pizza = new MenuItem(1, 1, "Pizza", 10.0, "Tasty", true);
+        Thread adder = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                cart.addItem(pizza, 1);
+            }
+        });
+        adder.start();
+        for (int i = 0; i < 100; i++) {
+            cart.clearCart();
+        }
+        adder.join();
+
+        long expected = cart.getItems().stream().mapToLong(CartItem::getSubtotalCents).sum();
+        assertEquals(expected, cart.calculateSubtotalCents());
+    }
+
+    @Test
+    void testItemsViewIsSharedUntilLinesChange() {
+        Cart cart = new Cart();
+        MenuItem pizza = new MenuItem(1, 1, "Pizza", 10.0, "Tasty", true);
+        MenuItem soda = new MenuItem(2, 1, "Soda", 1.5, "Cold", true);
+        cart.addItem(pizza, 1);
+
+        List<CartItem> view = cart.getItemsView();
+        assertSame(view, cart.getItemsView(), "The view should not be rebuilt while the cart is unchanged");
+        cart.addItem(pizza, 2);
+        assertSame(view, cart.getItemsView(), "A quantity change keeps the same lines");
+        cart.addItem(soda, 1);
+        assertEquals(1, view.size(), "An earlier view does not change");
+        assertEquals(3, view.get(0).getQuantity(), "Lines are the cart's own");
+
+        List<CartItem> current = cart.getItemsView();
+        assertNotSame(view, current);
+        assertEquals(List.of(1, 2), current.stream().map(CartItem::getItemId).toList());
+        assertThrows(UnsupportedOperationException.class, () -> current.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> current.get(0).setQuantity(9));
+        assertEquals(3, current.get(0).getQuantity());
+
+        cart.removeItem(1);
+        assertEquals(List.of(2), cart.getItemsView().stream().map(CartItem::getItemId).toList());
+        cart.getItems().get(0).setQuantity(7);
+        assertEquals(1, cart.getItemsView().get(0).getQuantity(), "Snapshot copies stay modifiable and detached");
+    }
+
+    @Test
+    void testSummaryTracksEveryChange() {
+        Cart cart = new Cart();
+        MenuItem pizza = new MenuItem(1, 1, "Pizza", 9.99, "Tasty", true);
+        MenuItem soda = new MenuItem(2, 1, "Soda", 1.50, "Cold", true);
+        assertTrue(cart.getSummary().isEmpty());
+
+        cart.addItem(pizza, 2);
+        cart.addItem(soda, 3);
+        CartSummary summary = cart.getSummary();
+        assertEquals(2448, summary.getSubtotalCents());
+        assertEquals(0, summary.getDiscountCents());
+        assertEquals(2448, summary.getTotalCents());
+        assertEquals(5, summary.getItemCount());
+        assertEquals(2, summary.getLineCount());
+        assertSame(summary, cart.getSummary(), "Unchanged cart should reuse its summary");
+
+        cart.applyCoupon(new Coupon("SAVE10", Coupon.Type.PERCENTAGE, 10));
+        assertEquals(245, cart.getSummary().getDiscountCents());
+        assertEquals(2203, cart.getSummary().getTotalCents());
+
+        cart.updateQuantity(2, 1);
+        cart.removeItem(1);
+        summary = cart.getSummary();
+        assertEquals(150, summary.getSubtotalCents());
+        assertEquals(15, summary.getDiscountCents());
+        assertEquals(1, summary.getItemCount());
+        assertEquals(1, summary.getLineCount());
+
+        cart.applyCoupon(new Coupon("MINUS5", Coupon.Type.FIXED, 5));
+        assertEquals(0, cart.getSummary().getTotalCents(), "Total never goes below zero");
+
+        cart.clearCart();
+        assertTrue(cart.getSummary().isEmpty());
+        assertEquals(0, cart.getSummary().getItemCount());
+    }
+
+    @Test
+    void testSummaryAgreesWithItemsAfterConcurrentEdits() throws InterruptedException {
+        Cart cart = new Cart();
+        MenuItem[] menu = new MenuItem[16];
+        for (int i = 0; i < menu.length; i++) {
+            menu[i] = new MenuItem(i + 1, 1, "Item " + (i + 1), 0.25 * (i + 1), "", true);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            pool.execute(() -> {
+                for (int i = 0; i < 3_000; i++) {
+                    MenuItem item = menu[(i * 7 + seed) % menu.length];
+                    switch (i % 4) {
+                        case 0, 1 -> cart.addItem(item, 1 + i % 3);
+                        case 2 -> {
+                            try {
+                                cart.updateQuantity(item.getItemId(), 1 + i % 5);
+                            } catch (IllegalArgumentException e) {
+                                // Removed by another thread
+                            }
+                        }
+                        default -> cart.removeItem(item.getItemId());
+                    }
+                    cart.getSummary();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        CartSummary summary = cart.getSummary();
+        List<CartItem> items = cart.getItems();
+        assertEquals(items.stream().mapToLong(CartItem::getSubtotalCents).sum(), summary.getSubtotalCents());
+        assertEquals(items.stream().mapToLong(CartItem::getQuantity).sum(), summary.getItemCount());
+        assertEquals(items.size(), summary.getLineCount());
+        assertEquals(items.size(), cart.getItemsView().size());
+    }
+
+    @Test
+    void testUpdateUnitPriceKeepsPositionAndTotals() {
+        Cart cart = new Cart();
+        MenuItem pizza = new MenuItem(1, 1, "Pizza", 10.0, "Tasty", true);
+        MenuItem soda = new MenuItem(2, 1, "Soda", 1.5, "Cold", true);
+        cart.addItem(pizza, 2);
+        cart.addItem(soda, 3);
+        long version = cart.getVersion();
+
+        assertTrue(cart.updateUnitPrice(1, 12.5));
+
+        assertEquals(List.of(1, 2), cart.getItemsView().stream().map(CartItem::getItemId).toList());
+        assertEquals(1250, cart.getItemsView().get(0).getUnitPriceCents());
+        assertEquals(2, cart.getItemsView().get(0).getQuantity());
+        assertEquals(2950, cart.getSummary().getSubtotalCents());
+        assertEquals(5, cart.getSummary().getItemCount());
+        assertNotEquals(version, cart.getVersion());
+        assertFalse(cart.updateUnitPrice(9, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> cart.updateUnitPrice(1, -1));
+    }
 }
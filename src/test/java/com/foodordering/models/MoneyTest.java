@@ -0,0 +1,69 @@
+package com.foodordering.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Money cent arithmetic.
+ */
+class MoneyTest {
+
+    @Test
+    @DisplayName("Doubles convert to the nearest cent")
+    void testOfDouble() {
+        assertEquals(1599, Money.ofDouble(15.99));
+        assertEquals(1, Money.ofDouble(0.005));
+        assertEquals(-1, Money.ofDouble(-0.005));
+        assertEquals(0, Money.ofDouble(0.0));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofDouble(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("DECIMAL values round-trip exactly")
+    void testBigDecimalRoundTrip() {
+        assertEquals(12345678, Money.fromBigDecimal(new BigDecimal("123456.78")));
+        assertEquals(new BigDecimal("123456.78"), Money.toBigDecimal(12345678));
+        assertEquals(0, Money.fromBigDecimal(null));
+    }
+
+    @Test
+    @DisplayName("Sums of cents are exact where doubles drift")
+    void testExactSum() {
+        long total = Money.ZERO;
+        double naive = 0.0;
+        for (int i = 0; i < 10; i++) {
+            total = Money.add(total, Money.ofDouble(0.1));
+            naive += 0.1;
+        }
+        assertEquals(100, total);
+        assertNotEquals(1.0, naive);
+        assertEquals(1.0, Money.toDouble(total));
+    }
+
+    @Test
+    @DisplayName("Percentages round half-up to the cent")
+    void testPercentOf() {
+        assertEquals(300, Money.percentOf(3000, 10));
+        assertEquals(13, Money.percentOf(125, 10));   // 12.5 cents -> 13
+        assertEquals(156, Money.percentOf(1250, 12.5)); // 156.25 cents -> 156
+    }
+
+    @Test
+    @DisplayName("Overflow is reported instead of wrapping")
+    void testOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    @DisplayName("Amounts format with two decimals")
+    void testFormat() {
+        assertEquals("$12.99", Money.format(1299));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("-$3.10", Money.format(-310));
+    }
+}
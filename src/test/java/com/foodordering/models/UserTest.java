@@ -1,9 +1,12 @@
 package com.foodordering.models;
 
+import com.foodordering.security.Sha256PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserTest {
@@ -39,9 +42,50 @@ class UserTest {
     void testPasswordEncryption() {
         String raw = "password123";
         User secureUser = new User(2, "secure", "secure@email.com", raw);
+        secureUser.hashPassword();
+        String hash = secureUser.getPasswordHash();
 
-        assertNotEquals(raw, secureUser.getPasswordHash(), "Password should be stored hashed");
+        assertNotEquals(raw, hash, "Password should be stored hashed");
+        secureUser.hashPassword();
+        assertEquals(hash, secureUser.getPasswordHash(), "A hashed password should not be hashed again");
         assertTrue(secureUser.verifyPassword(raw), "verifyPassword should succeed for correct password");
         assertFalse(secureUser.verifyPassword("wrong"), "verifyPassword should fail for wrong password");
     }
+
+    @Test
+    @DisplayName("Test users loaded from the database keep their stored hash")
+    void testFromDatabase() {
+        String legacyHash = new Sha256PasswordHasher().hash("password123");
+        User loaded = User.fromDatabase(3, "legacy", "legacy@email.com", legacyHash);
+
+        assertEquals(3, loaded.getId());
+        assertEquals(legacyHash, loaded.getPasswordHash());
+        assertTrue(loaded.verifyPassword("password123"), "Legacy SHA-256 hashes should still verify");
+        assertFalse(loaded.verifyPassword("wrong"));
+    }
+
+    @Test
+    @DisplayName("Test database loads skip validation and never rehash")
+    void testFromDatabaseIsReadOnly() {
+        User loaded = User.fromDatabase(4, "ab", "not-an-email", "stored-hash");
+
+        assertEquals("ab", loaded.getUsername());
+        assertEquals("not-an-email", loaded.getEmail());
+        assertEquals("stored-hash", loaded.getPasswordHash(), "Stored hash should be kept as is");
+        assertFalse(loaded.verifyPassword("stored-hash"), "Unknown hash formats should never match");
+        assertFalse(User.fromDatabase(5, "nohash", "n@email.com", null).verifyPassword("password123"));
+    }
+
+    @Test
+    @DisplayName("Email check accepts exactly what the email pattern accepts")
+    void testEmailCheckMatchesPattern() {
+        Pattern pattern = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+        String[] samples = {"test@email.com", "a@b", "a@", "@b", "a b@c", "a@b c", "a@b\n", "a@\u2028",
+            "a@@b", "a+b_c.d-e@x", "\u00e9@x", "a@\u00e9", "a@b\rc"};
+        for (String email : samples) {
+            assertEquals(pattern.matcher(email).matches(), User.isValidEmail(email), email);
+        }
+        assertFalse(User.isValidEmail(null));
+        assertFalse(User.isValidEmail(""));
+    }
 }
@@ -0,0 +1,117 @@
+package com.foodordering.performance;
+
+import com.foodordering.dao.RestaurantDAO;
+import com.foodordering.utils.DatabaseConnection;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput comparison of {@link RestaurantDAO#getRestaurantById(int)} under
+ * concurrent load, with and without the connection pool.
+ * "Before" opens a fresh physical connection per call, which is what every DAO
+ * call paid when the single shared connection was closed after each use.
+ * "After" goes through the pooled {@link DatabaseConnection}.
+ *
+ * Requires a running MySQL configured in database.properties. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.foodordering.performance.ConnectionPoolBenchmark
+ *     -Dexec.args="32 10 1"   (threads, seconds, restaurant id)
+ */
+public class ConnectionPoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int restaurantId = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        Properties props = new Properties();
+        try (InputStream in = ConnectionPoolBenchmark.class.getClassLoader()
+                .getResourceAsStream("database.properties")) {
+            if (in == null) {
+                throw new IllegalStateException("database.properties not found on classpath");
+            }
+            props.load(in);
+        }
+        String url = props.getProperty("db.url");
+        String user = props.getProperty("db.username");
+        String password = props.getProperty("db.password");
+
+        Runnable unpooled = () -> {
+            try (Connection conn = DriverManager.getConnection(url, user, password);
+                 PreparedStatement ps = conn.prepareStatement("SELECT * FROM restaurants WHERE restaurant_id = ?")) {
+                ps.setInt(1, restaurantId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        RestaurantDAO dao = new RestaurantDAO();
+        DatabaseConnection.getInstance();
+        Runnable pooled = () -> dao.getRestaurantById(restaurantId);
+
+        System.out.printf("getRestaurantById, %d threads, %d s per run%n", threads, seconds);
+        double before = run("before (connection per call)", unpooled, threads, seconds);
+        double after = run("after  (pooled)", pooled, threads, seconds);
+        System.out.printf("speedup: %.2fx%n", after / before);
+
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    private static double run(String label, Runnable call, int threads, int seconds) throws InterruptedException {
+        // Warm up JIT and the pool before measuring
+        for (int i = 0; i < 50; i++) {
+            call.run();
+        }
+
+        LongAdder calls = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    while (running.get()) {
+                        try {
+                            call.run();
+                            calls.increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+
+        double throughput = calls.sum() / elapsed;
+        System.out.printf("%-30s %10.0f ops/s  (%d calls, %d errors)%n",
+                label, throughput, calls.sum(), errors.sum());
+        return throughput;
+    }
+}
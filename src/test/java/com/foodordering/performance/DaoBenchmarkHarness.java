@@ -0,0 +1,632 @@
+package com.foodordering.performance;
+
+import com.foodordering.dao.CouponDAO;
+import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.dao.OrderDAO;
+import com.foodordering.dao.RestaurantDAO;
+import com.foodordering.dao.ReviewDAO;
+import com.foodordering.dao.UserDAO;
+import com.foodordering.models.Coupon;
+import com.foodordering.models.MenuItem;
+import com.foodordering.models.Money;
+import com.foodordering.models.Order;
+import com.foodordering.models.OrderItem;
+import com.foodordering.models.Restaurant;
+import com.foodordering.models.Review;
+import com.foodordering.models.User;
+import com.foodordering.utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Latency and throughput of every DAO method against an embedded H2 database
+ * in MySQL mode, so DAO performance can be measured without a MySQL server.
+ *
+ * The harness loads database/schema.sql through {@link EmbeddedDatabase},
+ * seeds a dataset of the requested size and
+ * then runs each DAO method for a fixed time, first on one thread and then on
+ * {@code threads} threads, printing ops/s and p50/p99 latency. Untimed setup
+ * (e.g. inserting the row a delete will remove) runs outside the measurement.
+ *
+ * H2 is not MySQL: absolute numbers are only comparable between runs of this
+ * harness, e.g. before and after a DAO change.
+ *
+ * Run with (all arguments optional, shown with their defaults):
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.foodordering.performance.DaoBenchmarkHarness
+ *     -Dexec.args="restaurants=1000 items=100000 customers=10000 orders=1000000
+ *                  reviews=10000 coupons=100 threads=8 seconds=3 warmup=1 filter=.*"
+ * The default dataset needs roughly 2 GB of heap (MAVEN_OPTS=-Xmx2g).
+ */
+public class DaoBenchmarkHarness {
+
+    static final String PASSWORD = "password123";
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int ORDER_BATCH_SIZE = 50;
+    private static final int HISTORY_PAGE_SIZE = 50;
+    /** Per-thread latency samples kept for the percentiles; later calls are only counted. */
+    private static final int MAX_SAMPLES_PER_THREAD = 2_000_000;
+
+    /** Untimed setup for one call; returns the call to time. */
+    @FunctionalInterface
+    private interface Operation {
+        Call prepare(Random random);
+    }
+
+    /** One timed DAO call; returns false if the DAO reported a failure. */
+    @FunctionalInterface
+    private interface Call {
+        boolean call();
+    }
+
+    private final int restaurants;
+    private final int items;
+    private final int customers;
+    private final int orders;
+    private final int reviews;
+    private final int coupons;
+
+    private final UserDAO userDAO = new UserDAO();
+    private final RestaurantDAO restaurantDAO = new RestaurantDAO();
+    private final MenuItemDAO menuItemDAO = new MenuItemDAO();
+    private final OrderDAO orderDAO = new OrderDAO();
+    private final CouponDAO couponDAO = new CouponDAO();
+    private final ReviewDAO reviewDAO = new ReviewDAO();
+
+    /** Source of unique usernames, emails, coupon codes and review pairs for write operations. */
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong nextReviewPair;
+    /** (customer, restaurant) pairs whose review was deleted again, reused before new pairs. */
+    private final ConcurrentLinkedQueue<Long> freedReviewPairs = new ConcurrentLinkedQueue<>();
+
+    DaoBenchmarkHarness(int restaurants, int items, int customers, int orders, int reviews, int coupons) {
+        if (restaurants <= 0 || customers <= 0 || coupons <= 0) {
+            throw new IllegalArgumentException("restaurants, customers and coupons must be > 0");
+        }
+        if (items < restaurants) {
+            throw new IllegalArgumentException("items must be >= restaurants so every restaurant has a menu");
+        }
+        if ((long) customers * restaurants <= reviews) {
+            throw new IllegalArgumentException("reviews must be < customers * restaurants");
+        }
+        this.restaurants = restaurants;
+        this.items = items;
+        this.customers = customers;
+        this.orders = orders;
+        this.reviews = reviews;
+        this.coupons = coupons;
+        this.nextReviewPair = new AtomicLong(reviews);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int threads = intOption(options, "threads", 8);
+        long seconds = intOption(options, "seconds", 3);
+        long warmup = intOption(options, "warmup", 1);
+        Pattern filter = Pattern.compile(options.getOrDefault("filter", ".*"));
+
+        DaoBenchmarkHarness harness = new DaoBenchmarkHarness(
+                intOption(options, "restaurants", 1000),
+                intOption(options, "items", 100_000),
+                intOption(options, "customers", 10_000),
+                intOption(options, "orders", 1_000_000),
+                intOption(options, "reviews", 10_000),
+                intOption(options, "coupons", 100));
+
+        String url = EmbeddedDatabase.DEFAULT_URL;
+        try (Connection conn = EmbeddedDatabase.connect(url)) {
+            EmbeddedDatabase.loadSchema(conn);
+            long start = System.nanoTime();
+            harness.seed(conn);
+            System.out.printf("Seeded in %.1f s%n", (System.nanoTime() - start) / 1e9);
+
+            EmbeddedDatabase.useForDaos(url, threads);
+            DatabaseConnection.getInstance();
+
+            System.out.printf("%n%-46s %7s %12s %10s %10s %8s%n",
+                    "operation", "threads", "ops/s", "p50 us", "p99 us", "failed");
+            for (Map.Entry<String, Operation> op : harness.operations().entrySet()) {
+                if (!filter.matcher(op.getKey()).find()) {
+                    continue;
+                }
+                for (int t : threads > 1 ? new int[] {1, threads} : new int[] {1}) {
+                    System.out.println(run(op.getKey(), op.getValue(), t, warmup, seconds));
+                }
+            }
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Dataset
+    // ------------------------------------------------------------------
+
+    /**
+     * Inserts the dataset with explicit ids so operations can pick valid ids at random.
+     * Menu item i belongs to restaurant ((i - 1) % restaurants) + 1; orders are one
+     * minute apart, ending now, with one item each.
+     */
+    void seed(Connection conn) throws Exception {
+        conn.setAutoCommit(false);
+        String passwordHash = new User(0, "seed", "seed@example.com", PASSWORD).getPasswordHash();
+
+        insertRows(conn, "INSERT INTO users (user_id, username, email, password_hash) VALUES (?, ?, ?, ?)",
+                customers, (ps, i) -> {
+                    ps.setInt(1, i);
+                    ps.setString(2, "user" + i);
+                    ps.setString(3, "user" + i + "@example.com");
+                    ps.setString(4, passwordHash);
+                });
+        insertRows(conn, "INSERT INTO customers (customer_id, user_id, address, phone) VALUES (?, ?, ?, ?)",
+                customers, (ps, i) -> {
+                    ps.setInt(1, i);
+                    ps.setInt(2, i);
+                    ps.setString(3, i + " Main Street");
+                    ps.setString(4, "555-" + i);
+                });
+        insertRows(conn, "INSERT INTO restaurants (restaurant_id, name, address, phone) VALUES (?, ?, ?, ?)",
+                restaurants, (ps, i) -> {
+                    ps.setInt(1, i);
+                    ps.setString(2, "Restaurant " + i);
+                    ps.setString(3, i + " Market Street");
+                    ps.setString(4, "555-" + i);
+                });
+        insertRows(conn, "INSERT INTO menu_items (item_id, restaurant_id, name, price, description, available) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                items, (ps, i) -> {
+                    ps.setInt(1, i);
+                    ps.setInt(2, restaurantOfItem(i));
+                    ps.setString(3, "Item " + i);
+                    ps.setBigDecimal(4, Money.toBigDecimal(priceOfItem(i)));
+                    ps.setString(5, "Description of item " + i);
+                    ps.setBoolean(6, i % 10 != 0);
+                });
+        LocalDate today = LocalDate.now();
+        insertRows(conn, "INSERT INTO coupons (coupon_id, code, discount_percent, valid_from, valid_until, active) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                coupons, (ps, i) -> {
+                    ps.setInt(1, i);
+                    ps.setString(2, "SAVE" + i);
+                    ps.setInt(3, 1 + i % 50);
+                    ps.setDate(4, Date.valueOf(today.minusDays(30)));
+                    ps.setDate(5, Date.valueOf(today.plusDays(365)));
+                    ps.setBoolean(6, true);
+                });
+        long firstOrderMillis = System.currentTimeMillis() - orders * 60_000L;
+        insertRows(conn, "INSERT INTO orders (order_id, customer_id, restaurant_id, total_price, status, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                orders, (ps, i) -> {
+                    int item = itemOfOrder(i);
+                    ps.setInt(1, i);
+                    ps.setInt(2, customerOfOrder(i));
+                    ps.setInt(3, restaurantOfItem(item));
+                    ps.setBigDecimal(4, Money.toBigDecimal(priceOfItem(item)));
+                    ps.setString(5, "delivered");
+                    ps.setTimestamp(6, new Timestamp(firstOrderMillis + i * 60_000L));
+                });
+        insertRows(conn, "INSERT INTO order_items (order_item_id, order_id, item_id, quantity, unit_price) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                orders, (ps, i) -> {
+                    int item = itemOfOrder(i);
+                    ps.setInt(1, i);
+                    ps.setInt(2, i);
+                    ps.setInt(3, item);
+                    ps.setInt(4, 1);
+                    ps.setBigDecimal(5, Money.toBigDecimal(priceOfItem(item)));
+                });
+        insertRows(conn, "INSERT INTO reviews (review_id, restaurant_id, customer_id, rating, comment) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                reviews, (ps, i) -> {
+                    long pair = i - 1;
+                    ps.setInt(1, i);
+                    ps.setInt(2, reviewRestaurant(pair));
+                    ps.setInt(3, reviewCustomer(pair));
+                    ps.setInt(4, 1 + i % 5);
+                    ps.setString(5, "Review " + i);
+                });
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE restaurants SET review_count = "
+                    + "(SELECT COUNT(*) FROM reviews WHERE reviews.restaurant_id = restaurants.restaurant_id), "
+                    + "rating_sum = (SELECT COALESCE(SUM(rating), 0) FROM reviews "
+                    + "WHERE reviews.restaurant_id = restaurants.restaurant_id)");
+            stmt.executeUpdate("UPDATE restaurants SET rating = CASE WHEN review_count > 0 "
+                    + "THEN ROUND(CAST(rating_sum AS DECIMAL(12,2)) / review_count, 2) ELSE 0 END");
+        }
+
+        // Explicit ids do not advance the identity columns
+        try (Statement stmt = conn.createStatement()) {
+            restartIdentity(stmt, "users", "user_id", customers);
+            restartIdentity(stmt, "customers", "customer_id", customers);
+            restartIdentity(stmt, "restaurants", "restaurant_id", restaurants);
+            restartIdentity(stmt, "menu_items", "item_id", items);
+            restartIdentity(stmt, "coupons", "coupon_id", coupons);
+            restartIdentity(stmt, "orders", "order_id", orders);
+            restartIdentity(stmt, "order_items", "order_item_id", orders);
+            restartIdentity(stmt, "reviews", "review_id", reviews);
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int id) throws Exception;
+    }
+
+    private static void insertRows(Connection conn, String sql, int count, RowBinder binder) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                binder.bind(ps, i);
+                ps.addBatch();
+                if (i % SEED_BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+        }
+    }
+
+    private static void restartIdentity(Statement stmt, String table, String column, int rows) throws Exception {
+        stmt.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + (rows + 1));
+    }
+
+    private int restaurantOfItem(int itemId) {
+        return (itemId - 1) % restaurants + 1;
+    }
+
+    private static long priceOfItem(int itemId) {
+        return 299 + (itemId * 37L) % 2500;
+    }
+
+    private int itemOfOrder(int orderId) {
+        return (int) ((orderId * 7919L) % items) + 1;
+    }
+
+    private int customerOfOrder(int orderId) {
+        return (int) ((orderId * 104_729L) % customers) + 1;
+    }
+
+    private int reviewCustomer(long pair) {
+        return (int) (pair % customers) + 1;
+    }
+
+    private int reviewRestaurant(long pair) {
+        return (int) ((pair / customers) % restaurants) + 1;
+    }
+
+    // ------------------------------------------------------------------
+    // Operations
+    // ------------------------------------------------------------------
+
+    private Map<String, Operation> operations() {
+        Map<String, Operation> ops = new LinkedHashMap<>();
+
+        ops.put("UserDAO.login", r -> {
+            String username = "user" + (1 + r.nextInt(customers));
+            return () -> userDAO.login(username, PASSWORD) != null;
+        });
+        ops.put("UserDAO.getUserById", r -> {
+            int id = 1 + r.nextInt(customers);
+            return () -> userDAO.getUserById(id) != null;
+        });
+        ops.put("UserDAO.usernameExists", r -> {
+            String username = "user" + (1 + r.nextInt(customers));
+            return () -> userDAO.usernameExists(username);
+        });
+        ops.put("RestaurantDAO.getRestaurantById", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> restaurantDAO.getRestaurantById(id) != null;
+        });
+        ops.put("RestaurantDAO.getAllRestaurants", r -> () -> !restaurantDAO.getAllRestaurants().isEmpty());
+        ops.put("MenuItemDAO.getMenuItemById", r -> {
+            int id = 1 + r.nextInt(items);
+            return () -> menuItemDAO.getMenuItemById(id) != null;
+        });
+        ops.put("MenuItemDAO.getMenuItemsByRestaurant", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> !menuItemDAO.getMenuItemsByRestaurant(id).isEmpty();
+        });
+        ops.put("MenuItemDAO.getAvailableMenuItemsByRestaurant", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> menuItemDAO.getAvailableMenuItemsByRestaurant(id) != null;
+        });
+        ops.put("MenuItemDAO.getMenu", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> menuItemDAO.getMenu(id).size() > 0;
+        });
+        ops.put("MenuItemDAO.getRestaurantIdForItem", r -> {
+            int id = 1 + r.nextInt(items);
+            return () -> menuItemDAO.getRestaurantIdForItem(id) > 0;
+        });
+        ops.put("OrderDAO.getOrderById", r -> {
+            int id = 1 + r.nextInt(Math.max(1, orders));
+            return () -> orderDAO.getOrderById(id) != null;
+        });
+        ops.put("OrderDAO.getOrdersByCustomerId", r -> {
+            int id = 1 + r.nextInt(customers);
+            return () -> orderDAO.getOrdersByCustomerId(id) != null;
+        });
+        ops.put("OrderDAO.getOrderHistoryPage", r -> {
+            int id = 1 + r.nextInt(customers);
+            return () -> orderDAO.getOrderHistoryPage(id, HISTORY_PAGE_SIZE) != null;
+        });
+        ops.put("CouponDAO.getCouponByCode", r -> {
+            String code = "SAVE" + (1 + r.nextInt(coupons));
+            return () -> couponDAO.getCouponByCode(code) != null;
+        });
+        ops.put("CouponDAO.getCouponById", r -> {
+            int id = 1 + r.nextInt(coupons);
+            return () -> couponDAO.getCouponById(id) != null;
+        });
+        ops.put("CouponDAO.getActiveCoupons", r -> () -> !couponDAO.getActiveCoupons().isEmpty());
+        ops.put("CouponDAO.isValidCoupon", r -> {
+            String code = "SAVE" + (1 + r.nextInt(coupons));
+            return () -> couponDAO.isValidCoupon(code);
+        });
+        ops.put("ReviewDAO.getReviewsByRestaurant", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> reviewDAO.getReviewsByRestaurant(id) != null;
+        });
+        ops.put("ReviewDAO.getReviewsPage", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> reviewDAO.getReviewsPage(id, ReviewDAO.DEFAULT_REVIEW_PAGE_SIZE) != null;
+        });
+        ops.put("ReviewDAO.getReviewById", r -> {
+            int id = 1 + r.nextInt(Math.max(1, reviews));
+            return () -> reviewDAO.getReviewById(id) != null;
+        });
+        ops.put("ReviewDAO.calculateAverageRating", r -> {
+            int id = 1 + r.nextInt(restaurants);
+            return () -> reviewDAO.calculateAverageRating(id) >= 0;
+        });
+        ops.put("ReviewDAO.getReviewsByCustomer", r -> {
+            int id = 1 + r.nextInt(customers);
+            return () -> reviewDAO.getReviewsByCustomer(id) != null;
+        });
+
+        ops.put("UserDAO.registerUser", r -> {
+            long n = sequence.incrementAndGet();
+            User user = new User(0, "bench" + n, "bench" + n + "@example.com", PASSWORD);
+            return () -> userDAO.registerUser(user);
+        });
+        ops.put("UserDAO.updateUserEmail", r -> {
+            int id = 1 + r.nextInt(customers);
+            String email = "changed" + sequence.incrementAndGet() + "@example.com";
+            return () -> userDAO.updateUserEmail(id, email);
+        });
+        ops.put("RestaurantDAO.addRestaurant", r -> {
+            Restaurant restaurant = new Restaurant(0, "Bench " + sequence.incrementAndGet(), "1 Bench Road", "555-0000", 0.0);
+            return () -> restaurantDAO.addRestaurant(restaurant);
+        });
+        ops.put("RestaurantDAO.deleteRestaurant", r -> {
+            Restaurant restaurant = new Restaurant(0, "Bench " + sequence.incrementAndGet(), "1 Bench Road", "555-0000", 0.0);
+            if (!restaurantDAO.addRestaurant(restaurant)) {
+                return () -> false;
+            }
+            return () -> restaurantDAO.deleteRestaurant(restaurant.getRestaurantId());
+        });
+        ops.put("MenuItemDAO.addMenuItem", r -> {
+            MenuItem item = new MenuItem(0, 1 + r.nextInt(restaurants), "Bench item", 9.99, "", true);
+            return () -> menuItemDAO.addMenuItem(item);
+        });
+        ops.put("MenuItemDAO.updateMenuItem", r -> {
+            int id = 1 + r.nextInt(items);
+            MenuItem item = new MenuItem(id, restaurantOfItem(id), "Item " + id,
+                    Money.toDouble(priceOfItem(id) + r.nextInt(100)), "Description of item " + id, true);
+            return () -> menuItemDAO.updateMenuItem(item);
+        });
+        ops.put("MenuItemDAO.deleteMenuItem", r -> {
+            MenuItem item = new MenuItem(0, 1 + r.nextInt(restaurants), "Bench item", 9.99, "", true);
+            if (!menuItemDAO.addMenuItem(item)) {
+                return () -> false;
+            }
+            return () -> menuItemDAO.deleteMenuItem(item.getItemId());
+        });
+        ops.put("OrderDAO.createOrder", r -> {
+            Order order = newOrder(r);
+            return () -> orderDAO.createOrder(order);
+        });
+        ops.put("OrderDAO.createOrders (" + ORDER_BATCH_SIZE + " per call)", r -> {
+            List<Order> batch = new ArrayList<>(ORDER_BATCH_SIZE);
+            for (int i = 0; i < ORDER_BATCH_SIZE; i++) {
+                batch.add(newOrder(r));
+            }
+            return () -> orderDAO.createOrders(batch) == ORDER_BATCH_SIZE;
+        });
+        ops.put("OrderDAO.updateOrderStatus", r -> {
+            int id = 1 + r.nextInt(Math.max(1, orders));
+            String status = r.nextBoolean() ? "delivered" : "confirmed";
+            return () -> orderDAO.updateOrderStatus(id, status);
+        });
+        ops.put("CouponDAO.addCoupon", r -> {
+            Coupon coupon = newCoupon();
+            return () -> couponDAO.addCoupon(coupon) > 0;
+        });
+        ops.put("CouponDAO.updateCoupon", r -> {
+            int id = 1 + r.nextInt(coupons);
+            Coupon coupon = new Coupon(id, "SAVE" + id, Coupon.Type.PERCENTAGE, 1 + id % 50,
+                    LocalDate.now().plusDays(300 + r.nextInt(100)), true);
+            return () -> couponDAO.updateCoupon(coupon);
+        });
+        ops.put("CouponDAO.deleteCoupon", r -> {
+            int id = couponDAO.addCoupon(newCoupon());
+            if (id == 0) {
+                return () -> false;
+            }
+            return () -> couponDAO.deleteCoupon(id);
+        });
+        // Runs before addReview, which may use up every (customer, restaurant) pair of a small dataset
+        ops.put("ReviewDAO.deleteReview", r -> {
+            Long freed = freedReviewPairs.poll();
+            long pair = freed != null ? freed : nextReviewPair.getAndIncrement();
+            Review review = new Review(0, reviewRestaurant(pair), reviewCustomer(pair), 1 + r.nextInt(5), "Benchmark review");
+            if (!reviewDAO.addReview(review)) {
+                return () -> false;
+            }
+            return () -> {
+                boolean deleted = reviewDAO.deleteReview(review.getReviewId());
+                freedReviewPairs.add(pair);
+                return deleted;
+            };
+        });
+        ops.put("ReviewDAO.addReview", r -> {
+            Review review = newReview(r);
+            return () -> reviewDAO.addReview(review);
+        });
+        ops.put("ReviewDAO.updateReview", r -> {
+            int id = 1 + r.nextInt(Math.max(1, reviews));
+            long pair = id - 1;
+            Review review = new Review(id, reviewRestaurant(pair), reviewCustomer(pair), 1 + r.nextInt(5), "Updated");
+            return () -> reviewDAO.updateReview(review);
+        });
+        return ops;
+    }
+
+    private Order newOrder(Random r) {
+        int itemId = 1 + r.nextInt(items);
+        Order order = new Order(0, 1 + r.nextInt(customers), restaurantOfItem(itemId), 0.0, "pending", null);
+        OrderItem line = new OrderItem(0, 0, itemId, 1 + r.nextInt(3), 0.0);
+        line.setUnitPriceCents(priceOfItem(itemId));
+        order.addItem(line);
+        order.setTotalPriceCents(order.calculateTotalCents());
+        return order;
+    }
+
+    private Coupon newCoupon() {
+        return new Coupon(0, "BENCH" + sequence.incrementAndGet(), Coupon.Type.PERCENTAGE, 10,
+                LocalDate.now().plusDays(30), true);
+    }
+
+    private Review newReview(Random r) {
+        long pair = nextReviewPair.getAndIncrement();
+        return new Review(0, reviewRestaurant(pair), reviewCustomer(pair), 1 + r.nextInt(5), "Benchmark review");
+    }
+
+    // ------------------------------------------------------------------
+    // Measurement
+    // ------------------------------------------------------------------
+
+    private static String run(String name, Operation op, int threads, long warmupSeconds, long seconds)
+            throws InterruptedException {
+        long[][] samples = new long[threads][];
+        int[] sampleCounts = new int[threads];
+        long[] calls = new long[threads];
+        long[] failures = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long warmupNanos = warmupSeconds * 1_000_000_000L;
+        long measureNanos = seconds * 1_000_000_000L;
+
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                Random random = ThreadLocalRandom.current();
+                long[] latencies = new long[1024];
+                int count = 0;
+                try {
+                    start.await();
+                    long warmupEnd = System.nanoTime() + warmupNanos;
+                    while (System.nanoTime() < warmupEnd) {
+                        op.prepare(random).call();
+                    }
+                    long end = System.nanoTime() + measureNanos;
+                    while (System.nanoTime() < end) {
+                        Call call = op.prepare(random);
+                        long begin = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = call.call();
+                        } catch (RuntimeException e) {
+                            ok = false;
+                        }
+                        long latency = System.nanoTime() - begin;
+                        calls[index]++;
+                        if (!ok) {
+                            failures[index]++;
+                        }
+                        if (count < MAX_SAMPLES_PER_THREAD) {
+                            if (count == latencies.length) {
+                                latencies = Arrays.copyOf(latencies, Math.min(count * 2, MAX_SAMPLES_PER_THREAD));
+                            }
+                            latencies[count++] = latency;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    samples[index] = latencies;
+                    sampleCounts[index] = count;
+                    done.countDown();
+                }
+            }, "dao-bench-" + t);
+            worker.start();
+        }
+        start.countDown();
+        done.await();
+
+        long totalCalls = 0;
+        long totalFailures = 0;
+        int totalSamples = 0;
+        for (int t = 0; t < threads; t++) {
+            totalCalls += calls[t];
+            totalFailures += failures[t];
+            totalSamples += sampleCounts[t];
+        }
+        long[] merged = new long[totalSamples];
+        int offset = 0;
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(samples[t], 0, merged, offset, sampleCounts[t]);
+            offset += sampleCounts[t];
+        }
+        Arrays.sort(merged);
+
+        return String.format("%-46s %7d %12.0f %10.1f %10.1f %8d",
+                name, threads, totalCalls / (double) seconds,
+                percentile(merged, 0.50) / 1e3, percentile(merged, 0.99) / 1e3, totalFailures);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    static int intOption(Map<String, String> options, String key, int defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,60 @@
+package com.foodordering.performance;
+
+import com.foodordering.api.ApiServer;
+import com.foodordering.api.OrderingApi;
+import com.foodordering.utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * Runs the HTTP API against a seeded in-memory H2 database, so the ordering
+ * flows can be exercised and load-tested without a MySQL server.
+ *
+ * The dataset is the one of {@link DaoBenchmarkHarness}: users {@code user1}
+ * ... {@code userN} with password {@code password123}, restaurants with menus,
+ * and coupons {@code SAVE1} ... {@code SAVEN}.
+ *
+ * Run with (all arguments optional, shown with their defaults):
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.foodordering.performance.EmbeddedApiServer
+ *     -Dexec.args="port=8080 connections=10 restaurants=50 items=1000 customers=1000
+ *                  orders=10000 reviews=1000 coupons=10"
+ */
+public final class EmbeddedApiServer {
+
+    private EmbeddedApiServer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = DaoBenchmarkHarness.parseArgs(args);
+        int port = DaoBenchmarkHarness.intOption(options, "port", ApiServer.DEFAULT_PORT);
+        int connections = DaoBenchmarkHarness.intOption(options, "connections", 10);
+
+        DaoBenchmarkHarness dataset = new DaoBenchmarkHarness(
+                DaoBenchmarkHarness.intOption(options, "restaurants", 50),
+                DaoBenchmarkHarness.intOption(options, "items", 1000),
+                DaoBenchmarkHarness.intOption(options, "customers", 1000),
+                DaoBenchmarkHarness.intOption(options, "orders", 10_000),
+                DaoBenchmarkHarness.intOption(options, "reviews", 1000),
+                DaoBenchmarkHarness.intOption(options, "coupons", 10));
+
+        String url = EmbeddedDatabase.DEFAULT_URL;
+        // Keeps the in-memory database alive while the server runs
+        Connection keepAlive = EmbeddedDatabase.connect(url);
+        EmbeddedDatabase.loadSchema(keepAlive);
+        dataset.seed(keepAlive);
+
+        EmbeddedDatabase.useForDaos(url, connections);
+        ApiServer server = new ApiServer(port, new OrderingApi(), connections,
+                ApiServer.DEFAULT_PERMIT_TIMEOUT_MILLIS);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            DatabaseConnection.getInstance().closeConnection();
+        }));
+        System.out.println("API listening on http://localhost:" + server.getPort()
+                + "/api/ (log in as user1 / " + DaoBenchmarkHarness.PASSWORD + ")");
+        Thread.currentThread().join();
+    }
+}
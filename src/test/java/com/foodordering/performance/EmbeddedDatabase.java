@@ -0,0 +1,182 @@
+package com.foodordering.performance;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process H2 database in MySQL compatibility mode, created from
+ * {@code database/schema.sql} so that the DAOs can be exercised without a
+ * MySQL server.
+ *
+ * The schema file is translated statement by statement: database-level
+ * statements ({@code DROP/CREATE DATABASE}, {@code USE}, {@code SHOW}) and the
+ * {@code DELIMITER} trigger block are skipped, {@code ENGINE=...} is removed and
+ * inline {@code INDEX}/{@code UNIQUE KEY} definitions become separate
+ * {@code CREATE INDEX} statements, since H2 index names are unique per schema
+ * rather than per table.
+ */
+public final class EmbeddedDatabase {
+
+    public static final String DEFAULT_URL =
+            "jdbc:h2:mem:food_ordering_system;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    public static final String USERNAME = "sa";
+    public static final String PASSWORD = "";
+    public static final String DRIVER = "org.h2.Driver";
+
+    private static final Path SCHEMA = Paths.get("database", "schema.sql");
+
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("^CREATE\\s+TABLE\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INLINE_INDEX =
+            Pattern.compile("^\\s*(UNIQUE\\s+KEY|UNIQUE\\s+INDEX|INDEX|KEY)\\s+(\\w+)\\s*\\(([^)]*)\\)\\s*,?\\s*$",
+                    Pattern.CASE_INSENSITIVE);
+    private static final Pattern ENGINE =
+            Pattern.compile("\\)\\s*ENGINE\\s*=\\s*\\w+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRAILING_COMMA = Pattern.compile(",\\s*\\)\\s*$");
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Opens a new connection to the embedded database.
+     */
+    public static Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, USERNAME, PASSWORD);
+    }
+
+    /**
+     * Points {@link com.foodordering.utils.DatabaseConnection} at the embedded
+     * database. Must be called before the singleton is first used.
+     *
+     * @param url embedded database URL
+     * @param maxConnections pool size, e.g. the number of benchmark threads
+     */
+    public static void useForDaos(String url, int maxConnections) {
+        System.setProperty("db.url", url);
+        System.setProperty("db.username", USERNAME);
+        System.setProperty("db.password", PASSWORD);
+        System.setProperty("db.driver", DRIVER);
+        System.setProperty("db.minConnections", String.valueOf(Math.min(2, maxConnections)));
+        System.setProperty("db.maxConnections", String.valueOf(maxConnections));
+    }
+
+    /**
+     * Creates the tables, indexes and views of {@code database/schema.sql}.
+     *
+     * @param conn connection to an empty embedded database
+     * @return number of statements executed
+     */
+    public static int loadSchema(Connection conn) throws IOException, SQLException {
+        return loadSchema(conn, Files.readString(SCHEMA, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates the schema described by MySQL DDL.
+     *
+     * @param conn connection to an empty embedded database
+     * @param mysqlDdl contents of a MySQL schema script
+     * @return number of statements executed
+     */
+    public static int loadSchema(Connection conn, String mysqlDdl) throws SQLException {
+        List<String> statements = translate(mysqlDdl);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Failed to execute schema statement: " + sql, e);
+                }
+            }
+        }
+        return statements.size();
+    }
+
+    /**
+     * Translates a MySQL schema script into statements H2 accepts in MySQL mode.
+     *
+     * @param mysqlDdl contents of a MySQL schema script
+     * @return statements in execution order, without terminating semicolons
+     */
+    static List<String> translate(String mysqlDdl) {
+        List<String> result = new ArrayList<>();
+        for (String statement : splitStatements(stripTriggers(mysqlDdl))) {
+            String upper = statement.toUpperCase(Locale.ROOT);
+            if (upper.startsWith("DROP DATABASE") || upper.startsWith("CREATE DATABASE")
+                    || upper.startsWith("USE ") || upper.startsWith("SHOW ")) {
+                continue;
+            }
+            Matcher table = CREATE_TABLE.matcher(statement);
+            if (table.find()) {
+                translateCreateTable(table.group(1), statement, result);
+            } else {
+                result.add(statement);
+            }
+        }
+        return result;
+    }
+
+    private static void translateCreateTable(String table, String statement, List<String> result) {
+        StringBuilder body = new StringBuilder();
+        List<String> indexes = new ArrayList<>();
+        for (String line : statement.split("\n")) {
+            Matcher index = INLINE_INDEX.matcher(line);
+            if (index.matches()) {
+                boolean unique = index.group(1).toUpperCase(Locale.ROOT).startsWith("UNIQUE");
+                indexes.add("CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + table + "_" + index.group(2)
+                        + " ON " + table + " (" + index.group(3).trim() + ")");
+            } else {
+                body.append(line).append('\n');
+            }
+        }
+        String ddl = ENGINE.matcher(body.toString().trim()).replaceAll(")");
+        result.add(TRAILING_COMMA.matcher(ddl).replaceAll("\n)"));
+        result.addAll(indexes);
+    }
+
+    /** Removes everything between {@code DELIMITER $$} and {@code DELIMITER ;}. */
+    private static String stripTriggers(String sql) {
+        StringBuilder out = new StringBuilder();
+        boolean inDelimiterBlock = false;
+        for (String line : sql.split("\\R")) {
+            String trimmed = line.trim().toUpperCase(Locale.ROOT);
+            if (trimmed.startsWith("DELIMITER")) {
+                inDelimiterBlock = !trimmed.equals("DELIMITER ;");
+                continue;
+            }
+            if (!inDelimiterBlock) {
+                out.append(line).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static List<String> splitStatements(String sql) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String part : withoutComments.toString().split(";")) {
+            String statement = part.trim();
+            if (!statement.isEmpty()) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+}
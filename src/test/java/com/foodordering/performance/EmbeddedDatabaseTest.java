@@ -0,0 +1,67 @@
+package com.foodordering.performance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that database/schema.sql loads into the embedded H2 database.
+ */
+class EmbeddedDatabaseTest {
+
+    private static final String URL =
+            "jdbc:h2:mem:schema_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("MySQL-only statements are dropped and inline indexes become CREATE INDEX")
+    void testTranslate() {
+        List<String> statements = EmbeddedDatabase.translate(String.join("\n",
+                "DROP DATABASE IF EXISTS db;",
+                "USE db;",
+                "CREATE TABLE t (",
+                "    id INT PRIMARY KEY,",
+                "    a INT,",
+                "    INDEX idx_a (a),",
+                "    UNIQUE KEY uq_a_id (a, id)",
+                ") ENGINE=InnoDB;",
+                "DELIMITER $$",
+                "CREATE TRIGGER trg AFTER INSERT ON t FOR EACH ROW BEGIN END$$",
+                "DELIMITER ;",
+                "SHOW TABLES;"));
+
+        assertEquals(3, statements.size());
+        assertFalse(statements.get(0).contains("ENGINE"));
+        assertTrue(statements.get(0).replaceAll("\\s+", " ").endsWith("a INT )"));
+        assertEquals("CREATE INDEX t_idx_a ON t (a)", statements.get(1));
+        assertEquals("CREATE UNIQUE INDEX t_uq_a_id ON t (a, id)", statements.get(2));
+    }
+
+    @Test
+    @DisplayName("schema.sql creates every table and view")
+    void testLoadSchema() throws Exception {
+        try (Connection conn = EmbeddedDatabase.connect(URL)) {
+            EmbeddedDatabase.loadSchema(conn);
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                         "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = 'public'")) {
+                rs.next();
+                assertEquals(14, rs.getInt(1)); // 11 tables + 3 views
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM information_schema.triggers")) {
+                rs.next();
+                assertEquals(0, rs.getInt(1));
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+        }
+    }
+}
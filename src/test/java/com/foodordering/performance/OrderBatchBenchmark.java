@@ -0,0 +1,90 @@
+package com.foodordering.performance;
+
+import com.foodordering.dao.OrderDAO;
+import com.foodordering.models.Order;
+import com.foodordering.models.OrderItem;
+import com.foodordering.utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orders/second of {@link OrderDAO#createOrders(List, int)} at group sizes
+ * 1, 10, 100 and 1000, against one {@link OrderDAO#createOrder(Order)} call
+ * per order. Every order has two items. Inserted orders are deleted afterwards.
+ *
+ * Requires a running MySQL configured in database.properties, ideally with
+ * rewriteBatchedStatements=true in db.url. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.foodordering.performance.OrderBatchBenchmark
+ *     -Dexec.args="2000 1 1 1 2"   (orders, customer id, restaurant id, menu item ids)
+ */
+public class OrderBatchBenchmark {
+
+    private static final int[] GROUP_SIZES = {1, 10, 100, 1000};
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int customerId = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int restaurantId = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int itemA = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int itemB = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+
+        OrderDAO dao = new OrderDAO();
+
+        // Warm up JIT, pool and statement cache
+        List<Order> warmup = newOrders(100, customerId, restaurantId, itemA, itemB);
+        dao.createOrders(warmup, 10);
+        delete(warmup);
+
+        System.out.printf("%d orders with 2 items each%n", count);
+        List<Order> single = newOrders(count, customerId, restaurantId, itemA, itemB);
+        long begin = System.nanoTime();
+        for (Order order : single) {
+            dao.createOrder(order);
+        }
+        report("createOrder (one tx per order)", count, System.nanoTime() - begin);
+        delete(single);
+
+        for (int groupSize : GROUP_SIZES) {
+            List<Order> orders = newOrders(count, customerId, restaurantId, itemA, itemB);
+            begin = System.nanoTime();
+            int created = dao.createOrders(orders, groupSize);
+            report("createOrders group=" + groupSize, created, System.nanoTime() - begin);
+            delete(orders);
+        }
+
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    private static List<Order> newOrders(int count, int customerId, int restaurantId, int itemA, int itemB) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(0, customerId, restaurantId, 25.00, "pending", null);
+            order.addItem(new OrderItem(0, 0, itemA, 1, 15.00));
+            order.addItem(new OrderItem(0, 0, itemB, 2, 5.00));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static void report(String label, int orders, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-34s %10.0f orders/s  (%d orders in %.2f s)%n", label, orders / seconds, orders, seconds);
+    }
+
+    private static void delete(List<Order> orders) throws Exception {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM orders WHERE order_id = ?")) {
+            for (Order order : orders) {
+                if (order.getOrderId() > 0) {
+                    ps.setInt(1, order.getOrderId());
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -151,6 +151,7 @@ class PerformanceTest {
         
         System.out.println("✓ Concurrent operations completed in " + duration + " ms");
         assertTrue(total > 0, "Cart should have items");
+        assertEquals(100, cart.getItems().get(0).getQuantity(), "No concurrent add should be lost");
         assertTrue(duration < 1000, "Concurrent operations should complete within 1 second");
     }
 
@@ -0,0 +1,92 @@
+package com.foodordering.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SHA-256 and BCrypt password hash formats.
+ */
+class PasswordHasherTest {
+
+    private final Sha256PasswordHasher sha256 = new Sha256PasswordHasher();
+    private final BCryptPasswordHasher bcrypt = new BCryptPasswordHasher(4);
+
+    @Test
+    @DisplayName("SHA-256 output matches the original String.format hex encoding")
+    void testSha256MatchesLegacyEncoding() throws Exception {
+        for (String raw : new String[] {"password123", "", "pässwörd", "CorrectHorse42"}) {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            StringBuilder expected = new StringBuilder();
+            for (byte b : bytes) {
+                expected.append(String.format("%02x", b));
+            }
+            assertEquals(expected.toString(), sha256.hash(raw), raw);
+        }
+    }
+
+    @Test
+    @DisplayName("SHA-256 matches and recognizes only its own format")
+    void testSha256MatchesAndRecognizes() {
+        String hash = sha256.hash("password123");
+
+        assertTrue(sha256.recognizes(hash));
+        assertTrue(sha256.matches("password123", hash));
+        assertFalse(sha256.matches("password124", hash));
+        assertFalse(sha256.matches(null, hash));
+        assertFalse(sha256.recognizes(hash.toUpperCase()));
+        assertFalse(sha256.recognizes(hash.substring(1)));
+        assertFalse(sha256.recognizes(bcrypt.hash("password123")));
+        assertFalse(sha256.recognizes(null));
+    }
+
+    @Test
+    @DisplayName("BCrypt hashes are salted and verify")
+    void testBCryptHashAndMatch() {
+        String first = bcrypt.hash("password123");
+        String second = bcrypt.hash("password123");
+
+        assertNotEquals(first, second, "Each hash should use a fresh salt");
+        assertTrue(first.startsWith("$2a$04$"));
+        assertEquals(60, first.length());
+        assertTrue(bcrypt.matches("password123", first));
+        assertTrue(bcrypt.matches("password123", second));
+        assertFalse(bcrypt.matches("password124", first));
+        assertFalse(bcrypt.matches(null, first));
+    }
+
+    @Test
+    @DisplayName("BCrypt rejects other formats and malformed hashes without throwing")
+    void testBCryptRejectsForeignHashes() {
+        String legacy = sha256.hash("password123");
+
+        assertFalse(bcrypt.recognizes(legacy));
+        assertFalse(bcrypt.matches("password123", legacy));
+        assertFalse(bcrypt.matches("password123", "$2a$04$" + "!".repeat(53)));
+        assertFalse(bcrypt.recognizes(null));
+    }
+
+    @Test
+    @DisplayName("BCrypt asks for a rehash of legacy hashes and hashes with another cost")
+    void testBCryptNeedsRehash() {
+        String current = bcrypt.hash("password123");
+        String cheaper = new BCryptPasswordHasher(5).hash("password123");
+
+        assertFalse(bcrypt.needsRehash(current));
+        assertTrue(bcrypt.needsRehash(cheaper));
+        assertTrue(bcrypt.needsRehash(sha256.hash("password123")));
+        assertTrue(sha256.needsRehash(current));
+    }
+
+    @Test
+    @DisplayName("BCrypt cost is range checked")
+    void testBCryptCostRange() {
+        assertThrows(IllegalArgumentException.class, () -> new BCryptPasswordHasher(3));
+        assertThrows(IllegalArgumentException.class, () -> new BCryptPasswordHasher(32));
+        assertEquals(BCryptPasswordHasher.DEFAULT_COST, new BCryptPasswordHasher().getCost());
+    }
+}
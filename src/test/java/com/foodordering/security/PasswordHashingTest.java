@@ -0,0 +1,124 @@
+package com.foodordering.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link PasswordHashing}: format selection, rehashing and the
+ * bounded hashing queue.
+ */
+class PasswordHashingTest {
+
+    private final Sha256PasswordHasher sha256 = new Sha256PasswordHasher();
+    private PasswordHashing hashing =
+            new PasswordHashing(new BCryptPasswordHasher(4), List.of(sha256), 2, 16);
+
+    @AfterEach
+    void tearDown() {
+        hashing.close();
+    }
+
+    @Test
+    @DisplayName("New hashes use the current format and run off the calling thread")
+    void testHashUsesCurrentFormat() {
+        String hash = hashing.hash("password123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hashing.matches("password123", hash));
+        assertFalse(hashing.matches("password124", hash));
+        assertFalse(hashing.needsRehash(hash));
+    }
+
+    @Test
+    @DisplayName("Legacy hashes verify and come back with a replacement")
+    void testVerifyUpgradesLegacyHash() {
+        String legacy = sha256.hash("password123");
+
+        PasswordHashing.Verification verification = hashing.verify("password123", legacy);
+
+        assertTrue(verification.matches());
+        assertNotNull(verification.getUpgradedHash());
+        assertTrue(verification.getUpgradedHash().startsWith("$2a$04$"));
+        assertTrue(hashing.matches("password123", verification.getUpgradedHash()));
+    }
+
+    @Test
+    @DisplayName("Current hashes and wrong passwords are not rehashed")
+    void testVerifyWithoutUpgrade() {
+        String current = hashing.hash("password123");
+
+        assertNull(hashing.verify("password123", current).getUpgradedHash());
+        PasswordHashing.Verification wrong = hashing.verify("password124", sha256.hash("password123"));
+        assertFalse(wrong.matches());
+        assertNull(wrong.getUpgradedHash());
+    }
+
+    @Test
+    @DisplayName("Unknown formats and nulls never match")
+    void testUnknownFormats() {
+        assertFalse(hashing.matches("password123", "password123"));
+        assertFalse(hashing.matches("password123", null));
+        assertFalse(hashing.matches(null, hashing.hash("password123")));
+        assertThrows(IllegalArgumentException.class, () -> hashing.hash(null));
+    }
+
+    @Test
+    @DisplayName("A full queue rejects new work instead of growing")
+    void testRejectsWhenQueueIsFull() throws Exception {
+        hashing.close();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> hashThread = new AtomicReference<>();
+        PasswordHasher blocking = new Sha256PasswordHasher() {
+            @Override
+            public String hash(String rawPassword) {
+                hashThread.set(Thread.currentThread().getName());
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.hash(rawPassword);
+            }
+        };
+        hashing = new PasswordHashing(blocking, List.of(), 1, 1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hashing.hash("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hashing.hash("second"));
+        while (hashing.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> hashing.hash("third"));
+        assertEquals(1, hashing.getRejectedCount());
+
+        release.countDown();
+        assertEquals(sha256.hash("first"), running.get(5, TimeUnit.SECONDS));
+        assertEquals(sha256.hash("second"), queued.get(5, TimeUnit.SECONDS));
+        assertTrue(hashThread.get().startsWith("password-hash-"));
+    }
+
+    @Test
+    @DisplayName("Pool size and queue capacity are validated")
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordHashing(null, List.of(), 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordHashing(sha256, List.of(), 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordHashing(sha256, List.of(), 1, 0));
+        assertTrue(PasswordHashing.defaultThreads() >= 1);
+    }
+}
@@ -0,0 +1,284 @@
+package com.foodordering.services;
+
+import com.foodordering.dao.CartRepository;
+import com.foodordering.dao.CouponDAO;
+import com.foodordering.models.Cart;
+import com.foodordering.models.CartItem;
+import com.foodordering.models.CartSnapshot;
+import com.foodordering.models.Coupon;
+import com.foodordering.models.MenuItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CartStore using a mocked CartRepository. The flush interval is
+ * long, so everything after the first automatic flush is flushed by the test.
+ */
+class CartStoreTest {
+
+    private static final long NEVER = TimeUnit.HOURS.toMillis(1);
+
+    private final CartRepository repository = mock(CartRepository.class);
+    private final CouponDAO couponDAO = mock(CouponDAO.class);
+    private final MenuItem pizza = new MenuItem(1, 1, "Pizza", 10.0, "Tasty", true);
+    private final MenuItem soda = new MenuItem(2, 1, "Soda", 1.5, "Cold", true);
+
+    @TempDir
+    Path dir;
+
+    private CartStore store;
+
+    private CartStore newStore() throws InterruptedException {
+        CartStore created = new CartStore(repository, couponDAO, dir.resolve("carts.json"), NEVER, 2);
+        // Wait for the first automatic flush so it cannot race with the test's own
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (created.getFlushCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return created;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CartSnapshot> lastSaved() {
+        ArgumentCaptor<List<CartSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, atLeastOnce()).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Edits between flushes are saved as one snapshot")
+    void testEditsAreCoalesced() throws Exception {
+        when(repository.load(anyInt())).thenReturn(new CartSnapshot(1, 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenReturn(true);
+        store = newStore();
+
+        Cart cart = store.open(1);
+        cart.addItem(pizza, 1);
+        cart.addItem(soda, 2);
+        cart.updateQuantity(1, 3);
+        verify(repository, never()).saveAll(anyList());
+
+        assertEquals(1, store.flush());
+        List<CartSnapshot> saved = lastSaved();
+        assertEquals(1, saved.size());
+        assertEquals(List.of(3, 2), saved.get(0).getItems().stream().map(CartItem::getQuantity).toList());
+
+        assertEquals(0, store.flush(), "An unchanged cart is not saved again");
+        verify(repository, times(1)).saveAll(anyList());
+        assertFalse(Files.exists(dir.resolve("carts.json")), "Journal is removed once everything is saved");
+    }
+
+    @Test
+    @DisplayName("Open restores the saved cart and its coupon, and returns the same cart until released")
+    void testOpenRestoresCart() throws Exception {
+        Coupon coupon = new Coupon("SAVE10", Coupon.Type.PERCENTAGE, 10);
+        when(repository.load(1)).thenReturn(new CartSnapshot(1, 0, "SAVE10",
+                List.of(new CartItem(1, "Pizza", 10.0, 2))));
+        when(couponDAO.getCouponByCode("SAVE10")).thenReturn(coupon);
+        store = newStore();
+
+        Cart cart = store.open(1);
+
+        assertEquals(2000, cart.getSummary().getSubtotalCents());
+        assertSame(coupon, cart.getAppliedCoupon());
+        assertSame(cart, store.open(1));
+        assertEquals(0, store.flush(), "A restored cart is not written back unchanged");
+        verify(repository, times(1)).load(1);
+    }
+
+    @Test
+    @DisplayName("A released cart is saved one last time and then forgotten")
+    void testRelease() throws Exception {
+        when(repository.load(anyInt())).thenReturn(new CartSnapshot(1, 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenReturn(true);
+        store = newStore();
+
+        Cart cart = store.open(1);
+        cart.addItem(pizza, 1);
+        store.release(1);
+
+        assertEquals(1, store.flush());
+        assertEquals(0, store.getOpenCount());
+        assertNotSame(cart, store.open(1));
+    }
+
+    @Test
+    @DisplayName("Unsaved carts stay in the journal and are replayed by the next store")
+    void testJournalReplay() throws Exception {
+        when(repository.load(anyInt())).thenReturn(new CartSnapshot(1, 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenReturn(false);
+        store = newStore();
+
+        store.open(1).addItem(pizza, 2);
+        assertEquals(0, store.flush());
+        assertEquals(1, store.getPendingCount());
+        assertTrue(Files.exists(dir.resolve("carts.json")));
+        // Simulates a crash: the cart never reached the database
+        store.close();
+
+        reset(repository);
+        CountDownLatch replayed = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            replayed.countDown();
+            return true;
+        });
+        store = new CartStore(repository, couponDAO, dir.resolve("carts.json"), NEVER, 2);
+
+        assertTrue(replayed.await(5, TimeUnit.SECONDS), "The first flush should replay the journal");
+        List<CartSnapshot> saved = lastSaved();
+        assertEquals(1, saved.get(0).getUserId());
+        assertEquals(2, saved.get(0).getItems().get(0).getQuantity());
+        store.flush();
+        assertEquals(0, store.getPendingCount());
+        assertFalse(Files.exists(dir.resolve("carts.json")));
+    }
+
+    @Test
+    @DisplayName("Opening a cart that is still queued restores the queued state, not the database")
+    void testOpenPrefersQueuedSnapshot() throws Exception {
+        when(repository.load(anyInt())).thenReturn(new CartSnapshot(1, 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenReturn(false);
+        store = newStore();
+
+        store.open(1).addItem(pizza, 4);
+        store.release(1);
+        store.flush();
+        assertEquals(0, store.getOpenCount());
+
+        assertEquals(4, store.open(1).getItemsView().get(0).getQuantity());
+    }
+
+    @Test
+    @DisplayName("A cart the database rejects does not hold back the others and is retried on its own")
+    void testRejectedCartIsRetried() throws Exception {
+        when(repository.load(anyInt())).thenAnswer(inv ->
+                new CartSnapshot(inv.getArgument(0), 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<CartSnapshot> batch = inv.getArgument(0);
+            return batch.stream().noneMatch(snapshot -> snapshot.getUserId() == 2);
+        });
+        store = newStore();
+
+        store.open(1).addItem(pizza, 1);
+        store.open(2).addItem(pizza, 1);
+
+        assertEquals(1, store.flush());
+        assertEquals(1, store.getPendingCount(), "The rejected cart stays queued");
+        assertTrue(Files.exists(dir.resolve("carts.json")));
+
+        reset(repository);
+        when(repository.saveAll(anyList())).thenReturn(true);
+        store.open(1).addItem(soda, 1);
+
+        assertEquals(2, store.flush());
+        assertEquals(0, store.getPendingCount());
+        verify(repository).saveAll(argThat(batch -> batch.size() == 1 && batch.get(0).getUserId() == 2));
+        assertFalse(Files.exists(dir.resolve("carts.json")));
+    }
+
+    @Test
+    @DisplayName("A cart rejected on every flush while others save is eventually dropped")
+    void testRepeatedlyRejectedCartIsDropped() throws Exception {
+        when(repository.load(anyInt())).thenAnswer(inv ->
+                new CartSnapshot(inv.getArgument(0), 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<CartSnapshot> batch = inv.getArgument(0);
+            return batch.stream().noneMatch(snapshot -> snapshot.getUserId() == 2);
+        });
+        store = newStore();
+
+        Cart other = store.open(1);
+        store.open(2).addItem(pizza, 1);
+        for (int attempt = 1; attempt < CartStore.MAX_SAVE_ATTEMPTS; attempt++) {
+            other.addItem(soda, 1);
+            assertEquals(1, store.flush());
+            assertEquals(1, store.getPendingCount(), "Still queued after " + attempt + " rejections");
+        }
+
+        other.addItem(soda, 1);
+        assertEquals(1, store.flush());
+        assertEquals(0, store.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Rejections while the database is down do not count towards dropping a cart")
+    void testRejectionsNotCountedWhileDatabaseDown() throws Exception {
+        when(repository.load(anyInt())).thenAnswer(inv ->
+                new CartSnapshot(inv.getArgument(0), 0, null, List.of()));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<CartSnapshot> batch = inv.getArgument(0);
+            return batch.stream().noneMatch(snapshot -> snapshot.getUserId() == 2);
+        });
+        store = newStore();
+
+        store.open(1).addItem(pizza, 1);
+        store.open(2).addItem(pizza, 1);
+        assertEquals(1, store.flush());
+
+        when(repository.saveAll(anyList())).thenReturn(false);
+        for (int i = 0; i < CartStore.MAX_SAVE_ATTEMPTS * 2; i++) {
+            assertEquals(0, store.flush());
+        }
+        assertEquals(1, store.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Edits made while a flush is writing are saved by the next flush")
+    void testEditDuringFlush() throws Exception {
+        when(repository.load(anyInt())).thenReturn(new CartSnapshot(1, 0, null, List.of()));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            writing.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return true;
+        }).thenReturn(true);
+        store = newStore();
+
+        Cart cart = store.open(1);
+        cart.addItem(pizza, 1);
+        CompletableFuture<Integer> flush = CompletableFuture.supplyAsync(store::flush);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        cart.addItem(soda, 1);
+        finish.countDown();
+        assertEquals(1, flush.get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, store.flush());
+        assertEquals(2, lastSaved().get(0).getItems().size());
+    }
+
+    @Test
+    @DisplayName("Users without an id get a cart that is not tracked")
+    void testUnsavedUser() throws Exception {
+        store = newStore();
+
+        store.open(0).addItem(pizza, 1);
+
+        assertEquals(0, store.getOpenCount());
+        assertEquals(0, store.flush());
+        verifyNoInteractions(repository);
+    }
+}
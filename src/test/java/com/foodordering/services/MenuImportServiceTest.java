@@ -0,0 +1,146 @@
+package com.foodordering.services;
+
+import com.foodordering.dao.MenuItemDAO;
+import com.foodordering.dao.RestaurantDAO;
+import com.foodordering.exceptions.DatabaseException;
+import com.foodordering.exceptions.ValidationException;
+import com.foodordering.models.MenuItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for MenuImportService using mocked DAOs.
+ */
+class MenuImportServiceTest {
+
+    private final MenuItemDAO menuItemDAO = mock(MenuItemDAO.class);
+    private final RestaurantDAO restaurantDAO = mock(RestaurantDAO.class);
+    private final MenuImportService service = new MenuImportService(menuItemDAO, restaurantDAO);
+
+    @SuppressWarnings("unchecked")
+    private List<MenuItem> insertedItems() {
+        ArgumentCaptor<List<MenuItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(menuItemDAO).addMenuItems(captor.capture(), anyInt());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("CSV rows are validated, rejected rows are reported with their line")
+    void testImportCsv() throws Exception {
+        when(restaurantDAO.getExistingRestaurantIds(any())).thenReturn(Set.of(1));
+        when(menuItemDAO.addMenuItems(any(), anyInt())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+        String csv = "name,price,restaurant_id,available\r\n" +
+                "Margherita,8.50,1,true\r\n" +
+                "\"Pasta, \"\"al dente\"\"\",12,1,no\r\n" +
+                ",3.00,1,\r\n" +
+                "Soup,-1,1,\r\n" +
+                "Cola,2.00,9,\r\n" +
+                "Water,abc,1,\r\n";
+
+        MenuImportService.ImportReport report = service.importMenu(csv, MenuImportService.Format.CSV, 100);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getRowsInserted());
+        assertEquals(0, report.getRowsFailed());
+        List<MenuImportService.Rejection> rejected = report.getRejected();
+        assertEquals(4, rejected.size());
+        assertEquals("line 4", rejected.get(0).getLocation());
+        assertEquals("Name cannot be empty", rejected.get(0).getReason());
+        assertEquals("line 5", rejected.get(1).getLocation());
+        assertEquals("restaurant 9 does not exist", rejected.get(2).getReason());
+        assertEquals("line 7", rejected.get(3).getLocation());
+
+        List<MenuItem> items = insertedItems();
+        assertEquals("Pasta, \"al dente\"", items.get(1).getName());
+        assertEquals(12.0, items.get(1).getPrice());
+        assertFalse(items.get(1).isAvailable());
+        assertTrue(items.get(0).isAvailable());
+    }
+
+    @Test
+    @DisplayName("Quoted CSV fields may span lines")
+    void testCsvMultilineField() throws Exception {
+        when(restaurantDAO.getExistingRestaurantIds(any())).thenReturn(Set.of(1));
+        String csv = "restaurant_id,name,price,description\n1,Pizza,9,\"Thin crust\nwood fired\"\n1,,1,\n";
+
+        MenuImportService.ImportReport report = service.importMenu(csv, MenuImportService.Format.CSV, 100);
+
+        assertEquals(2, report.getRowsRead());
+        assertEquals("line 4", report.getRejected().get(0).getLocation());
+        assertEquals("Thin crust\nwood fired", insertedItems().get(0).getDescription());
+    }
+
+    @Test
+    @DisplayName("JSON arrays of flat objects are imported")
+    void testImportJson() throws Exception {
+        when(restaurantDAO.getExistingRestaurantIds(any())).thenReturn(Set.of(1, 2));
+        when(menuItemDAO.addMenuItems(any(), anyInt())).thenReturn(2);
+        String json = "[ {\"restaurant_id\": 1, \"name\": \"Caf\\u00e9 latte\", \"price\": 3.5, \"available\": false},\n" +
+                "  {\"restaurant_id\": \"2\", \"name\": \"Tea, \\\"green\\\"\", \"price\": \"2\", \"description\": null},\n" +
+                "  {\"restaurant_id\": 1, \"name\": \"Tags\", \"price\": 1, \"tags\": [\"x\"]},\n" +
+                "  {\"restaurant_id\": 1, \"price\": 1} ]";
+
+        MenuImportService.ImportReport report = service.importMenu(json, MenuImportService.Format.JSON, 100);
+
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getRowsInserted());
+        assertEquals("item 3", report.getRejected().get(0).getLocation());
+        assertEquals("name", report.getRejected().get(1).getReason().substring(0, 4).toLowerCase());
+        List<MenuItem> items = insertedItems();
+        assertEquals("Café latte", items.get(0).getName());
+        assertFalse(items.get(0).isAvailable());
+        assertEquals("Tea, \"green\"", items.get(1).getName());
+        assertNull(items.get(1).getDescription());
+    }
+
+    @Test
+    @DisplayName("Malformed files and unreadable restaurants raise exceptions")
+    void testMalformedFiles() {
+        assertThrows(ValidationException.class,
+                () -> service.importMenu("name,price\nPizza,1\n", MenuImportService.Format.CSV, 100));
+        assertThrows(ValidationException.class,
+                () -> service.importMenu("{\"name\": \"Pizza\"}", MenuImportService.Format.JSON, 100));
+        assertThrows(ValidationException.class,
+                () -> service.importMenu("[{\"name\": \"Pizza\"}", MenuImportService.Format.JSON, 100));
+
+        when(restaurantDAO.getExistingRestaurantIds(any())).thenReturn(null);
+        assertThrows(DatabaseException.class,
+                () -> service.importMenu("restaurant_id,name,price\n1,Pizza,1\n", MenuImportService.Format.CSV, 100));
+        verify(menuItemDAO, never()).addMenuItems(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Values that do not fit the menu_items columns are rejected")
+    void testColumnLimits() {
+        String longName = "x".repeat(MenuImportService.MAX_NAME_LENGTH + 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> MenuImportService.toMenuItem("1", longName, "1", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> MenuImportService.toMenuItem("1", "Gold", "100000000.00", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> MenuImportService.toMenuItem("0", "Pizza", "1", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> MenuImportService.toMenuItem("1", "Pizza", "1", null, "maybe"));
+        assertEquals(99999999.99, MenuImportService.toMenuItem("1", "Gold", "99999999.99", "", "1").getPrice());
+    }
+
+    @Test
+    @DisplayName("Flat JSON objects are parsed to text values")
+    void testParseJsonObject() {
+        assertEquals(Map.of("a", "1", "b", "x\ny", "c", "true"),
+                MenuImportService.parseJsonObject("{\"a\": 1, \"b\": \"x\\ny\", \"c\": true, \"d\": null}"));
+        assertEquals(Map.of(), MenuImportService.parseJsonObject(" { } "));
+        assertThrows(IllegalArgumentException.class, () -> MenuImportService.parseJsonObject("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> MenuImportService.parseJsonObject("{\"a\": nope}"));
+    }
+}
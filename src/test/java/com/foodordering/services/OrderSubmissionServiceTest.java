@@ -0,0 +1,165 @@
+package com.foodordering.services;
+
+import com.foodordering.dao.OrderDAO;
+import com.foodordering.exceptions.OrderException;
+import com.foodordering.models.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for OrderSubmissionService using a mocked OrderDAO.
+ */
+class OrderSubmissionServiceTest {
+
+    private final OrderDAO orderDAO = mock(OrderDAO.class);
+    private OrderSubmissionService service;
+
+    private static Order newOrder() {
+        return new Order(0, 1, 1, 20.0, "pending", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Submitted order completes with the generated id")
+    void testSubmitCompletesWithOrderId() throws Exception {
+        when(orderDAO.createOrder(any())).thenAnswer(inv -> {
+            inv.<Order>getArgument(0).setOrderId(42);
+            return true;
+        });
+        service = new OrderSubmissionService(orderDAO, 2, 4, OrderSubmissionService.OverflowPolicy.REJECT, 100);
+
+        int orderId = service.submit(newOrder()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(42, orderId);
+        assertEquals(1, service.getSubmittedCount());
+        assertEquals(1, service.getCompletedCount());
+        assertTrue(service.getMaxLatencyMillis() >= 0);
+    }
+
+    @Test
+    @DisplayName("Preparation returning null completes with 0 and saves nothing")
+    void testSkippedPreparation() throws Exception {
+        service = new OrderSubmissionService(orderDAO, 1, 4, OrderSubmissionService.OverflowPolicy.REJECT, 100);
+
+        assertEquals(0, service.submit(() -> null).get(5, TimeUnit.SECONDS));
+        verify(orderDAO, never()).createOrder(any());
+    }
+
+    @Test
+    @DisplayName("DAO failure completes the future exceptionally")
+    void testSaveFailure() {
+        when(orderDAO.createOrder(any())).thenReturn(false);
+        service = new OrderSubmissionService(orderDAO, 1, 4, OrderSubmissionService.OverflowPolicy.REJECT, 100);
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> service.submit(newOrder()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OrderException.class, ex.getCause());
+        assertEquals(1, service.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("After-save step runs with the saved order and can cancel it")
+    void testAfterSaveStep() throws Exception {
+        when(orderDAO.createOrder(any())).thenAnswer(inv -> {
+            inv.<Order>getArgument(0).setOrderId(7);
+            return true;
+        });
+        service = new OrderSubmissionService(orderDAO, 1, 4, OrderSubmissionService.OverflowPolicy.REJECT, 100);
+
+        assertEquals(7, service.submit(OrderSubmissionServiceTest::newOrder,
+                order -> order.getOrderId() == 7).get(5, TimeUnit.SECONDS));
+        assertEquals(0, service.submit(OrderSubmissionServiceTest::newOrder,
+                order -> false).get(5, TimeUnit.SECONDS));
+        assertEquals(2, service.getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("After-save step is skipped when the order cannot be saved")
+    void testAfterSaveSkippedOnSaveFailure() {
+        when(orderDAO.createOrder(any())).thenReturn(false);
+        service = new OrderSubmissionService(orderDAO, 1, 4, OrderSubmissionService.OverflowPolicy.REJECT, 100);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThrows(ExecutionException.class, () -> service.submit(OrderSubmissionServiceTest::newOrder,
+                order -> ran.getAndSet(true)).get(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    @DisplayName("Full queue rejects submissions under the REJECT policy")
+    void testRejectWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(orderDAO.createOrder(any())).thenReturn(true);
+        service = new OrderSubmissionService(orderDAO, 1, 1, OrderSubmissionService.OverflowPolicy.REJECT, 100);
+
+        CompletableFuture<Integer> running = service.submit(() -> {
+            started.countDown();
+            release.await();
+            return newOrder();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = service.submit(newOrder());
+        CompletableFuture<Integer> overflow = service.submit(newOrder());
+
+        assertTrue(overflow.isCompletedExceptionally());
+        assertEquals(1, service.getRejectedCount());
+        assertEquals(1, service.getQueueDepth());
+        assertEquals(1, service.getMaxQueueDepth());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(2, service.getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Full queue blocks the caller until space frees up under the WAIT policy")
+    void testWaitWhenFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(orderDAO.createOrder(any())).thenReturn(true);
+        service = new OrderSubmissionService(orderDAO, 1, 1, OrderSubmissionService.OverflowPolicy.WAIT, 5000);
+
+        CompletableFuture<Integer> running = service.submit(() -> {
+            started.countDown();
+            Thread.sleep(100);
+            return newOrder();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.submit(newOrder());
+        CompletableFuture<Integer> waited = service.submit(newOrder());
+
+        assertFalse(waited.isCompletedExceptionally());
+        waited.get(5, TimeUnit.SECONDS);
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(0, service.getRejectedCount());
+        assertEquals(3, service.getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Submissions after close are rejected")
+    void testSubmitAfterClose() {
+        service = new OrderSubmissionService(orderDAO, 1, 1, OrderSubmissionService.OverflowPolicy.WAIT, 100);
+        service.close();
+
+        assertTrue(service.submit(newOrder()).isCompletedExceptionally());
+        assertTrue(service.isShutdown());
+    }
+}
@@ -5,6 +5,7 @@ import com.foodordering.exceptions.*;
 import com.foodordering.models.User;
 import org.junit.jupiter.api.*;
 
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -118,10 +119,21 @@ public class UserServiceTest {
         assertEquals("testuser", result.getUsername());
     }
 
+    @Test
+    @Order(9)
+    @DisplayName("Login while the hashing queue is full is a busy server, not bad credentials")
+    void testLoginWhenHashingQueueFull() {
+        when(mockUserDAO.login(anyString(), anyString())).thenThrow(new RejectedExecutionException("queue full"));
+
+        DatabaseException ex = assertThrows(DatabaseException.class,
+            () -> userService.loginUser("testuser", "password123"));
+        assertTrue(ex.getMessage().contains("try again"));
+    }
+
     // ========== Get User By ID Tests ==========
 
     @Test
-    @Order(9)
+    @Order(10)
     @DisplayName("Get user with invalid ID should throw ValidationException")
     void testGetUserInvalidId() {
         ValidationException ex1 = assertThrows(ValidationException.class, 
@@ -134,7 +146,7 @@ public class UserServiceTest {
     }
 
     @Test
-    @Order(10)
+    @Order(11)
     @DisplayName("Get non-existent user should throw ResourceNotFoundException")
     void testGetNonExistentUser() {
         // Mock DAO to return null (user not found)
@@ -146,7 +158,7 @@ public class UserServiceTest {
     }
 
     @Test
-    @Order(11)
+    @Order(12)
     @DisplayName("Get existing user should succeed")
     void testGetUserSuccess() throws Exception {
         // Mock successful retrieval
@@ -162,7 +174,7 @@ public class UserServiceTest {
     // ========== Exception Hierarchy Tests ==========
 
     @Test
-    @Order(12)
+    @Order(13)
     @DisplayName("All custom exceptions extend BaseApplicationException")
     void testExceptionHierarchy() {
         Exception validationEx = new ValidationException("test");
@@ -179,7 +191,7 @@ public class UserServiceTest {
     }
 
     @Test
-    @Order(13)
+    @Order(14)
     @DisplayName("Exceptions can be caught polymorphically")
     void testPolymorphicExceptionHandling() {
         boolean caughtValidation = false;
@@ -0,0 +1,129 @@
+package com.foodordering.ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BackgroundLoader}. Uses a plain panel as owner so no
+ * display is needed.
+ */
+class BackgroundLoaderTest {
+
+    private BackgroundLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new BackgroundLoader(new JPanel());
+    }
+
+    @Test
+    @DisplayName("Work runs off the EDT and the result is published on the EDT")
+    void testPublishesOnEdt() throws Exception {
+        AtomicBoolean workOnEdt = new AtomicBoolean(true);
+        AtomicBoolean callbackOnEdt = new AtomicBoolean(false);
+        AtomicReference<String> published = new AtomicReference<>();
+
+        CompletableFuture<String> future = loader.load("menu", () -> {
+            workOnEdt.set(SwingUtilities.isEventDispatchThread());
+            return "pizza";
+        }, result -> {
+            callbackOnEdt.set(SwingUtilities.isEventDispatchThread());
+            published.set(result);
+        });
+
+        assertEquals("pizza", future.get(5, TimeUnit.SECONDS));
+        assertFalse(workOnEdt.get(), "DAO work must not run on the EDT");
+        assertTrue(callbackOnEdt.get(), "Result must be published on the EDT");
+        assertEquals("pizza", published.get());
+        assertFalse(loader.isBusy());
+    }
+
+    @Test
+    @DisplayName("A newer load with the same key discards the stale one")
+    void testNewerLoadCancelsStaleLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> published = new AtomicReference<>();
+
+        CompletableFuture<String> stale = loader.load("reviews", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "stale";
+        }, published::set);
+        CompletableFuture<String> fresh = loader.load("reviews", () -> "fresh", published::set);
+
+        assertEquals("fresh", fresh.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertTrue(loader.awaitIdle(5000));
+        assertTrue(stale.isCancelled());
+        assertEquals("fresh", published.get(), "Stale result must never be published");
+    }
+
+    @Test
+    @DisplayName("Loads with different keys do not cancel each other")
+    void testDifferentKeysRunIndependently() throws Exception {
+        CompletableFuture<Integer> first = loader.load("profile", () -> 1, r -> { });
+        CompletableFuture<Integer> second = loader.load("history", () -> 2, r -> { });
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Failures reach the failure callback on the EDT")
+    void testFailureCallback() throws Exception {
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicBoolean resultPublished = new AtomicBoolean(false);
+
+        CompletableFuture<Object> future = loader.load("order", () -> {
+            throw new SQLException("connection refused");
+        }, r -> resultPublished.set(true), failure::set);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof SQLException);
+        assertTrue(failure.get() instanceof SQLException);
+        assertEquals("connection refused", failure.get().getMessage());
+        assertFalse(resultPublished.get());
+    }
+
+    @Test
+    @DisplayName("cancelAll discards pending loads and refuses new ones")
+    void testCancelAll() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean published = new AtomicBoolean(false);
+
+        CompletableFuture<String> pending = loader.load("menu", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "late";
+        }, r -> published.set(true));
+        loader.cancelAll();
+        release.countDown();
+
+        assertTrue(loader.awaitIdle(5000));
+        assertTrue(pending.isCancelled());
+        assertFalse(published.get(), "Nothing may be published after the owner was disposed");
+        assertTrue(loader.load("menu", () -> "again", r -> published.set(true)).isCancelled());
+    }
+
+    @Test
+    @DisplayName("awaitIdle waits for loads started by callbacks")
+    void testAwaitIdleIncludesChainedLoads() throws Exception {
+        AtomicReference<String> history = new AtomicReference<>();
+
+        loader.load("profile", () -> 42, customerId ->
+                loader.load("history", () -> "orders of " + customerId, history::set));
+
+        assertTrue(loader.awaitIdle(5000));
+        assertEquals("orders of 42", history.get());
+    }
+}
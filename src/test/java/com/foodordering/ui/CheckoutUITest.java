@@ -69,6 +69,7 @@ class CheckoutUITest {
             stmt.execute("DELETE FROM menu_items WHERE name LIKE 'Checkout Test %'");
             stmt.execute("DELETE FROM restaurants WHERE name LIKE 'Checkout Test %'");
         }
+        conn.close();
     }
 
     @Test
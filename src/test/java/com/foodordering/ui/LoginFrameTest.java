@@ -45,6 +45,7 @@ class LoginFrameTest {
         Statement stmt = connection.createStatement();
         stmt.execute("DELETE FROM users WHERE username = '" + TEST_USERNAME + "'");
         stmt.close();
+        connection.close();
     }
 
     @BeforeEach
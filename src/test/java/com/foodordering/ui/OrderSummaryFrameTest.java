@@ -37,14 +37,13 @@ class OrderSummaryFrameTest {
         restaurantDAO = new RestaurantDAO();
         menuItemDAO = new MenuItemDAO();
 
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-
         // Create test user and customer
         User testUser = new User(0, "summary_test_user", "summary@test.com", "TestPass123");
         userDAO.registerUser(testUser);
         testUserId = testUser.getId();
 
-        try (Statement stmt = conn.createStatement()) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
             stmt.execute("INSERT INTO customers (user_id, address, phone) VALUES (" + testUserId + ", '789 Summary St', '555-9999')");
             var rs = stmt.executeQuery("SELECT LAST_INSERT_ID()");
             if (rs.next()) {
@@ -82,8 +81,8 @@ class OrderSummaryFrameTest {
 
     @AfterAll
     static void teardown() throws SQLException {
-        Connection conn = DatabaseConnection.getInstance().getConnection();
-        try (Statement stmt = conn.createStatement()) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
             stmt.execute("DELETE FROM order_items WHERE order_id IN (SELECT order_id FROM orders WHERE customer_id = " + testCustomerId + ")");
             stmt.execute("DELETE FROM orders WHERE customer_id = " + testCustomerId);
             stmt.execute("DELETE FROM menu_items WHERE restaurant_id = " + testRestaurantId);
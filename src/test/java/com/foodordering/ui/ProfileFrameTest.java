@@ -85,13 +85,14 @@ public class ProfileFrameTest {
     @Test
     @org.junit.jupiter.api.Order(1)
     @DisplayName("Test get order history displays orders correctly")
-    void testGetOrderHistory() {
+    void testGetOrderHistory() throws InterruptedException {
         // Create a simple test user for this test
         User testUser = new User(testUserId, "profiletest", "profiletest@test.com", "password123");
         
         // Create ProfileFrame
         ProfileFrame frame = new ProfileFrame(testUser, userDAO, orderDAO);
         assertNotNull(frame, "ProfileFrame should be created");
+        assertTrue(frame.getLoader().awaitIdle(5000), "Profile should load in the background");
 
         // Verify order history loaded
         int rowCount = frame.getOrderHistoryRowCount();
@@ -122,13 +123,14 @@ public class ProfileFrameTest {
     @Test
     @org.junit.jupiter.api.Order(2)
     @DisplayName("Test update profile updates customer information")
-    void testUpdateProfile() {
+    void testUpdateProfile() throws InterruptedException {
         // Create a simple test user for this test
         User testUser = new User(testUserId, "profiletest", "profiletest@test.com", "password123");
 
         // Create ProfileFrame
         ProfileFrame frame = new ProfileFrame(testUser, userDAO, orderDAO);
         assertNotNull(frame, "ProfileFrame should be created");
+        assertTrue(frame.getLoader().awaitIdle(5000), "Profile should load in the background");
 
         // Verify initial values loaded
         String initialPhone = frame.getPhoneText();
@@ -141,6 +143,7 @@ public class ProfileFrameTest {
 
         // Reload profile
         ProfileFrame frame2 = new ProfileFrame(testUser, userDAO, orderDAO);
+        assertTrue(frame2.getLoader().awaitIdle(5000), "Profile should load in the background");
         String updatedPhone = frame2.getPhoneText();
         String updatedAddress = frame2.getAddressText();
 
@@ -39,6 +39,11 @@ class RegisterFrameTest {
         stmt.close();
     }
 
+    @AfterAll
+    static void releaseConnection() throws SQLException {
+        connection.close();
+    }
+
     @Test
     @Order(1)
     @DisplayName("Test successful registration")
@@ -17,6 +17,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -62,9 +63,9 @@ class RestaurantMenuUITest {
 
     @Test
     @DisplayName("Display restaurants list")
-    void testDisplayRestaurants() {
+    void testDisplayRestaurants() throws Exception {
         RestaurantFrame frame = new RestaurantFrame(cart, restaurantDAO, menuItemDAO);
-        frame.loadRestaurants();
+        frame.loadRestaurants().get(5, TimeUnit.SECONDS);
 
         DefaultListModel<String> model = frame.getRestaurantListModel();
         assertTrue(model.getSize() >= 1, "Should load at least one restaurant");
@@ -76,9 +77,9 @@ class RestaurantMenuUITest {
 
     @Test
     @DisplayName("Load menu items for restaurant")
-    void testLoadMenu() {
+    void testLoadMenu() throws Exception {
         MenuFrame frame = new MenuFrame(restaurant, cart, menuItemDAO);
-        frame.loadMenu();
+        frame.loadMenu().get(5, TimeUnit.SECONDS);
 
         DefaultTableModel model = frame.getTableModel();
         assertEquals(1, model.getRowCount());
@@ -88,9 +89,9 @@ class RestaurantMenuUITest {
 
     @Test
     @DisplayName("Add menu item to cart")
-    void testAddToCart() {
+    void testAddToCart() throws Exception {
         MenuFrame frame = new MenuFrame(restaurant, cart, menuItemDAO);
-        frame.loadMenu();
+        frame.loadMenu().get(5, TimeUnit.SECONDS);
 
         frame.addSelectedToCart(0, 2);
 
@@ -0,0 +1,152 @@
+package com.foodordering.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConnectionPool using mocked physical connections.
+ */
+class ConnectionPoolTest {
+
+    private final List<Connection> physical = new ArrayList<>();
+    private ConnectionPool pool;
+
+    private Connection newPhysical() throws SQLException {
+        Connection conn = mock(Connection.class);
+        when(conn.isValid(anyInt())).thenReturn(true);
+        when(conn.getAutoCommit()).thenReturn(true);
+        physical.add(conn);
+        return conn;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Pool opens minimum connections eagerly")
+    void testMinConnectionsOpened() {
+        pool = new ConnectionPool(this::newPhysical, 2, 4, 100, 0, 1);
+        assertEquals(2, pool.getTotalConnections());
+        assertEquals(2, pool.getIdleConnections());
+    }
+
+    @Test
+    @DisplayName("Closing a borrowed connection returns it to the pool")
+    void testCloseReturnsToPool() throws SQLException {
+        pool = new ConnectionPool(this::newPhysical, 1, 2, 100, 0, 1);
+
+        Connection first = pool.borrow();
+        assertEquals(1, pool.getActiveConnections());
+        first.close();
+
+        assertTrue(first.isClosed());
+        assertEquals(0, pool.getActiveConnections());
+        verify(physical.get(0), never()).close();
+
+        Connection second = pool.borrow();
+        second.createStatement();
+        verify(physical.get(0)).createStatement();
+        assertEquals(1, physical.size(), "Physical connection should be reused");
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Borrow times out when the pool is exhausted")
+    void testBorrowTimeout() throws SQLException {
+        pool = new ConnectionPool(this::newPhysical, 0, 2, 50, 0, 1);
+        pool.borrow();
+        pool.borrow();
+
+        assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        assertEquals(2, pool.getTotalConnections());
+    }
+
+    @Test
+    @DisplayName("Invalid idle connection is replaced on borrow")
+    void testValidationOnBorrow() throws SQLException {
+        pool = new ConnectionPool(this::newPhysical, 1, 2, 100, 0, 1);
+        Connection stale = physical.get(0);
+        when(stale.isValid(anyInt())).thenReturn(false);
+
+        Connection conn = pool.borrow();
+        conn.createStatement();
+
+        verify(stale).close();
+        assertEquals(2, physical.size());
+        verify(physical.get(1)).createStatement();
+        assertEquals(1, pool.getTotalConnections());
+        conn.close();
+    }
+
+    @Test
+    @DisplayName("Idle connections above the minimum are evicted")
+    void testIdleEviction() throws Exception {
+        pool = new ConnectionPool(this::newPhysical, 1, 3, 100, 1, 1);
+        Connection a = pool.borrow();
+        Connection b = pool.borrow();
+        Connection c = pool.borrow();
+        a.close();
+        b.close();
+        c.close();
+        assertEquals(3, pool.getTotalConnections());
+
+        Thread.sleep(5);
+        pool.evictIdle();
+
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    @DisplayName("Uncommitted transaction is rolled back when returned")
+    void testRollbackOnReturn() throws SQLException {
+        pool = new ConnectionPool(this::newPhysical, 1, 1, 100, 0, 1);
+        Connection conn = pool.borrow();
+        when(physical.get(0).getAutoCommit()).thenReturn(false);
+        conn.close();
+
+        verify(physical.get(0)).rollback();
+        verify(physical.get(0)).setAutoCommit(true);
+    }
+
+    @Test
+    @DisplayName("Returned lease cannot be used any more")
+    void testUseAfterClose() throws SQLException {
+        pool = new ConnectionPool(this::newPhysical, 1, 1, 100, 0, 1);
+        Connection conn = pool.borrow();
+        conn.close();
+        assertThrows(SQLException.class, conn::createStatement);
+        assertDoesNotThrow(conn::close, "Closing twice should be a no-op");
+        assertEquals(0, pool.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("Closing the pool closes every physical connection")
+    void testClosePool() throws SQLException {
+        pool = new ConnectionPool(this::newPhysical, 2, 2, 100, 0, 1);
+        Connection leased = pool.borrow();
+        pool.close();
+
+        for (Connection conn : physical) {
+            verify(conn).close();
+        }
+        assertEquals(0, pool.getTotalConnections());
+        assertThrows(SQLException.class, pool::borrow);
+        leased.close();
+    }
+}
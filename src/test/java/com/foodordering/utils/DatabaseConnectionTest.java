@@ -31,6 +31,7 @@ class DatabaseConnectionTest {
         
         try {
             assertFalse(connection.isClosed(), "Connection should be open");
+            connection.close();
         } catch (Exception e) {
             fail("Failed to check connection state: " + e.getMessage());
         }
@@ -64,5 +65,18 @@ class DatabaseConnectionTest {
     void testConnectionNotNull() {
         Connection connection = dbConnection.getConnection();
         assertNotNull(connection, "Initial connection should not be null");
+        assertDoesNotThrow(connection::close);
+    }
+
+    @Test
+    @DisplayName("Test closed connection is returned to the pool")
+    void testConnectionReturnedToPool() throws Exception {
+        Connection connection = dbConnection.getConnection();
+        int active = dbConnection.getPool().getActiveConnections();
+        connection.close();
+
+        assertTrue(connection.isClosed(), "Returned lease should report closed");
+        assertEquals(active - 1, dbConnection.getPool().getActiveConnections());
+        assertTrue(dbConnection.getPool().getIdleConnections() >= 1, "Physical connection should stay open in the pool");
     }
 }
@@ -0,0 +1,56 @@
+package com.foodordering.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the minimal JSON reader and writer.
+ */
+class JsonTest {
+
+    @Test
+    @DisplayName("Nested documents parse to maps, lists and scalars")
+    void testParse() {
+        Object parsed = Json.parse(" {\"a\": [1, 2.50, -3e2], \"b\": {\"c\": \"x\\\"y\\u00e9\\n\"}, \"d\": true, \"e\": null} ");
+
+        Map<?, ?> object = (Map<?, ?>) parsed;
+        assertEquals(List.of(new BigDecimal("1"), new BigDecimal("2.50"), new BigDecimal("-3e2")), object.get("a"));
+        assertEquals(Map.of("c", "x\"yé\n"), object.get("b"));
+        assertEquals(Boolean.TRUE, object.get("d"));
+        assertTrue(object.containsKey("e"));
+        assertNull(object.get("e"));
+        assertEquals(List.of(), Json.parse("[]"));
+    }
+
+    @Test
+    @DisplayName("Malformed documents are rejected")
+    void testParseErrors() {
+        for (String bad : new String[] {"", "{", "[1,]", "[1}", "{\"a\" 1}", "{a: 1}", "\"open", "tru", "{} x"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(bad), bad);
+        }
+    }
+
+    @Test
+    @DisplayName("Values are written as compact JSON and read back unchanged")
+    void testWriteRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "Tab\there \"quoted\" \u0001");
+        value.put("price", new BigDecimal("12.50"));
+        value.put("items", Arrays.asList(1, true, null));
+
+        String json = Json.write(value);
+
+        assertEquals("{\"name\":\"Tab\\there \\\"quoted\\\" \\u0001\",\"price\":12.50,\"items\":[1,true,null]}", json);
+        Map<?, ?> back = (Map<?, ?>) Json.parse(json);
+        assertEquals(value.get("name"), back.get("name"));
+        assertEquals(new BigDecimal("12.50"), back.get("price"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.foodordering.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StatementCache using a mocked physical connection.
+ */
+class StatementCacheTest {
+
+    private static final String MENU_SQL = "SELECT * FROM menu_items WHERE restaurant_id = ?";
+    private static final String COUPON_SQL = "SELECT * FROM coupons WHERE code = ?";
+    private static final String ORDER_SQL = "SELECT * FROM orders WHERE order_id = ?";
+
+    private Connection physical;
+    private StatementCache.Stats stats;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        physical = mock(Connection.class);
+        when(physical.prepareStatement(anyString())).thenAnswer(inv -> mock(PreparedStatement.class));
+        when(physical.prepareStatement(anyString(), anyInt())).thenAnswer(inv -> mock(PreparedStatement.class));
+        stats = new StatementCache.Stats();
+    }
+
+    @Test
+    @DisplayName("Same SQL is prepared once and reused")
+    void testReuse() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, stats);
+
+        PreparedStatement first = cache.prepare(physical, MENU_SQL);
+        first.setInt(1, 7);
+        first.close();
+        PreparedStatement second = cache.prepare(physical, MENU_SQL);
+        second.close();
+
+        verify(physical, times(1)).prepareStatement(MENU_SQL);
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits(MENU_SQL));
+        assertEquals(0.5, stats.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Closing a cached statement clears parameters instead of closing it")
+    void testCloseResetsStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, stats);
+        PreparedStatement stmt = cache.prepare(physical, ORDER_SQL);
+        stmt.close();
+
+        assertTrue(stmt.isClosed());
+        assertThrows(SQLException.class, stmt::executeQuery);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Settings changed by a borrower are restored before the next one")
+    void testSettingsRestoredOnReturn() throws SQLException {
+        PreparedStatement target = mock(PreparedStatement.class);
+        when(target.getFetchSize()).thenReturn(0);
+        when(target.getFetchDirection()).thenReturn(ResultSet.FETCH_FORWARD);
+        when(target.getMaxRows()).thenReturn(0);
+        when(target.getQueryTimeout()).thenReturn(0);
+        when(physical.prepareStatement(ORDER_SQL)).thenReturn(target);
+        StatementCache cache = new StatementCache(physical, 4, stats);
+
+        PreparedStatement stmt = cache.prepare(physical, ORDER_SQL);
+        stmt.setFetchSize(500);
+        stmt.setMaxRows(10);
+        stmt.setQueryTimeout(30);
+        stmt.close();
+
+        verify(target).setFetchSize(0);
+        verify(target).setLargeMaxRows(0);
+        verify(target).setQueryTimeout(0);
+
+        // An untouched lease does not pay for the reset
+        clearInvocations(target);
+        cache.prepare(physical, ORDER_SQL).close();
+        verify(target, never()).setFetchSize(anyInt());
+        verify(target, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    @DisplayName("Result sets are closed when the statement is returned")
+    void testResultSetClosedOnReturn() throws SQLException {
+        PreparedStatement target = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(target.executeQuery()).thenReturn(rs);
+        when(physical.prepareStatement(COUPON_SQL)).thenReturn(target);
+        StatementCache cache = new StatementCache(physical, 4, stats);
+
+        PreparedStatement stmt = cache.prepare(physical, COUPON_SQL);
+        stmt.executeQuery();
+        stmt.close();
+
+        verify(rs).close();
+        verify(target).clearParameters();
+        verify(target, never()).close();
+    }
+
+    @Test
+    @DisplayName("Least recently used statement is closed when the cache is full")
+    void testLruEviction() throws SQLException {
+        PreparedStatement menu = mock(PreparedStatement.class);
+        when(physical.prepareStatement(MENU_SQL)).thenReturn(menu);
+        StatementCache cache = new StatementCache(physical, 2, stats);
+
+        cache.prepare(physical, MENU_SQL).close();
+        cache.prepare(physical, COUPON_SQL).close();
+        cache.prepare(physical, COUPON_SQL).close();
+        cache.prepare(physical, ORDER_SQL).close();
+
+        assertEquals(2, cache.size());
+        assertEquals(1, stats.getEvictions());
+        verify(menu).close();
+    }
+
+    @Test
+    @DisplayName("Nested use of the same SQL gets a separate statement")
+    void testNestedUse() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, stats);
+
+        PreparedStatement outer = cache.prepare(physical, ORDER_SQL);
+        PreparedStatement inner = cache.prepare(physical, ORDER_SQL);
+        inner.close();
+        outer.close();
+
+        verify(physical, times(2)).prepareStatement(ORDER_SQL);
+        assertEquals(1, cache.size());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Generated-keys flag is part of the cache key")
+    void testGeneratedKeysKey() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4, stats);
+        String insert = "INSERT INTO orders (customer_id) VALUES (?)";
+
+        cache.prepare(physical, insert).close();
+        cache.prepare(physical, insert, Statement.RETURN_GENERATED_KEYS).close();
+
+        verify(physical).prepareStatement(insert);
+        verify(physical).prepareStatement(insert, Statement.RETURN_GENERATED_KEYS);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Pool routes prepareStatement through the cache and clears it on eviction")
+    void testPoolIntegration() throws SQLException {
+        when(physical.isValid(anyInt())).thenReturn(true);
+        when(physical.getAutoCommit()).thenReturn(true);
+        ConnectionPool pool = new ConnectionPool(() -> physical, 1, 1, 100, 0, 1, 8);
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = pool.borrow();
+                 PreparedStatement ps = conn.prepareStatement(MENU_SQL)) {
+                assertSame(conn, ps.getConnection());
+            }
+        }
+
+        verify(physical, times(1)).prepareStatement(MENU_SQL);
+        assertEquals(2, pool.getStatementCacheStats().getHits(MENU_SQL));
+        pool.close();
+        verify(physical).close();
+    }
+}
@@ -4,6 +4,8 @@ import com.foodordering.exceptions.ValidationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -301,4 +303,62 @@ public class ValidationUtilsTest {
             () -> ValidationUtils.validatePositiveId(-1, "User"));
         assertTrue(ex.getMessage().contains("cannot be negative"));
     }
+
+    // ========== Equivalence with the documented patterns ==========
+
+    private static final String[] EMAIL_SAMPLES = {
+        "user@example.com", "test.user@domain.co.uk", "name+tag@company.org", "a@b.cd", "a@b.c",
+        "a@.cd", "a@b..cd", "a@b.c1", "a@b.cd.", "a@b-c.de", "a@b_c.de", "a@@b.cd", "@b.cd", "a@",
+        "a b@c.de", "a@c.de\n", "\u00e9@c.de", "a@c.d\u00e9", "jane.doe@example", "x@y.zz.z", "x@y.z.zz",
+        "...@...aa", "a@-.aa", "a@1.aa", "a@b.AA", "user@exa mple.com"
+    };
+
+    @Test
+    @DisplayName("Email scan accepts exactly what the email pattern accepts")
+    void testEmailMatchesPattern() {
+        Pattern pattern = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+        for (String email : EMAIL_SAMPLES) {
+            assertEquals(pattern.matcher(email).matches(), ValidationUtils.isValidEmail(email), email);
+        }
+    }
+
+    @Test
+    @DisplayName("Username scan accepts exactly what the username pattern accepts")
+    void testUsernameMatchesPattern() {
+        Pattern pattern = Pattern.compile("^[a-zA-Z0-9_]+$");
+        String[] samples = {"john_doe", "user123", "abc", "ab-c", "ab c", "abc\n", "\u00e9tienne", "a.b.c", "___"};
+        for (String username : samples) {
+            boolean accepted;
+            try {
+                ValidationUtils.validateUsername(username);
+                accepted = true;
+            } catch (ValidationException e) {
+                accepted = false;
+            }
+            assertEquals(pattern.matcher(username).matches(), accepted, username);
+        }
+    }
+
+    @Test
+    @DisplayName("Phone scan gives the same verdict and message as the regex cleanup")
+    void testPhoneMatchesRegexCleanup() {
+        String[] samples = {"1234567890", "+1-234-567-8900", "(123) 456-7890", "12345", "123-abc-7890",
+            "1234567890123456", "+1\t234\n567\u000B8900", "123456789\u00a00", "12345678901234x", "(((1234567890)))"};
+        for (String phone : samples) {
+            String expected = null;
+            String clean = phone.replaceAll("[\\s()-]", "");
+            if (clean.length() < 10 || clean.length() > 15) {
+                expected = "Phone number must be between 10 and 15 digits";
+            } else if (!clean.matches("^[0-9+]+$")) {
+                expected = "Phone number can only contain digits and + symbol";
+            }
+            String actual = null;
+            try {
+                ValidationUtils.validatePhone(phone);
+            } catch (ValidationException e) {
+                actual = e.getMessage();
+            }
+            assertEquals(expected, actual, phone);
+        }
+    }
 }